@@ -419,6 +419,15 @@ public class MessageHandler {
             nextResponseSessionExpiredHandler = null;
             Reactive.flush();
 
+            if (Profiler.isEnabled()) {
+                Console.log("Computations run: "
+                        + Reactive.getComputationsRunInLastFlush()
+                        + ", postponed: "
+                        + Reactive.getComputationsSuspendedInLastFlush()
+                        + ", duplicate invalidations: "
+                        + Reactive.getDuplicateInvalidationsInLastFlush());
+            }
+
             lastProcessingTime = (int) (Duration.currentTimeMillis() - start);
             totalProcessingTime += lastProcessingTime;
             if (!initialMessageHandled) {
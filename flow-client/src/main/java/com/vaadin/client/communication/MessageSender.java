@@ -127,7 +127,6 @@ public class MessageSender {
         if (!csrfToken.equals(ApplicationConstants.CSRF_TOKEN_DEFAULT_VALUE)) {
             payload.put(ApplicationConstants.CSRF_TOKEN, csrfToken);
         }
-        payload.put(ApplicationConstants.RPC_INVOCATIONS, reqInvocations);
         payload.put(ApplicationConstants.SERVER_SYNC_ID,
                 registry.getMessageHandler().getLastSeenServerSyncId());
         payload.put(ApplicationConstants.CLIENT_TO_SERVER_ID,
@@ -139,6 +138,9 @@ public class MessageSender {
                 payload.put(key, value);
             }
         }
+        // Invocations last so that the server can validate the rest of the
+        // message before reading them
+        payload.put(ApplicationConstants.RPC_INVOCATIONS, reqInvocations);
 
         send(payload);
 
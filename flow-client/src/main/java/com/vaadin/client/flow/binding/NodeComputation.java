@@ -0,0 +1,74 @@
+/*
+ * Copyright 2000-2018 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.client.flow.binding;
+
+import com.vaadin.client.Command;
+import com.vaadin.client.flow.StateNode;
+import com.vaadin.client.flow.reactive.Computation;
+import com.vaadin.client.flow.reactive.Reactive;
+
+/**
+ * A computation that updates the DOM of a state node. The computation is
+ * recomputed in tree order so that parents are updated before their children,
+ * and its recomputation is postponed while the node is detached or invisible.
+ *
+ * @see Reactive#runWhenDependenciesChange(Command)
+ *
+ * @author Vaadin Ltd
+ * @since 1.3
+ */
+class NodeComputation extends Computation {
+
+    private final StateNode node;
+
+    private final Command command;
+
+    /**
+     * Creates a new computation for the given node.
+     *
+     * @param node
+     *            the node updated by the computation, not <code>null</code>
+     * @param command
+     *            the command to run whenever any dependency changes
+     */
+    NodeComputation(StateNode node, Command command) {
+        assert node != null;
+        this.node = node;
+        this.command = command;
+    }
+
+    @Override
+    protected void doRecompute() {
+        command.execute();
+    }
+
+    @Override
+    protected int getPriority() {
+        int depth = 0;
+        StateNode parent = node.getParent();
+        while (parent != null) {
+            depth++;
+            parent = parent.getParent();
+        }
+        return depth;
+    }
+
+    @Override
+    protected boolean isSuspended() {
+        return node.isUnregistered() || (node.getTree() != null
+                && !node.getTree().isVisible(node));
+    }
+}
@@ -565,11 +565,11 @@ public class SimpleElementBindingStrategy implements BindingStrategy<Element> {
     private EventRemover bindMap(int featureId, PropertyUser user,
             JsMap<String, Computation> bindings, StateNode node) {
         NodeMap map = node.getMap(featureId);
-        map.forEachProperty((property,
-                name) -> bindProperty(user, property, bindings).recompute());
+        map.forEachProperty((property, name) -> bindProperty(user, property,
+                bindings, node).recompute());
 
         return map.addPropertyAddListener(
-                e -> bindProperty(user, e.getProperty(), bindings));
+                e -> bindProperty(user, e.getProperty(), bindings, node));
     }
 
     private EventRemover bindVisibility(JsArray<EventRemover> listeners,
@@ -673,13 +673,14 @@ public class SimpleElementBindingStrategy implements BindingStrategy<Element> {
     }
 
     private static Computation bindProperty(PropertyUser user,
-            MapProperty property, JsMap<String, Computation> bindings) {
+            MapProperty property, JsMap<String, Computation> bindings,
+            StateNode node) {
         String name = property.getName();
 
         assert !bindings.has(name) : "There's already a binding for " + name;
 
-        Computation computation = Reactive
-                .runWhenDependenciesChange(() -> user.use(property));
+        Computation computation = new NodeComputation(node,
+                () -> user.use(property));
 
         bindings.set(name, computation);
 
@@ -1004,7 +1005,7 @@ public class SimpleElementBindingStrategy implements BindingStrategy<Element> {
 
     private Computation invokeWhenNodeIsConstructed(Command command,
             StateNode node) {
-        Computation computation = Reactive.runWhenDependenciesChange(command);
+        Computation computation = new NodeComputation(node, command);
         node.addUnregisterListener(event -> computation.stop());
         return computation;
     }
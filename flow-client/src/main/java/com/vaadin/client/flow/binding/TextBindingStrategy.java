@@ -21,7 +21,6 @@ import com.vaadin.client.flow.collection.JsWeakMap;
 import com.vaadin.client.flow.nodefeature.MapProperty;
 import com.vaadin.client.flow.nodefeature.NodeMap;
 import com.vaadin.client.flow.reactive.Computation;
-import com.vaadin.client.flow.reactive.Reactive;
 import com.vaadin.flow.internal.nodefeature.NodeFeatures;
 import com.vaadin.flow.internal.nodefeature.NodeProperties;
 
@@ -68,7 +67,7 @@ public class TextBindingStrategy implements BindingStrategy<Text> {
         NodeMap textMap = stateNode.getMap(NodeFeatures.TEXT_NODE);
         MapProperty textProperty = textMap.getProperty(NodeProperties.TEXT);
 
-        Computation computation = Reactive.runWhenDependenciesChange(
+        Computation computation = new NodeComputation(stateNode,
                 () -> htmlNode.setData((String) textProperty.getValue()));
 
         stateNode.addUnregisterListener(e -> unbind(stateNode, computation));
@@ -37,6 +37,10 @@ public abstract class Computation implements ReactiveValueChangeListener {
 
     private boolean stopped = false;
 
+    private boolean scheduled = false;
+
+    private boolean suspended = false;
+
     private final JsArray<EventRemover> dependencies = JsCollections.array();
 
     private JsSet<InvalidateListener> invalidateListeners = JsCollections.set();
@@ -71,7 +75,18 @@ public abstract class Computation implements ReactiveValueChangeListener {
 
     @Override
     public void onValueChange(ReactiveValueChangeEvent changeEvent) {
-        if (invalidated || stopped) {
+        if (stopped) {
+            return;
+        }
+        if (suspended) {
+            // A dependency of the suspend condition has changed
+            suspended = false;
+            clearDependencies();
+            schedule();
+            return;
+        }
+        if (invalidated) {
+            Reactive.countDuplicateInvalidation();
             return;
         }
 
@@ -84,7 +99,7 @@ public abstract class Computation implements ReactiveValueChangeListener {
         clearDependencies();
 
         if (!stopped) {
-            Reactive.addFlushListener(this::recompute);
+            schedule();
         }
 
         // Fire invalidate events
@@ -99,6 +114,51 @@ public abstract class Computation implements ReactiveValueChangeListener {
         }
     }
 
+    private void schedule() {
+        if (scheduled) {
+            Reactive.countDuplicateInvalidation();
+        } else {
+            scheduled = true;
+            Reactive.scheduleComputation(this);
+        }
+    }
+
+    /**
+     * Runs this computation as a part of a scheduled flush. A computation
+     * that is currently suspended is not recomputed, but is instead scheduled
+     * again once any value read by {@link #isSuspended()} changes.
+     *
+     * @return <code>true</code> if this computation was recomputed;
+     *         <code>false</code> if it was suspended or didn't need to be
+     *         recomputed
+     */
+    boolean runScheduled() {
+        scheduled = false;
+        if (!invalidated || stopped) {
+            return false;
+        }
+
+        Reactive.runWithComputation(this, () -> suspended = isSuspended());
+        if (suspended) {
+            return false;
+        }
+        clearDependencies();
+
+        recompute();
+        return true;
+    }
+
+    /**
+     * Checks whether the latest scheduled recomputation of this computation
+     * was postponed because the computation was suspended.
+     *
+     * @return <code>true</code> if the recomputation is postponed;
+     *         otherwise <code>false</code>
+     */
+    boolean isPostponed() {
+        return suspended;
+    }
+
     private void clearDependencies() {
         while (!dependencies.isEmpty()) {
             dependencies.remove(0).remove();
@@ -110,6 +170,7 @@ public abstract class Computation implements ReactiveValueChangeListener {
      */
     public void stop() {
         stopped = true;
+        suspended = false;
 
         invalidate();
 
@@ -138,6 +199,10 @@ public abstract class Computation implements ReactiveValueChangeListener {
      */
     public void recompute() {
         if (invalidated && !stopped) {
+            if (suspended) {
+                suspended = false;
+                clearDependencies();
+            }
             try {
                 Reactive.runWithComputation(this, this::doRecompute);
             } finally {
@@ -146,6 +211,41 @@ public abstract class Computation implements ReactiveValueChangeListener {
         }
     }
 
+    /**
+     * Gets the priority of this computation. When several invalidated
+     * computations are recomputed by {@link Reactive#flush()}, computations
+     * with a lower priority value are recomputed before computations with a
+     * higher value. Computations with the same priority are recomputed in the
+     * order in which they were invalidated.
+     * <p>
+     * The default priority is <code>0</code>. Computations bound to a state
+     * node typically use the depth of the node so that parents are updated
+     * before their children.
+     *
+     * @return the non-negative priority of this computation
+     */
+    protected int getPriority() {
+        return 0;
+    }
+
+    /**
+     * Checks whether the scheduled recomputation of this computation should
+     * be postponed, e.g. because the computation updates a node that is not
+     * visible. This method is run in a way that automatically registers
+     * dependencies to any reactive value accessed, so that the computation is
+     * scheduled again when any of those values change.
+     * <p>
+     * Postponing only applies to recomputations run by
+     * {@link Reactive#flush()}. An explicit invocation of {@link #recompute()}
+     * always recomputes an invalidated computation.
+     *
+     * @return <code>true</code> to postpone the recomputation,
+     *         <code>false</code> to recompute immediately
+     */
+    protected boolean isSuspended() {
+        return false;
+    }
+
     /**
      * Does the actual recomputation. This method is run in a way that
      * automatically registers dependencies to any reactive value accessed.
@@ -33,6 +33,14 @@ import elemental.events.EventRemover;
  * recomputed. To reduce the number of recomputations performed when many
  * dependencies are updated, the recomputation is performed lazily the next time
  * {@link #flush()} is invoked.
+ * <p>
+ * Invalidated computations are not run as individual flush listeners. They are
+ * instead collected into a queue that is processed as one flush listener, so
+ * that each computation is run at most once per batch, computations with a
+ * lower {@link Computation#getPriority() priority} are run first and
+ * {@link Computation#isSuspended() suspended} computations are skipped. The
+ * number of computations run during the latest flush is available through
+ * {@link #getComputationsRunInLastFlush()} for profiling purposes.
  *
  * @see Computation
  *
@@ -48,8 +56,24 @@ public class Reactive {
 
     private static JsSet<ReactiveValueChangeListener> eventCollectors;
 
+    private static JsArray<Computation> scheduledComputations;
+
     private static Computation currentComputation = null;
 
+    private static int flushDepth = 0;
+
+    private static int computationsRun;
+
+    private static int computationsSuspended;
+
+    private static int duplicateInvalidations;
+
+    private static int computationsRunInLastFlush;
+
+    private static int computationsSuspendedInLastFlush;
+
+    private static int duplicateInvalidationsInLastFlush;
+
     private Reactive() {
         // Only static stuff in this class
     }
@@ -95,20 +119,141 @@ public class Reactive {
      * @see #addPostFlushListener(FlushListener)
      */
     public static void flush() {
-        while (hasFlushListeners() || hasPostFlushListeners()) {
-            // Purge all flush listeners
-            while (hasFlushListeners()) {
-                FlushListener oldestListener = flushListeners.remove(0);
-                oldestListener.flush();
+        flushDepth++;
+        try {
+            while (hasFlushListeners() || hasPostFlushListeners()) {
+                // Purge all flush listeners
+                while (hasFlushListeners()) {
+                    FlushListener oldestListener = flushListeners.remove(0);
+                    oldestListener.flush();
+                }
+
+                // Purge one post flush listener, then look if there are new
+                // flush listeners to purge
+                if (hasPostFlushListeners()) {
+                    FlushListener oldestListener = postFlushListeners
+                            .remove(0);
+                    oldestListener.flush();
+                }
+            }
+        } finally {
+            flushDepth--;
+            if (flushDepth == 0) {
+                computationsRunInLastFlush = computationsRun;
+                computationsSuspendedInLastFlush = computationsSuspended;
+                duplicateInvalidationsInLastFlush = duplicateInvalidations;
+
+                computationsRun = 0;
+                computationsSuspended = 0;
+                duplicateInvalidations = 0;
+            }
+        }
+    }
+
+    /**
+     * Schedules an invalidated computation to be run during the next
+     * {@link #flush()}. The computation is responsible for not scheduling
+     * itself again before it has been run.
+     *
+     * @param computation
+     *            the computation to schedule
+     */
+    static void scheduleComputation(Computation computation) {
+        if (scheduledComputations == null
+                || scheduledComputations.isEmpty()) {
+            scheduledComputations = JsCollections.array();
+            // All computations scheduled before the listener is run are
+            // handled by the same listener
+            addFlushListener(Reactive::runScheduledComputations);
+        }
+        scheduledComputations.push(computation);
+    }
+
+    /**
+     * Records that a computation was invalidated or scheduled while it was
+     * already waiting to be run.
+     */
+    static void countDuplicateInvalidation() {
+        duplicateInvalidations++;
+    }
+
+    private static void runScheduledComputations() {
+        JsArray<Computation> computations = scheduledComputations;
+        // Computations invalidated while running this batch go to a new batch
+        scheduledComputations = null;
+        if (computations == null) {
+            return;
+        }
+
+        JsArray<JsArray<Computation>> buckets = groupByPriority(computations);
+        for (int i = 0; i < buckets.length(); i++) {
+            JsArray<Computation> bucket = buckets.get(i);
+            if (bucket == null) {
+                continue;
+            }
+            for (int j = 0; j < bucket.length(); j++) {
+                Computation computation = bucket.get(j);
+                if (computation.runScheduled()) {
+                    computationsRun++;
+                } else if (computation.isPostponed()) {
+                    computationsSuspended++;
+                }
             }
+        }
+    }
 
-            // Purge one post flush listener, then look if there are new flush
-            // listeners to purge
-            if (hasPostFlushListeners()) {
-                FlushListener oldestListener = postFlushListeners.remove(0);
-                oldestListener.flush();
+    private static JsArray<JsArray<Computation>> groupByPriority(
+            JsArray<Computation> computations) {
+        // Bucket sort keeps computations with the same priority in the order
+        // they were scheduled
+        JsArray<JsArray<Computation>> buckets = JsCollections.array();
+        for (int i = 0; i < computations.length(); i++) {
+            Computation computation = computations.get(i);
+            int priority = Math.max(0, computation.getPriority());
+            JsArray<Computation> bucket = priority < buckets.length()
+                    ? buckets.get(priority)
+                    : null;
+            if (bucket == null) {
+                bucket = JsCollections.array();
+                buckets.set(priority, bucket);
             }
+            bucket.push(computation);
         }
+        return buckets;
+    }
+
+    /**
+     * Gets the number of computations that were recomputed during the latest
+     * completed {@link #flush()}.
+     *
+     * @return the number of recomputed computations
+     */
+    public static int getComputationsRunInLastFlush() {
+        return computationsRunInLastFlush;
+    }
+
+    /**
+     * Gets the number of computations that were postponed because they were
+     * suspended during the latest completed {@link #flush()}.
+     *
+     * @see Computation#isSuspended()
+     *
+     * @return the number of postponed computations
+     */
+    public static int getComputationsSuspendedInLastFlush() {
+        return computationsSuspendedInLastFlush;
+    }
+
+    /**
+     * Gets the number of invalidations that were discarded because the
+     * computation was already waiting to be recomputed, counted from the end
+     * of the previous flush to the end of the latest completed
+     * {@link #flush()}.
+     *
+     * @return the number of discarded invalidations
+     */
+    public static int getDuplicateInvalidationsInLastFlush() {
+        return duplicateInvalidationsInLastFlush;
     }
 
     private static boolean hasPostFlushListeners() {
@@ -221,6 +366,14 @@ public class Reactive {
         eventCollectors = null;
         currentComputation = null;
         postFlushListeners = null;
+        scheduledComputations = null;
+        flushDepth = 0;
+        computationsRun = 0;
+        computationsSuspended = 0;
+        duplicateInvalidations = 0;
+        computationsRunInLastFlush = 0;
+        computationsSuspendedInLastFlush = 0;
+        duplicateInvalidationsInLastFlush = 0;
     }
 
 }
@@ -160,4 +160,89 @@ public class ReactiveTest {
                 order);
     }
 
+    @Test
+    public void computationsRunInPriorityOrder() {
+        List<String> order = new ArrayList<>();
+
+        createComputation(2, () -> order.add("grandchild"));
+        createComputation(0, () -> order.add("root"));
+        createComputation(1, () -> order.add("child1"));
+        createComputation(1, () -> order.add("child2"));
+
+        Reactive.flush();
+
+        Assert.assertEquals(
+                Arrays.asList("root", "child1", "child2", "grandchild"),
+                order);
+    }
+
+    @Test
+    public void suspendedComputation_runWhenSuspendConditionChanges() {
+        TestReactiveEventRouter visibility = new TestReactiveEventRouter();
+        boolean[] suspended = new boolean[] { true };
+
+        Computation computation = new Computation() {
+            @Override
+            protected void doRecompute() {
+                count.incrementAndGet();
+            }
+
+            @Override
+            protected boolean isSuspended() {
+                visibility.registerRead();
+                return suspended[0];
+            }
+        };
+
+        Reactive.flush();
+
+        Assert.assertEquals(0, count.get());
+        Assert.assertTrue(computation.isInvalidated());
+        Assert.assertEquals(1, Reactive.getComputationsSuspendedInLastFlush());
+
+        suspended[0] = false;
+        visibility.invalidate();
+        Reactive.flush();
+
+        Assert.assertEquals(1, count.get());
+        Assert.assertFalse(computation.isInvalidated());
+        Assert.assertEquals(1, Reactive.getComputationsRunInLastFlush());
+    }
+
+    @Test
+    public void invalidateSeveralTimes_computationRunOnce() {
+        TestReactiveEventRouter router = new TestReactiveEventRouter();
+        CountingComputation computation = new CountingComputation(router);
+
+        Reactive.flush();
+        Assert.assertEquals(1, Reactive.getComputationsRunInLastFlush());
+
+        router.invalidate();
+        router.invalidate();
+        computation.recompute();
+        router.invalidate();
+
+        Reactive.flush();
+
+        Assert.assertEquals(3, computation.getCount());
+        Assert.assertEquals(1, Reactive.getComputationsRunInLastFlush());
+        Assert.assertEquals(1,
+                Reactive.getDuplicateInvalidationsInLastFlush());
+    }
+
+    private static Computation createComputation(int priority,
+            Runnable command) {
+        return new Computation() {
+            @Override
+            protected void doRecompute() {
+                command.run();
+            }
+
+            @Override
+            protected int getPriority() {
+                return priority;
+            }
+        };
+    }
+
 }
@@ -17,6 +17,7 @@ package com.vaadin.flow.data.binder;
 
 import java.beans.PropertyDescriptor;
 
+import com.vaadin.flow.function.ValueProvider;
 import com.vaadin.flow.internal.ReflectTools;
 import com.vaadin.flow.shared.util.SharedUtil;
 
@@ -38,6 +39,13 @@ public abstract class AbstractBeanPropertyDefinition<T, V>
     private final BeanPropertySet<T> propertySet;
     private final Class<?> propertyHolderType;
 
+    /*
+     * Accessors are created lazily since creating them is relatively costly
+     * and most bean properties are never accessed through the definition.
+     */
+    private transient ValueProvider<Object, Object> readAccessor;
+    private transient Setter<Object, Object> writeAccessor;
+
     /**
      * Constructor for setting the immutable descriptor, property set and
      * property holder type used by this instance.
@@ -98,4 +106,37 @@ public abstract class AbstractBeanPropertyDefinition<T, V>
     public Class<?> getPropertyHolderType() {
         return propertyHolderType;
     }
+
+    /**
+     * Reads the value of this property from the given bean using the read
+     * method of the descriptor.
+     *
+     * @param bean
+     *            the bean to read from
+     * @return the property value
+     */
+    Object readValue(Object bean) {
+        if (readAccessor == null) {
+            readAccessor = BeanPropertyAccessors
+                    .createGetter(descriptor.getReadMethod());
+        }
+        return readAccessor.apply(bean);
+    }
+
+    /**
+     * Writes the value of this property to the given bean using the write
+     * method of the descriptor.
+     *
+     * @param bean
+     *            the bean to write to
+     * @param value
+     *            the value to write
+     */
+    void writeValue(Object bean, Object value) {
+        if (writeAccessor == null) {
+            writeAccessor = BeanPropertyAccessors
+                    .createSetter(descriptor.getWriteMethod());
+        }
+        writeAccessor.accept(bean, value);
+    }
 }
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2000-2018 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.data.binder;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import org.slf4j.LoggerFactory;
+
+import com.vaadin.flow.function.ValueProvider;
+
+/**
+ * Creates accessors for bean property read and write methods. When possible,
+ * the accessors are generated using {@link LambdaMetafactory} so that invoking
+ * them costs the same as a regular method call. Reflection is used as a
+ * fallback when the method cannot be accessed from a generated class.
+ * <p>
+ * For internal use only. May be renamed or removed in a future release.
+ *
+ * @author Vaadin Ltd
+ * @since 1.3
+ */
+final class BeanPropertyAccessors {
+
+    private BeanPropertyAccessors() {
+        // Static only
+    }
+
+    /**
+     * Creates an accessor for invoking the given read method.
+     *
+     * @param readMethod
+     *            the read method, not <code>null</code>
+     * @return a value provider that invokes the read method for the bean given
+     *         as the argument, not <code>null</code>
+     */
+    @SuppressWarnings("unchecked")
+    static ValueProvider<Object, Object> createGetter(Method readMethod) {
+        if (canGenerate(readMethod)) {
+            try {
+                MethodHandle handle = MethodHandles.publicLookup()
+                        .unreflect(readMethod);
+                CallSite site = LambdaMetafactory.metafactory(
+                        MethodHandles.lookup(), "apply",
+                        MethodType.methodType(ValueProvider.class),
+                        MethodType.methodType(Object.class, Object.class),
+                        handle, handle.type().wrap());
+                ValueProvider<Object, Object> getter = (ValueProvider<Object, Object>) site
+                        .getTarget().invoke();
+                Class<?> beanType = readMethod.getDeclaringClass();
+                return bean -> {
+                    if (!beanType.isInstance(bean)) {
+                        // Let reflection report the error as it always has
+                        return invokeWrapExceptions(readMethod, bean);
+                    }
+                    try {
+                        return getter.apply(bean);
+                    } catch (Throwable e) {
+                        // Also catches checked exceptions declared by the
+                        // accessor method
+                        throw wrap(e);
+                    }
+                };
+            } catch (Throwable e) {
+                logFallback(readMethod, e);
+            }
+        }
+        return bean -> invokeWrapExceptions(readMethod, bean);
+    }
+
+    /**
+     * Creates an accessor for invoking the given write method.
+     *
+     * @param writeMethod
+     *            the write method, not <code>null</code>
+     * @return a setter that invokes the write method for the bean and the value
+     *         given as the arguments, not <code>null</code>
+     */
+    @SuppressWarnings("unchecked")
+    static Setter<Object, Object> createSetter(Method writeMethod) {
+        if (canGenerate(writeMethod)) {
+            try {
+                MethodHandle handle = MethodHandles.publicLookup()
+                        .unreflect(writeMethod);
+                CallSite site = LambdaMetafactory.metafactory(
+                        MethodHandles.lookup(), "accept",
+                        MethodType.methodType(Setter.class),
+                        MethodType.methodType(void.class, Object.class,
+                                Object.class),
+                        handle, handle.type().wrap().changeReturnType(
+                                void.class));
+                Setter<Object, Object> setter = (Setter<Object, Object>) site
+                        .getTarget().invoke();
+                Class<?> beanType = writeMethod.getDeclaringClass();
+                Class<?> valueType = writeMethod.getParameterTypes()[0];
+                Class<?> boxedValueType = handle.type().wrap()
+                        .parameterType(1);
+                return (bean, value) -> {
+                    if (!beanType.isInstance(bean) || (value == null
+                            ? valueType.isPrimitive()
+                            : !boxedValueType.isInstance(value))) {
+                        // Let reflection report the error as it always has
+                        invokeWrapExceptions(writeMethod, bean, value);
+                        return;
+                    }
+                    try {
+                        setter.accept(bean, value);
+                    } catch (Throwable e) {
+                        // Also catches checked exceptions declared by the
+                        // accessor method
+                        throw wrap(e);
+                    }
+                };
+            } catch (Throwable e) {
+                logFallback(writeMethod, e);
+            }
+        }
+        return (bean, value) -> invokeWrapExceptions(writeMethod, bean, value);
+    }
+
+    /**
+     * Checks whether a class generated in the context of this class is able
+     * to link to the given method: the method and its declaring class must be
+     * public and the declaring class must be visible through the class loader
+     * of this class.
+     */
+    private static boolean canGenerate(Method method) {
+        Class<?> declaringClass = method.getDeclaringClass();
+        if (!Modifier.isPublic(method.getModifiers())
+                || Modifier.isStatic(method.getModifiers())) {
+            return false;
+        }
+        for (Class<?> type = declaringClass; type != null; type = type
+                .getEnclosingClass()) {
+            if (!Modifier.isPublic(type.getModifiers())) {
+                return false;
+            }
+        }
+        try {
+            return Class.forName(declaringClass.getName(), false,
+                    BeanPropertyAccessors.class
+                            .getClassLoader()) == declaringClass;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /*
+     * Anything thrown by the accessor method itself is wrapped the same way as
+     * when the method is invoked through reflection.
+     */
+    private static RuntimeException wrap(Throwable throwable) {
+        return new RuntimeException(new InvocationTargetException(throwable));
+    }
+
+    private static Object invokeWrapExceptions(Method method, Object target,
+            Object... parameters) {
+        try {
+            return method.invoke(target, parameters);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void logFallback(Method method, Throwable throwable) {
+        LoggerFactory.getLogger(BeanPropertyAccessors.class.getName()).debug(
+                "Using reflection for invoking {}", method, throwable);
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2000-2018 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.data.provider;
+
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.stream.Stream;
+
+/**
+ * Abstract base class for implementing asynchronous back end data providers.
+ *
+ * @param <T>
+ *            data provider data type
+ * @param <F>
+ *            data provider filter type
+ * @since 1.3
+ */
+public abstract class AbstractAsyncDataProvider<T, F>
+        extends AbstractBackEndDataProvider<T, F>
+        implements AsyncDataProvider<T, F> {
+
+    @Override
+    public CompletionStage<List<T>> fetchAsync(Query<T, F> query) {
+        return fetchFromBackEndAsync(mixInSortOrders(query));
+    }
+
+    @Override
+    public CompletionStage<Integer> sizeAsync(Query<T, F> query) {
+        return sizeInBackEndAsync(mixInSortOrders(query));
+    }
+
+    @Override
+    protected Stream<T> fetchFromBackEnd(Query<T, F> query) {
+        return fetchFromBackEndAsync(query).toCompletableFuture().join()
+                .stream();
+    }
+
+    @Override
+    protected int sizeInBackEnd(Query<T, F> query) {
+        return sizeInBackEndAsync(query).toCompletableFuture().join()
+                .intValue();
+    }
+
+    /**
+     * Fetches data from the back end using the given query without blocking
+     * the calling thread.
+     *
+     * @param query
+     *            the query that defines sorting, filtering and paging for
+     *            fetching the data
+     * @return a completion stage completed with the items matching the query
+     */
+    protected abstract CompletionStage<List<T>> fetchFromBackEndAsync(
+            Query<T, F> query);
+
+    /**
+     * Counts the number of items available in the back end without blocking
+     * the calling thread.
+     *
+     * @param query
+     *            the query that defines filtering to be used for counting the
+     *            number of items
+     * @return a completion stage completed with the number of available items
+     */
+    protected abstract CompletionStage<Integer> sizeInBackEndAsync(
+            Query<T, F> query);
+}
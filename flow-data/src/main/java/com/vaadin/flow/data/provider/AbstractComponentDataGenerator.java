@@ -15,6 +15,7 @@
  */
 package com.vaadin.flow.data.provider;
 
+import java.util.ArrayDeque;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -37,6 +38,10 @@ public abstract class AbstractComponentDataGenerator<T>
 
     private final Map<String, Component> renderedComponents = new HashMap<>();
 
+    // Components no longer used for any item, kept attached for recycling
+    private final ArrayDeque<Component> componentPool = new ArrayDeque<>();
+    private int componentPoolSize;
+
     @Override
     public void refreshData(T item) {
         String itemKey = getItemKey(item);
@@ -58,17 +63,56 @@ public abstract class AbstractComponentDataGenerator<T>
         String itemKey = getItemKey(item);
         Component renderedComponent = renderedComponents.remove(itemKey);
         if (renderedComponent != null) {
-            renderedComponent.getElement().removeFromParent();
+            recycleComponent(renderedComponent);
         }
     }
 
     @Override
     public void destroyAllData() {
-        renderedComponents.values().forEach(
-                component -> component.getElement().removeFromParent());
+        renderedComponents.values().forEach(this::recycleComponent);
         renderedComponents.clear();
     }
 
+    /**
+     * Sets the maximum number of components that are kept for recycling once
+     * the items they were rendered for are no longer needed. The default is
+     * {@code 0}, which means that components are always discarded and new
+     * components are created for new items.
+     * <p>
+     * Recycled components stay attached to the container, and are reused for
+     * new items through {@link #updateComponent(Component, Object)}. Pooling
+     * should only be enabled when that method can update a component that
+     * previously rendered a different item in place. This avoids creating new
+     * components and state nodes, and the related changes sent to the client,
+     * for example when scrolling.
+     *
+     * @param componentPoolSize
+     *            the maximum number of components to keep for recycling, not
+     *            negative
+     * @since 1.3
+     */
+    public void setComponentPoolSize(int componentPoolSize) {
+        if (componentPoolSize < 0) {
+            throw new IllegalArgumentException(
+                    "The component pool size cannot be negative");
+        }
+        this.componentPoolSize = componentPoolSize;
+        while (componentPool.size() > componentPoolSize) {
+            componentPool.poll().getElement().removeFromParent();
+        }
+    }
+
+    /**
+     * Gets the maximum number of components that are kept for recycling.
+     *
+     * @return the maximum number of components to keep for recycling
+     * @see #setComponentPoolSize(int)
+     * @since 1.3
+     */
+    public int getComponentPoolSize() {
+        return componentPoolSize;
+    }
+
     /**
      * Gets the element where the generated components will be attached to.
      * 
@@ -112,6 +156,28 @@ public abstract class AbstractComponentDataGenerator<T>
      */
     protected abstract String getItemKey(T item);
 
+    /**
+     * Gets a component for a new item. A recycled component is updated for
+     * the item if one is available, otherwise a new component is created via
+     * {@link #createComponent(Object)}.
+     *
+     * @param item
+     *            the data item, possibly <code>null</code>
+     * @return a {@link Component} which represents the provided item
+     * @since 1.3
+     */
+    protected Component createOrRecycleComponent(T item) {
+        Component recycled = componentPool.poll();
+        if (recycled == null) {
+            return createComponent(item);
+        }
+        Component component = updateComponent(recycled, item);
+        if (component != recycled) {
+            recycled.getElement().removeFromParent();
+        }
+        return component;
+    }
+
     /**
      * Appends the component to the container and registers it for future use
      * during the lifecycle of the generator.
@@ -125,7 +191,10 @@ public abstract class AbstractComponentDataGenerator<T>
             Component component) {
 
         Element element = component.getElement();
-        getContainer().appendChild(element);
+        if (!getContainer().equals(element.getParent())) {
+            // Recycled components are already attached
+            getContainer().appendChild(element);
+        }
         renderedComponents.put(itemKey, component);
     }
 
@@ -133,4 +202,14 @@ public abstract class AbstractComponentDataGenerator<T>
         return renderedComponents.get(itemKey);
     }
 
+    private void recycleComponent(Component component) {
+        if (componentPool.size() < componentPoolSize
+                && getContainer() != null && getContainer()
+                        .equals(component.getElement().getParent())) {
+            componentPool.add(component);
+        } else {
+            component.getElement().removeFromParent();
+        }
+    }
+
 }
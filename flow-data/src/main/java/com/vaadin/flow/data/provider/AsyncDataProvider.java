@@ -0,0 +1,84 @@
+/*
+ * Copyright 2000-2018 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.data.provider;
+
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.stream.Stream;
+
+/**
+ * A data provider that loads items from a back end without blocking the
+ * calling thread. The results are delivered through {@link CompletionStage}s
+ * that are completed once the back end has responded.
+ * <p>
+ * {@link DataCommunicator} releases the session lock while waiting for the
+ * results and applies them using {@link com.vaadin.flow.component.UI#access}
+ * once available, which means that server push should be enabled for the
+ * results to be shown without waiting for the next request from the client.
+ * The completion stages are completed in some other thread, so they must not
+ * touch any UI state.
+ * <p>
+ * The blocking {@link #fetch(Query)} and {@link #size(Query)} methods are
+ * implemented by waiting for the asynchronous results, so that the data
+ * provider can also be used with components that do not support asynchronous
+ * loading.
+ *
+ * @param <T>
+ *            data provider data type
+ * @param <F>
+ *            data provider filter type
+ * @see AbstractAsyncDataProvider
+ * @since 1.3
+ */
+public interface AsyncDataProvider<T, F> extends BackEndDataProvider<T, F> {
+
+    /**
+     * Fetches data from this data provider using given {@code query} without
+     * blocking the calling thread.
+     * <p>
+     * The data provider may stop the fetch if the returned completion stage
+     * gets cancelled.
+     *
+     * @param query
+     *            given query to request data
+     * @return a completion stage completed with the list of data objects
+     *         resulting from the query
+     */
+    CompletionStage<List<T>> fetchAsync(Query<T, F> query);
+
+    /**
+     * Gets the amount of data in this data provider without blocking the
+     * calling thread.
+     * <p>
+     * The data provider may stop the counting if the returned completion stage
+     * gets cancelled.
+     *
+     * @param query
+     *            query with sorting and filtering
+     * @return a completion stage completed with the size of the data provider
+     */
+    CompletionStage<Integer> sizeAsync(Query<T, F> query);
+
+    @Override
+    default Stream<T> fetch(Query<T, F> query) {
+        return fetchAsync(query).toCompletableFuture().join().stream();
+    }
+
+    @Override
+    default int size(Query<T, F> query) {
+        return sizeAsync(query).toCompletableFuture().join().intValue();
+    }
+}
@@ -42,6 +42,8 @@ import elemental.json.JsonValue;
  */
 public class BeanDataGenerator<T> implements DataGenerator<T> {
 
+    private boolean threadSafe;
+
     @Override
     public void generateData(T item, JsonObject data) {
         JsonValue value = JsonSerializer.toJson(item);
@@ -55,4 +57,28 @@ public class BeanDataGenerator<T> implements DataGenerator<T> {
         }
     }
 
+    /**
+     * Sets whether the beans can be serialized concurrently from multiple
+     * threads. Serializing calls the getters of the beans without the session
+     * lock and without any current instances being available, so this should
+     * only be enabled if all getters are safe to call in that way. Getters
+     * that e.g. load lazy JPA associations typically aren't. By default, beans
+     * are not serialized concurrently.
+     *
+     * @see DataGenerator#isThreadSafe()
+     *
+     * @param threadSafe
+     *            <code>true</code> to allow serializing beans concurrently,
+     *            <code>false</code> otherwise
+     * @since 1.3
+     */
+    public void setThreadSafe(boolean threadSafe) {
+        this.threadSafe = threadSafe;
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+        return threadSafe;
+    }
+
 }
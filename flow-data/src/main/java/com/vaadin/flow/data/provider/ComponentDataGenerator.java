@@ -76,7 +76,7 @@ public class ComponentDataGenerator<T>
         if (oldRenderedComponent != null) {
             nodeId = oldRenderedComponent.getElement().getNode().getId();
         } else {
-            Component renderedComponent = createComponent(item);
+            Component renderedComponent = createOrRecycleComponent(item);
             registerRenderedComponent(itemKey, renderedComponent);
 
             nodeId = renderedComponent.getElement().getNode().getId();
@@ -62,6 +62,11 @@ public class CompositeDataGenerator<T>
         dataGenerators.forEach(generator -> generator.refreshData(item));
     }
 
+    @Override
+    public boolean isThreadSafe() {
+        return dataGenerators.stream().allMatch(DataGenerator::isThreadSafe);
+    }
+
     @Override
     public Registration addDataGenerator(DataGenerator<T> generator) {
         assert generator != null : "generator should not be null";
@@ -22,8 +22,15 @@ import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
@@ -35,6 +42,7 @@ import com.vaadin.flow.data.provider.ArrayUpdater.Update;
 import com.vaadin.flow.data.provider.DataChangeEvent.DataRefreshEvent;
 import com.vaadin.flow.function.SerializableComparator;
 import com.vaadin.flow.function.SerializableConsumer;
+import com.vaadin.flow.function.ValueProvider;
 import com.vaadin.flow.internal.ExecutionContext;
 import com.vaadin.flow.internal.JsonUtils;
 import com.vaadin.flow.internal.Range;
@@ -57,6 +65,9 @@ import elemental.json.JsonValue;
  *
  */
 public class DataCommunicator<T> implements Serializable {
+    // Smallest number of rows for which generating in parallel pays off
+    private static final int PARALLEL_GENERATION_THRESHOLD = 50;
+
     private final DataGenerator<T> dataGenerator;
     private final ArrayUpdater arrayUpdater;
     private final SerializableConsumer<JsonArray> dataUpdater;
@@ -101,6 +112,88 @@ public class DataCommunicator<T> implements Serializable {
     private SerializableConsumer<ExecutionContext> flushRequest;
     private SerializableConsumer<ExecutionContext> flushUpdatedDataRequest;
 
+    // Fetch from an AsyncDataProvider that hasn't yet completed
+    private transient AsyncFetch pendingFetch;
+    // Results from an AsyncDataProvider that haven't yet been flushed
+    private FetchedData<T> fetchedData;
+
+    // Versions used for reusing generated JSON, null if not in use
+    private ValueProvider<T, Object> itemVersionProvider;
+    // Generated JSON by item key, only used with an item version provider
+    private transient HashMap<String, CachedJson> jsonCache;
+
+    // Pool for generating rows in parallel, null to generate sequentially
+    private transient ForkJoinPool jsonGenerationPool;
+
+    /**
+     * JSON generated for an item together with the item version it was
+     * generated for.
+     */
+    private static class CachedJson {
+        private final Object version;
+        private final JsonObject json;
+
+        private CachedJson(Object version, JsonObject json) {
+            this.version = version;
+            this.json = json;
+        }
+    }
+
+    /**
+     * Results of fetching items from an {@link AsyncDataProvider} for a
+     * specific requested range.
+     */
+    private static class FetchedData<T> implements Serializable {
+        private final Range requestedRange;
+        // -1 if the size wasn't fetched
+        private final int size;
+        private final Map<Range, List<T>> items = new HashMap<>();
+
+        private FetchedData(Range requestedRange, int size) {
+            this.requestedRange = requestedRange;
+            this.size = size;
+        }
+
+        private List<T> getItems(Range requested) {
+            for (Map.Entry<Range, List<T>> entry : items.entrySet()) {
+                Range range = entry.getKey();
+                List<T> list = entry.getValue();
+                if (requested.isSubsetOf(range)) {
+                    return list.subList(
+                            Math.min(requested.getStart() - range.getStart(),
+                                    list.size()),
+                            Math.min(requested.getEnd() - range.getStart(),
+                                    list.size()));
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * The completion stages of an ongoing fetch from an
+     * {@link AsyncDataProvider}, kept for cancelling the fetch.
+     */
+    private static class AsyncFetch {
+        private final List<CompletableFuture<?>> stages = new ArrayList<>();
+        private boolean cancelled;
+
+        private synchronized <S> CompletableFuture<S> add(
+                CompletionStage<S> stage) {
+            CompletableFuture<S> future = stage.toCompletableFuture();
+            stages.add(future);
+            if (cancelled) {
+                future.cancel(true);
+            }
+            return future;
+        }
+
+        private synchronized void cancel() {
+            cancelled = true;
+            stages.forEach(stage -> stage.cancel(true));
+        }
+    }
+
     private static class SizeVerifier<T> implements Consumer<T>, Serializable {
 
         private int size;
@@ -159,7 +252,12 @@ public class DataCommunicator<T> implements Serializable {
      *            the end of the requested range
      */
     public void setRequestedRange(int start, int length) {
-        requestedRange = Range.withLength(start, length);
+        Range range = Range.withLength(start, length);
+        if (!range.equals(requestedRange)) {
+            // Results for the old range are no longer needed
+            cancelAsyncFetch();
+        }
+        requestedRange = range;
 
         requestFlush();
     }
@@ -170,6 +268,7 @@ public class DataCommunicator<T> implements Serializable {
      * It effectively resends all available data.
      */
     public void reset() {
+        cancelAsyncFetch();
         resendEntireRange = true;
         dataGenerator.destroyAllData();
         updatedData.clear();
@@ -187,6 +286,9 @@ public class DataCommunicator<T> implements Serializable {
                 "DataCommunicator can not refresh null object");
         getKeyMapper().refresh(data);
         dataGenerator.refreshData(data);
+        if (jsonCache != null && getKeyMapper().has(data)) {
+            jsonCache.remove(getKeyMapper().key(data));
+        }
         updatedData.add(data);
         requestFlushUpdatedData();
     }
@@ -241,6 +343,7 @@ public class DataCommunicator<T> implements Serializable {
 
         reset();
         getKeyMapper().removeAll();
+        jsonCache = null;
 
         this.dataProvider = dataProvider;
 
@@ -261,6 +364,79 @@ public class DataCommunicator<T> implements Serializable {
         };
     }
 
+    /**
+     * Sets a provider for the versions of items, which enables reusing the
+     * JSON generated for items that are sent to the client multiple times.
+     * <p>
+     * The JSON generated for an item is kept as long as the item is active on
+     * the client side. It is reused when the item is sent again, for example
+     * after {@link #reset()} or when sorting or filtering changes, as long as
+     * the version of the item is still equal to the version the JSON was
+     * generated for. {@link #refresh(Object)} always discards the JSON of the
+     * refreshed item.
+     * <p>
+     * The version provider should only be used when the data generators
+     * produce the data solely from the item itself. Generators that keep
+     * state for each item, such as component renderers, need to generate the
+     * data again after their data has been destroyed.
+     *
+     * @param itemVersionProvider
+     *            the provider of item versions, or {@code null} to always
+     *            generate the JSON of items again
+     * @since 1.3
+     */
+    public void setItemVersionProvider(
+            ValueProvider<T, Object> itemVersionProvider) {
+        this.itemVersionProvider = itemVersionProvider;
+        jsonCache = null;
+    }
+
+    /**
+     * Gets the provider for the versions of items used for reusing generated
+     * JSON.
+     *
+     * @return the provider of item versions, or {@code null} if generated
+     *         JSON is not reused
+     * @see #setItemVersionProvider(ValueProvider)
+     * @since 1.3
+     */
+    public ValueProvider<T, Object> getItemVersionProvider() {
+        return itemVersionProvider;
+    }
+
+    /**
+     * Sets the pool used for generating the JSON of items in parallel.
+     * <p>
+     * Rows are only generated in parallel when a large enough number of items
+     * is sent at once and the data generator of this communicator declares
+     * itself thread safe, see {@link DataGenerator#isThreadSafe()}. Otherwise
+     * the rows are generated sequentially on the current thread. The order of
+     * the items is preserved in both cases. The parallelism of the pool
+     * limits the number of threads used by each generation.
+     * <p>
+     * The pool is not serialized with this communicator.
+     *
+     * @param jsonGenerationPool
+     *            the pool to generate rows in, or {@code null} to always
+     *            generate rows sequentially
+     * @since 1.3
+     */
+    public void setJsonGenerationPool(ForkJoinPool jsonGenerationPool) {
+        this.jsonGenerationPool = jsonGenerationPool;
+    }
+
+    /**
+     * Gets the pool used for generating the JSON of items in parallel.
+     *
+     * @return the pool to generate rows in, or {@code null} if rows are
+     *         always generated sequentially
+     * @see #setJsonGenerationPool(ForkJoinPool)
+     * @since 1.3
+     */
+    public ForkJoinPool getJsonGenerationPool() {
+        return jsonGenerationPool;
+    }
+
     /**
      * Gets the {@link DataKeyMapper} used by this {@link DataCommunicator}. Key
      * mapper can be used to map keys sent to the client-side back to their
@@ -336,6 +512,23 @@ public class DataCommunicator<T> implements Serializable {
         return getDataProvider().size(new Query(getFilter()));
     }
 
+    /**
+     * Getter method for finding the size of an {@link AsyncDataProvider}
+     * without blocking. This is the asynchronous counterpart of
+     * {@link #getDataProviderSize()} and should be overridden together with
+     * it. The method is called while holding the session lock, but the
+     * returned stage may be completed in any thread.
+     *
+     * @return a completion stage completed with the size of the data provider
+     *         with current filter
+     * @since 1.3
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    protected CompletionStage<Integer> getDataProviderSizeAsync() {
+        return ((AsyncDataProvider) getDataProvider())
+                .sizeAsync(new Query(getFilter()));
+    }
+
     /**
      * Get the object used for filtering in this data communicator.
      *
@@ -382,6 +575,31 @@ public class DataCommunicator<T> implements Serializable {
         return stream;
     }
 
+    /**
+     * Fetches a list of items from an {@link AsyncDataProvider} without
+     * blocking. This is the asynchronous counterpart of
+     * {@link #fetchFromProvider(int, int)} and should be overridden together
+     * with it. The method is called while holding the session lock, but the
+     * returned stage may be completed in any thread.
+     *
+     * @param offset
+     *            the starting index of the range
+     * @param limit
+     *            the max number of results
+     * @return a completion stage completed with the list of items in given
+     *         range
+     * @since 1.3
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    protected CompletionStage<List<T>> fetchFromProviderAsync(int offset,
+            int limit) {
+        // Copy the sorting since the query may be used in another thread
+        return ((AsyncDataProvider) getDataProvider())
+                .fetchAsync(new Query(offset, limit,
+                        new ArrayList<>(backEndSorting), inMemorySorting,
+                        filter));
+    }
+
     private String getInvalidContractMessage(String method) {
         return String.format("The data provider hasn't ever called %s() "
                 + "method on the provided query. "
@@ -404,6 +622,7 @@ public class DataCommunicator<T> implements Serializable {
     }
 
     private void handleDetach() {
+        cancelAsyncFetch();
         dataGenerator.destroyAllData();
         if (dataProviderUpdateRegistration != null) {
             dataProviderUpdateRegistration.remove();
@@ -438,10 +657,20 @@ public class DataCommunicator<T> implements Serializable {
     }
 
     private void flush() {
+        if (getDataProvider() instanceof AsyncDataProvider
+                && !isFetchedDataAvailable() && isDataNeeded()) {
+            fetchAsync();
+            if (!isFetchedDataAvailable()) {
+                // Flush again once the data has been fetched
+                return;
+            }
+        }
+
         Set<String> oldActive = new HashSet<>(activeKeyOrder);
 
         if (resendEntireRange) {
-            assumedSize = getDataProviderSize();
+            assumedSize = fetchedData != null ? fetchedData.size
+                    : getDataProviderSize();
         }
 
         final Range previousActive = Range.withLength(activeStart,
@@ -472,13 +701,166 @@ public class DataCommunicator<T> implements Serializable {
 
         // Phase 4: unregister passivated and updated items
         unregisterPassivatedKeys();
+
+        fetchedData = null;
+    }
+
+    private boolean isFetchedDataAvailable() {
+        return fetchedData != null
+                && fetchedData.requestedRange.equals(requestedRange)
+                && (!resendEntireRange || fetchedData.size >= 0);
+    }
+
+    /**
+     * Checks whether flushing needs any items or the size from the data
+     * provider.
+     */
+    private boolean isDataNeeded() {
+        if (resendEntireRange || assumeEmptyClient) {
+            return true;
+        }
+        Range previousActive = Range.withLength(activeStart,
+                activeKeyOrder.size());
+        return !previousActive.equals(
+                requestedRange.restrictTo(Range.withLength(0, assumedSize)));
+    }
+
+    /**
+     * Starts fetching the size, if needed, and the requested items from the
+     * asynchronous data provider. Once the results are available, they are
+     * stored and a new flush is requested while holding the session lock.
+     */
+    private void fetchAsync() {
+        if (pendingFetch != null) {
+            // Already fetching the data for the current state
+            return;
+        }
+        AsyncFetch fetch = new AsyncFetch();
+        pendingFetch = fetch;
+
+        Range requested = requestedRange;
+        if (resendEntireRange) {
+            whenFetched(fetch, fetch.add(getDataProviderSizeAsync()),
+                    size -> fetchItemsAsync(fetch, requested,
+                            size.intValue()));
+        } else {
+            fetchItemsAsync(fetch, requested, -1);
+        }
+    }
+
+    /**
+     * Starts fetching the items that the client doesn't yet have from the
+     * asynchronous data provider. Must be called while holding the session
+     * lock.
+     */
+    private void fetchItemsAsync(AsyncFetch fetch, Range requested,
+            int fetchedSize) {
+        FetchedData<T> data = new FetchedData<>(requested, fetchedSize);
+        Range effective = requested.restrictTo(Range.withLength(0,
+                fetchedSize >= 0 ? fetchedSize : assumedSize));
+        Range previousActive = Range.withLength(activeStart,
+                activeKeyOrder.size());
+
+        List<Range> ranges = new ArrayList<>();
+        if (resendEntireRange || assumeEmptyClient
+                || !previousActive.intersects(effective)) {
+            ranges.add(effective);
+        } else {
+            // Only fetch what the client doesn't have yet
+            withMissing(effective, previousActive, ranges::add);
+        }
+        CompletableFuture<?>[] fetches = ranges.stream()
+                .filter(range -> !range.isEmpty())
+                .map(range -> fetch
+                        .add(fetchFromProviderAsync(range.getStart(),
+                                range.length()))
+                        .thenAccept(items -> {
+                            items.forEach(
+                                    new SizeVerifier<>(range.length()));
+                            synchronized (data) {
+                                data.items.put(range, items);
+                            }
+                        }))
+                .toArray(CompletableFuture[]::new);
+
+        whenFetched(fetch, CompletableFuture.allOf(fetches), ignore -> {
+            pendingFetch = null;
+            fetchedData = data;
+            requestFlush();
+        });
+    }
+
+    /**
+     * Runs the given action while holding the session lock once the given
+     * stage of the fetch has completed, unless the fetch has been cancelled
+     * in the meantime. Must be called while holding the session lock.
+     */
+    private <S> void whenFetched(AsyncFetch fetch, CompletableFuture<S> stage,
+            SerializableConsumer<S> action) {
+        if (stage.isDone()) {
+            /*
+             * Apply right away so that a flush in progress can use the result
+             * instead of waiting for UI.access, which would only run after
+             * the response has been written.
+             */
+            S result = null;
+            Throwable throwable = null;
+            try {
+                result = stage.join();
+            } catch (CompletionException | CancellationException e) {
+                throwable = e;
+            }
+            onFetched(fetch, result, throwable, action);
+            return;
+        }
+        stateNode.runWhenAttached(ui -> stage
+                .whenComplete((result, throwable) -> ui.access(
+                        () -> onFetched(fetch, result, throwable, action))));
+    }
+
+    private <S> void onFetched(AsyncFetch fetch, S result, Throwable throwable,
+            SerializableConsumer<S> action) {
+        if (pendingFetch != fetch) {
+            // Cancelled, not interested in the result anymore
+            return;
+        }
+        if (throwable != null) {
+            pendingFetch = null;
+            handleAsyncFetchFailure(throwable);
+        } else {
+            action.accept(result);
+        }
+    }
+
+    private void handleAsyncFetchFailure(Throwable throwable) {
+        Throwable cause = throwable instanceof CompletionException
+                && throwable.getCause() != null ? throwable.getCause()
+                        : throwable;
+        if (!(cause instanceof CancellationException)) {
+            LoggerFactory.getLogger(DataCommunicator.class.getName()).error(
+                    "Fetching items from data provider {} failed",
+                    getDataProvider().getClass().getName(), cause);
+        }
+
+        // Answer the client with an empty result instead of leaving it waiting
+        fetchedData = new FetchedData<>(requestedRange, 0);
+        resendEntireRange = true;
+        requestFlush();
+    }
+
+    private void cancelAsyncFetch() {
+        if (pendingFetch != null) {
+            pendingFetch.cancel();
+            pendingFetch = null;
+        }
+        fetchedData = null;
     }
 
     private void flushUpdatedData() {
         if (updatedData.isEmpty()) {
             return;
         }
-        dataUpdater.accept(updatedData.stream().map(this::generateJson)
+        dataUpdater.accept(generateJson(new ArrayList<>(updatedData)).stream()
                 .collect(JsonUtils.asArray()));
         updatedData.clear();
     }
@@ -503,6 +885,9 @@ public class DataCommunicator<T> implements Serializable {
                     dataGenerator.destroyData(item);
                     keyMapper.remove(item);
                 }
+                if (jsonCache != null) {
+                    jsonCache.remove(key);
+                }
             });
         }
     }
@@ -595,8 +980,8 @@ public class DataCommunicator<T> implements Serializable {
     private List<JsonValue> getJsonItems(Range range) {
         return range.stream()
                 .mapToObj(index -> activeKeyOrder.get(index - activeStart))
-                .map(keyMapper::get).map(this::generateJson)
-                .collect(Collectors.toList());
+                .map(keyMapper::get).collect(Collectors.collectingAndThen(
+                        Collectors.toList(), this::generateJson));
     }
 
     private static final void withMissing(Range expected, Range actual,
@@ -621,7 +1006,11 @@ public class DataCommunicator<T> implements Serializable {
 
         // XXX Explicitly refresh anything that is updated
         List<String> activeKeys = new ArrayList<>(range.length());
-        fetchFromProvider(range.getStart(), range.length()).forEach(bean -> {
+        List<T> fetchedItems = fetchedData == null ? null
+                : fetchedData.getItems(range);
+        Stream<T> items = fetchedItems != null ? fetchedItems.stream()
+                : fetchFromProvider(range.getStart(), range.length());
+        items.forEach(bean -> {
             boolean mapperHasKey = keyMapper.has(bean);
             String key = keyMapper.key(bean);
             if (mapperHasKey) {
@@ -635,10 +1024,70 @@ public class DataCommunicator<T> implements Serializable {
         return activeKeys;
     }
 
+    private List<JsonValue> generateJson(List<T> items) {
+        if (jsonGenerationPool == null
+                || items.size() < PARALLEL_GENERATION_THRESHOLD
+                || !dataGenerator.isThreadSafe()) {
+            return items.stream().map(this::generateJson)
+                    .collect(Collectors.toList());
+        }
+
+        // Key mapper and cache are not thread safe, only generate in parallel
+        List<JsonValue> result = new ArrayList<>(items.size());
+        List<Integer> missing = new ArrayList<>();
+        for (T item : items) {
+            String key = getKeyMapper().key(item);
+            JsonObject json = getCachedJson(key, item);
+            if (json == null) {
+                json = Json.createObject();
+                json.put("key", key);
+                missing.add(result.size());
+            }
+            result.add(json);
+        }
+        jsonGenerationPool.invoke(ForkJoinTask.adapt(() -> missing
+                .parallelStream()
+                .forEach(index -> dataGenerator.generateData(items.get(index),
+                        (JsonObject) result.get(index)))));
+        missing.forEach(index -> {
+            JsonObject json = (JsonObject) result.get(index);
+            cacheJson(json.getString("key"), items.get(index), json);
+        });
+        return result;
+    }
+
     private JsonValue generateJson(T item) {
-        JsonObject json = Json.createObject();
-        json.put("key", getKeyMapper().key(item));
-        dataGenerator.generateData(item, json);
+        String key = getKeyMapper().key(item);
+        JsonObject json = getCachedJson(key, item);
+        if (json == null) {
+            json = Json.createObject();
+            json.put("key", key);
+            dataGenerator.generateData(item, json);
+            cacheJson(key, item, json);
+        }
         return json;
     }
+
+    private JsonObject getCachedJson(String key, T item) {
+        if (itemVersionProvider == null || jsonCache == null) {
+            return null;
+        }
+        CachedJson cached = jsonCache.get(key);
+        if (cached == null || !Objects.equals(cached.version,
+                itemVersionProvider.apply(item))) {
+            return null;
+        }
+        return cached.json;
+    }
+
+    private void cacheJson(String key, T item, JsonObject json) {
+        if (itemVersionProvider == null) {
+            return;
+        }
+        if (jsonCache == null) {
+            jsonCache = new HashMap<>();
+        }
+        jsonCache.put(key,
+                new CachedJson(itemVersionProvider.apply(item), json));
+    }
 }
@@ -71,4 +71,21 @@ public interface DataGenerator<T> extends Serializable {
      */
     default void refreshData(T item) {
     }
+
+    /**
+     * Checks whether this {@code DataGenerator} can generate data for
+     * different items concurrently from multiple threads. A thread safe
+     * generator must not modify any shared state, such as the state tree, in
+     * {@link #generateData(Object, JsonObject)}.
+     * <p>
+     * Data is only generated in parallel for thread safe generators. By
+     * default, generators are not considered thread safe.
+     *
+     * @return {@code true} if data can be generated concurrently,
+     *         {@code false} otherwise
+     * @since 1.3
+     */
+    default boolean isThreadSafe() {
+        return false;
+    }
 }
@@ -15,6 +15,8 @@
  */
 package com.vaadin.flow.data.provider;
 
+import java.io.Serializable;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.Objects;
@@ -34,12 +36,66 @@ public class ListDataProvider<T>
         extends AbstractDataProvider<T, SerializablePredicate<T>>
         implements InMemoryDataProvider<T> {
 
+    /**
+     * Views smaller than this are sorted in the calling thread.
+     */
+    private static final int PARALLEL_SORT_THRESHOLD = 100000;
+
+    /**
+     * The number of consecutive cached views that are replaced without being
+     * reused before views are only cached for queries that are repeated.
+     */
+    private static final int MAX_UNUSED_VIEWS = 2;
+
     private SerializableComparator<T> sortOrder = null;
 
     private SerializablePredicate<T> filter;
 
     private final Collection<T> backend;
 
+    private boolean viewCachingEnabled;
+
+    /**
+     * The filtered and sorted items for the most recent query, if view
+     * caching is enabled. Views are immutable and replaced as a whole so that
+     * concurrent queries never see a view of another query.
+     */
+    private transient volatile CachedView<T> cachedView;
+
+    /**
+     * Incremented whenever the cached view is cleared, so that views created
+     * from the previous backend state are not published.
+     */
+    private transient volatile int viewVersion;
+
+    private transient volatile int unusedViews;
+
+    /**
+     * Filtered and sorted items for a specific query filter and in-memory
+     * sorting.
+     */
+    private static class CachedView<T> implements Serializable {
+        private final Object queryFilter;
+        private final Comparator<T> querySorting;
+        // null if only the query has been seen
+        private final T[] items;
+        private final boolean reused;
+
+        private CachedView(Query<T, SerializablePredicate<T>> query, T[] items,
+                boolean reused) {
+            queryFilter = query.getFilter().orElse(null);
+            querySorting = query.getInMemorySorting();
+            this.items = items;
+            this.reused = reused;
+        }
+
+        private boolean matches(Query<T, SerializablePredicate<T>> query) {
+            return Objects.equals(queryFilter, query.getFilter().orElse(null))
+                    && Objects.equals(querySorting,
+                            query.getInMemorySorting());
+        }
+    }
+
     /**
      * Constructs a new ListDataProvider.
      * <p>
@@ -65,14 +121,61 @@ public class ListDataProvider<T>
         return backend;
     }
 
+    /**
+     * Sets whether the filtered and sorted items should be cached between
+     * queries. When enabled, the backing collection is filtered and sorted
+     * once, and subsequent queries with the same filter and in-memory sorting
+     * are served from the cached result. The cost of a query is then
+     * proportional to its limit rather than to the size of the collection.
+     * Filters and comparators are compared using <code>equals</code>. If
+     * queries keep using different filters or comparators, views are only
+     * cached once the same filter and comparator are used again. Very large
+     * collections are sorted in parallel, so the sort comparator must then be
+     * thread safe.
+     * <p>
+     * The cache is cleared by {@link #refreshAll()},
+     * {@link #refreshItem(Object)} and when the filter or the sort comparator
+     * of this data provider is changed. Changes to the backing collection are
+     * not noticed until one of those methods is called.
+     * <p>
+     * View caching is disabled by default.
+     *
+     * @param viewCachingEnabled
+     *            <code>true</code> to cache the filtered and sorted items,
+     *            <code>false</code> to filter and sort the backing collection
+     *            for each query
+     */
+    public void setViewCachingEnabled(boolean viewCachingEnabled) {
+        this.viewCachingEnabled = viewCachingEnabled;
+        clearCachedView();
+        unusedViews = 0;
+    }
+
+    /**
+     * Gets whether the filtered and sorted items are cached between queries.
+     *
+     * @see #setViewCachingEnabled(boolean)
+     *
+     * @return <code>true</code> if view caching is enabled, <code>false</code>
+     *         otherwise
+     */
+    public boolean isViewCachingEnabled() {
+        return viewCachingEnabled;
+    }
+
     @Override
     public Stream<T> fetch(Query<T, SerializablePredicate<T>> query) {
+        T[] items = viewCachingEnabled ? getCachedItems(query) : null;
+        if (items != null) {
+            int from = Math.min(query.getOffset(), items.length);
+            int to = (int) Math.min((long) from + query.getLimit(),
+                    items.length);
+            return Arrays.stream(items, from, to);
+        }
+
         Stream<T> stream = getFilteredStream(query);
 
-        Optional<Comparator<T>> comparing = Stream
-                .of(query.getInMemorySorting(), sortOrder)
-                .filter(Objects::nonNull)
-                .reduce((c1, c2) -> c1.thenComparing(c2));
+        Optional<Comparator<T>> comparing = getComparator(query);
 
         if (comparing.isPresent()) {
             stream = stream.sorted(comparing.get());
@@ -83,9 +186,97 @@ public class ListDataProvider<T>
 
     @Override
     public int size(Query<T, SerializablePredicate<T>> query) {
+        T[] items = viewCachingEnabled ? getCachedItems(query) : null;
+        if (items != null) {
+            return items.length;
+        }
         return (int) getFilteredStream(query).count();
     }
 
+    @Override
+    public void refreshAll() {
+        clearCachedView();
+        super.refreshAll();
+    }
+
+    @Override
+    public void refreshItem(T item) {
+        // The item may have moved or changed whether it passes the filter
+        clearCachedView();
+        super.refreshItem(item);
+    }
+
+    private Optional<Comparator<T>> getComparator(
+            Query<T, SerializablePredicate<T>> query) {
+        return Stream.of(query.getInMemorySorting(), sortOrder)
+                .filter(Objects::nonNull)
+                .reduce((c1, c2) -> c1.thenComparing(c2));
+    }
+
+    /**
+     * Gets the filtered and sorted items for the given query from the cached
+     * view, creating the view if needed. Returns <code>null</code> if the
+     * query should not be cached.
+     */
+    private T[] getCachedItems(Query<T, SerializablePredicate<T>> query) {
+        int version = viewVersion;
+        CachedView<T> view = cachedView;
+        if (view != null && view.matches(query)) {
+            if (view.items != null && view.reused) {
+                return view.items;
+            }
+            T[] items = view.items != null ? view.items : createView(query);
+            publishView(view, version, new CachedView<>(query, items, true));
+            return items;
+        }
+
+        if (view != null) {
+            if (view.reused) {
+                unusedViews = 0;
+            } else if (view.items != null) {
+                unusedViews++;
+            }
+        }
+        if (unusedViews >= MAX_UNUSED_VIEWS) {
+            // Query filters are probably created anew for each query, only
+            // remember the query in case it is repeated
+            publishView(view, version, new CachedView<>(query, null, false));
+            return null;
+        }
+        T[] items = createView(query);
+        publishView(view, version, new CachedView<>(query, items, false));
+        return items;
+    }
+
+    /**
+     * Replaces the cached view unless another thread has replaced or cleared
+     * it since <code>expected</code> was read.
+     */
+    private synchronized void publishView(CachedView<T> expected, int version,
+            CachedView<T> view) {
+        if (cachedView == expected && viewVersion == version) {
+            cachedView = view;
+        }
+    }
+
+    private synchronized void clearCachedView() {
+        viewVersion++;
+        cachedView = null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T[] createView(Query<T, SerializablePredicate<T>> query) {
+        T[] items = (T[]) getFilteredStream(query).toArray();
+        getComparator(query).ifPresent(comparator -> {
+            if (items.length < PARALLEL_SORT_THRESHOLD) {
+                Arrays.sort(items, comparator);
+            } else {
+                Arrays.parallelSort(items, comparator);
+            }
+        });
+        return items;
+    }
+
     private Stream<T> getFilteredStream(
             Query<T, SerializablePredicate<T>> query) {
         Stream<T> stream = backend.stream();
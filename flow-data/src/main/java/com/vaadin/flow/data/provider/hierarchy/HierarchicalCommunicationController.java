@@ -51,6 +51,7 @@ public class HierarchicalCommunicationController<T> implements Serializable {
     private final SerializableFunction<Integer, HierarchicalUpdate> startUpdate;
     private final HierarchyMapper<T, ?> mapper;
     private final SerializableBiFunction<String, Range, Stream<T>> fetchItems;
+    private final SerializableFunction<String, Integer> countItems;
 
     // position in tree this object controls child items for. null means root.
     private final String parentKey;
@@ -101,18 +102,50 @@ public class HierarchicalCommunicationController<T> implements Serializable {
             DataGenerator<T> dataGenerator,
             SerializableFunction<Integer, HierarchicalUpdate> startUpdate,
             SerializableBiFunction<String, Range, Stream<T>> fetchItems) {
+        this(parentKey, keyMapper, mapper, dataGenerator, startUpdate,
+                fetchItems,
+                key -> mapper.countChildItems(keyMapper.get(key)));
+    }
+
+    /**
+     * Constructs communication controller with support for hierarchical data
+     * structure and a custom way of counting the items.
+     *
+     * @param parentKey
+     *            parent key or null if root
+     * @param keyMapper
+     *            Object to String key mapper
+     * @param mapper
+     *            Mapper for hierarchical data
+     * @param dataGenerator
+     *            A data generator for items
+     * @param startUpdate
+     *            Function for creating a new {@link Update} for client
+     * @param fetchItems
+     *            Function for fetching items for target parent and specified
+     *            range
+     * @param countItems
+     *            Function for counting the items of target parent
+     */
+    public HierarchicalCommunicationController(String parentKey,
+            DataKeyMapper<T> keyMapper, HierarchyMapper<T, ?> mapper,
+            DataGenerator<T> dataGenerator,
+            SerializableFunction<Integer, HierarchicalUpdate> startUpdate,
+            SerializableBiFunction<String, Range, Stream<T>> fetchItems,
+            SerializableFunction<String, Integer> countItems) {
         this.parentKey = parentKey;
         this.keyMapper = keyMapper;
         this.mapper = mapper;
         this.dataGenerator = dataGenerator;
         this.startUpdate = startUpdate;
         this.fetchItems = fetchItems;
+        this.countItems = countItems;
     }
 
     public void flush() {
         Set<String> oldActive = new HashSet<>(activeKeyOrder);
 
-        assumedSize = mapper.countChildItems(keyMapper.get(parentKey));
+        assumedSize = countItems.apply(parentKey);
 
         final Range previousActive = Range.withLength(activeStart,
                 activeKeyOrder.size());
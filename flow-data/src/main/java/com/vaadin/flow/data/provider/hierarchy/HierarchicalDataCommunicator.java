@@ -15,15 +15,25 @@
  */
 package com.vaadin.flow.data.provider.hierarchy;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.slf4j.LoggerFactory;
+
 import com.vaadin.flow.data.provider.CompositeDataGenerator;
 import com.vaadin.flow.data.provider.DataCommunicator;
 import com.vaadin.flow.data.provider.DataGenerator;
@@ -63,6 +73,51 @@ public class HierarchicalDataCommunicator<T> extends DataCommunicator<T> {
 
     private final Map<String, HierarchicalCommunicationController<T>> dataControllers = new HashMap<>();
 
+    // Items fetched since the previous round of hasChildren calls, resolved in
+    // one batch when hasChildren is called for any of them
+    private final Map<Object, T> unresolvedItems = new LinkedHashMap<>();
+    private final Map<Object, Boolean> resolvedHasChildren = new HashMap<>();
+    private boolean hasChildrenRequested;
+
+    // Parents waiting for a flush, whose children are counted in one batch
+    private final Set<String> parentKeysToCount = new HashSet<>();
+    private final Map<String, Integer> childCounts = new HashMap<>();
+
+    // Children fetched in the background, by parent key
+    private final Map<String, FetchedChildren<T>> fetchedChildren = new HashMap<>();
+    private transient Executor childFetchExecutor;
+
+    /**
+     * Children of an item fetched in the background, together with the count
+     * of all the children.
+     */
+    private static class FetchedChildren<T> implements Serializable {
+        private final Range range;
+        private final int count;
+        private final List<T> items;
+
+        private FetchedChildren(Range range, int count, List<T> items) {
+            this.range = range;
+            this.count = count;
+            this.items = items;
+        }
+
+        private List<T> getItems(Range requested) {
+            // The fetch may have ended before the end of the range
+            Range available = items.size() < range.length()
+                    ? Range.between(range.getStart(), Integer.MAX_VALUE)
+                    : range;
+            if (!requested.isSubsetOf(available)) {
+                return null;
+            }
+            int start = Math.min(requested.getStart() - range.getStart(),
+                    items.size());
+            int end = Math.min(requested.getEnd() - range.getStart(),
+                    items.size());
+            return new ArrayList<>(items.subList(start, end));
+        }
+    }
+
     private KeyMapper<T> uniqueKeyMapper = new KeyMapper<T>() {
 
         private T object;
@@ -131,8 +186,11 @@ public class HierarchicalDataCommunicator<T> extends DataCommunicator<T> {
     }
 
     private void requestFlush(HierarchicalCommunicationController<T> update) {
-        SerializableConsumer<ExecutionContext> flushRequest = context -> update
-                .flush();
+        SerializableConsumer<ExecutionContext> flushRequest = context -> {
+            update.flush();
+            fetchedChildren.keySet()
+                    .removeIf(key -> dataControllers.get(key) == update);
+        };
         stateNode.runWhenAttached(ui -> ui.getInternals().getStateTree()
                 .beforeClientResponse(stateNode, flushRequest));
     }
@@ -145,6 +203,7 @@ public class HierarchicalDataCommunicator<T> extends DataCommunicator<T> {
     @Override
     public void reset() {
         super.reset();
+        clearPrefetchedData();
 
         if (!dataControllers.isEmpty()) {
             dataControllers.values().forEach(
@@ -153,6 +212,7 @@ public class HierarchicalDataCommunicator<T> extends DataCommunicator<T> {
         }
 
         if (getHierarchyMapper() != null) {
+            getHierarchyMapper().invalidateHierarchy();
             HierarchicalUpdate update = arrayUpdater
                     .startUpdate(getHierarchyMapper().getRootSize());
             update.enqueue("$connector.ensureHierarchy");
@@ -160,11 +220,39 @@ public class HierarchicalDataCommunicator<T> extends DataCommunicator<T> {
         }
     }
 
+    @Override
+    public void refresh(T data) {
+        super.refresh(data);
+        if (getHierarchyMapper() != null) {
+            getHierarchyMapper().refreshItem(data);
+            Object id = getDataProvider().getId(data);
+            unresolvedItems.remove(id);
+            resolvedHasChildren.remove(id);
+        }
+    }
+
+    private void clearPrefetchedData() {
+        unresolvedItems.clear();
+        resolvedHasChildren.clear();
+        parentKeysToCount.clear();
+        childCounts.clear();
+        fetchedChildren.clear();
+    }
+
     @Override
     public Stream<T> fetchFromProvider(int offset, int limit) {
         // Instead of adding logic to this class, delegate request to the
         // separate object handling hierarchies.
-        return mapper.fetchRootItems(Range.withLength(offset, limit));
+        return trackFetchedItems(
+                mapper.fetchRootItems(Range.withLength(offset, limit)));
+    }
+
+    @Override
+    protected CompletionStage<List<T>> fetchFromProviderAsync(int offset,
+            int limit) {
+        // The hierarchy mapper only supports blocking queries
+        return CompletableFuture.completedFuture(
+                fetchFromProvider(offset, limit).collect(Collectors.toList()));
     }
 
     public void setParentRequestedRange(int start, int length, T parentItem) {
@@ -177,11 +265,139 @@ public class HierarchicalDataCommunicator<T> extends DataCommunicator<T> {
                                 dataGenerator,
                                 size -> arrayUpdater
                                         .startUpdate(getDataProviderSize()),
-                                (pkey, range) -> mapper.fetchChildItems(
-                                        getKeyMapper().get(pkey), range)));
+                                this::fetchChildItems, this::countChildItems));
 
         controller.setRequestRange(start, length);
-        requestFlush(controller);
+        if (childFetchExecutor == null) {
+            parentKeysToCount.add(parentKey);
+            requestFlush(controller);
+        } else {
+            fetchChildrenInBackground(parentKey, parentItem,
+                    Range.withLength(start, length), controller);
+        }
+    }
+
+    private Stream<T> fetchChildItems(String parentKey, Range range) {
+        T parent = getKeyMapper().get(parentKey);
+        FetchedChildren<T> fetched = fetchedChildren.get(parentKey);
+        List<T> items = fetched == null ? null : fetched.getItems(range);
+        if (items != null) {
+            return trackFetchedItems(mapper.fetchChildItems(parent, items));
+        }
+        return trackFetchedItems(mapper.fetchChildItems(parent, range));
+    }
+
+    private int countChildItems(String parentKey) {
+        FetchedChildren<T> fetched = fetchedChildren.get(parentKey);
+        if (fetched != null) {
+            return fetched.count;
+        }
+        if (parentKeysToCount.contains(parentKey)) {
+            // Count the children of all the parents waiting for a flush
+            Map<String, T> parents = new HashMap<>();
+            parentKeysToCount.forEach(key -> Optional
+                    .ofNullable(getKeyMapper().get(key))
+                    .ifPresent(parent -> parents.put(key, parent)));
+            Map<T, Integer> counts = mapper.getChildCounts(parents.values());
+            parents.forEach((key, parent) -> Optional
+                    .ofNullable(counts.get(parent))
+                    .ifPresent(count -> childCounts.put(key, count)));
+            parentKeysToCount.clear();
+        }
+        Integer count = childCounts.remove(parentKey);
+        if (count != null) {
+            return count;
+        }
+        return mapper.countChildItems(getKeyMapper().get(parentKey));
+    }
+
+    /**
+     * Keeps track of fetched items so that whether they have children can be
+     * resolved in one batch.
+     */
+    private Stream<T> trackFetchedItems(Stream<T> items) {
+        if (!hasChildrenRequested) {
+            return items;
+        }
+        if (!resolvedHasChildren.isEmpty()) {
+            // The items of the previous fetch have already been handled
+            resolvedHasChildren.clear();
+            unresolvedItems.clear();
+        }
+        List<T> list = items.collect(Collectors.toList());
+        list.forEach(item -> unresolvedItems
+                .put(getDataProvider().getId(item), item));
+        return list.stream();
+    }
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private void fetchChildrenInBackground(String parentKey, T parentItem,
+            Range range, HierarchicalCommunicationController<T> controller) {
+        // Create the queries while holding the session lock
+        HierarchicalDataProvider provider = getDataProvider();
+        HierarchicalQuery countQuery = new HierarchicalQuery(
+                mapper.getFilter(), parentItem);
+        HierarchicalQuery fetchQuery = new HierarchicalQuery(
+                range.getStart(), range.length(), mapper.getBackEndSorting(),
+                mapper.getInMemorySorting(), mapper.getFilter(), parentItem);
+        Executor executor = childFetchExecutor;
+
+        stateNode.runWhenAttached(ui -> CompletableFuture
+                .supplyAsync(() -> new FetchedChildren<T>(range,
+                        provider.getChildCount(countQuery),
+                        (List<T>) provider.fetchChildren(fetchQuery)
+                                .collect(Collectors.toList())),
+                        executor)
+                .whenComplete((fetched, throwable) -> ui.access(() -> {
+                    if (dataControllers.get(parentKey) != controller) {
+                        // Reset or collapsed while fetching
+                        return;
+                    }
+                    if (throwable == null) {
+                        fetchedChildren.put(parentKey, fetched);
+                    } else {
+                        LoggerFactory
+                                .getLogger(HierarchicalDataCommunicator.class
+                                        .getName())
+                                .debug("Fetching children in the background "
+                                        + "failed, fetching them again",
+                                        throwable);
+                    }
+                    requestFlush(controller);
+                })));
+    }
+
+    /**
+     * Sets an executor for fetching the children of expanded items in the
+     * background instead of while handling the request from the client. The
+     * children are sent to the client once they have been fetched, which
+     * requires server push to be enabled for the changes to be sent without
+     * waiting for the next request from the client.
+     * <p>
+     * The data provider must support being called from the executor threads
+     * without holding the session lock. Use {@code null} to fetch the children
+     * synchronously, which is the default. The executor is not serialized with
+     * the session.
+     *
+     * @param executor
+     *            the executor to fetch children with, or {@code null} to fetch
+     *            them synchronously
+     * @since 1.3
+     */
+    public void setChildFetchExecutor(Executor executor) {
+        childFetchExecutor = executor;
+    }
+
+    /**
+     * Gets the executor used for fetching the children of expanded items in
+     * the background.
+     *
+     * @return the executor, or {@code null} if children are fetched
+     *         synchronously
+     * @see #setChildFetchExecutor(Executor)
+     */
+    public Executor getChildFetchExecutor() {
+        return childFetchExecutor;
     }
 
     @Override
@@ -212,6 +428,7 @@ public class HierarchicalDataCommunicator<T> extends DataCommunicator<T> {
         if (mapper != null) {
             mapper.destroyAllData();
         }
+        clearPrefetchedData();
         mapper = createHierarchyMapper(dataProvider);
 
         // Set up mapper for requests
@@ -325,8 +542,10 @@ public class HierarchicalDataCommunicator<T> extends DataCommunicator<T> {
         items.forEach(item -> {
             if (mapper.collapse(item)) {
                 collapsedItems.add(item);
+                String key = getKeyMapper().key(item);
+                fetchedChildren.remove(key);
                 HierarchicalCommunicationController<T> controller = dataControllers
-                        .remove(getKeyMapper().key(item));
+                        .remove(key);
                 if (controller != null) {
                     controller.unregisterPassivatedKeys();
                 }
@@ -413,7 +632,23 @@ public class HierarchicalDataCommunicator<T> extends DataCommunicator<T> {
      * @return {@code true} if item has children; {@code false} if not
      */
     public boolean hasChildren(T item) {
-        return mapper.hasChildren(item);
+        if (item == null) {
+            return mapper.hasChildren(item);
+        }
+        hasChildrenRequested = true;
+        Object id = getDataProvider().getId(item);
+        Boolean hasChildren = resolvedHasChildren.get(id);
+        if (hasChildren == null && unresolvedItems.containsKey(id)) {
+            // Resolve all the items fetched for the same response at once
+            Set<T> withChildren = mapper.getItemsWithChildren(
+                    new ArrayList<>(unresolvedItems.values()));
+            unresolvedItems.forEach(
+                    (unresolvedId, unresolved) -> resolvedHasChildren.put(
+                            unresolvedId, withChildren.contains(unresolved)));
+            unresolvedItems.clear();
+            hasChildren = resolvedHasChildren.get(id);
+        }
+        return hasChildren != null ? hasChildren : mapper.hasChildren(item);
     }
 
     /**
@@ -477,6 +712,12 @@ public class HierarchicalDataCommunicator<T> extends DataCommunicator<T> {
         return mapper.getRootSize();
     }
 
+    @Override
+    protected CompletionStage<Integer> getDataProviderSizeAsync() {
+        // The hierarchy mapper only supports blocking queries
+        return CompletableFuture.completedFuture(getDataProviderSize());
+    }
+
     @Override
     public void setBackEndSorting(List<QuerySortOrder> sortOrder) {
         if (mapper != null) {
@@ -497,6 +738,7 @@ public class HierarchicalDataCommunicator<T> extends DataCommunicator<T> {
         if (mapper != null) {
             mapper.setFilter(filter);
         }
+        clearPrefetchedData();
     }
 
     /**
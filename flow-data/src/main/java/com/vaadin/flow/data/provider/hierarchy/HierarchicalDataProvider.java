@@ -15,6 +15,11 @@
  */
 package com.vaadin.flow.data.provider.hierarchy;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import com.vaadin.flow.data.provider.DataProvider;
@@ -106,4 +111,52 @@ public interface HierarchicalDataProvider<T, F> extends DataProvider<T, F> {
      */
     public boolean hasChildren(T item);
 
+    /**
+     * Checks which of the given items have any children associated with them.
+     * This is used for resolving a whole page of items at once instead of
+     * checking the items one by one.
+     * <p>
+     * The default implementation calls {@link #hasChildren(Object)} for each
+     * item. Data providers backed by a database or a service should override
+     * this to check all the items using a single query.
+     *
+     * @param items
+     *            the items to check for children, not {@code null}
+     * @return the items among the given items that have children, not
+     *         {@code null}
+     * @since 1.3
+     */
+    public default Set<T> getItemsWithChildren(Collection<T> items) {
+        return items.stream().filter(this::hasChildren)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Gets the number of immediate child data items for each of the given
+     * parent items. This is used for resolving the sizes of several expanded
+     * items at once instead of counting the children of each item separately.
+     * <p>
+     * The default implementation calls
+     * {@link #getChildCount(HierarchicalQuery)} for each parent. Data providers
+     * backed by a database or a service should override this to count the
+     * children of all the parents using a single query.
+     *
+     * @param parents
+     *            the parent items to count the children of, not {@code null}
+     * @param filter
+     *            the filter to use for the counts, or {@code null} to not use
+     *            any filter
+     * @return a map from each parent item to the count of its child data
+     *         items, not {@code null}
+     * @since 1.3
+     */
+    public default Map<T, Integer> getChildCounts(Collection<T> parents,
+            F filter) {
+        Map<T, Integer> counts = new HashMap<>();
+        for (T parent : parents) {
+            counts.put(parent,
+                    getChildCount(new HierarchicalQuery<>(filter, parent)));
+        }
+        return counts;
+    }
 }
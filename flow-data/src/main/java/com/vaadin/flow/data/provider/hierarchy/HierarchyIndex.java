@@ -0,0 +1,342 @@
+/*
+ * Copyright 2000-2018 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.data.provider.hierarchy;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Flattened version of an expanded hierarchy where each row is an item
+ * together with its depth in the hierarchy.
+ * <p>
+ * The rows are stored in a treap ordered by row index where each node knows
+ * the size of its subtree. This makes it possible to find a row by its index,
+ * to find the index of a row by the item id and to insert or remove a
+ * sequence of rows at any position in logarithmic time with regards to the
+ * total number of rows.
+ * <p>
+ * For internal use only. May be renamed or removed in a future release.
+ *
+ * @author Vaadin Ltd
+ * @since 1.3
+ *
+ * @param <T>
+ *            the data type
+ */
+class HierarchyIndex<T> implements Serializable {
+
+    private static class Row<T> implements Serializable {
+        private T item;
+        private final Object id;
+        private final int depth;
+        private final int priority;
+
+        private int size = 1;
+        private Row<T> left;
+        private Row<T> right;
+        private Row<T> parent;
+
+        private Row(T item, Object id, int depth, int priority) {
+            this.item = item;
+            this.id = id;
+            this.depth = depth;
+            this.priority = priority;
+        }
+    }
+
+    private final Map<Object, Row<T>> rowsById = new HashMap<>();
+    private Row<T> root;
+    private int seed = 0x2545F491;
+
+    /**
+     * Gets the number of rows.
+     *
+     * @return the number of rows
+     */
+    int size() {
+        return size(root);
+    }
+
+    /**
+     * Adds a row after the last row.
+     *
+     * @param item
+     *            the item of the row
+     * @param id
+     *            the id of the item
+     * @param depth
+     *            the depth of the item in the hierarchy
+     */
+    void append(T item, Object id, int depth) {
+        Row<T> row = new Row<>(item, id, depth, nextPriority());
+        rowsById.put(id, row);
+        setRoot(merge(root, row));
+    }
+
+    /**
+     * Moves all rows of the given index into this index, starting at the given
+     * position. The other index is empty after this operation.
+     *
+     * @param position
+     *            the index of the first inserted row
+     * @param rows
+     *            the rows to insert
+     */
+    void insert(int position, HierarchyIndex<T> rows) {
+        if (rows.root == null) {
+            return;
+        }
+        Row<T>[] parts = split(position);
+        rowsById.putAll(rows.rowsById);
+        setRoot(merge(merge(parts[0], rows.root), parts[1]));
+        rows.rowsById.clear();
+        rows.root = null;
+    }
+
+    /**
+     * Gets the index of the row of the given item id.
+     *
+     * @param id
+     *            the item id
+     * @return the index of the row or {@code -1} if there is no such row
+     */
+    int indexOf(Object id) {
+        Row<T> row = rowsById.get(id);
+        if (row == null) {
+            return -1;
+        }
+        int index = size(row.left);
+        while (row.parent != null) {
+            if (row == row.parent.right) {
+                index += size(row.parent.left) + 1;
+            }
+            row = row.parent;
+        }
+        return index;
+    }
+
+    /**
+     * Gets the items of the rows in the given range. The range is limited to
+     * the existing rows.
+     *
+     * @param start
+     *            the index of the first row
+     * @param length
+     *            the maximum number of rows
+     * @return the items of the rows in the range
+     */
+    List<T> getItems(int start, int length) {
+        int count = Math.min(length, size() - start);
+        if (start < 0 || count <= 0) {
+            return Collections.emptyList();
+        }
+        List<T> items = new ArrayList<>(count);
+        Row<T> row = getRow(start);
+        for (int i = 0; i < count; i++) {
+            items.add(row.item);
+            row = successor(row);
+        }
+        return items;
+    }
+
+    /**
+     * Gets the number of rows directly following the row at the given index
+     * that are deeper in the hierarchy than that row, i.e. the number of
+     * visible descendants of the row.
+     *
+     * @param position
+     *            the index of the row
+     * @return the number of visible descendants
+     */
+    int countDescendants(int position) {
+        Row<T> row = getRow(position);
+        int depth = row.depth;
+        int count = 0;
+        for (row = successor(row); row != null
+                && row.depth > depth; row = successor(row)) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Removes the visible descendants of the row at the given index.
+     *
+     * @param position
+     *            the index of the row
+     * @return the number of removed rows
+     * @see #countDescendants(int)
+     */
+    int removeDescendants(int position) {
+        int count = countDescendants(position);
+        if (count > 0) {
+            Row<T>[] head = split(position + 1);
+            setRoot(head[1]);
+            Row<T>[] tail = split(count);
+            removeIds(tail[0]);
+            setRoot(merge(head[0], tail[1]));
+        }
+        return count;
+    }
+
+    /**
+     * Gets the depth of the row at the given index.
+     *
+     * @param position
+     *            the index of the row
+     * @return the depth of the row
+     */
+    int getDepth(int position) {
+        return getRow(position).depth;
+    }
+
+    /**
+     * Replaces the item of the row with the same item id.
+     *
+     * @param id
+     *            the item id
+     * @param item
+     *            the new item
+     */
+    void replace(Object id, T item) {
+        Row<T> row = rowsById.get(id);
+        if (row != null) {
+            row.item = item;
+        }
+    }
+
+    private Row<T> getRow(int position) {
+        Row<T> row = root;
+        int index = position;
+        while (row != null) {
+            int leftSize = size(row.left);
+            if (index < leftSize) {
+                row = row.left;
+            } else if (index == leftSize) {
+                return row;
+            } else {
+                index -= leftSize + 1;
+                row = row.right;
+            }
+        }
+        throw new IndexOutOfBoundsException(
+                "Index: " + position + ", Size: " + size());
+    }
+
+    private void removeIds(Row<T> row) {
+        if (row != null) {
+            rowsById.remove(row.id);
+            removeIds(row.left);
+            removeIds(row.right);
+        }
+    }
+
+    private void setRoot(Row<T> row) {
+        root = row;
+        if (row != null) {
+            row.parent = null;
+        }
+    }
+
+    /**
+     * Splits the rows so that the first part contains the given number of
+     * rows. The root is not modified.
+     */
+    @SuppressWarnings("unchecked")
+    private Row<T>[] split(int count) {
+        Row<T>[] parts = new Row[2];
+        split(root, count, parts);
+        for (Row<T> part : parts) {
+            if (part != null) {
+                part.parent = null;
+            }
+        }
+        return parts;
+    }
+
+    private static <T> void split(Row<T> row, int count, Row<T>[] parts) {
+        if (row == null) {
+            parts[0] = null;
+            parts[1] = null;
+        } else if (size(row.left) < count) {
+            split(row.right, count - size(row.left) - 1, parts);
+            row.right = parts[0];
+            update(row);
+            parts[0] = row;
+        } else {
+            split(row.left, count, parts);
+            row.left = parts[1];
+            update(row);
+            parts[1] = row;
+        }
+    }
+
+    private static <T> Row<T> merge(Row<T> first, Row<T> second) {
+        if (first == null) {
+            return second;
+        } else if (second == null) {
+            return first;
+        } else if (first.priority > second.priority) {
+            first.right = merge(first.right, second);
+            update(first);
+            return first;
+        } else {
+            second.left = merge(first, second.left);
+            update(second);
+            return second;
+        }
+    }
+
+    private static <T> Row<T> successor(Row<T> row) {
+        if (row.right != null) {
+            Row<T> next = row.right;
+            while (next.left != null) {
+                next = next.left;
+            }
+            return next;
+        }
+        while (row.parent != null && row == row.parent.right) {
+            row = row.parent;
+        }
+        return row.parent;
+    }
+
+    private static <T> void update(Row<T> row) {
+        row.size = size(row.left) + size(row.right) + 1;
+        if (row.left != null) {
+            row.left.parent = row;
+        }
+        if (row.right != null) {
+            row.right.parent = row;
+        }
+    }
+
+    private static int size(Row<?> row) {
+        return row == null ? 0 : row.size;
+    }
+
+    private int nextPriority() {
+        // xorshift, good enough for keeping the tree balanced
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        return seed;
+    }
+}
@@ -16,6 +16,7 @@
 package com.vaadin.flow.data.provider.hierarchy;
 
 import java.io.Serializable;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -64,6 +65,10 @@ public class HierarchyMapper<T, F> implements Serializable {
 
     private Set<Object> expandedItemIds = new HashSet<>();
 
+    // Flattened version of the expanded hierarchy. Built lazily and kept up
+    // to date when items are expanded or collapsed.
+    private transient HierarchyIndex<T> flatHierarchy;
+
     /**
      * Constructs a new HierarchyMapper.
      *
@@ -80,7 +85,7 @@ public class HierarchyMapper<T, F> implements Serializable {
      * @return the amount of available data
      */
     public int getTreeSize() {
-        return (int) getHierarchy(null).count();
+        return getFlatHierarchy().size();
     }
 
     /**
@@ -102,8 +107,10 @@ public class HierarchyMapper<T, F> implements Serializable {
      *
      */
     public Integer getParentIndex(T item) {
-        List<T> flatHierarchy = getHierarchy(null).collect(Collectors.toList());
-        return flatHierarchy.indexOf(getParentOfItem(item));
+        HierarchyIndex<T> index = getFlatHierarchy();
+        T parent = getParentOfItem(item);
+        return parent == null ? -1
+                : index.indexOf(getDataProvider().getId(parent));
     }
 
     /**
@@ -115,8 +122,10 @@ public class HierarchyMapper<T, F> implements Serializable {
      *
      */
     public Integer getIndex(T item) {
-        List<T> flatHierarchy = getHierarchy(null).collect(Collectors.toList());
-        return flatHierarchy.indexOf(item);
+        if (item == null) {
+            return -1;
+        }
+        return getFlatHierarchy().indexOf(getDataProvider().getId(item));
     }
 
     /**
@@ -157,8 +166,10 @@ public class HierarchyMapper<T, F> implements Serializable {
      */
     public Range expand(T item, Integer position) {
         if (doExpand(item) && position != null) {
+            int index = getVisibleIndex(item);
             return Range.withLength(position + 1,
-                    (int) getHierarchy(item, false).count());
+                    index < 0 ? (int) getHierarchy(item, false).count()
+                            : flatHierarchy.countDescendants(index));
         }
 
         return Range.withLength(0, 0);
@@ -178,6 +189,17 @@ public class HierarchyMapper<T, F> implements Serializable {
         if (!isExpanded(item) && hasChildren(item)) {
             expandedItemIds.add(getDataProvider().getId(item));
             expanded = true;
+
+            int index = getVisibleIndex(item);
+            if (index >= 0) {
+                HierarchyIndex<T> children = new HierarchyIndex<>();
+                collectHierarchy(item, flatHierarchy.getDepth(index) + 1,
+                        children);
+                // Fetching children may have invalidated the index
+                if (flatHierarchy != null) {
+                    flatHierarchy.insert(index + 1, children);
+                }
+            }
         }
         return expanded;
     }
@@ -193,6 +215,7 @@ public class HierarchyMapper<T, F> implements Serializable {
             return false;
         }
         if (isExpanded(item)) {
+            removeDescendantsFromIndex(item);
             expandedItemIds.remove(getDataProvider().getId(item));
             return true;
         }
@@ -212,15 +235,71 @@ public class HierarchyMapper<T, F> implements Serializable {
     public Range collapse(T item, Integer position) {
         Range removedRows = Range.withLength(0, 0);
         if (isExpanded(item)) {
+            int removed = removeDescendantsFromIndex(item);
             if (position != null) {
-                removedRows = Range.withLength(position + 1,
-                        (int) getHierarchy(item, false).count());
+                removedRows = Range.withLength(position + 1, removed < 0
+                        ? (int) getHierarchy(item, false).count()
+                        : removed);
             }
             expandedItemIds.remove(getDataProvider().getId(item));
         }
         return removedRows;
     }
 
+    /**
+     * Removes the visible descendants of the given item from the flattened
+     * hierarchy, if it has been constructed and the item is visible.
+     *
+     * @param item
+     *            the item being collapsed
+     * @return the number of removed rows or a negative value if the flattened
+     *         hierarchy does not contain the item
+     */
+    private int removeDescendantsFromIndex(T item) {
+        int index = getVisibleIndex(item);
+        return index < 0 ? -1 : flatHierarchy.removeDescendants(index);
+    }
+
+    /**
+     * Gets the index of the given item in the flattened hierarchy without
+     * constructing it.
+     *
+     * @param item
+     *            the item
+     * @return the index of the item or a negative value if the item is not
+     *         visible or the flattened hierarchy has not been constructed
+     */
+    private int getVisibleIndex(T item) {
+        if (item == null || flatHierarchy == null) {
+            return -1;
+        }
+        return flatHierarchy.indexOf(getDataProvider().getId(item));
+    }
+
+    /**
+     * Discards the flattened version of the expanded hierarchy so that it is
+     * constructed again from the data provider when needed. This should be
+     * called when the hierarchy of the data provider has changed.
+     */
+    public void invalidateHierarchy() {
+        flatHierarchy = null;
+    }
+
+    /**
+     * Replaces the instance of the given item in the flattened hierarchy with
+     * the given one. This should be called when the data of a single item has
+     * changed without changes to the hierarchy.
+     *
+     * @param item
+     *            the updated item, not {@code null}
+     */
+    public void refreshItem(T item) {
+        Objects.requireNonNull(item, "Can not refresh null item");
+        if (flatHierarchy != null) {
+            flatHierarchy.replace(getDataProvider().getId(item), item);
+        }
+    }
+
 
     /**
      * Gets the current in-memory sorting.
@@ -240,6 +319,7 @@ public class HierarchyMapper<T, F> implements Serializable {
      */
     public void setInMemorySorting(Comparator<T> inMemorySorting) {
         this.inMemorySorting = inMemorySorting;
+        invalidateHierarchy();
     }
 
     /**
@@ -260,6 +340,7 @@ public class HierarchyMapper<T, F> implements Serializable {
      */
     public void setBackEndSorting(List<QuerySortOrder> backEndSorting) {
         this.backEndSorting = backEndSorting;
+        invalidateHierarchy();
     }
 
     /**
@@ -280,6 +361,7 @@ public class HierarchyMapper<T, F> implements Serializable {
      */
     public void setFilter(Object filter) {
         this.filter = (F) filter;
+        invalidateHierarchy();
     }
 
     /**
@@ -303,6 +385,19 @@ public class HierarchyMapper<T, F> implements Serializable {
         return getDataProvider().hasChildren(item);
     }
 
+    /**
+     * Checks which of the given items have children using a single call to the
+     * data provider.
+     *
+     * @param items
+     *            the items to test, not {@code null}
+     * @return the items among the given items that have children
+     * @see HierarchicalDataProvider#getItemsWithChildren(Collection)
+     */
+    public Set<T> getItemsWithChildren(Collection<T> items) {
+        return getDataProvider().getItemsWithChildren(items);
+    }
+
     /* Fetch methods. These are used to calculate what to request. */
 
     /**
@@ -314,7 +409,8 @@ public class HierarchyMapper<T, F> implements Serializable {
      * @return the stream of items
      */
     public Stream<T> fetchHierarchyItems(Range range) {
-        return getHierarchy(null).skip(range.getStart()).limit(range.length());
+        return getFlatHierarchy().getItems(range.getStart(), range.length())
+                .stream();
     }
 
     /**
@@ -348,11 +444,44 @@ public class HierarchyMapper<T, F> implements Serializable {
         return getChildrenStream(parent, range, false);
     }
 
+    /**
+     * Handles children of the given parent that have been fetched directly
+     * from the data provider, e.g. in a background thread, the same way as
+     * children fetched using {@link #fetchChildItems(Object, Range)}.
+     *
+     * @param parent
+     *            the parent item for the fetch
+     * @param children
+     *            the fetched children
+     * @return the stream of items
+     */
+    public Stream<T> fetchChildItems(T parent, List<T> children) {
+        List<T> childList = Collections.emptyList();
+        if (isExpanded(parent)) {
+            childList = children;
+            registerOrRemoveChildren(parent, childList);
+        }
+        return childList.stream();
+    }
+
     public int countChildItems(T parent) {
         return getDataProvider()
                 .getChildCount(new HierarchicalQuery<>(filter, parent));
     }
 
+    /**
+     * Counts the children of each of the given parents using a single call to
+     * the data provider.
+     *
+     * @param parents
+     *            the parent items, not {@code null}
+     * @return a map from each parent item to the count of its children
+     * @see HierarchicalDataProvider#getChildCounts(Collection, Object)
+     */
+    public Map<T, Integer> getChildCounts(Collection<T> parents) {
+        return getDataProvider().getChildCounts(parents, filter);
+    }
+
     /* Methods for providing information on the hierarchy. */
 
     /**
@@ -427,6 +556,10 @@ public class HierarchyMapper<T, F> implements Serializable {
      *            the item id
      */
     protected void removeChildren(Object id) {
+        if (expandedItemIds.contains(id)) {
+            // Collapsing an item changes the visible hierarchy
+            invalidateHierarchy();
+        }
         // Clean up removed nodes from child map
         Iterator<Entry<T, Set<T>>> iterator = childMap.entrySet().iterator();
         Set<T> invalidatedChildren = new HashSet<>();
@@ -459,21 +592,53 @@ public class HierarchyMapper<T, F> implements Serializable {
             return Optional.empty();
         }
 
-        final List<Object> collect = getHierarchy(null).map(provider::getId)
-                .collect(Collectors.toList());
-        int index = collect.indexOf(getDataProvider().getId(target));
+        int index = getFlatHierarchy().indexOf(getDataProvider().getId(target));
         return Optional.ofNullable(index < 0 ? null : index);
     }
 
     /**
-     * Gets the full hierarchy tree starting from given node.
+     * Gets the flattened version of the expanded hierarchy, constructing it
+     * from the data provider if necessary.
+     *
+     * @return the flattened hierarchy
+     */
+    private HierarchyIndex<T> getFlatHierarchy() {
+        if (flatHierarchy == null) {
+            HierarchyIndex<T> index = new HierarchyIndex<>();
+            collectHierarchy(null, 0, index);
+            flatHierarchy = index;
+        }
+        return flatHierarchy;
+    }
+
+    /**
+     * Recursively fetches the expanded children of the given parent and
+     * appends them to the given flattened hierarchy in depth-first order.
      *
      * @param parent
-     *            the parent node to start from
-     * @return the flattened hierarchy as a stream
+     *            the parent node
+     * @param depth
+     *            the depth of the children of the parent
+     * @param target
+     *            the flattened hierarchy to append to
      */
-    private Stream<T> getHierarchy(T parent) {
-        return getHierarchy(parent, true);
+    private void collectHierarchy(T parent, int depth,
+            HierarchyIndex<T> target) {
+        if (!isExpanded(parent)) {
+            return;
+        }
+        List<T> childList = doFetchDirectChildren(parent)
+                .collect(Collectors.toList());
+        if (childList.isEmpty()) {
+            removeChildren(
+                    parent == null ? null : getDataProvider().getId(parent));
+        } else {
+            registerChildren(parent, childList);
+            for (T child : childList) {
+                target.append(child, getDataProvider().getId(child), depth);
+                collectHierarchy(child, depth + 1, target);
+            }
+        }
     }
 
     /**
@@ -533,12 +698,7 @@ public class HierarchyMapper<T, F> implements Serializable {
         if (isExpanded(parent)) {
             childList = doFetchDirectChildren(parent)
                     .collect(Collectors.toList());
-            if (childList.isEmpty()) {
-                removeChildren(parent == null ? null
-                        : getDataProvider().getId(parent));
-            } else {
-                registerChildren(parent, childList);
-            }
+            registerOrRemoveChildren(parent, childList);
         }
         return combineParentAndChildStreams(parent,
                 childList.stream().flatMap(this::getFlatChildrenStream),
@@ -562,12 +722,7 @@ public class HierarchyMapper<T, F> implements Serializable {
         if (isExpanded(parent)) {
             childList = doFetchDirectChildren(parent, range)
                     .collect(Collectors.toList());
-            if (childList.isEmpty()) {
-                removeChildren(parent == null ? null
-                        : getDataProvider().getId(parent));
-            } else {
-                registerChildren(parent, childList);
-            }
+            registerOrRemoveChildren(parent, childList);
         }
         return combineParentAndChildStreams(parent,
                 childList.stream(),
@@ -575,6 +730,15 @@ public class HierarchyMapper<T, F> implements Serializable {
     }
 
 
+    private void registerOrRemoveChildren(T parent, List<T> childList) {
+        if (childList.isEmpty()) {
+            removeChildren(
+                    parent == null ? null : getDataProvider().getId(parent));
+        } else {
+            registerChildren(parent, childList);
+        }
+    }
+
     /**
      * Register parent and children items into inner structures. May be
      * overridden in subclasses.
@@ -613,6 +777,7 @@ public class HierarchyMapper<T, F> implements Serializable {
     }
 
     public void destroyAllData() {
+        invalidateHierarchy();
         childMap.clear();
         parentIdMap.clear();
         expandedItemIds.clear();
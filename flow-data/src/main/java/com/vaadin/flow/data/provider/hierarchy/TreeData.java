@@ -20,10 +20,12 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.LinkedHashMap;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -43,11 +45,11 @@ public class TreeData<T> implements Serializable {
 
     private static class HierarchyWrapper<T> implements Serializable {
         private T parent;
-        private List<T> children;
+        // null until the first child is added, most items are leaves
+        private ArrayList<T> children;
 
         public HierarchyWrapper(T parent) {
             this.parent = parent;
-            children = new ArrayList<>();
         }
 
         public T getParent() {
@@ -59,15 +61,29 @@ public class TreeData<T> implements Serializable {
         }
 
         public List<T> getChildren() {
+            if (children == null) {
+                return Collections.emptyList();
+            }
             return children;
         }
 
         public void addChild(T child) {
+            if (children == null) {
+                children = new ArrayList<>(1);
+            }
             children.add(child);
         }
 
         public void removeChild(T child) {
-            children.remove(child);
+            if (children != null) {
+                children.remove(child);
+            }
+        }
+
+        public void trimChildren() {
+            if (children != null) {
+                children.trimToSize();
+            }
         }
     }
 
@@ -78,7 +94,7 @@ public class TreeData<T> implements Serializable {
      * items can be added or removed.
      */
     public TreeData() {
-        itemToWrapperMap = new LinkedHashMap<>();
+        itemToWrapperMap = new HashMap<>();
         itemToWrapperMap.put(null, new HierarchyWrapper<>(null));
     }
 
@@ -286,6 +302,88 @@ public class TreeData<T> implements Serializable {
                         .collect(Collectors.toList()));
     }
 
+    /**
+     * Adds all the given items to this structure in one go, using the given
+     * value provider to find the parent of each item. The parent of an item
+     * must either be {@code null} for root items, already exist in this
+     * structure or be among the given items. The items can be given in any
+     * order, and the children of each parent are added in the order they
+     * appear among the given items.
+     * <p>
+     * This is considerably faster than adding the items one by one when
+     * loading large amounts of data. The whole set of items is validated
+     * before any changes are made, so this structure is left unchanged if an
+     * exception is thrown.
+     *
+     * @param items
+     *            the items to add, not {@code null}
+     * @param parentProvider
+     *            the value provider for getting the parent of each item, not
+     *            {@code null}
+     * @return this
+     *
+     * @throws IllegalArgumentException
+     *             if any of the given items have already been added to this
+     *             structure or is given multiple times
+     * @throws IllegalArgumentException
+     *             if the parent of any of the given items is neither added to
+     *             this structure nor among the given items, or if the parents
+     *             of the items form a cycle
+     * @throws NullPointerException
+     *             if any of the items are null
+     * @since 1.3
+     */
+    public TreeData<T> addItemsWithParents(Collection<T> items,
+            ValueProvider<T, T> parentProvider) {
+        List<T> parents = new ArrayList<>(items.size());
+        items.forEach(item -> parents.add(parentProvider.apply(
+                Objects.requireNonNull(item, "Item cannot be null"))));
+        bulkAdd(new ArrayList<>(items), parents);
+        return this;
+    }
+
+    /**
+     * Adds all the items of the given stream to this structure in one go,
+     * using the given value provider to find the parent of each item. If the
+     * stream is parallel, the parents of the items are also looked up in
+     * parallel.
+     *
+     * @param items
+     *            the stream of items to add, not {@code null}
+     * @param parentProvider
+     *            the value provider for getting the parent of each item, not
+     *            {@code null}
+     * @return this
+     *
+     * @throws IllegalArgumentException
+     *             if any of the given items have already been added to this
+     *             structure or is given multiple times
+     * @throws IllegalArgumentException
+     *             if the parent of any of the given items is neither added to
+     *             this structure nor among the given items, or if the parents
+     *             of the items form a cycle
+     * @throws NullPointerException
+     *             if any of the items are null
+     * @see #addItemsWithParents(Collection, ValueProvider)
+     * @since 1.3
+     */
+    @SuppressWarnings("unchecked")
+    public TreeData<T> addItemsWithParents(Stream<T> items,
+            ValueProvider<T, T> parentProvider) {
+        List<Object[]> pairs = items.map(item -> new Object[] { item,
+                parentProvider.apply(
+                        Objects.requireNonNull(item, "Item cannot be null")) })
+                .collect(Collectors.toList());
+        List<T> itemList = new ArrayList<>(pairs.size());
+        List<T> parents = new ArrayList<>(pairs.size());
+        for (Object[] pair : pairs) {
+            itemList.add((T) pair[0]);
+            parents.add((T) pair[1]);
+        }
+        bulkAdd(itemList, parents);
+        return this;
+    }
+
     /**
      * Remove a given item from this structure. Additionally, this will
      * recursively remove any descendants of the item.
@@ -479,6 +577,62 @@ public class TreeData<T> implements Serializable {
         itemToWrapperMap.put(item, wrappedItem);
     }
 
+    private void bulkAdd(List<T> items, List<T> parents) {
+        int size = items.size();
+
+        // Phase 1: validate and create the wrappers without touching the data
+        Map<T, HierarchyWrapper<T>> newWrappers = new HashMap<>(
+                Math.max((int) (size / .75f) + 1, 16));
+        for (int i = 0; i < size; i++) {
+            T item = items.get(i);
+            if (contains(item)
+                    || newWrappers.put(item,
+                            new HierarchyWrapper<>(parents.get(i))) != null) {
+                throw new IllegalArgumentException(
+                        "Cannot add the same item multiple times: " + item);
+            }
+        }
+        for (T parent : parents) {
+            if (parent != null && !contains(parent)
+                    && !newWrappers.containsKey(parent)) {
+                throw new IllegalArgumentException(
+                        "Parent '" + parent + "' is not in the hierarchy");
+            }
+        }
+        verifyNoCycles(newWrappers);
+
+        // Phase 2: add all the items and link them to their parents
+        itemToWrapperMap.putAll(newWrappers);
+        for (int i = 0; i < size; i++) {
+            itemToWrapperMap.get(parents.get(i)).addChild(items.get(i));
+        }
+        newWrappers.values().forEach(HierarchyWrapper::trimChildren);
+    }
+
+    /**
+     * Verifies that the parents of all new items lead to an item that is
+     * already in the hierarchy or to the root.
+     */
+    private void verifyNoCycles(Map<T, HierarchyWrapper<T>> newWrappers) {
+        Set<T> verified = new HashSet<>();
+        List<T> path = new ArrayList<>();
+        for (T item : newWrappers.keySet()) {
+            T current = item;
+            while (current != null && !verified.contains(current)
+                    && newWrappers.containsKey(current)) {
+                path.add(current);
+                if (path.size() > newWrappers.size()) {
+                    throw new IllegalArgumentException(
+                            "The parents of item '" + item
+                                    + "' form a cycle");
+                }
+                current = newWrappers.get(current).getParent();
+            }
+            verified.addAll(path);
+            path.clear();
+        }
+    }
+
     private void addItemsRecursively(Collection<T> items,
             ValueProvider<T, Collection<T>> childItemProvider) {
         items.forEach(item -> {
@@ -222,7 +222,7 @@ public abstract class BasicRenderer<SOURCE, TARGET>
                         !templateElement.isEnabled());
             } else if (container != null) {
                 String itemKey = getItemKey(item);
-                Component component = createComponent(item);
+                Component component = createOrRecycleComponent(item);
                 registerRenderedComponent(itemKey, component);
             }
         }
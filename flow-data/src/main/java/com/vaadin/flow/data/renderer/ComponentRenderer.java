@@ -54,6 +54,7 @@ public class ComponentRenderer<COMPONENT extends Component, SOURCE>
     private SerializableBiFunction<Component, SOURCE, Component> componentUpdateFunction;
     private SerializableBiConsumer<COMPONENT, SOURCE> itemConsumer;
     private String componentRendererTag = "flow-component-renderer";
+    private int componentPoolSize;
 
     /**
      * Creates a new ComponentRenderer that uses the componentSupplier to
@@ -157,6 +158,7 @@ public class ComponentRenderer<COMPONENT extends Component, SOURCE>
         ComponentRendering rendering = new ComponentRendering(
                 keyMapper == null ? null : keyMapper::key);
         rendering.setTemplateElement(contentTemplate);
+        rendering.setComponentPoolSize(componentPoolSize);
 
         container.getNode()
                 .runWhenAttached(ui -> ui.getInternals().getStateTree()
@@ -183,6 +185,44 @@ public class ComponentRenderer<COMPONENT extends Component, SOURCE>
         this.componentRendererTag = componentRendererTag;
     }
 
+    /**
+     * Sets the maximum number of rendered components that are kept for
+     * recycling once the items they were rendered for are no longer needed,
+     * for example when they are scrolled out of view. A recycled component is
+     * reused for a new item by passing it to
+     * {@link #updateComponent(Component, Object)}, so pooling should only be
+     * enabled when the update function, or an overridden
+     * {@code updateComponent} method, can update a component in place for a
+     * different item.
+     * <p>
+     * The pool size only affects renderings created after calling this
+     * method. By default, no components are recycled.
+     *
+     * @param componentPoolSize
+     *            the maximum number of components to keep for recycling, not
+     *            negative
+     * @since 1.3
+     */
+    public void setComponentPoolSize(int componentPoolSize) {
+        if (componentPoolSize < 0) {
+            throw new IllegalArgumentException(
+                    "The component pool size cannot be negative");
+        }
+        this.componentPoolSize = componentPoolSize;
+    }
+
+    /**
+     * Gets the maximum number of rendered components that are kept for
+     * recycling.
+     *
+     * @return the maximum number of components to keep for recycling
+     * @see #setComponentPoolSize(int)
+     * @since 1.3
+     */
+    public int getComponentPoolSize() {
+        return componentPoolSize;
+    }
+
     private void setupTemplateWhenAttached(UI ui, Element owner,
             ComponentRendering rendering, DataKeyMapper<SOURCE> keyMapper) {
         String appId = ui.getInternals().getAppId();
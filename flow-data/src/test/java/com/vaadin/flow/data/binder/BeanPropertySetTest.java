@@ -17,6 +17,7 @@ package com.vaadin.flow.data.binder;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
@@ -72,6 +73,114 @@ public class BeanPropertySetTest {
         }
     }
 
+    public static class ThrowingBean {
+        public String getValue() {
+            throw new IllegalStateException("Expected");
+        }
+
+        public void setValue(String value) {
+            throw new IllegalStateException("Expected");
+        }
+
+        public String getChecked() throws IOException {
+            throw new IOException("Expected");
+        }
+    }
+
+    static class PackagePrivateBean {
+        private int count;
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+    }
+
+    @Test
+    public void getterAndSetter_publicBean_valuesReadAndWritten() {
+        PropertyDefinition<Person, String> name = getDefinition(Person.class,
+                "name");
+        PropertyDefinition<Person, Integer> born = getDefinition(Person.class,
+                "born");
+        Person person = new Person("Jon", 1985);
+
+        Assert.assertEquals("Jon", name.getGetter().apply(person));
+        Assert.assertEquals(Integer.valueOf(1985),
+                born.getGetter().apply(person));
+
+        name.getSetter().get().accept(person, "Jane");
+        Assert.assertEquals("Jane", person.getName());
+    }
+
+    @Test
+    public void getterAndSetter_packagePrivateBean_valuesReadAndWritten() {
+        PropertyDefinition<PackagePrivateBean, Integer> count = getDefinition(
+                PackagePrivateBean.class, "count");
+        PackagePrivateBean bean = new PackagePrivateBean();
+
+        count.getSetter().get().accept(bean, 5);
+        Assert.assertEquals(Integer.valueOf(5),
+                count.getGetter().apply(bean));
+    }
+
+    @Test
+    public void getterAndSetter_accessorThrows_exceptionWrappedAsWithReflection() {
+        PropertyDefinition<ThrowingBean, String> value = getDefinition(
+                ThrowingBean.class, "value");
+        ThrowingBean bean = new ThrowingBean();
+
+        try {
+            value.getGetter().apply(bean);
+            Assert.fail();
+        } catch (RuntimeException e) {
+            Assert.assertTrue(e
+                    .getCause() instanceof java.lang.reflect.InvocationTargetException);
+            Assert.assertTrue(e.getCause()
+                    .getCause() instanceof IllegalStateException);
+        }
+
+        try {
+            value.getSetter().get().accept(bean, "foo");
+            Assert.fail();
+        } catch (RuntimeException e) {
+            Assert.assertTrue(e.getCause()
+                    .getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    public void getter_accessorThrowsCheckedException_exceptionWrappedAsWithReflection() {
+        PropertyDefinition<ThrowingBean, String> checked = getDefinition(
+                ThrowingBean.class, "checked");
+
+        try {
+            checked.getGetter().apply(new ThrowingBean());
+            Assert.fail();
+        } catch (RuntimeException e) {
+            Assert.assertTrue(e
+                    .getCause() instanceof java.lang.reflect.InvocationTargetException);
+            Assert.assertTrue(
+                    e.getCause().getCause() instanceof IOException);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setter_nullForPrimitive_throws() {
+        PropertyDefinition<PackagePrivateBean, Integer> count = getDefinition(
+                PackagePrivateBean.class, "count");
+        count.getSetter().get().accept(new PackagePrivateBean(), null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T, V> PropertyDefinition<T, V> getDefinition(
+            Class<T> type, String name) {
+        return (PropertyDefinition<T, V>) BeanPropertySet.get(type)
+                .getProperty(name).get();
+    }
+
     @Test
     public void testSerializeDeserialize_propertySet() throws Exception {
         PropertySet<Person> originalPropertySet = BeanPropertySet
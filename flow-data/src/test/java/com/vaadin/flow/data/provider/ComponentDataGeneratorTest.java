@@ -0,0 +1,116 @@
+/*
+ * Copyright 2000-2018 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.data.provider;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.data.renderer.ComponentRenderer;
+import com.vaadin.flow.dom.Element;
+
+import elemental.json.Json;
+import elemental.json.JsonObject;
+
+public class ComponentDataGeneratorTest {
+
+    private AtomicInteger createInvocations;
+    private Element container;
+    private ComponentDataGenerator<String> generator;
+
+    @Before
+    public void init() {
+        createInvocations = new AtomicInteger();
+        ComponentRenderer<Div, String> renderer = new ComponentRenderer<>(
+                item -> {
+                    createInvocations.incrementAndGet();
+                    return new Div();
+                }, (component, item) -> {
+                    ((Div) component).setText(item);
+                    return component;
+                });
+        container = new Element("div");
+        generator = new ComponentDataGenerator<>(renderer, item -> item);
+        generator.setContainer(container);
+        generator.setNodeIdPropertyName("nodeId");
+    }
+
+    @Test
+    public void noPool_destroyedComponentsRemovedAndCreatedAgain() {
+        generate("a");
+        Element first = container.getChild(0);
+        generator.destroyData("a");
+
+        Assert.assertEquals(0, container.getChildCount());
+
+        generate("b");
+        Assert.assertEquals(2, createInvocations.get());
+        Assert.assertNotSame(first, container.getChild(0));
+    }
+
+    @Test
+    public void pool_destroyedComponentRecycledForNewItem() {
+        generator.setComponentPoolSize(1);
+        generate("a");
+        Element first = container.getChild(0);
+        generator.destroyData("a");
+
+        Assert.assertEquals("Pooled component should stay attached", 1,
+                container.getChildCount());
+
+        generate("b");
+        Assert.assertEquals(1, createInvocations.get());
+        Assert.assertEquals(1, container.getChildCount());
+        Assert.assertSame(first, container.getChild(0));
+        Assert.assertEquals("b", container.getChild(0).getText());
+    }
+
+    @Test
+    public void pool_destroyAllData_componentsBeyondPoolSizeRemoved() {
+        generator.setComponentPoolSize(2);
+        generate("a");
+        generate("b");
+        generate("c");
+        generator.destroyAllData();
+
+        Assert.assertEquals(2, container.getChildCount());
+
+        generate("d");
+        generate("e");
+        generate("f");
+        Assert.assertEquals(4, createInvocations.get());
+        Assert.assertEquals(3, container.getChildCount());
+    }
+
+    @Test
+    public void pool_shrunk_pooledComponentsRemoved() {
+        generator.setComponentPoolSize(2);
+        generate("a");
+        generate("b");
+        generator.destroyAllData();
+
+        generator.setComponentPoolSize(0);
+        Assert.assertEquals(0, container.getChildCount());
+    }
+
+    private void generate(String item) {
+        JsonObject json = Json.createObject();
+        generator.generateData(item, json);
+    }
+}
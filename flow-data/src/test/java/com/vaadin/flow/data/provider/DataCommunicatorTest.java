@@ -16,9 +16,17 @@
 package com.vaadin.flow.data.provider;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
@@ -35,10 +43,12 @@ import org.mockito.MockitoAnnotations;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.dom.Element;
 import com.vaadin.flow.internal.Range;
+import com.vaadin.flow.server.Command;
 import com.vaadin.flow.server.VaadinRequest;
 import com.vaadin.flow.server.VaadinService;
 import com.vaadin.flow.server.VaadinSession;
 
+import elemental.json.JsonObject;
 import elemental.json.JsonValue;
 
 public class DataCommunicatorTest {
@@ -324,6 +334,355 @@ public class DataCommunicatorTest {
                 dataCommunicator.getKeyMapper().get(key));
     }
 
+    @Test
+    public void itemVersionProvider_resetWithSameVersions_jsonReused() {
+        List<Item> items = createItems(0, 10);
+        ListDataProvider<Item> dataProvider = new ListDataProvider<>(items);
+        dataCommunicator.setDataProvider(dataProvider, null);
+        dataCommunicator.setItemVersionProvider(item -> item.value);
+
+        dataCommunicator.setRequestedRange(0, 10);
+        fakeClientCommunication();
+        Mockito.verify(dataGenerator, Mockito.times(10))
+                .generateData(Mockito.any(), Mockito.any());
+
+        dataCommunicator.reset();
+        fakeClientCommunication();
+        Assert.assertEquals(Range.withLength(0, 10), lastSet);
+        Mockito.verify(dataGenerator, Mockito.times(10))
+                .generateData(Mockito.any(), Mockito.any());
+
+        items.set(3, new Item(3, "Updated"));
+        dataProvider.refreshAll();
+        fakeClientCommunication();
+        Mockito.verify(dataGenerator, Mockito.times(11))
+                .generateData(Mockito.any(), Mockito.any());
+        Mockito.verify(dataGenerator).generateData(Mockito.same(items.get(3)),
+                Mockito.any());
+    }
+
+    @Test
+    public void itemVersionProvider_refreshItem_jsonGeneratedAgain() {
+        List<Item> items = createItems(0, 10);
+        dataCommunicator.setDataProvider(new ListDataProvider<>(items), null);
+        dataCommunicator.setItemVersionProvider(item -> item.value);
+
+        dataCommunicator.setRequestedRange(0, 10);
+        fakeClientCommunication();
+
+        dataCommunicator.refresh(items.get(5));
+        fakeClientCommunication();
+        Mockito.verify(dataGenerator, Mockito.times(2))
+                .generateData(Mockito.same(items.get(5)), Mockito.any());
+
+        dataCommunicator.reset();
+        fakeClientCommunication();
+        Mockito.verify(dataGenerator, Mockito.times(2))
+                .generateData(Mockito.same(items.get(5)), Mockito.any());
+    }
+
+    @Test
+    public void noItemVersionProvider_reset_jsonGeneratedAgain() {
+        dataCommunicator.setDataProvider(
+                new ListDataProvider<>(createItems(0, 10)), null);
+
+        dataCommunicator.setRequestedRange(0, 10);
+        fakeClientCommunication();
+        dataCommunicator.reset();
+        fakeClientCommunication();
+
+        Mockito.verify(dataGenerator, Mockito.times(20))
+                .generateData(Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    public void jsonGenerationPool_threadSafeGenerator_generatedInPoolInOrder() {
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        List<List<JsonValue>> sent = new ArrayList<>();
+        DataGenerator<Item> generator = new DataGenerator<Item>() {
+            @Override
+            public void generateData(Item item, JsonObject jsonObject) {
+                threads.add(Thread.currentThread());
+                jsonObject.put("value", item.value);
+            }
+
+            @Override
+            public boolean isThreadSafe() {
+                return true;
+            }
+        };
+        ArrayUpdater.Update collectingUpdate = new ArrayUpdater.Update() {
+            @Override
+            public void clear(int start, int length) {
+            }
+
+            @Override
+            public void set(int start, List<JsonValue> items) {
+                if (!items.isEmpty()) {
+                    sent.add(items);
+                }
+            }
+
+            @Override
+            public void commit(int updateId) {
+            }
+        };
+        Mockito.when(arrayUpdater.startUpdate(Mockito.anyInt()))
+                .thenReturn(collectingUpdate);
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            dataCommunicator = new DataCommunicator<>(generator, arrayUpdater,
+                    data -> {
+                    }, element.getNode());
+            dataCommunicator.setJsonGenerationPool(pool);
+            dataCommunicator.setDataProvider(
+                    new ListDataProvider<>(createItems(0, 200)), null);
+
+            dataCommunicator.setRequestedRange(0, 200);
+            fakeClientCommunication();
+        } finally {
+            pool.shutdown();
+        }
+
+        Assert.assertEquals(1, sent.size());
+        List<JsonValue> json = sent.get(0);
+        Assert.assertEquals(200, json.size());
+        for (int i = 0; i < json.size(); i++) {
+            Assert.assertEquals("Item " + i,
+                    ((JsonObject) json.get(i)).getString("value"));
+        }
+        Assert.assertFalse("Rows should not be generated on request thread",
+                threads.contains(Thread.currentThread()));
+    }
+
+    @Test
+    public void jsonGenerationPool_generatorNotThreadSafe_generatedSequentially() {
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        Mockito.doAnswer(invocation -> threads.add(Thread.currentThread()))
+                .when(dataGenerator)
+                .generateData(Mockito.any(), Mockito.any());
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            dataCommunicator.setJsonGenerationPool(pool);
+            dataCommunicator.setDataProvider(
+                    new ListDataProvider<>(createItems(0, 200)), null);
+
+            dataCommunicator.setRequestedRange(0, 200);
+            fakeClientCommunication();
+        } finally {
+            pool.shutdown();
+        }
+
+        Assert.assertEquals(Range.withLength(0, 200), lastSet);
+        Assert.assertEquals(Collections.singleton(Thread.currentThread()),
+                threads);
+    }
+
+    @Test
+    public void asyncDataProvider_itemsSentWhenFetchCompleted() {
+        useUiRunningAccessImmediately();
+        TestAsyncDataProvider dataProvider = new TestAsyncDataProvider();
+        dataCommunicator.setDataProvider(dataProvider, null);
+
+        dataCommunicator.setRequestedRange(0, 50);
+        fakeClientCommunication();
+
+        Assert.assertNull("Nothing should be sent before the data is fetched",
+                lastSet);
+        Assert.assertEquals(1, dataProvider.sizes.size());
+        Assert.assertEquals(0, dataProvider.fetches.size());
+
+        dataProvider.sizes.get(0).complete(100);
+        Assert.assertEquals(1, dataProvider.fetches.size());
+        Assert.assertEquals(0, dataProvider.fetchQueries.get(0).getOffset());
+        Assert.assertEquals(50, dataProvider.fetchQueries.get(0).getLimit());
+
+        dataProvider.completeFetch(0);
+        fakeClientCommunication();
+
+        Assert.assertEquals(Range.withLength(0, 50), lastSet);
+        Assert.assertEquals(0, dataCommunicator.getKeyMapper().get("1").id);
+        Assert.assertEquals("Size should not be fetched again", 1,
+                dataProvider.sizes.size());
+
+        dataCommunicator.setRequestedRange(0, 70);
+        fakeClientCommunication();
+        Assert.assertEquals(2, dataProvider.fetches.size());
+        Assert.assertEquals(50, dataProvider.fetchQueries.get(1).getOffset());
+        Assert.assertEquals(20, dataProvider.fetchQueries.get(1).getLimit());
+
+        dataProvider.completeFetch(1);
+        fakeClientCommunication();
+        Assert.assertEquals(Range.withLength(50, 20), lastSet);
+    }
+
+    @Test
+    public void asyncDataProvider_requestedRangeChanged_pendingFetchCancelled() {
+        useUiRunningAccessImmediately();
+        TestAsyncDataProvider dataProvider = new TestAsyncDataProvider();
+        dataCommunicator.setDataProvider(dataProvider, null);
+
+        dataCommunicator.setRequestedRange(0, 50);
+        fakeClientCommunication();
+        dataProvider.sizes.get(0).complete(100);
+
+        dataCommunicator.setRequestedRange(50, 50);
+        Assert.assertTrue(dataProvider.fetches.get(0).isCancelled());
+
+        fakeClientCommunication();
+        dataProvider.sizes.get(1).complete(100);
+        Assert.assertEquals(50, dataProvider.fetchQueries.get(1).getOffset());
+
+        dataProvider.completeFetch(1);
+        fakeClientCommunication();
+        Assert.assertEquals(Range.withLength(50, 50), lastSet);
+    }
+
+    @Test
+    public void asyncDataProvider_fetchFailed_emptyResultSent() {
+        useUiRunningAccessImmediately();
+        TestAsyncDataProvider dataProvider = new TestAsyncDataProvider();
+        dataCommunicator.setDataProvider(dataProvider, null);
+
+        dataCommunicator.setRequestedRange(0, 50);
+        fakeClientCommunication();
+        dataProvider.sizes.get(0)
+                .completeExceptionally(new IllegalStateException());
+        fakeClientCommunication();
+
+        Mockito.verify(arrayUpdater).startUpdate(0);
+        Assert.assertEquals("Nothing should be fetched after the failure", 0,
+                dataProvider.fetches.size());
+
+        fakeClientCommunication();
+        Assert.assertEquals("The fetch should not be retried", 1,
+                dataProvider.sizes.size());
+    }
+
+    @Test
+    public void asyncDataProvider_overriddenHooks_usedForFetching() {
+        useUiRunningAccessImmediately();
+        dataCommunicator = new DataCommunicator<Item>(dataGenerator,
+                arrayUpdater, data -> {
+                }, element.getNode()) {
+            @Override
+            protected CompletionStage<Integer> getDataProviderSizeAsync() {
+                return CompletableFuture.completedFuture(10);
+            }
+
+            @Override
+            protected CompletionStage<List<Item>> fetchFromProviderAsync(
+                    int offset, int limit) {
+                return CompletableFuture
+                        .completedFuture(createItems(offset + 100, limit));
+            }
+        };
+        TestAsyncDataProvider dataProvider = new TestAsyncDataProvider();
+        dataCommunicator.setDataProvider(dataProvider, null);
+
+        dataCommunicator.setRequestedRange(0, 50);
+        fakeClientCommunication();
+
+        Mockito.verify(arrayUpdater).startUpdate(10);
+        Assert.assertEquals(Range.withLength(0, 10), lastSet);
+        Assert.assertEquals(100,
+                dataCommunicator.getKeyMapper().get("1").id);
+        Assert.assertEquals(0, dataProvider.sizes.size());
+        Assert.assertEquals(0, dataProvider.fetches.size());
+    }
+
+    @Test
+    public void asyncDataProvider_completedFutures_itemsSentInFirstResponse() {
+        TestAsyncDataProvider dataProvider = new TestAsyncDataProvider() {
+            @Override
+            protected CompletionStage<List<Item>> fetchFromBackEndAsync(
+                    Query<Item, Object> query) {
+                return CompletableFuture.completedFuture(
+                        createItems(query.getOffset(), query.getLimit()));
+            }
+
+            @Override
+            protected CompletionStage<Integer> sizeInBackEndAsync(
+                    Query<Item, Object> query) {
+                return CompletableFuture.completedFuture(100);
+            }
+        };
+        dataCommunicator.setDataProvider(dataProvider, null);
+
+        dataCommunicator.setRequestedRange(0, 50);
+        fakeClientCommunication();
+
+        Mockito.verify(arrayUpdater).startUpdate(100);
+        Assert.assertEquals(Range.withLength(0, 50), lastSet);
+        Assert.assertEquals(0, dataCommunicator.getKeyMapper().get("1").id);
+    }
+
+    @Test
+    public void asyncDataProvider_blockingFetch_waitsForResult() {
+        TestAsyncDataProvider dataProvider = new TestAsyncDataProvider() {
+            @Override
+            protected CompletionStage<List<Item>> fetchFromBackEndAsync(
+                    Query<Item, Object> query) {
+                return CompletableFuture.completedFuture(
+                        createItems(query.getOffset(), query.getLimit()));
+            }
+        };
+
+        Assert.assertEquals(createItems(10, 5),
+                dataProvider.fetch(new Query<>(10, 5, null, null, null))
+                        .collect(Collectors.toList()));
+    }
+
+    private void useUiRunningAccessImmediately() {
+        ui = new MockUI() {
+            @Override
+            public Future<Void> access(Command command) {
+                command.execute();
+                return CompletableFuture.completedFuture(null);
+            }
+        };
+        element = new Element("div");
+        ui.getElement().appendChild(element);
+        dataCommunicator = new DataCommunicator<>(dataGenerator, arrayUpdater,
+                data -> {
+                }, element.getNode());
+    }
+
+    private static List<Item> createItems(int offset, int limit) {
+        return IntStream.range(offset, offset + limit).mapToObj(Item::new)
+                .collect(Collectors.toList());
+    }
+
+    private static class TestAsyncDataProvider
+            extends AbstractAsyncDataProvider<Item, Object> {
+        private final List<CompletableFuture<Integer>> sizes = new ArrayList<>();
+        private final List<CompletableFuture<List<Item>>> fetches = new ArrayList<>();
+        private final List<Query<Item, Object>> fetchQueries = new ArrayList<>();
+
+        @Override
+        protected CompletionStage<List<Item>> fetchFromBackEndAsync(
+                Query<Item, Object> query) {
+            CompletableFuture<List<Item>> future = new CompletableFuture<>();
+            fetches.add(future);
+            fetchQueries.add(query);
+            return future;
+        }
+
+        @Override
+        protected CompletionStage<Integer> sizeInBackEndAsync(
+                Query<Item, Object> query) {
+            CompletableFuture<Integer> future = new CompletableFuture<>();
+            sizes.add(future);
+            return future;
+        }
+
+        private void completeFetch(int index) {
+            Query<Item, Object> query = fetchQueries.get(index);
+            fetches.get(index).complete(
+                    createItems(query.getOffset(), query.getLimit()));
+        }
+    }
+
     private void fakeClientCommunication() {
         ui.getInternals().getStateTree().runExecutionsBeforeClientResponse();
         ui.getInternals().getStateTree().collectChanges(ignore -> {
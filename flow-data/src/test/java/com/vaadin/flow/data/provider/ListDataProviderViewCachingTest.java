@@ -0,0 +1,196 @@
+/*
+ * Copyright 2000-2018 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.data.provider;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.vaadin.flow.function.SerializableComparator;
+import com.vaadin.flow.function.SerializablePredicate;
+
+/**
+ * Runs all {@link ListDataProviderTest} tests with view caching enabled.
+ */
+public class ListDataProviderViewCachingTest extends ListDataProviderTest {
+
+    @Override
+    protected ListDataProvider<StrBean> createDataProvider() {
+        ListDataProvider<StrBean> dataProvider = super.createDataProvider();
+        dataProvider.setViewCachingEnabled(true);
+        return dataProvider;
+    }
+
+    @Test
+    public void fetchPages_sameQuerySorting_sortedOnlyOnce() {
+        AtomicInteger comparisons = new AtomicInteger();
+        SerializableComparator<StrBean> comparator = (bean1, bean2) -> {
+            comparisons.incrementAndGet();
+            return Integer.compare(bean1.getId(), bean2.getId());
+        };
+        List<StrBean> expected = data.stream().sorted(comparator).skip(20)
+                .limit(10).collect(Collectors.toList());
+
+        getDataProvider().fetch(new Query<>(0, 10, null, comparator, null))
+                .count();
+        Assert.assertTrue(comparisons.get() > 0);
+        comparisons.set(0);
+
+        Assert.assertEquals(expected,
+                getDataProvider()
+                        .fetch(new Query<>(20, 10, null, comparator, null))
+                        .collect(Collectors.toList()));
+        Assert.assertEquals(data.size(), getDataProvider().size(
+                new Query<>(0, Integer.MAX_VALUE, null, comparator, null)));
+        Assert.assertEquals(0, comparisons.get());
+    }
+
+    @Test
+    public void fetchPages_equalQueryFilters_filteredOnlyOnce() {
+        AtomicInteger filterCalls = new AtomicInteger();
+
+        getDataProvider()
+                .fetch(new Query<>(0, 10, null, null,
+                        new IdFilter(10, filterCalls)))
+                .count();
+        Assert.assertTrue(filterCalls.get() > 0);
+        filterCalls.set(0);
+
+        Assert.assertEquals(
+                data.stream().filter(bean -> bean.getId() < 10).count(),
+                getDataProvider().size(new Query<>(0, Integer.MAX_VALUE,
+                        null, null, new IdFilter(10, filterCalls))));
+        Assert.assertEquals(0, filterCalls.get());
+    }
+
+    @Test
+    public void queryFilterCreatedForEachQuery_resultsStillCorrect() {
+        for (int i = 0; i < 5; i++) {
+            int maxId = i;
+            Assert.assertEquals(
+                    data.stream().filter(bean -> bean.getId() < maxId)
+                            .count(),
+                    getDataProvider().size(new Query<>(0, Integer.MAX_VALUE,
+                            null, null, bean -> bean.getId() < maxId)));
+        }
+    }
+
+    @Test
+    public void backendChanged_refreshAll_viewUpdated() {
+        int size = getDataProvider().size(new Query<>());
+
+        StrBean added = new StrBean("added", -1, 0);
+        data.add(added);
+        Assert.assertEquals("Cached view should be used until refreshed", size,
+                getDataProvider().size(new Query<>()));
+
+        getDataProvider().refreshAll();
+        Assert.assertEquals(size + 1, getDataProvider().size(new Query<>()));
+        Assert.assertTrue(getDataProvider().fetch(new Query<>())
+                .anyMatch(added::equals));
+    }
+
+    @Test
+    public void fetch_offsetBeyondSize_emptyStream() {
+        Assert.assertEquals(0, getDataProvider()
+                .fetch(new Query<>(data.size() + 10, 5, null, null, null))
+                .count());
+    }
+
+    @Test
+    public void concurrentQueries_differentSortingsAndFilters_resultsCorrect()
+            throws InterruptedException, ExecutionException {
+        SerializableComparator<StrBean> ascending = (bean1,
+                bean2) -> Integer.compare(bean1.getId(), bean2.getId());
+        SerializableComparator<StrBean> descending = (bean1,
+                bean2) -> Integer.compare(bean2.getId(), bean1.getId());
+        List<List<StrBean>> expected = new ArrayList<>();
+        List<Query<StrBean, SerializablePredicate<StrBean>>> queries;
+        queries = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            int maxId = 20 * (i + 1);
+            SerializableComparator<StrBean> comparator = i % 2 == 0
+                    ? ascending
+                    : descending;
+            IdFilter filter = new IdFilter(maxId, new AtomicInteger());
+            queries.add(new Query<>(0, Integer.MAX_VALUE, null, comparator,
+                    filter));
+            expected.add(data.stream().filter(bean -> bean.getId() < maxId)
+                    .sorted(comparator).collect(Collectors.toList()));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Void>> results = new ArrayList<>();
+            for (int i = 0; i < queries.size(); i++) {
+                Query<StrBean, SerializablePredicate<StrBean>> query = queries
+                        .get(i);
+                List<StrBean> expectedItems = expected.get(i);
+                Callable<Void> task = () -> {
+                    for (int j = 0; j < 200; j++) {
+                        Assert.assertEquals(expectedItems,
+                                getDataProvider().fetch(query)
+                                        .collect(Collectors.toList()));
+                        Assert.assertEquals(expectedItems.size(),
+                                getDataProvider().size(query));
+                    }
+                    return null;
+                };
+                results.add(executor.submit(task));
+            }
+            for (Future<Void> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static class IdFilter implements SerializablePredicate<StrBean> {
+        private final int maxId;
+        private final AtomicInteger calls;
+
+        private IdFilter(int maxId, AtomicInteger calls) {
+            this.maxId = maxId;
+            this.calls = calls;
+        }
+
+        @Override
+        public boolean test(StrBean bean) {
+            calls.incrementAndGet();
+            return bean.getId() < maxId;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof IdFilter && ((IdFilter) obj).maxId == maxId;
+        }
+
+        @Override
+        public int hashCode() {
+            return maxId;
+        }
+    }
+}
@@ -20,7 +20,15 @@ import static org.junit.Assert.assertFalse;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import org.junit.Assert;
 import org.junit.Before;
@@ -33,6 +41,9 @@ import com.vaadin.flow.component.internal.UIInternals;
 import com.vaadin.flow.data.provider.CompositeDataGenerator;
 import com.vaadin.flow.data.provider.hierarchy.HierarchicalArrayUpdater.HierarchicalUpdate;
 import com.vaadin.flow.function.SerializableConsumer;
+import com.vaadin.flow.function.SerializablePredicate;
+import com.vaadin.flow.internal.ExecutionContext;
+import com.vaadin.flow.server.Command;
 import com.vaadin.flow.internal.StateNode;
 import com.vaadin.flow.internal.StateTree;
 
@@ -193,4 +204,152 @@ public class HierarchicalCommunicatorTest {
                 enqueueFunctions.get(0));
     }
 
+    @Test
+    public void hasChildren_fetchedItems_resolvedInOneCall() {
+        treeData.addItems(null, "ROOT2", "ROOT3");
+        treeData.addItems("ROOT2", "CHILD");
+        CountingTreeDataProvider provider = new CountingTreeDataProvider(
+                treeData);
+        communicator.setDataProvider(provider, null);
+
+        communicator.hasChildren(ROOT);
+        communicator.fetchFromProvider(0, 10).count();
+        Assert.assertTrue(communicator.hasChildren(ROOT));
+        Assert.assertTrue(communicator.hasChildren("ROOT2"));
+        Assert.assertFalse(communicator.hasChildren("ROOT3"));
+
+        Assert.assertEquals(1, provider.batchCalls);
+        Assert.assertEquals(Arrays.asList(
+                new HashSet<>(Arrays.asList(ROOT, "ROOT2", "ROOT3"))),
+                provider.batches);
+    }
+
+    @Test
+    public void setParentRequestedRange_severalParents_countedInOneCall() {
+        treeData.addItems(null, "ROOT2");
+        treeData.addItems("ROOT2", "CHILD");
+        CountingTreeDataProvider provider = new CountingTreeDataProvider(
+                treeData);
+        HierarchicalDataCommunicator<String> communicator = createCommunicator(
+                provider);
+        List<SerializableConsumer<ExecutionContext>> flushes = captureFlushes();
+
+        // Parents have been sent to the client
+        communicator.getKeyMapper().key(ROOT);
+        communicator.getKeyMapper().key("ROOT2");
+        communicator.expand(ROOT, false);
+        communicator.expand("ROOT2", false);
+        communicator.setParentRequestedRange(0, 10, ROOT);
+        communicator.setParentRequestedRange(0, 10, "ROOT2");
+        flushes.forEach(flush -> flush.accept(null));
+
+        Assert.assertEquals(1, provider.batchCalls);
+        Assert.assertEquals(
+                Arrays.asList(new HashSet<>(Arrays.asList(ROOT, "ROOT2"))),
+                provider.batches);
+        Assert.assertEquals(Collections.emptyList(), provider.countedParents);
+    }
+
+    @Test
+    public void setParentRequestedRange_childFetchExecutor_childrenFetchedInBackground() {
+        CountingTreeDataProvider provider = new CountingTreeDataProvider(
+                treeData);
+        HierarchicalDataCommunicator<String> communicator = createCommunicator(
+                provider);
+        List<SerializableConsumer<ExecutionContext>> flushes = captureFlushes();
+        List<Runnable> tasks = new ArrayList<>();
+        communicator.setChildFetchExecutor(tasks::add);
+        Mockito.when(ui.access(Mockito.any())).thenAnswer(invocation -> {
+            invocation.getArgumentAt(0, Command.class).execute();
+            return null;
+        });
+
+        communicator.getKeyMapper().key(ROOT);
+        communicator.expand(ROOT, false);
+        communicator.setParentRequestedRange(0, 10, ROOT);
+        Assert.assertTrue("Nothing should be flushed before the fetch",
+                flushes.isEmpty());
+        Assert.assertEquals(0, provider.fetchedParents.size());
+
+        tasks.forEach(Runnable::run);
+        Assert.assertEquals(Arrays.asList(ROOT), provider.fetchedParents);
+        Assert.assertEquals(Arrays.asList(ROOT), provider.countedParents);
+
+        Assert.assertEquals(1, flushes.size());
+        flushes.forEach(flush -> flush.accept(null));
+        Assert.assertEquals("Children should not be fetched again",
+                Arrays.asList(ROOT), provider.fetchedParents);
+        Assert.assertEquals(Arrays.asList(ROOT), provider.countedParents);
+        Assert.assertEquals(FOLDER,
+                communicator.getKeyMapper().get(FOLDER));
+    }
+
+    private HierarchicalDataCommunicator<String> createCommunicator(
+            HierarchicalDataProvider<String, ?> provider) {
+        HierarchicalDataCommunicator<String> communicator = new HierarchicalDataCommunicator<>(
+                new CompositeDataGenerator<>(), arrayUpdater, json -> {
+                }, stateNode, () -> item -> item);
+        communicator.setDataProvider(provider, null);
+        return communicator;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<SerializableConsumer<ExecutionContext>> captureFlushes() {
+        List<SerializableConsumer<ExecutionContext>> flushes = new ArrayList<>();
+        Mockito.doAnswer(invocation -> {
+            invocation.getArgumentAt(0, SerializableConsumer.class).accept(ui);
+            return null;
+        }).when(stateNode).runWhenAttached(Mockito.any());
+        Mockito.doAnswer(invocation -> {
+            flushes.add(invocation.getArgumentAt(1,
+                    SerializableConsumer.class));
+            return null;
+        }).when(stateTree).beforeClientResponse(Mockito.any(),
+                Mockito.any());
+        return flushes;
+    }
+
+    private static class CountingTreeDataProvider
+            extends TreeDataProvider<String> {
+        private int batchCalls;
+        private List<Set<String>> batches = new ArrayList<>();
+        private List<String> countedParents = new ArrayList<>();
+        private List<String> fetchedParents = new ArrayList<>();
+
+        private CountingTreeDataProvider(TreeData<String> treeData) {
+            super(treeData);
+        }
+
+        @Override
+        public Set<String> getItemsWithChildren(Collection<String> items) {
+            batchCalls++;
+            batches.add(new HashSet<>(items));
+            return super.getItemsWithChildren(items);
+        }
+
+        @Override
+        public Map<String, Integer> getChildCounts(Collection<String> parents,
+                SerializablePredicate<String> filter) {
+            batchCalls++;
+            batches.add(new HashSet<>(parents));
+            Map<String, Integer> counts = new HashMap<>();
+            parents.forEach(parent -> counts.put(parent,
+                    super.getChildCount(new HierarchicalQuery<>(filter, parent))));
+            return counts;
+        }
+
+        @Override
+        public int getChildCount(
+                HierarchicalQuery<String, SerializablePredicate<String>> query) {
+            query.getParentOptional().ifPresent(countedParents::add);
+            return super.getChildCount(query);
+        }
+
+        @Override
+        public Stream<String> fetchChildren(
+                HierarchicalQuery<String, SerializablePredicate<String>> query) {
+            query.getParentOptional().ifPresent(fetchedParents::add);
+            return super.fetchChildren(query);
+        }
+    }
 }
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2000-2018 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.data.provider.hierarchy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HierarchyIndexTest {
+
+    private HierarchyIndex<String> index = new HierarchyIndex<>();
+
+    @Test
+    public void append_rowsInOrder() {
+        append("a", 0);
+        append("b", 0);
+        append("c", 0);
+
+        Assert.assertEquals(3, index.size());
+        Assert.assertEquals(Arrays.asList("a", "b", "c"), index.getItems(0, 3));
+        Assert.assertEquals(1, index.indexOf("b"));
+        Assert.assertEquals(-1, index.indexOf("d"));
+    }
+
+    @Test
+    public void getItems_rangeOutsideRows_limitedToRows() {
+        append("a", 0);
+        append("b", 0);
+
+        Assert.assertEquals(Arrays.asList("b"), index.getItems(1, 10));
+        Assert.assertEquals(Collections.emptyList(), index.getItems(2, 10));
+        Assert.assertEquals(Collections.emptyList(), index.getItems(0, 0));
+    }
+
+    @Test
+    public void insertAndRemoveDescendants_indexesUpdated() {
+        append("a", 0);
+        append("b", 0);
+
+        HierarchyIndex<String> children = new HierarchyIndex<>();
+        children.append("a1", "a1", 1);
+        children.append("a2", "a2", 1);
+        index.insert(1, children);
+
+        Assert.assertEquals(0, children.size());
+        Assert.assertEquals(Arrays.asList("a", "a1", "a2", "b"),
+                index.getItems(0, 4));
+        Assert.assertEquals(3, index.indexOf("b"));
+        Assert.assertEquals(2, index.countDescendants(0));
+        Assert.assertEquals(0, index.countDescendants(1));
+        Assert.assertEquals(1, index.getDepth(2));
+
+        Assert.assertEquals(2, index.removeDescendants(0));
+        Assert.assertEquals(Arrays.asList("a", "b"), index.getItems(0, 2));
+        Assert.assertEquals(-1, index.indexOf("a1"));
+        Assert.assertEquals(1, index.indexOf("b"));
+    }
+
+    @Test
+    public void replace_itemReplaced() {
+        append("a", 0);
+        index.replace("a", "A");
+        Assert.assertEquals(Arrays.asList("A"), index.getItems(0, 1));
+    }
+
+    @Test
+    public void randomOperations_sameAsList() {
+        Random random = new Random(42);
+        List<String> expected = new ArrayList<>();
+        int counter = 0;
+        for (int i = 0; i < 1000; i++) {
+            String id = String.valueOf(counter++);
+            append(id, 0);
+            expected.add(id);
+        }
+
+        for (int round = 0; round < 500; round++) {
+            int position = random.nextInt(expected.size() + 1);
+            int count = random.nextInt(20);
+            HierarchyIndex<String> rows = new HierarchyIndex<>();
+            for (int i = 0; i < count; i++) {
+                String id = String.valueOf(counter++);
+                rows.append(id, id, 0);
+                expected.add(position + i, id);
+            }
+            index.insert(position, rows);
+
+            if (round % 3 == 0) {
+                // Make a row have descendants and remove them
+                int parent = random.nextInt(expected.size());
+                HierarchyIndex<String> children = new HierarchyIndex<>();
+                int depth = index.getDepth(parent);
+                for (int i = 0; i < 5; i++) {
+                    String id = String.valueOf(counter++);
+                    children.append(id, id, depth + 1);
+                }
+                index.insert(parent + 1, children);
+                Assert.assertEquals(5, index.removeDescendants(parent));
+            }
+
+            Assert.assertEquals(expected.size(), index.size());
+            String sample = expected.get(random.nextInt(expected.size()));
+            Assert.assertEquals(expected.indexOf(sample),
+                    index.indexOf(sample));
+        }
+        Assert.assertEquals(expected, index.getItems(0, expected.size()));
+    }
+
+    private void append(String item, int depth) {
+        index.append(item, item, depth);
+    }
+}
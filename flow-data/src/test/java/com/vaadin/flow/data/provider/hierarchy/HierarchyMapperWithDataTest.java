@@ -19,6 +19,7 @@ import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
+import java.util.Random;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -124,6 +125,45 @@ public class HierarchyMapperWithDataTest {
         checkMapSize();
     }
 
+    @Test
+    public void expandAndCollapseRandomly_indexesMatchFullHierarchy() {
+        Random random = new Random(42);
+        for (int i = 0; i < 100; i++) {
+            Node node = testData.get(random.nextInt(testData.size()));
+            if (random.nextBoolean()) {
+                mapper.expand(node, mapper.getIndexOf(node).orElse(null));
+            } else {
+                mapper.collapse(node, mapper.getIndexOf(node).orElse(null));
+            }
+
+            List<Node> expected = getExpectedHierarchy(null);
+            assertEquals(expected.size(), mapper.getTreeSize());
+            assertEquals(expected, mapper
+                    .fetchHierarchyItems(Range.withLength(0, expected.size()))
+                    .collect(Collectors.toList()));
+            for (Node item : testData) {
+                assertEquals(expected.indexOf(item),
+                        mapper.getIndex(item).intValue());
+            }
+        }
+    }
+
+    @Test
+    public void dataChanged_invalidateHierarchy_changesVisible() {
+        expand(roots.get(0));
+        assertEquals(ROOT_COUNT + PARENT_COUNT, mapper.getTreeSize());
+
+        Node added = new Node(testData.size(), roots.get(0));
+        data.addItem(roots.get(0), added);
+        assertEquals("Hierarchy should be cached until invalidated",
+                ROOT_COUNT + PARENT_COUNT, mapper.getTreeSize());
+
+        mapper.invalidateHierarchy();
+        assertEquals(ROOT_COUNT + PARENT_COUNT + 1, mapper.getTreeSize());
+        assertEquals(Integer.valueOf(PARENT_COUNT + 1),
+                mapper.getIndex(added));
+    }
+
     @Test
     public void findParentIndexOfLeaf() {
         expand(testData.get(0));
@@ -242,6 +282,17 @@ public class HierarchyMapperWithDataTest {
         }
     }
 
+    private List<Node> getExpectedHierarchy(Node parent) {
+        List<Node> hierarchy = new ArrayList<>();
+        if (mapper.isExpanded(parent)) {
+            for (Node child : data.getChildren(parent)) {
+                hierarchy.add(child);
+                hierarchy.addAll(getExpectedHierarchy(child));
+            }
+        }
+        return hierarchy;
+    }
+
     static List<Node> generateTestData(int rootCount, int parentCount,
             int leafCount) {
         int counter = 0;
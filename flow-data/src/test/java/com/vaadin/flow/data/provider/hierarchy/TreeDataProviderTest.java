@@ -31,9 +31,11 @@ import com.vaadin.flow.data.provider.StrBean;
 import com.vaadin.flow.function.SerializablePredicate;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class TreeDataProviderTest
         extends DataProviderTestBase<TreeDataProvider<StrBean>> {
@@ -221,6 +223,65 @@ public class TreeDataProviderTest
         assertEquals(stringData.getChildren("a/b"), Arrays.asList());
     }
 
+    @Test
+    public void populate_treeData_with_parent_provider() {
+        TreeData<String> stringData = new TreeData<>();
+        stringData.addItem(null, "a");
+        // children given before their parents
+        stringData.addItemsWithParents(
+                Arrays.asList("a/b/a", "a/a", "a/b", "b", "b/a", "a/b/b"),
+                item -> item.contains("/")
+                        ? item.substring(0, item.lastIndexOf('/'))
+                        : null);
+        assertEquals(Arrays.asList("a", "b"), stringData.getRootItems());
+        assertEquals(Arrays.asList("a/a", "a/b"),
+                stringData.getChildren("a"));
+        assertEquals(Arrays.asList("a/b/a", "a/b/b"),
+                stringData.getChildren("a/b"));
+        assertEquals(Arrays.asList("b/a"), stringData.getChildren("b"));
+        assertEquals("a/b", stringData.getParent("a/b/b"));
+        assertEquals(Arrays.asList(), stringData.getChildren("b/a"));
+    }
+
+    @Test
+    public void populate_treeData_with_parallel_stream_parent_provider() {
+        TreeData<Integer> intData = new TreeData<>();
+        intData.addItemsWithParents(
+                Stream.iterate(1, i -> i + 1).limit(1000).parallel(),
+                i -> i == 1 ? null : i / 2);
+        assertEquals(Arrays.asList(1), intData.getRootItems());
+        assertEquals(Arrays.asList(2, 3), intData.getChildren(1));
+        assertEquals(Arrays.asList(1000), intData.getChildren(500));
+        assertEquals(Integer.valueOf(499), intData.getParent(999));
+    }
+
+    @Test
+    public void populate_treeData_with_parent_provider_invalid_leaves_data_unchanged() {
+        TreeData<String> stringData = new TreeData<>();
+        stringData.addItem(null, "a");
+        try {
+            stringData.addItemsWithParents(Arrays.asList("a/a", "c/a"),
+                    item -> item.substring(0, item.lastIndexOf('/')));
+        } catch (IllegalArgumentException expected) {
+            assertFalse(stringData.contains("a/a"));
+            assertEquals(Arrays.asList(), stringData.getChildren("a"));
+            return;
+        }
+        fail("Missing parent should throw");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void populate_treeData_with_parent_provider_duplicate_throws() {
+        new TreeData<String>().addItemsWithParents(Arrays.asList("a", "a"),
+                item -> null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void populate_treeData_with_parent_provider_cycle_throws() {
+        new TreeData<String>().addItemsWithParents(Arrays.asList("a", "b"),
+                item -> "a".equals(item) ? "b" : "a");
+    }
+
     @Test
     public void setFilter() {
         getDataProvider().setFilter(item -> item.getValue().equals("Xyz")
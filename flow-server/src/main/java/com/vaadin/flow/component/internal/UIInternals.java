@@ -46,6 +46,7 @@ import com.vaadin.flow.internal.AnnotationReader;
 import com.vaadin.flow.internal.ConstantPool;
 import com.vaadin.flow.internal.ReflectTools;
 import com.vaadin.flow.internal.StateTree;
+import com.vaadin.flow.internal.StateTreeStatistics;
 import com.vaadin.flow.internal.nodefeature.LoadingIndicatorConfigurationMap;
 import com.vaadin.flow.internal.nodefeature.NodeFeature;
 import com.vaadin.flow.internal.nodefeature.PollConfigurationMap;
@@ -138,9 +139,17 @@ public class UIInternals implements Serializable {
     /**
      * Timestamp for keeping track of the last heartbeat of the related UI.
      * Updated to the current time whenever the application receives a heartbeat
-     * or UIDL request from the client for the related UI.
+     * or UIDL request from the client for the related UI. Heartbeats are
+     * recorded without locking the session.
      */
-    private long lastHeartbeatTimestamp = System.currentTimeMillis();
+    private volatile long lastHeartbeatTimestamp = System.currentTimeMillis();
+
+    /**
+     * Timestamp for keeping track of the last UIDL request of the related UI.
+     * Unlike {@link #lastHeartbeatTimestamp}, this is not updated by heartbeat
+     * requests, so it tells when the user last interacted with the UI.
+     */
+    private volatile long lastActivityTimestamp = System.currentTimeMillis();
 
     private List<JavaScriptInvocation> pendingJsInvocations = new ArrayList<>();
 
@@ -178,6 +187,8 @@ public class UIInternals implements Serializable {
 
     private byte[] lastProcessedMessageHash = null;
 
+    private boolean stateTreeNodeLimitExceeded;
+
     private String contextRootRelativePath;
 
     private String appId;
@@ -202,6 +213,41 @@ public class UIInternals implements Serializable {
         return stateTree;
     }
 
+    /**
+     * Gets a snapshot of the size of the state tree of the related UI. The
+     * snapshot is based on counters that are maintained incrementally, so
+     * calling this method is cheap.
+     *
+     * @return a snapshot of the state tree size, not <code>null</code>
+     */
+    public StateTreeStatistics getStateTreeStatistics() {
+        return stateTree.getStatistics();
+    }
+
+    /**
+     * Checks whether the state tree of the related UI has more nodes than the
+     * given limit. A warning is logged the first time the limit is found to be
+     * exceeded.
+     *
+     * @param nodeLimit
+     *            the maximum number of nodes, or a non-positive value for no
+     *            limit
+     * @return <code>true</code> if the limit is exceeded, <code>false</code>
+     *         otherwise
+     */
+    public boolean isStateTreeNodeLimitExceeded(int nodeLimit) {
+        if (nodeLimit <= 0 || stateTree.getNodeCount() <= nodeLimit) {
+            return false;
+        }
+        if (!stateTreeNodeLimitExceeded) {
+            stateTreeNodeLimitExceeded = true;
+            getLogger().warn(
+                    "UI #{} has {} state nodes, which exceeds the configured limit of {} nodes",
+                    ui.getUIId(), stateTree.getNodeCount(), nodeLimit);
+        }
+        return true;
+    }
+
     /**
      * Gets the last processed server message id.
      * <p>
@@ -293,8 +339,9 @@ public class UIInternals implements Serializable {
 
     /**
      * Sets the last heartbeat request timestamp for the related UI. Called by
-     * the framework whenever the application receives a valid heartbeat request
-     * for the UI.
+     * the framework whenever the application receives a valid heartbeat or
+     * UIDL request for the UI. Heartbeat requests call this method without
+     * holding the session lock.
      * <p>
      * This method is not intended to be overridden. If it is overridden, care
      * should be taken since this method might be called in situations where
@@ -308,6 +355,47 @@ public class UIInternals implements Serializable {
         lastHeartbeatTimestamp = lastHeartbeat;
     }
 
+    /**
+     * Returns the timestamp of the last UIDL request for the related UI.
+     * Heartbeat requests do not affect this timestamp.
+     *
+     * @return the time the last UIDL request occurred, in milliseconds since
+     *         the epoch
+     * @since 1.3
+     */
+    public long getLastActivityTimestamp() {
+        return lastActivityTimestamp;
+    }
+
+    /**
+     * Sets the last UIDL request timestamp for the related UI. Called by the
+     * framework whenever the application receives a UIDL request for the UI.
+     *
+     * @param lastActivity
+     *            the time the last UIDL request occurred, in milliseconds
+     *            since the epoch
+     * @since 1.3
+     */
+    public void setLastActivityTimestamp(long lastActivity) {
+        lastActivityTimestamp = lastActivity;
+    }
+
+    /**
+     * Separates the related UI instance from its session without detaching it.
+     * This is done when the UI has been passivated, since a serialized copy of
+     * the UI then replaces this instance in the session. Any later attempt to
+     * access this instance, e.g. through
+     * {@link UI#access(com.vaadin.flow.server.Command)}, fails in the same way
+     * as for a detached UI instead of silently changing an orphaned copy.
+     * <p>
+     * This method is for internal use by the framework.
+     *
+     * @since 1.3
+     */
+    public void invalidateAfterPassivation() {
+        session = null;
+    }
+
     @SuppressWarnings("unchecked")
     private static Class<? extends NodeFeature>[] getRootNodeFeatures() {
         // Start with all element features
@@ -0,0 +1,417 @@
+/*
+ * Copyright 2000-2018 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.dom;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map.Entry;
+
+import com.vaadin.flow.function.SerializableConsumer;
+import com.vaadin.flow.function.SerializableFunction;
+import com.vaadin.flow.internal.ExecutionContext;
+import com.vaadin.flow.internal.Range;
+import com.vaadin.flow.shared.Registration;
+
+/**
+ * Keeps only a window of a potentially very long list of child elements
+ * attached to a parent element. Children are created on demand by a factory
+ * for the range of indices that the client reports as visible, and children
+ * outside of that range are detached so that neither the server side state
+ * tree nor the browser DOM contains all of them.
+ * <p>
+ * The client reports its viewport by firing a {@value #VIEWPORT_EVENT} event
+ * on the parent element with <code>detail.start</code> (inclusive) and
+ * <code>detail.end</code> (exclusive) indices, or the viewport can be set
+ * explicitly using {@link #setViewport(int, int)}. Viewports reported by the
+ * client are restricted to valid indices and to at most
+ * {@link #getMaxViewportLength()} children, and invalid viewports are ignored.
+ * The parent element gets
+ * the index of its first attached child in the {@value #START_PROPERTY}
+ * property and the total number of children in the {@value #SIZE_PROPERTY}
+ * property so that the client can position the attached children.
+ * <p>
+ * Recently detached children are cached and reused if they come into view
+ * again, which avoids creating new elements when scrolling back and forth.
+ * <p>
+ * The window takes over the children of the parent element, which should not
+ * be modified by other means while the window is in use.
+ *
+ * @see Element#createChildWindow(int, SerializableFunction)
+ *
+ * @author Vaadin Ltd
+ * @since 1.3
+ */
+public class ChildElementWindow implements Serializable {
+
+    /**
+     * The name of the event that the client fires to report its viewport.
+     */
+    public static final String VIEWPORT_EVENT = "viewport-changed";
+
+    /**
+     * The name of the property containing the index of the first attached
+     * child.
+     */
+    public static final String START_PROPERTY = "windowStart";
+
+    /**
+     * The name of the property containing the total number of children.
+     */
+    public static final String SIZE_PROPERTY = "windowSize";
+
+    private static final String START_EVENT_DATA = "event.detail.start";
+    private static final String END_EVENT_DATA = "event.detail.end";
+
+    private static final int DEFAULT_CACHE_SIZE = 100;
+    private static final int DEFAULT_MAX_VIEWPORT_LENGTH = 500;
+
+    private final Element parent;
+    private final SerializableFunction<Integer, Element> childFactory;
+    private final Registration viewportRegistration;
+
+    private int size;
+    private int overscan;
+    private int cacheSize = DEFAULT_CACHE_SIZE;
+    private int maxViewportLength = DEFAULT_MAX_VIEWPORT_LENGTH;
+
+    // The range of children that the client wants to have
+    private Range viewport = Range.withLength(0, 0);
+
+    // The range of children that are currently attached to the parent
+    private Range attached = Range.withLength(0, 0);
+
+    // Detached children by index, in order of use
+    private final LinkedHashMap<Integer, Element> cache = new LinkedHashMap<>(
+            16, 0.75f, true);
+
+    private SerializableConsumer<ExecutionContext> flushRequest;
+    private boolean removed;
+
+    /**
+     * Creates a new window for the children of the given element.
+     *
+     * @param parent
+     *            the element to attach children to, not <code>null</code>
+     * @param size
+     *            the total number of children
+     * @param childFactory
+     *            the function that creates the child element for an index,
+     *            not <code>null</code>
+     */
+    ChildElementWindow(Element parent, int size,
+            SerializableFunction<Integer, Element> childFactory) {
+        assert parent != null;
+        if (childFactory == null) {
+            throw new IllegalArgumentException(
+                    "The child factory cannot be null");
+        }
+        this.parent = parent;
+        this.childFactory = childFactory;
+
+        parent.removeAllChildren();
+        parent.setProperty(START_PROPERTY, 0);
+        setSize(size);
+
+        DomListenerRegistration registration = parent
+                .addEventListener(VIEWPORT_EVENT, event -> handleViewportEvent(
+                        event.getEventData().getNumber(START_EVENT_DATA),
+                        event.getEventData().getNumber(END_EVENT_DATA)));
+        registration.addEventData(START_EVENT_DATA);
+        registration.addEventData(END_EVENT_DATA);
+        viewportRegistration = registration;
+    }
+
+    /**
+     * Gets the element that the children are attached to.
+     *
+     * @return the parent element, not <code>null</code>
+     */
+    public Element getParent() {
+        return parent;
+    }
+
+    /**
+     * Sets the total number of children. Children at indices that no longer
+     * exist are detached.
+     *
+     * @param size
+     *            the total number of children, not negative
+     */
+    public void setSize(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException(
+                    "The size cannot be negative: " + size);
+        }
+        this.size = size;
+        cache.keySet().removeIf(index -> index >= size);
+        parent.setProperty(SIZE_PROPERTY, size);
+        requestFlush();
+    }
+
+    /**
+     * Gets the total number of children.
+     *
+     * @return the total number of children
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Sets the range of children that should be attached. This is typically
+     * reported by the client, but can also be used to set the initially
+     * attached children. A viewport longer than
+     * {@link #getMaxViewportLength()} is shortened from the end.
+     *
+     * @param start
+     *            the index of the first child to attach, inclusive
+     * @param end
+     *            the index of the last child to attach, exclusive
+     */
+    public void setViewport(int start, int end) {
+        if (start < 0 || end < start) {
+            throw new IllegalArgumentException(
+                    "Invalid viewport: " + start + " - " + end);
+        }
+        viewport = Range.withLength(start,
+                Math.min(end - start, maxViewportLength));
+        requestFlush();
+    }
+
+    /**
+     * Sets the maximum number of children in a viewport, not including the
+     * overscan. This limits how many children a client can get attached at
+     * the same time. The default is <code>500</code>.
+     *
+     * @param maxViewportLength
+     *            the maximum number of children in a viewport, not negative
+     */
+    public void setMaxViewportLength(int maxViewportLength) {
+        if (maxViewportLength < 0) {
+            throw new IllegalArgumentException(
+                    "The max viewport length cannot be negative: "
+                            + maxViewportLength);
+        }
+        this.maxViewportLength = maxViewportLength;
+        if (viewport.length() > maxViewportLength) {
+            setViewport(viewport.getStart(), viewport.getEnd());
+        }
+    }
+
+    /**
+     * Gets the maximum number of children in a viewport, not including the
+     * overscan.
+     *
+     * @return the maximum number of children in a viewport
+     */
+    public int getMaxViewportLength() {
+        return maxViewportLength;
+    }
+
+    /**
+     * Sets the number of additional children to keep attached on both sides of
+     * the viewport, so that the client has content to show while waiting for
+     * a new viewport to be handled. The default is <code>0</code>.
+     *
+     * @param overscan
+     *            the number of additional children to attach before and after
+     *            the viewport, not negative
+     */
+    public void setOverscan(int overscan) {
+        if (overscan < 0) {
+            throw new IllegalArgumentException(
+                    "The overscan cannot be negative: " + overscan);
+        }
+        this.overscan = overscan;
+        requestFlush();
+    }
+
+    /**
+     * Gets the number of additional children to keep attached on both sides
+     * of the viewport.
+     *
+     * @return the overscan
+     */
+    public int getOverscan() {
+        return overscan;
+    }
+
+    /**
+     * Sets the number of detached children to keep for reuse. The default is
+     * <code>100</code>.
+     *
+     * @param cacheSize
+     *            the maximum number of cached children, not negative
+     */
+    public void setCacheSize(int cacheSize) {
+        if (cacheSize < 0) {
+            throw new IllegalArgumentException(
+                    "The cache size cannot be negative: " + cacheSize);
+        }
+        this.cacheSize = cacheSize;
+        trimCache();
+    }
+
+    /**
+     * Gets the number of detached children to keep for reuse.
+     *
+     * @return the maximum number of cached children
+     */
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    /**
+     * Creates the child at the given index again using the child factory,
+     * replacing the child if it is attached and discarding it if it is cached.
+     *
+     * @param index
+     *            the index of the child to refresh
+     */
+    public void refresh(int index) {
+        cache.remove(index);
+        if (attached.contains(index)) {
+            parent.setChild(index - attached.getStart(), createChild(index));
+        }
+    }
+
+    /**
+     * Creates all attached children again using the child factory and
+     * discards all cached children.
+     */
+    public void refreshAll() {
+        cache.clear();
+        List<Element> children = new ArrayList<>(attached.length());
+        attached.stream().mapToObj(this::createChild).forEach(children::add);
+        parent.replaceChildren(children);
+    }
+
+    /**
+     * Stops listening to viewport changes from the client and removes all
+     * children from the parent element.
+     */
+    public void remove() {
+        viewportRegistration.remove();
+        cache.clear();
+        parent.removeAllChildren();
+        attached = Range.withLength(0, 0);
+        removed = true;
+    }
+
+    private void handleViewportEvent(double start, double end) {
+        if (Double.isNaN(start) || Double.isNaN(end) || end < start) {
+            // Ignore invalid values from the client
+            return;
+        }
+        int clampedStart = (int) Math.max(0, Math.min(start, size));
+        int clampedEnd = (int) Math.max(clampedStart, Math.min(end, size));
+        setViewport(clampedStart, clampedEnd);
+    }
+
+    private void requestFlush() {
+        if (flushRequest == null && !removed) {
+            flushRequest = context -> {
+                flushRequest = null;
+                if (!removed) {
+                    flush();
+                }
+            };
+            parent.getNode().runWhenAttached(ui -> ui.getInternals()
+                    .getStateTree()
+                    .beforeClientResponse(parent.getNode(), flushRequest));
+        }
+    }
+
+    private void flush() {
+        Range target = viewport.expand(Math.min(overscan, viewport.getStart()),
+                overscan).restrictTo(Range.withLength(0, size));
+        if (target.isEmpty()) {
+            target = Range.withLength(0, 0);
+        }
+
+        if (target.equals(attached)) {
+            return;
+        }
+
+        if (attached.isEmpty() || target.isEmpty()
+                || !target.intersects(attached)) {
+            detach(0, attached.length());
+            parent.appendChildren(createChildren(target));
+        } else {
+            // Detach from the end first to keep the indices at the start valid
+            if (attached.getEnd() > target.getEnd()) {
+                detach(target.getEnd() - attached.getStart(),
+                        attached.length());
+            }
+            if (attached.getStart() < target.getStart()) {
+                detach(0, target.getStart() - attached.getStart());
+            }
+            if (target.getStart() < attached.getStart()) {
+                parent.insertChild(0, createChildren(
+                        Range.between(target.getStart(), attached.getStart()))
+                                .toArray(new Element[0]));
+            }
+            if (target.getEnd() > attached.getEnd()) {
+                parent.appendChildren(createChildren(
+                        Range.between(attached.getEnd(), target.getEnd())));
+            }
+        }
+
+        attached = target;
+        parent.setProperty(START_PROPERTY, target.getStart());
+        trimCache();
+    }
+
+    private void detach(int fromIndex, int toIndex) {
+        for (int i = fromIndex; i < toIndex; i++) {
+            int index = attached.getStart() + i;
+            if (index < size) {
+                cache.put(index, parent.getChild(i));
+            }
+        }
+        parent.removeChildren(fromIndex, toIndex);
+    }
+
+    private List<Element> createChildren(Range range) {
+        List<Element> children = new ArrayList<>(range.length());
+        for (int index = range.getStart(); index < range.getEnd(); index++) {
+            Element child = cache.remove(index);
+            children.add(child != null ? child : createChild(index));
+        }
+        return children;
+    }
+
+    private Element createChild(int index) {
+        Element child = childFactory.apply(index);
+        if (child == null) {
+            throw new IllegalStateException(
+                    "The child factory returned null for index " + index);
+        }
+        return child;
+    }
+
+    private void trimCache() {
+        Iterator<Entry<Integer, Element>> iterator = cache.entrySet()
+                .iterator();
+        while (cache.size() > cacheSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+}
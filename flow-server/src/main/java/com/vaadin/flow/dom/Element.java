@@ -38,6 +38,7 @@ import com.vaadin.flow.dom.impl.BasicTextElementStateProvider;
 import com.vaadin.flow.dom.impl.CustomAttribute;
 import com.vaadin.flow.dom.impl.ThemeListImpl;
 import com.vaadin.flow.function.SerializableConsumer;
+import com.vaadin.flow.function.SerializableFunction;
 import com.vaadin.flow.internal.JavaScriptSemantics;
 import com.vaadin.flow.internal.JsonCodec;
 import com.vaadin.flow.internal.StateNode;
@@ -207,6 +208,30 @@ public class Element extends Node<Element> {
         return super.getChildren();
     }
 
+    /**
+     * Creates a window that keeps only the children within the viewport
+     * reported by the client attached to this element. This is intended for
+     * very long lists of children, which would otherwise all be kept in memory
+     * on the server and in the browser DOM.
+     * <p>
+     * Any existing children of this element are removed. The children of this
+     * element should after this only be managed through the returned window.
+     *
+     * @see ChildElementWindow
+     *
+     * @param size
+     *            the total number of children, not negative
+     * @param childFactory
+     *            the function that creates the child element for an index,
+     *            not <code>null</code>
+     * @return the child window, not <code>null</code>
+     * @since 1.3
+     */
+    public ChildElementWindow createChildWindow(int size,
+            SerializableFunction<Integer, Element> childFactory) {
+        return new ChildElementWindow(this, size, childFactory);
+    }
+
     /**
      * Creates a text node with the given text.
      *
@@ -16,6 +16,7 @@
 package com.vaadin.flow.dom;
 
 import java.io.Serializable;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Stream;
@@ -163,6 +164,42 @@ public interface ElementStateProvider extends Serializable {
      */
     void insertChild(StateNode node, int index, Element child);
 
+    /**
+     * Inserts the given children at the given position.
+     *
+     * @param node
+     *            the node containing the data
+     * @param index
+     *            the position at which to insert the first new child
+     * @param children
+     *            the child elements to insert, in order
+     * @since 1.3
+     */
+    default void insertChildren(StateNode node, int index,
+            List<Element> children) {
+        for (int i = 0; i < children.size(); i++) {
+            insertChild(node, index + i, children.get(i));
+        }
+    }
+
+    /**
+     * Removes the children from <code>fromIndex</code>, inclusive, to
+     * <code>toIndex</code>, exclusive.
+     *
+     * @param node
+     *            the node containing the data
+     * @param fromIndex
+     *            the position of the first child element to remove
+     * @param toIndex
+     *            the position after the last child element to remove
+     * @since 1.3
+     */
+    default void removeChildren(StateNode node, int fromIndex, int toIndex) {
+        for (int i = fromIndex; i < toIndex; i++) {
+            removeChild(node, fromIndex);
+        }
+    }
+
     /**
      * Removes the child at the given position.
      *
@@ -16,8 +16,13 @@
 package com.vaadin.flow.dom;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
@@ -42,6 +47,8 @@ public abstract class Node<N extends Node<N>> implements Serializable {
 
     static final String THE_CHILDREN_ARRAY_CANNOT_BE_NULL = "The children array cannot be null";
 
+    static final String THE_CHILDREN_COLLECTION_CANNOT_BE_NULL = "The children collection cannot be null";
+
     private final ElementStateProvider stateProvider;
     private final StateNode node;
 
@@ -143,6 +150,54 @@ public abstract class Node<N extends Node<N>> implements Serializable {
         return getSelf();
     }
 
+    /**
+     * Adds the given children as the last children of this element. Unlike
+     * {@link #appendChild(Element...)}, all the children are added to the
+     * child list in one operation, which is faster when adding a large number
+     * of children.
+     *
+     * @param children
+     *            the elements to add, not <code>null</code>
+     * @return this element
+     * @since 1.3
+     */
+    public N appendChildren(Collection<Element> children) {
+        appendValidatedChildren(validateChildren(children));
+        return getSelf();
+    }
+
+    private void appendValidatedChildren(List<Element> children) {
+        if (children.isEmpty()) {
+            return;
+        }
+
+        children.forEach(Element::removeFromParent);
+        getStateProvider().insertChildren(node, getChildCount(), children);
+        children.forEach(child -> ensureChildHasParent(child, true));
+    }
+
+    private static List<Element> validateChildren(
+            Collection<Element> children) {
+        if (children == null) {
+            throw new IllegalArgumentException(
+                    THE_CHILDREN_COLLECTION_CANNOT_BE_NULL);
+        }
+
+        List<Element> list = new ArrayList<>(children);
+        Set<Element> distinct = new HashSet<>(list.size());
+        for (Element child : list) {
+            if (child == null) {
+                throw new IllegalArgumentException(
+                        "Element to insert must not be null");
+            }
+            if (!distinct.add(child)) {
+                throw new IllegalArgumentException(
+                        "The same element cannot be added twice");
+            }
+        }
+        return list;
+    }
+
     /**
      * Appends the given children as the virtual children of the element.
      * <p>
@@ -353,6 +408,54 @@ public abstract class Node<N extends Node<N>> implements Serializable {
         return getSelf();
     }
 
+    /**
+     * Removes the children from <code>fromIndex</code>, inclusive, to
+     * <code>toIndex</code>, exclusive. The children are removed from the
+     * child list in one operation, which is faster than removing a large
+     * number of children one by one.
+     *
+     * @param fromIndex
+     *            the index of the first child to remove
+     * @param toIndex
+     *            the index after the last child to remove
+     * @return this element
+     * @since 1.3
+     */
+    public N removeChildren(int fromIndex, int toIndex) {
+        int childCount = getChildCount();
+        if (fromIndex < 0 || fromIndex > toIndex || toIndex > childCount) {
+            throw new IllegalArgumentException(String.format(
+                    "Cannot remove elements from index %d to %d when there are %d children",
+                    fromIndex, toIndex, childCount));
+        }
+
+        if (fromIndex < toIndex) {
+            getStateProvider().removeChildren(getNode(), fromIndex, toIndex);
+        }
+        return getSelf();
+    }
+
+    /**
+     * Replaces all children of this element with the given children. Only the
+     * children known by the server are removed, unlike with
+     * {@link #removeAllChildren()}.
+     * <p>
+     * Rebuilding a long list of children this way results in one removal and
+     * one addition being sent to the client.
+     *
+     * @param children
+     *            the new children, not <code>null</code>
+     * @return this element
+     * @since 1.3
+     */
+    public N replaceChildren(Collection<Element> children) {
+        List<Element> newChildren = validateChildren(children);
+
+        removeChildren(0, getChildCount());
+        appendValidatedChildren(newChildren);
+        return getSelf();
+    }
+
     /**
      * Removes all child elements, including elements only present at the
      * client-side.
@@ -15,7 +15,9 @@
  */
 package com.vaadin.flow.dom.impl;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import com.vaadin.flow.dom.ChildElementConsumer;
 import com.vaadin.flow.dom.Element;
@@ -102,6 +104,25 @@ public abstract class AbstractNodeStateProvider
         getChildrenFeature(node).add(index, child.getNode());
     }
 
+    @Override
+    public void insertChildren(StateNode node, int index,
+            List<Element> children) {
+        assert index >= 0;
+        assert index <= getChildCount(node); // == if adding as last
+
+        getChildrenFeature(node).addAll(index, children.stream()
+                .map(Element::getNode).collect(Collectors.toList()));
+    }
+
+    @Override
+    public void removeChildren(StateNode node, int fromIndex, int toIndex) {
+        assert fromIndex >= 0;
+        assert fromIndex <= toIndex;
+        assert toIndex <= getChildCount(node);
+
+        getChildrenFeature(node).removeRange(fromIndex, toIndex);
+    }
+
     @Override
     public void removeChild(StateNode node, int index) {
         assert index >= 0;
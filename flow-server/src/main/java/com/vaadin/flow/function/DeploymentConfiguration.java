@@ -312,4 +312,83 @@ public interface DeploymentConfiguration extends Serializable {
     default boolean isBrotli() {
         return getBooleanProperty(Constants.SERVLET_PARAMETER_BROTLI, false);
     }
+
+    /**
+     * Gets the maximum number of state nodes that a single UI is expected to
+     * have. UIs exceeding the limit are reported in the log, and closed if
+     * {@link #isCloseUIOnStateTreeNodeLimit()} is enabled.
+     *
+     * @return the maximum number of state nodes per UI, or <code>0</code> if
+     *         there is no limit
+     */
+    default int getStateTreeNodeLimit() {
+        return getApplicationOrSystemProperty(
+                Constants.SERVLET_PARAMETER_STATE_TREE_NODE_LIMIT, 0,
+                Integer::parseInt);
+    }
+
+    /**
+     * Checks whether UIs exceeding {@link #getStateTreeNodeLimit()} should be
+     * closed at the end of the request.
+     *
+     * @return <code>true</code> to close UIs exceeding the limit,
+     *         <code>false</code> to only log a warning
+     */
+    default boolean isCloseUIOnStateTreeNodeLimit() {
+        return getBooleanProperty(
+                Constants.SERVLET_PARAMETER_CLOSE_UI_ON_STATE_TREE_NODE_LIMIT,
+                false);
+    }
+
+    /**
+     * Checks whether a {@link com.vaadin.flow.server.SessionMemoryMonitor}
+     * MBean should be registered for the service.
+     *
+     * @return <code>true</code> to register the MBean, <code>false</code>
+     *         otherwise
+     */
+    default boolean isSessionMemoryMonitorEnabled() {
+        return getBooleanProperty(
+                Constants.SERVLET_PARAMETER_SESSION_MEMORY_MONITOR, false);
+    }
+
+    /**
+     * Checks whether inactive UIs and sessions should be closed by a
+     * background timer of the service. When enabled, UIs are closed soon
+     * after their heartbeat timeout has passed, and the UIs of a session are
+     * no longer checked for inactivity at the end of every request.
+     *
+     * @return <code>true</code> to close inactive UIs and sessions in the
+     *         background, <code>false</code> to close them at the end of
+     *         requests
+     */
+    default boolean isBackgroundExpiryEnabled() {
+        return getBooleanProperty(Constants.SERVLET_PARAMETER_BACKGROUND_EXPIRY,
+                false);
+    }
+
+    /**
+     * Gets the number of seconds that a UI may go without UIDL requests before
+     * it is passivated. A passivated UI is serialized into off-heap memory and
+     * restored when a request or push connection for it arrives. Heartbeats
+     * keep a passivated UI alive without restoring it.
+     * <p>
+     * The restored UI is a copy of the original instance. The original
+     * instance is separated from the session when the UI is passivated, so
+     * that e.g. {@code UI.access} fails for it like for a detached UI.
+     * Passivation should therefore only be enabled if the application doesn't
+     * keep references to UIs or their components outside of the UI itself,
+     * e.g. in broadcaster registries, background threads, listeners of
+     * application-wide services or UI-scoped beans. Such references keep
+     * pointing to the original instance and prevent it from being garbage
+     * collected.
+     *
+     * @return the passivation timeout in seconds, or a non-positive number if
+     *         UIs should never be passivated
+     */
+    default int getUIPassivationTimeout() {
+        return getApplicationOrSystemProperty(
+                Constants.SERVLET_PARAMETER_UI_PASSIVATION_TIMEOUT, -1,
+                Integer::parseInt);
+    }
 }
@@ -16,7 +16,9 @@
 package com.vaadin.flow.internal;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import elemental.json.Json;
@@ -33,7 +35,7 @@ public class ConstantPool implements Serializable {
 
     private Set<String> knownValues = new HashSet<>();
 
-    private Set<ConstantPoolKey> newKeys = new HashSet<>();
+    private List<ConstantPoolKey> newKeys = new ArrayList<>();
 
     /**
      * Gets the id of a given constant, registering the constant with this
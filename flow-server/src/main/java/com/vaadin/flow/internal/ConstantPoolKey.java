@@ -15,11 +15,12 @@
  */
 package com.vaadin.flow.internal;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
-import java.nio.ByteBuffer;
-import java.nio.charset.StandardCharsets;
-import java.util.Base64;
 
+import elemental.json.Json;
 import elemental.json.JsonObject;
 import elemental.json.JsonValue;
 
@@ -31,14 +32,16 @@ import elemental.json.JsonValue;
  * This is a way of deduplicating JSON values that are expected to be sent to
  * the same client multiple times, since all references to the same JSON
  * structure will be encoded as the same id.
+ * <p>
+ * The JSON value and its id are shared between recently created keys for the
+ * same JSON structure, regardless of which UI they belong to.
  *
  * @author Vaadin Ltd
  * @since 1.0
  */
 public class ConstantPoolKey implements Serializable {
-    // Only stored until delivered to the client
-    private JsonValue json;
-    private final String id;
+    // Shared between all keys with the same JSON, serialized as JSON string
+    private transient ConstantPoolRegistry.Entry entry;
 
     /**
      * Creates a new constant pool key for the given JSON value. The value
@@ -50,9 +53,8 @@ public class ConstantPoolKey implements Serializable {
      */
     public ConstantPoolKey(JsonValue json) {
         assert json != null;
-        this.json = json;
 
-        id = calculateHash(json);
+        entry = ConstantPoolRegistry.intern(json);
     }
 
     /**
@@ -61,47 +63,32 @@ public class ConstantPoolKey implements Serializable {
      * @return the id used to identify this value
      */
     public String getId() {
-        return id;
+        return entry.getId();
     }
 
     /**
      * Exports the this key into a JSON object to send to the client. This
-     * method should only be called once and only by the {@link ConstantPool}
-     * instance that manages this value.
+     * method should only be called by the {@link ConstantPool} instance that
+     * manages this value.
      *
      * @param clientConstantPoolUpdate
      *            the constant pool update that is to be sent to the client, not
      *            <code>null</code>
      */
     public void export(JsonObject clientConstantPoolUpdate) {
-        assert json != null : "Process can only be called once";
-        assert id.equals(calculateHash(json)) : "Json value has been changed";
-
-        clientConstantPoolUpdate.put(id, json);
-
-        json = null;
+        clientConstantPoolUpdate.put(entry.getId(), entry.getJson());
     }
 
-    /**
-     * Calculates the key of a JSON value by Base 64 encoding the first 64 bits
-     * of the SHA-256 digest of the JSON's string representation.
-     *
-     * @param json
-     *            the JSON to get a hash of, not <code>null</code>
-     * @return the key uniquely identifying the given JSON value
-     */
-    private static String calculateHash(JsonValue json) {
-        byte[] digest = MessageDigestUtil.sha256(json.toJson());
-
-        /*
-         * Only use first 64 bits to keep id string short (1 in 100 000 000
-         * collision risk with 500 000 items). 64 bits base64 -> 11 ASCII chars
-         */
-        ByteBuffer truncatedDigest = ByteBuffer.wrap(digest, 0, 8);
-
-        ByteBuffer base64Bytes = Base64.getEncoder().encode(truncatedDigest);
+    private void writeObject(ObjectOutputStream stream) throws IOException {
+        stream.defaultWriteObject();
+        stream.writeObject(entry.getJson().toJson());
+    }
 
-        return StandardCharsets.US_ASCII.decode(base64Bytes).toString();
+    private void readObject(ObjectInputStream stream)
+            throws IOException, ClassNotFoundException {
+        stream.defaultReadObject();
+        entry = ConstantPoolRegistry
+                .intern(Json.parse((String) stream.readObject()));
     }
 
 }
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2000-2018 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.internal;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import elemental.json.JsonValue;
+
+/**
+ * Shares the JSON values referenced by {@link ConstantPoolKey} instances and
+ * their ids between keys for the same constant, so that recently used
+ * constants are hashed and stored only once regardless of how many keys, UIs
+ * or sessions reference them.
+ * <p>
+ * Only a bounded number of recently used constants are kept, so that
+ * constants created from dynamic application data don't accumulate. A
+ * constant that is no longer kept stays valid for the keys that reference it,
+ * and is only hashed again if another key is created for it.
+ *
+ * @author Vaadin Ltd
+ * @since 1.3
+ */
+final class ConstantPoolRegistry {
+
+    /**
+     * The maximum number of constants to keep for sharing.
+     */
+    static final int MAX_ENTRIES = 1000;
+
+    private static final Map<String, Entry> entries = Collections
+            .synchronizedMap(new LinkedHashMap<String, Entry>(16, 0.75f,
+                    true) {
+                @Override
+                protected boolean removeEldestEntry(
+                        Map.Entry<String, Entry> eldest) {
+                    return size() > MAX_ENTRIES;
+                }
+            });
+
+    /**
+     * A shared constant.
+     */
+    static final class Entry {
+        private final String id;
+        private final JsonValue json;
+
+        private Entry(String id, JsonValue json) {
+            this.id = id;
+            this.json = json;
+        }
+
+        /**
+         * Gets the id used to identify this constant on the client.
+         *
+         * @return the constant id, not <code>null</code>
+         */
+        String getId() {
+            return id;
+        }
+
+        /**
+         * Gets the JSON value of this constant. The returned instance is shared
+         * and must not be modified.
+         *
+         * @return the JSON value, not <code>null</code>
+         */
+        JsonValue getJson() {
+            return json;
+        }
+    }
+
+    private ConstantPoolRegistry() {
+        // Only static methods
+    }
+
+    /**
+     * Gets the shared constant for a JSON value, registering the value if it
+     * isn't among the recently used constants.
+     *
+     * @param json
+     *            the JSON constant, not <code>null</code>
+     * @return the shared constant, not <code>null</code>
+     */
+    static Entry intern(JsonValue json) {
+        assert json != null;
+
+        String serialized = json.toJson();
+        Entry entry = entries.get(serialized);
+        if (entry == null) {
+            // Hash outside the lock, a concurrent duplicate is harmless
+            Entry newEntry = new Entry(calculateHash(serialized), json);
+            entry = entries.computeIfAbsent(serialized, key -> newEntry);
+        }
+        return entry;
+    }
+
+    /**
+     * Gets the number of shared constants.
+     *
+     * @return the number of shared constants
+     */
+    static int size() {
+        return entries.size();
+    }
+
+    /**
+     * Calculates the id of a JSON value by Base 64 encoding the first 64 bits
+     * of the SHA-256 digest of the JSON's string representation.
+     *
+     * @param serializedJson
+     *            the JSON string to get a hash of, not <code>null</code>
+     * @return the key uniquely identifying the given JSON value
+     */
+    private static String calculateHash(String serializedJson) {
+        byte[] digest = MessageDigestUtil.sha256(serializedJson);
+
+        /*
+         * Only use first 64 bits to keep id string short (1 in 100 000 000
+         * collision risk with 500 000 items). 64 bits base64 -> 11 ASCII chars
+         */
+        ByteBuffer truncatedDigest = ByteBuffer.wrap(digest, 0, 8);
+
+        ByteBuffer base64Bytes = Base64.getEncoder().encode(truncatedDigest);
+
+        return StandardCharsets.US_ASCII.decode(base64Bytes).toString();
+    }
+}
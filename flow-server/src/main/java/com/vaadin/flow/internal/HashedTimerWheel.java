@@ -0,0 +1,203 @@
+/*
+ * Copyright 2000-2018 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.internal;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * A hashed timer wheel for keeping track of a large number of deadlines with
+ * a coarse resolution.
+ * <p>
+ * Each key has at most one deadline. Scheduling and cancelling a deadline
+ * takes constant time, and advancing the wheel only visits the slots of the
+ * ticks that have passed. Deadlines are rounded to ticks, so a key expires
+ * during the first {@link #advance(long, Consumer)} call for a time that is
+ * at or after its deadline.
+ * <p>
+ * The wheel does not run by itself, {@link #advance(long, Consumer)} should be
+ * called periodically, e.g. once per tick. All methods are thread safe.
+ *
+ * @author Vaadin Ltd
+ * @since 1.3
+ *
+ * @param <T>
+ *            the key type
+ */
+public class HashedTimerWheel<T> implements Serializable {
+
+    private final long tickDuration;
+    private final ArrayList<Set<T>> slots;
+    private final Map<T, Timeout> timeouts = new HashMap<>();
+
+    // The earliest tick that may still have expiring keys
+    private long currentTick = -1;
+
+    private static final class Timeout implements Serializable {
+        private final long deadline;
+        private final int slot;
+
+        private Timeout(long deadline, int slot) {
+            this.deadline = deadline;
+            this.slot = slot;
+        }
+    }
+
+    /**
+     * Creates a new timer wheel.
+     *
+     * @param tickDuration
+     *            the duration of a tick, which is the resolution of the
+     *            deadlines, positive
+     * @param slotCount
+     *            the number of slots in the wheel, positive
+     */
+    public HashedTimerWheel(long tickDuration, int slotCount) {
+        if (tickDuration <= 0 || slotCount <= 0) {
+            throw new IllegalArgumentException(
+                    "Tick duration and slot count must be positive");
+        }
+        this.tickDuration = tickDuration;
+        slots = new ArrayList<>(slotCount);
+        for (int i = 0; i < slotCount; i++) {
+            slots.add(new HashSet<>());
+        }
+    }
+
+    /**
+     * Schedules a deadline for the given key, replacing any previous deadline
+     * of the key.
+     *
+     * @param key
+     *            the key to schedule, not <code>null</code>
+     * @param deadline
+     *            the time at which the key expires, in the same unit as the
+     *            tick duration
+     */
+    public synchronized void schedule(T key, long deadline) {
+        cancel(key);
+        long tick = deadline / tickDuration;
+        if (currentTick >= 0) {
+            tick = Math.max(tick, currentTick);
+        }
+        int slot = getSlot(tick);
+        slots.get(slot).add(key);
+        timeouts.put(key, new Timeout(deadline, slot));
+    }
+
+    /**
+     * Schedules a deadline for the given key unless the key already has an
+     * earlier or equal deadline.
+     *
+     * @param key
+     *            the key to schedule, not <code>null</code>
+     * @param deadline
+     *            the latest time at which the key should expire, or
+     *            {@link Long#MAX_VALUE} to only keep an existing deadline
+     */
+    public synchronized void scheduleNoLaterThan(T key, long deadline) {
+        Timeout timeout = timeouts.get(key);
+        if (deadline != Long.MAX_VALUE
+                && (timeout == null || timeout.deadline > deadline)) {
+            schedule(key, deadline);
+        }
+    }
+
+    /**
+     * Cancels the deadline of the given key, if any.
+     *
+     * @param key
+     *            the key to cancel
+     * @return <code>true</code> if the key had a deadline,
+     *         <code>false</code> otherwise
+     */
+    public synchronized boolean cancel(T key) {
+        Timeout timeout = timeouts.remove(key);
+        if (timeout == null) {
+            return false;
+        }
+        slots.get(timeout.slot).remove(key);
+        return true;
+    }
+
+    /**
+     * Checks whether the given key has a deadline.
+     *
+     * @param key
+     *            the key to check
+     * @return <code>true</code> if the key has a deadline, <code>false</code>
+     *         otherwise
+     */
+    public synchronized boolean isScheduled(T key) {
+        return timeouts.containsKey(key);
+    }
+
+    /**
+     * Gets the number of keys that have a deadline.
+     *
+     * @return the number of scheduled keys
+     */
+    public synchronized int size() {
+        return timeouts.size();
+    }
+
+    /**
+     * Advances the wheel to the given time, removing all the keys with a
+     * deadline at or before the time. The expired keys are passed to the given
+     * consumer after the wheel has been updated, so the consumer may schedule
+     * them again.
+     *
+     * @param now
+     *            the current time, in the same unit as the tick duration
+     * @param expired
+     *            the consumer for the expired keys, not <code>null</code>
+     */
+    public void advance(long now, Consumer<T> expired) {
+        List<T> expiredKeys = new ArrayList<>();
+        synchronized (this) {
+            long targetTick = now / tickDuration;
+            // Visiting each slot once is enough even if a lot of time passed,
+            // and on the first call any slot may have expired keys
+            long firstTick = Math.max(currentTick,
+                    targetTick - slots.size() + 1);
+            for (long tick = firstTick; tick <= targetTick; tick++) {
+                Iterator<T> iterator = slots.get(getSlot(tick)).iterator();
+                while (iterator.hasNext()) {
+                    T key = iterator.next();
+                    if (timeouts.get(key).deadline <= now) {
+                        iterator.remove();
+                        timeouts.remove(key);
+                        expiredKeys.add(key);
+                    }
+                }
+            }
+            // Keys may still be added to the target tick before it has passed
+            currentTick = Math.max(currentTick, targetTick);
+        }
+        expiredKeys.forEach(expired);
+    }
+
+    private int getSlot(long tick) {
+        return (int) Math.floorMod(tick, (long) slots.size());
+    }
+}
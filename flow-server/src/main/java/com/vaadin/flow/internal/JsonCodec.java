@@ -15,7 +15,11 @@
  */
 package com.vaadin.flow.internal;
 
+import java.io.IOException;
 import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
 
 import com.vaadin.flow.component.Component;
 import com.vaadin.flow.dom.Element;
@@ -25,6 +29,7 @@ import elemental.json.Json;
 import elemental.json.JsonArray;
 import elemental.json.JsonType;
 import elemental.json.JsonValue;
+import elemental.json.impl.JsonUtil;
 
 /**
  * Methods for encoding objects to and from JSON.
@@ -55,6 +60,39 @@ public class JsonCodec {
      */
     public static final int ARRAY_TYPE = 1;
 
+    /**
+     * Integral numbers with a larger magnitude than this are written by
+     * elemental in exponent notation, so they can't be written as plain digits.
+     */
+    private static final int MAX_PLAIN_INTEGER = 10_000_000;
+
+    @FunctionalInterface
+    private interface ValueWriter {
+        void write(Object value, Appendable out) throws IOException;
+    }
+
+    private static final Map<Class<?>, Function<Object, JsonValue>> ENCODERS = new HashMap<>();
+    private static final Map<Class<?>, ValueWriter> WRITERS = new HashMap<>();
+
+    static {
+        ENCODERS.put(String.class, value -> Json.create((String) value));
+        ENCODERS.put(Integer.class,
+                value -> Json.create(((Integer) value).doubleValue()));
+        ENCODERS.put(Double.class,
+                value -> Json.create(((Double) value).doubleValue()));
+        ENCODERS.put(Boolean.class,
+                value -> Json.create(((Boolean) value).booleanValue()));
+
+        WRITERS.put(String.class,
+                (value, out) -> writeString((String) value, out));
+        WRITERS.put(Integer.class, (value, out) -> writeNumber(
+                ((Integer) value).doubleValue(), out));
+        WRITERS.put(Double.class, (value, out) -> writeNumber(
+                ((Double) value).doubleValue(), out));
+        WRITERS.put(Boolean.class, (value, out) -> out
+                .append(((Boolean) value).booleanValue() ? "true" : "false"));
+    }
+
     private JsonCodec() {
         // Don't create instances
     }
@@ -151,13 +189,10 @@ public class JsonCodec {
             return Json.createNull();
         }
         Class<?> type = value.getClass();
-        if (String.class.equals(value.getClass())) {
-            return Json.create((String) value);
-        } else if (Integer.class.equals(type) || Double.class.equals(type)) {
-            return Json.create(((Number) value).doubleValue());
-        } else if (Boolean.class.equals(type)) {
-            return Json.create(((Boolean) value).booleanValue());
-        } else if (JsonValue.class.isAssignableFrom(type)) {
+        Function<Object, JsonValue> encoder = ENCODERS.get(type);
+        if (encoder != null) {
+            return encoder.apply(value);
+        } else if (value instanceof JsonValue) {
             return (JsonValue) value;
         }
         assert !canEncodeWithoutTypeInfo(type);
@@ -165,6 +200,87 @@ public class JsonCodec {
                 "Can't encode " + value.getClass() + " to json");
     }
 
+    /**
+     * Writes a "primitive" value or a constant pool reference as JSON. The
+     * output is the same as the JSON for the value returned by
+     * {@link #encodeWithConstantPool(Object, ConstantPool)}, but strings,
+     * numbers and booleans are written directly without creating any
+     * intermediate JSON values.
+     *
+     * @param value
+     *            the value to write
+     * @param constantPool
+     *            the constant pool to use for encoding constant pool references
+     * @param out
+     *            the appendable to write to, not <code>null</code>
+     * @throws IOException
+     *             if writing to the appendable fails
+     * @since 1.3
+     */
+    public static void writeWithConstantPool(Object value,
+            ConstantPool constantPool, Appendable out) throws IOException {
+        if (value instanceof ConstantPoolKey) {
+            ConstantPoolKey reference = (ConstantPoolKey) value;
+            writeString(constantPool.getConstantId(reference), out);
+        } else {
+            writeWithoutTypeInfo(value, out);
+        }
+    }
+
+    /**
+     * Writes any "primitive" value that is directly supported in JSON. The
+     * output is the same as the JSON for the value returned by
+     * {@link #encodeWithoutTypeInfo(Object)}, but strings, numbers and
+     * booleans are written directly without creating any intermediate JSON
+     * values.
+     *
+     * @param value
+     *            the value to write
+     * @param out
+     *            the appendable to write to, not <code>null</code>
+     * @throws IOException
+     *             if writing to the appendable fails
+     * @since 1.3
+     */
+    public static void writeWithoutTypeInfo(Object value, Appendable out)
+            throws IOException {
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+        ValueWriter writer = WRITERS.get(value.getClass());
+        if (writer != null) {
+            writer.write(value, out);
+        } else {
+            JsonUtils.writeJson(encodeWithoutTypeInfo(value), out);
+        }
+    }
+
+    private static void writeString(String value, Appendable out)
+            throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < ' ' || c > '~' || c == '"' || c == '\\' || c == '/'
+                    || c == '\'' || c == '<' || c == '>') {
+                // Let elemental deal with anything that might be escaped
+                out.append(JsonUtil.quote(value));
+                return;
+            }
+        }
+        out.append('"').append(value).append('"');
+    }
+
+    private static void writeNumber(double value, Appendable out)
+            throws IOException {
+        if (value > -MAX_PLAIN_INTEGER && value < MAX_PLAIN_INTEGER
+                && value == (int) value
+                && (value != 0 || 1 / value > 0)) {
+            out.append(Integer.toString((int) value));
+        } else {
+            out.append(Json.create(value).toJson());
+        }
+    }
+
     /**
      * Helper for decoding any "primitive" value that is directly supported in
      * JSON. Supported values types are {@link String}, {@link Number},
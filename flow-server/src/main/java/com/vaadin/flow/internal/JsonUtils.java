@@ -16,6 +16,7 @@
 
 package com.vaadin.flow.internal;
 
+import java.io.IOException;
 import java.util.AbstractList;
 import java.util.Collections;
 import java.util.EnumSet;
@@ -35,6 +36,7 @@ import elemental.json.JsonNumber;
 import elemental.json.JsonObject;
 import elemental.json.JsonType;
 import elemental.json.JsonValue;
+import elemental.json.impl.JsonUtil;
 
 /**
  * Helpers for using <code>elemental.json</code>.
@@ -181,6 +183,59 @@ public final class JsonUtils {
         return true;
     }
 
+    /**
+     * Writes the JSON representation of the given value to an appendable. The
+     * written JSON is the same as returned by {@link JsonValue#toJson()}, but
+     * it is appended piece by piece instead of building the whole string first,
+     * which avoids copying large values.
+     *
+     * @param value
+     *            the json value to write, may be <code>null</code>
+     * @param out
+     *            the appendable to write to, not <code>null</code>
+     * @throws IOException
+     *             if appending fails
+     */
+    public static void writeJson(JsonValue value, Appendable out)
+            throws IOException {
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+        switch (value.getType()) {
+        case STRING:
+            out.append(JsonUtil.quote(value.asString()));
+            break;
+        case OBJECT:
+            JsonObject object = (JsonObject) value;
+            out.append('{');
+            String[] keys = object.keys();
+            for (int i = 0; i < keys.length; i++) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                out.append(JsonUtil.quote(keys[i])).append(':');
+                writeJson(object.get(keys[i]), out);
+            }
+            out.append('}');
+            break;
+        case ARRAY:
+            JsonArray array = (JsonArray) value;
+            out.append('[');
+            for (int i = 0; i < array.length(); i++) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                writeJson(array.get(i), out);
+            }
+            out.append(']');
+            break;
+        default:
+            // Numbers, booleans and null are short
+            out.append(value.toJson());
+        }
+    }
+
     /**
      * Creates a stream from a JSON array.
      *
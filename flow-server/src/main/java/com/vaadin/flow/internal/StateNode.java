@@ -110,19 +110,44 @@ public class StateNode implements Serializable {
         private final Set<Class<? extends NodeFeature>> reportedFeatures;
 
         /**
-         * Maps from a node feature type to its index in the {@link #features}
-         * array. This instance is cached per unique set of used node feature
-         * types in {@link #featureSetCache}.
+         * The supported node feature types in the order of their index in the
+         * {@link #features} array.
          */
-        private final Map<Class<? extends NodeFeature>, Integer> mappings = new HashMap<>();
+        private final List<Class<? extends NodeFeature>> featureTypes;
+
+        /**
+         * Maps from a {@link NodeFeatureRegistry} id to the index of the
+         * feature in the {@link #features} array, or <code>-1</code> if the
+         * feature is not supported. This instance is cached per unique set of
+         * used node feature types in {@link #featureSetCache}.
+         */
+        private final int[] indexesById;
 
         public FeatureSet(FeatureSetKey featureSetKey) {
             reportedFeatures = featureSetKey.reportedFeatures;
 
-            featureSetKey.getAllFeatures()
+            featureTypes = Collections.unmodifiableList(featureSetKey
+                    .getAllFeatures()
                     .sorted(NodeFeatureRegistry.PRIORITY_COMPARATOR)
-                    .forEach(key -> mappings.put(key,
-                            Integer.valueOf(mappings.size())));
+                    .collect(Collectors.toList()));
+            assert featureTypes.size() <= Long.SIZE : "Initialized features are tracked in a long bit mask";
+
+            int maxId = featureTypes.stream()
+                    .mapToInt(NodeFeatureRegistry::getId).max().orElse(-1);
+            indexesById = new int[maxId + 1];
+            Arrays.fill(indexesById, -1);
+            for (int i = 0; i < featureTypes.size(); i++) {
+                indexesById[NodeFeatureRegistry
+                        .getId(featureTypes.get(i))] = i;
+            }
+        }
+
+        public int getIndex(Class<? extends NodeFeature> featureType) {
+            int id = NodeFeatureRegistry.getId(featureType);
+            if (id < 0 || id >= indexesById.length) {
+                return -1;
+            }
+            return indexesById[id];
         }
     }
 
@@ -134,10 +159,18 @@ public class StateNode implements Serializable {
     private final FeatureSet featureSet;
 
     /**
-     * Node feature instances for this node, or a single item.
+     * Initialized node feature instances for this node, or a single item. The
+     * array only contains the initialized features, in the order of their
+     * index in {@link FeatureSet}.
      */
     private Serializable features;
 
+    /**
+     * Bit mask of initialized features, based on the index of the feature in
+     * {@link FeatureSet}.
+     */
+    private long initializedFeatures;
+
     private Map<Class<? extends NodeFeature>, Serializable> changes;
 
     private List<Command> attachListeners;
@@ -339,7 +372,7 @@ public class StateNode implements Serializable {
         forEachFeature(n -> n.forEachChild(action));
     }
 
-    private void forEachFeature(Consumer<NodeFeature> action) {
+    void forEachFeature(Consumer<NodeFeature> action) {
         getInitializedFeatures().forEach(action::accept);
     }
 
@@ -349,7 +382,7 @@ public class StateNode implements Serializable {
         } else if (features instanceof NodeFeature) {
             return Stream.of((NodeFeature) features);
         } else {
-            return Stream.of((NodeFeature[]) features).filter(Objects::nonNull);
+            return Stream.of((NodeFeature[]) features);
         }
     }
 
@@ -378,62 +411,79 @@ public class StateNode implements Serializable {
      */
     public <T extends NodeFeature> T getFeature(Class<T> featureType) {
         int featureIndex = getFeatureIndex(featureType);
+        long featureBit = 1L << featureIndex;
 
         /*
-         * To limit memory use, the features array is kept as short as possible
-         * and the size is increased when needed.
+         * To limit memory use, only initialized features are stored and the
+         * features array is kept as short as possible. The position of a
+         * feature in the array is the number of initialized features with a
+         * lower index.
          *
          * Furthermore, instead of a one-item array, the single item is stored
          * as the field value. This further optimizes the case of text nodes and
          * template model nodes.
          */
-        NodeFeature feature;
-        if (featureIndex == 0 && features instanceof NodeFeature) {
-            feature = (NodeFeature) features;
-        } else if (featureIndex == 0 && features == null) {
-            feature = NodeFeatureRegistry.create(featureType, this);
+        int position = Long.bitCount(initializedFeatures & (featureBit - 1));
+        if ((initializedFeatures & featureBit) != 0) {
+            return featureType.cast(getInitializedFeature(position));
+        }
+
+        NodeFeature feature = NodeFeatureRegistry.create(featureType, this);
+        int count = Long.bitCount(initializedFeatures);
+        if (count == 0) {
             features = feature;
         } else {
-            NodeFeature[] featuresArray;
-            if (features instanceof NodeFeature[]) {
-                featuresArray = (NodeFeature[]) features;
+            NodeFeature[] featuresArray = new NodeFeature[count + 1];
+            if (count == 1) {
+                featuresArray[1 - position] = (NodeFeature) features;
             } else {
-                assert features == null || features instanceof NodeFeature;
-
-                featuresArray = new NodeFeature[featureIndex + 1];
-                if (features instanceof NodeFeature) {
-                    featuresArray[0] = (NodeFeature) features;
-                }
-                features = featuresArray;
+                NodeFeature[] oldArray = (NodeFeature[]) features;
+                System.arraycopy(oldArray, 0, featuresArray, 0, position);
+                System.arraycopy(oldArray, position, featuresArray,
+                        position + 1, count - position);
             }
+            featuresArray[position] = feature;
+            features = featuresArray;
+        }
+        initializedFeatures |= featureBit;
+        onFeatureInitialized();
 
-            // Increase size if necessary
-            if (featureIndex >= featuresArray.length) {
-                featuresArray = Arrays.copyOf(featuresArray, featureIndex + 1);
-                features = featuresArray;
-            }
+        return featureType.cast(feature);
+    }
 
-            feature = featuresArray[featureIndex];
+    private NodeFeature getInitializedFeature(int position) {
+        if (features instanceof NodeFeature) {
+            assert position == 0;
+            return (NodeFeature) features;
+        }
+        return ((NodeFeature[]) features)[position];
+    }
 
-            if (feature == null) {
-                feature = NodeFeatureRegistry.create(featureType, this);
-                featuresArray[featureIndex] = feature;
-            }
+    private void onFeatureInitialized() {
+        if (owner instanceof StateTree && isRegistered()) {
+            ((StateTree) owner).onFeatureInitialized(this);
         }
+    }
 
-        return featureType.cast(feature);
+    /**
+     * Gets the number of features that have been initialized for this node.
+     *
+     * @return the number of initialized features
+     */
+    int getInitializedFeatureCount() {
+        return Long.bitCount(initializedFeatures);
     }
 
     private <T extends NodeFeature> int getFeatureIndex(Class<T> featureType) {
         assert featureType != null;
 
-        Integer featureIndex = featureSet.mappings.get(featureType);
-        if (featureIndex == null) {
+        int featureIndex = featureSet.getIndex(featureType);
+        if (featureIndex == -1) {
             throw new IllegalStateException(
                     "Node does not have the feature " + featureType);
         }
 
-        return featureIndex.intValue();
+        return featureIndex;
     }
 
     /**
@@ -451,27 +501,16 @@ public class StateNode implements Serializable {
      */
     public <T extends NodeFeature> Optional<T> getFeatureIfInitialized(
             Class<T> featureType) {
-        if (features == null) {
+        if (initializedFeatures == 0) {
             return Optional.empty();
         }
-        int featureIndex = getFeatureIndex(featureType);
-
-        if (features instanceof NodeFeature) {
-            if (featureIndex == 0) {
-                return Optional.of(featureType.cast(features));
-            } else {
-                return Optional.empty();
-            }
-        }
-
-        NodeFeature[] featuresArray = (NodeFeature[]) features;
-
-        if (featureIndex >= featuresArray.length) {
+        long featureBit = 1L << getFeatureIndex(featureType);
+        if ((initializedFeatures & featureBit) == 0) {
             return Optional.empty();
         }
 
-        return Optional.ofNullable(featuresArray[featureIndex])
-                .map(featureType::cast);
+        int position = Long.bitCount(initializedFeatures & (featureBit - 1));
+        return Optional.of(featureType.cast(getInitializedFeature(position)));
     }
 
     /**
@@ -485,7 +524,7 @@ public class StateNode implements Serializable {
     public boolean hasFeature(Class<? extends NodeFeature> featureType) {
         assert featureType != null;
 
-        return featureSet.mappings.containsKey(featureType);
+        return featureSet.getIndex(featureType) != -1;
     }
 
     /**
@@ -564,7 +603,7 @@ public class StateNode implements Serializable {
             if (isInitialChanges) {
                 // send only required (reported) features updates
                 Stream<NodeFeature> initialFeatures = Stream
-                        .concat(featureSet.mappings.keySet().stream()
+                        .concat(featureSet.featureTypes.stream()
                                 .filter(this::isReportedFeature)
                                 .map(this::getFeature), getDisalowFeatures());
                 doCollectChanges(collector, initialFeatures);
@@ -918,11 +957,10 @@ public class StateNode implements Serializable {
     @SuppressWarnings("rawtypes")
     private static Class[] getNonRepeatebleFeatures(StateNode node) {
         if (node.featureSet.reportedFeatures.isEmpty()) {
-            Set<Class<? extends NodeFeature>> set = node.featureSet.mappings
-                    .keySet();
-            return set.toArray(new Class[set.size()]);
+            List<Class<? extends NodeFeature>> types = node.featureSet.featureTypes;
+            return types.toArray(new Class[types.size()]);
         }
-        return node.featureSet.mappings.keySet().stream().filter(
+        return node.featureSet.featureTypes.stream().filter(
                 clazz -> !node.featureSet.reportedFeatures.contains(clazz))
                 .toArray(Class[]::new);
     }
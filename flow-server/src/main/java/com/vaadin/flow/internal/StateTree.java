@@ -123,10 +123,19 @@ public class StateTree implements NodeOwner {
 
     private Set<StateNode> dirtyNodes = new LinkedHashSet<>();
 
+    // Not serialized, tracking must be restarted after deserialization
+    private transient Set<StateNode> replicationDirtyNodes;
+
+    private transient Set<Integer> replicationRemovedIds;
+
     private final Map<Integer, StateNode> idToNode = new HashMap<>();
 
     private int nextId = 1;
 
+    private int featureCount;
+
+    private long suppressedChangeCount;
+
     private Set<StateNode> pendingExecutionNodes = new HashSet<>();
 
     private int nextBeforeClientResponseIndex = 1;
@@ -180,11 +189,17 @@ public class StateTree implements NodeOwner {
         }
 
         idToNode.put(nodeId, node);
+        featureCount += node.getInitializedFeatureCount();
 
         if (node.hasBeforeClientResponseEntries()) {
             pendingExecutionNodes.add(node);
         }
 
+        if (replicationDirtyNodes != null) {
+            replicationDirtyNodes.add(node);
+            replicationRemovedIds.remove(nodeId);
+        }
+
         return nodeId;
     }
 
@@ -206,7 +221,80 @@ public class StateTree implements NodeOwner {
                     "Unregistered node was not found based on its id. The tree is most likely corrupted.");
         }
 
+        featureCount -= node.getInitializedFeatureCount();
         pendingExecutionNodes.remove(node);
+
+        if (replicationDirtyNodes != null) {
+            replicationDirtyNodes.remove(node);
+            replicationRemovedIds.add(id);
+        }
+    }
+
+    /**
+     * Called by a registered node when one of its features is initialized.
+     *
+     * @param node
+     *            the node for which a feature was initialized
+     */
+    void onFeatureInitialized(StateNode node) {
+        assert node.getOwner() == this;
+        featureCount++;
+    }
+
+    /**
+     * Gets the number of nodes currently registered in this tree.
+     *
+     * @return the number of registered nodes
+     */
+    public int getNodeCount() {
+        return idToNode.size();
+    }
+
+    /**
+     * Gets the number of initialized features in the nodes currently
+     * registered in this tree.
+     *
+     * @return the number of initialized features
+     */
+    public int getFeatureCount() {
+        return featureCount;
+    }
+
+    /**
+     * Gets a snapshot of the size of this tree. The snapshot is created from
+     * counters that are maintained as nodes are registered and unregistered,
+     * so this method doesn't walk the tree.
+     *
+     * @return a snapshot of the tree size, not <code>null</code>
+     */
+    public StateTreeStatistics getStatistics() {
+        int uiId = uiInternals == null ? -1 : uiInternals.getUI().getUIId();
+        return new StateTreeStatistics(uiId, getNodeCount(), featureCount);
+    }
+
+    /**
+     * Records that changes tracked by node features turned out to have no net
+     * effect for the client and were therefore not sent.
+     *
+     * @param count
+     *            the number of suppressed changes
+     * @since 1.3
+     */
+    public void addSuppressedChanges(int count) {
+        assert count >= 0;
+        suppressedChangeCount += count;
+    }
+
+    /**
+     * Gets the number of tracked changes that have been left out from the
+     * changes sent to the client because they had no net effect, e.g. because
+     * a value was set back to the value the client already has.
+     *
+     * @return the number of suppressed changes
+     * @since 1.3
+     */
+    public long getSuppressedChangeCount() {
+        return suppressedChangeCount;
     }
 
     @Override
@@ -258,6 +346,57 @@ public class StateTree implements NodeOwner {
         checkHasLock();
 
         dirtyNodes.add(node);
+        if (replicationDirtyNodes != null) {
+            replicationDirtyNodes.add(node);
+        }
+    }
+
+    /**
+     * Starts tracking which nodes are changed or removed between replication
+     * rounds, discarding anything tracked so far. Tracking is disabled until
+     * this method is called for the first time so that trees that are never
+     * replicated don't pay for it. Tracking is not preserved when the tree is
+     * serialized.
+     *
+     * @see StateTreeReplication
+     */
+    void startReplicationTracking() {
+        replicationDirtyNodes = new HashSet<>();
+        replicationRemovedIds = new HashSet<>();
+    }
+
+    /**
+     * Checks whether replication tracking has been started for this tree.
+     *
+     * @return <code>true</code> if changes are tracked for replication,
+     *         <code>false</code> otherwise
+     */
+    boolean isReplicationTracked() {
+        return replicationDirtyNodes != null;
+    }
+
+    /**
+     * Gets the nodes that have been changed or registered since the last
+     * replication round and starts a new round.
+     *
+     * @return a set of changed nodes, not <code>null</code>
+     */
+    Set<StateNode> collectReplicationDirtyNodes() {
+        Set<StateNode> collectedNodes = replicationDirtyNodes;
+        replicationDirtyNodes = new HashSet<>();
+        return collectedNodes;
+    }
+
+    /**
+     * Gets the ids of the nodes that have been unregistered since the last
+     * replication round and starts a new round.
+     *
+     * @return a set of removed node ids, not <code>null</code>
+     */
+    Set<Integer> collectReplicationRemovedIds() {
+        Set<Integer> collectedIds = replicationRemovedIds;
+        replicationRemovedIds = new HashSet<>();
+        return collectedIds;
     }
 
     /**
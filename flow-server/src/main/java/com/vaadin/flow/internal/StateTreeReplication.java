@@ -0,0 +1,450 @@
+/*
+ * Copyright 2000-2018 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.internal;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.vaadin.flow.internal.nodefeature.NodeFeature;
+import com.vaadin.flow.internal.nodefeature.NodeFeatureRegistry;
+import com.vaadin.flow.internal.nodefeature.NodeList;
+import com.vaadin.flow.internal.nodefeature.NodeMap;
+
+import elemental.json.Json;
+import elemental.json.JsonValue;
+
+/**
+ * Internal utility for writing the data of a {@link StateTree} in a compact
+ * externalizable format.
+ * <p>
+ * The format contains the values of all {@link NodeMap} and {@link NodeList}
+ * features of the nodes, i.e. the same data that is synchronized with the
+ * client. Basic values, JSON values and node references are written in a
+ * compact binary form. Other values are written using Java serialization.
+ * Server side only features such as component mappings and listeners are not
+ * included, so the written data cannot be used to restore a tree.
+ * <p>
+ * The first call to {@link #writeFull(StateTree, ObjectOutput)} starts
+ * tracking changes in the tree. After that,
+ * {@link #writeDelta(StateTree, ObjectOutput)} only writes the nodes that
+ * have been changed and the ids of the nodes that have been removed since the
+ * previous write. A {@link Replica} reads the full state and the following
+ * deltas to maintain a read-only copy of the data. Change tracking is not
+ * serialized with the tree, so the full state must be written again after
+ * the tree has been deserialized.
+ * <p>
+ * For internal use only. May be renamed or removed in a future release.
+ *
+ * @author Vaadin Ltd
+ * @since 1.3
+ */
+public final class StateTreeReplication {
+
+    private static final int FORMAT_VERSION = 1;
+
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_STRING = 1;
+    private static final byte TAG_BOOLEAN = 2;
+    private static final byte TAG_INTEGER = 3;
+    private static final byte TAG_DOUBLE = 4;
+    private static final byte TAG_NODE = 5;
+    private static final byte TAG_JSON = 6;
+    private static final byte TAG_OBJECT = 7;
+
+    private static final byte FEATURE_MAP = 0;
+    private static final byte FEATURE_LIST = 1;
+
+    /**
+     * Reference to another node in the replicated data.
+     */
+    public static final class NodeReference implements Serializable {
+        private final int id;
+
+        private NodeReference(int id) {
+            this.id = id;
+        }
+
+        /**
+         * Gets the id of the referenced node.
+         *
+         * @return the node id
+         */
+        public int getId() {
+            return id;
+        }
+
+        @Override
+        public int hashCode() {
+            return id;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof NodeReference
+                    && ((NodeReference) obj).id == id;
+        }
+
+        @Override
+        public String toString() {
+            return "NodeReference[" + id + "]";
+        }
+    }
+
+    /**
+     * Replicated data of a single state node.
+     */
+    public static final class NodeData implements Serializable {
+        private final int parentId;
+        private final Map<Integer, Object> features;
+
+        private NodeData(int parentId, Map<Integer, Object> features) {
+            this.parentId = parentId;
+            this.features = features;
+        }
+
+        /**
+         * Gets the id of the parent node.
+         *
+         * @return the parent node id, or <code>-1</code> if the node has no
+         *         parent
+         */
+        public int getParentId() {
+            return parentId;
+        }
+
+        /**
+         * Gets the replicated values of a map feature. Node values are
+         * represented as {@link NodeReference} instances.
+         *
+         * @param featureType
+         *            the map feature type, not <code>null</code>
+         * @return an unmodifiable map of the values, or an empty map if the
+         *         feature isn't present
+         */
+        @SuppressWarnings("unchecked")
+        public Map<String, Object> getMap(
+                Class<? extends NodeMap> featureType) {
+            Object data = features.get(NodeFeatureRegistry.getId(featureType));
+            if (data == null) {
+                return Collections.emptyMap();
+            }
+            return Collections.unmodifiableMap((Map<String, Object>) data);
+        }
+
+        /**
+         * Gets the replicated items of a list feature. Node values are
+         * represented as {@link NodeReference} instances.
+         *
+         * @param featureType
+         *            the list feature type, not <code>null</code>
+         * @return an unmodifiable list of the items, or an empty list if the
+         *         feature isn't present
+         */
+        @SuppressWarnings("unchecked")
+        public List<Object> getList(Class<? extends NodeList<?>> featureType) {
+            Object data = features.get(NodeFeatureRegistry.getId(featureType));
+            if (data == null) {
+                return Collections.emptyList();
+            }
+            return Collections.unmodifiableList((List<Object>) data);
+        }
+    }
+
+    /**
+     * A read-only copy of the data of a state tree, maintained by reading the
+     * output of
+     * {@link StateTreeReplication#writeFull(StateTree, ObjectOutput)} and
+     * {@link StateTreeReplication#writeDelta(StateTree, ObjectOutput)}.
+     */
+    public static final class Replica implements Serializable {
+        private final Map<Integer, NodeData> nodes = new HashMap<>();
+
+        /**
+         * Reads a full state or a delta and applies it to this replica.
+         *
+         * @param in
+         *            the input to read from, not <code>null</code>
+         * @throws IOException
+         *             if reading fails or the data has an unsupported format
+         * @throws ClassNotFoundException
+         *             if the class of a Java serialized value can't be found
+         */
+        public void read(ObjectInput in)
+                throws IOException, ClassNotFoundException {
+            int version = in.readInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException(
+                        "Unsupported state tree replication format version "
+                                + version);
+            }
+            boolean full = in.readBoolean();
+            if (full) {
+                nodes.clear();
+            }
+
+            int removedCount = in.readInt();
+            for (int i = 0; i < removedCount; i++) {
+                nodes.remove(in.readInt());
+            }
+
+            int nodeCount = in.readInt();
+            for (int i = 0; i < nodeCount; i++) {
+                int id = in.readInt();
+                int parentId = in.readInt();
+                int featureCount = in.readInt();
+                Map<Integer, Object> features = new HashMap<>(
+                        featureCount * 2);
+                for (int j = 0; j < featureCount; j++) {
+                    int featureId = in.readInt();
+                    features.put(featureId, readFeature(in));
+                }
+                nodes.put(id, new NodeData(parentId, features));
+            }
+        }
+
+        /**
+         * Gets the replicated data of a node.
+         *
+         * @param id
+         *            the node id
+         * @return the node data, or <code>null</code> if there is no node with
+         *         the given id
+         */
+        public NodeData getNode(int id) {
+            return nodes.get(id);
+        }
+
+        /**
+         * Gets the number of replicated nodes.
+         *
+         * @return the number of nodes
+         */
+        public int getNodeCount() {
+            return nodes.size();
+        }
+    }
+
+    private StateTreeReplication() {
+        // Only static methods
+    }
+
+    /**
+     * Writes the data of all nodes in the tree and starts tracking changes for
+     * subsequent deltas.
+     *
+     * @param tree
+     *            the tree to write, not <code>null</code>
+     * @param out
+     *            the output to write to, not <code>null</code>
+     * @throws IOException
+     *             if writing fails
+     */
+    public static void writeFull(StateTree tree, ObjectOutput out)
+            throws IOException {
+        tree.startReplicationTracking();
+
+        List<StateNode> nodes = new ArrayList<>(tree.getNodeCount());
+        tree.getRootNode().visitNodeTree(nodes::add);
+
+        write(out, true, Collections.emptySet(), nodes);
+    }
+
+    /**
+     * Writes the data of the nodes that have been changed and the ids of the
+     * nodes that have been removed since the previous write.
+     *
+     * @param tree
+     *            the tree to write, not <code>null</code>
+     * @param out
+     *            the output to write to, not <code>null</code>
+     * @throws IOException
+     *             if writing fails
+     * @throws IllegalStateException
+     *             if the full state of the tree hasn't been written before
+     */
+    public static void writeDelta(StateTree tree, ObjectOutput out)
+            throws IOException {
+        if (!tree.isReplicationTracked()) {
+            throw new IllegalStateException(
+                    "The full state of the tree must be written before writing a delta");
+        }
+        Set<Integer> removedIds = tree.collectReplicationRemovedIds();
+        List<StateNode> changedNodes = tree.collectReplicationDirtyNodes()
+                .stream().filter(node -> tree.getNodeById(node.getId()) == node)
+                .collect(Collectors.toList());
+
+        write(out, false, removedIds, changedNodes);
+    }
+
+    private static void write(ObjectOutput out, boolean full,
+            Collection<Integer> removedIds, List<StateNode> nodes)
+            throws IOException {
+        out.writeInt(FORMAT_VERSION);
+        out.writeBoolean(full);
+
+        out.writeInt(removedIds.size());
+        for (Integer id : removedIds) {
+            out.writeInt(id);
+        }
+
+        out.writeInt(nodes.size());
+        for (StateNode node : nodes) {
+            writeNode(out, node);
+        }
+    }
+
+    private static void writeNode(ObjectOutput out, StateNode node)
+            throws IOException {
+        List<NodeFeature> features = new ArrayList<>();
+        node.forEachFeature(feature -> {
+            if (feature instanceof NodeMap || feature instanceof NodeList) {
+                features.add(feature);
+            }
+        });
+
+        out.writeInt(node.getId());
+        StateNode parent = node.getParent();
+        out.writeInt(parent == null ? -1 : parent.getId());
+        out.writeInt(features.size());
+        for (NodeFeature feature : features) {
+            out.writeInt(NodeFeatureRegistry.getId(feature.getClass()));
+            if (feature instanceof NodeMap) {
+                Map<String, Serializable> values = new LinkedHashMap<>();
+                ((NodeMap) feature).forEachValue(values::put);
+
+                out.writeByte(FEATURE_MAP);
+                out.writeInt(values.size());
+                for (Map.Entry<String, Serializable> entry : values
+                        .entrySet()) {
+                    writeString(out, entry.getKey());
+                    writeValue(out, entry.getValue());
+                }
+            } else {
+                List<Serializable> values = new ArrayList<>();
+                ((NodeList<?>) feature).forEachValue(values::add);
+
+                out.writeByte(FEATURE_LIST);
+                out.writeInt(values.size());
+                for (Serializable value : values) {
+                    writeValue(out, value);
+                }
+            }
+        }
+    }
+
+    private static void writeValue(ObjectOutput out, Object value)
+            throws IOException {
+        if (value == null) {
+            out.writeByte(TAG_NULL);
+        } else if (value instanceof String) {
+            out.writeByte(TAG_STRING);
+            writeString(out, (String) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte(TAG_BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof Integer) {
+            out.writeByte(TAG_INTEGER);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Double) {
+            out.writeByte(TAG_DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof StateNode) {
+            out.writeByte(TAG_NODE);
+            out.writeInt(((StateNode) value).getId());
+        } else if (value instanceof JsonValue) {
+            out.writeByte(TAG_JSON);
+            writeString(out, ((JsonValue) value).toJson());
+        } else {
+            out.writeByte(TAG_OBJECT);
+            out.writeObject(value);
+        }
+    }
+
+    private static Object readFeature(ObjectInput in)
+            throws IOException, ClassNotFoundException {
+        byte type = in.readByte();
+        int size = in.readInt();
+        if (type == FEATURE_MAP) {
+            Map<String, Object> values = new HashMap<>(size * 2);
+            for (int i = 0; i < size; i++) {
+                values.put(readString(in), readValue(in));
+            }
+            return values;
+        } else if (type == FEATURE_LIST) {
+            List<Object> values = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                values.add(readValue(in));
+            }
+            return values;
+        } else {
+            throw new IOException("Unknown feature type " + type);
+        }
+    }
+
+    private static Object readValue(ObjectInput in)
+            throws IOException, ClassNotFoundException {
+        byte tag = in.readByte();
+        switch (tag) {
+        case TAG_NULL:
+            return null;
+        case TAG_STRING:
+            return readString(in);
+        case TAG_BOOLEAN:
+            return Boolean.valueOf(in.readBoolean());
+        case TAG_INTEGER:
+            return Integer.valueOf(in.readInt());
+        case TAG_DOUBLE:
+            return Double.valueOf(in.readDouble());
+        case TAG_NODE:
+            return new NodeReference(in.readInt());
+        case TAG_JSON:
+            return Json.instance().parse(readString(in));
+        case TAG_OBJECT:
+            return in.readObject();
+        default:
+            throw new IOException("Unknown value tag " + tag);
+        }
+    }
+
+    /*
+     * DataOutput.writeUTF is limited to 64k bytes, so strings are written as
+     * length-prefixed UTF-8 instead.
+     */
+    private static void writeString(ObjectOutput out, String value)
+            throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ObjectInput in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
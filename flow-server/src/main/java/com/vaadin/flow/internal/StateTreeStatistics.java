@@ -0,0 +1,111 @@
+/*
+ * Copyright 2000-2018 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.internal;
+
+import java.io.Serializable;
+
+/**
+ * An immutable snapshot of the size of a {@link StateTree}.
+ * <p>
+ * The counts are maintained incrementally by the state tree as nodes are
+ * attached and detached, so creating a snapshot doesn't require walking the
+ * tree. The retained size is a rough estimate based on the typical shallow
+ * size of nodes and features on a 64-bit JVM; it does not include the values
+ * stored in the features.
+ *
+ * @author Vaadin Ltd
+ * @since 1.3
+ */
+public final class StateTreeStatistics implements Serializable {
+
+    /**
+     * Approximate number of bytes retained by a registered state node,
+     * including its entry in the id map of the tree.
+     */
+    static final int ESTIMATED_NODE_BYTES = 120;
+
+    /**
+     * Approximate number of bytes retained by an initialized node feature.
+     */
+    static final int ESTIMATED_FEATURE_BYTES = 56;
+
+    private final int uiId;
+    private final int nodeCount;
+    private final int featureCount;
+
+    /**
+     * Creates a new snapshot.
+     *
+     * @param uiId
+     *            the id of the UI that owns the tree, or <code>-1</code> if
+     *            unknown
+     * @param nodeCount
+     *            the number of registered nodes in the tree
+     * @param featureCount
+     *            the number of initialized features in the registered nodes
+     */
+    public StateTreeStatistics(int uiId, int nodeCount, int featureCount) {
+        this.uiId = uiId;
+        this.nodeCount = nodeCount;
+        this.featureCount = featureCount;
+    }
+
+    /**
+     * Gets the id of the UI that owns the tree.
+     *
+     * @return the UI id, or <code>-1</code> if unknown
+     */
+    public int getUIId() {
+        return uiId;
+    }
+
+    /**
+     * Gets the number of nodes registered in the tree.
+     *
+     * @return the number of nodes
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Gets the number of initialized features in the nodes registered in the
+     * tree.
+     *
+     * @return the number of features
+     */
+    public int getFeatureCount() {
+        return featureCount;
+    }
+
+    /**
+     * Gets an approximation of the number of bytes retained by the nodes and
+     * features of the tree.
+     *
+     * @return the estimated number of retained bytes
+     */
+    public long getEstimatedRetainedBytes() {
+        return (long) nodeCount * ESTIMATED_NODE_BYTES
+                + (long) featureCount * ESTIMATED_FEATURE_BYTES;
+    }
+
+    @Override
+    public String toString() {
+        return "StateTreeStatistics [uiId=" + uiId + ", nodeCount=" + nodeCount
+                + ", featureCount=" + featureCount + ", estimatedBytes="
+                + getEstimatedRetainedBytes() + "]";
+    }
+}
@@ -16,6 +16,8 @@
 package com.vaadin.flow.internal.change;
 
 import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
 
 import com.vaadin.flow.internal.ConstantPool;
 import com.vaadin.flow.internal.nodefeature.NodeList;
@@ -35,7 +37,7 @@ import elemental.json.JsonObject;
 public class ListRemoveChange<T extends Serializable>
         extends AbstractListChange<T> {
 
-    private final T removedItem;
+    private final List<T> removedItems;
 
     /**
      * Creates a new list remove change.
@@ -49,24 +51,53 @@ public class ListRemoveChange<T extends Serializable>
      *            a removed item
      */
     public ListRemoveChange(NodeList<T> list, int index, T removedItem) {
+        this(list, index, Collections.singletonList(removedItem));
+    }
+
+    /**
+     * Creates a new list remove change for a range of consecutive items.
+     *
+     * @param list
+     *            the changed list
+     * @param index
+     *            the index of the remove operation
+     * @param removedItems
+     *            the removed items, in the order they were in the list, not
+     *            empty
+     * @since 1.3
+     */
+    public ListRemoveChange(NodeList<T> list, int index,
+            List<T> removedItems) {
         super(list, index);
-        this.removedItem = removedItem;
+        assert !removedItems.isEmpty();
+        this.removedItems = removedItems;
     }
 
     /**
-     * Gets the removed item.
+     * Gets the removed item. If the change removes several items, the first of
+     * them is returned.
      * <p>
      * This method is public only for testing reasons.
      *
      * @return the removed item
      */
     public T getRemovedItem() {
-        return removedItem;
+        return removedItems.get(0);
+    }
+
+    /**
+     * Gets all the items removed by this change.
+     *
+     * @return an unmodifiable list of removed items
+     * @since 1.3
+     */
+    public List<T> getRemovedItems() {
+        return Collections.unmodifiableList(removedItems);
     }
 
     @Override
     public AbstractListChange<T> copy(int indx) {
-        return new ListRemoveChange<>(getNodeList(), indx, getRemovedItem());
+        return new ListRemoveChange<>(getNodeList(), indx, removedItems);
     }
 
     @Override
@@ -76,6 +107,6 @@ public class ListRemoveChange<T extends Serializable>
         super.populateJson(json, constantPool);
 
         json.put(JsonConstants.CHANGE_SPLICE_INDEX, getIndex());
-        json.put(JsonConstants.CHANGE_SPLICE_REMOVE, 1);
+        json.put(JsonConstants.CHANGE_SPLICE_REMOVE, removedItems.size());
     }
 }
@@ -16,10 +16,13 @@
 
 package com.vaadin.flow.internal.change;
 
+import java.io.IOException;
+
 import com.vaadin.flow.internal.ConstantPool;
 import com.vaadin.flow.internal.JsonCodec;
 import com.vaadin.flow.internal.StateNode;
 import com.vaadin.flow.internal.nodefeature.NodeFeature;
+import com.vaadin.flow.internal.nodefeature.NodeFeatureRegistry;
 import com.vaadin.flow.shared.JsonConstants;
 
 import elemental.json.Json;
@@ -91,4 +94,37 @@ public class MapPutChange extends NodeFeatureChange {
                     JsonCodec.encodeWithConstantPool(value, constantPool));
         }
     }
+
+    @Override
+    public void writeJson(Appendable out, ConstantPool constantPool)
+            throws IOException {
+        // Same keys in the same order as populated by toJson
+        out.append('{');
+        writeName(JsonConstants.CHANGE_NODE, out)
+                .append(Integer.toString(getNode().getId())).append(',');
+        writeName(JsonConstants.CHANGE_TYPE, out).append('"')
+                .append(JsonConstants.CHANGE_TYPE_PUT).append("\",");
+        writeName(JsonConstants.CHANGE_MAP_KEY, out);
+        JsonCodec.writeWithoutTypeInfo(key, out);
+        out.append(',');
+        writeName(JsonConstants.CHANGE_FEATURE, out)
+                .append(Integer.toString(
+                        NodeFeatureRegistry.getId(getFeature())))
+                .append(',');
+
+        if (value instanceof StateNode) {
+            StateNode node = (StateNode) value;
+            writeName(JsonConstants.CHANGE_PUT_NODE_VALUE, out)
+                    .append(Integer.toString(node.getId()));
+        } else {
+            writeName(JsonConstants.CHANGE_PUT_VALUE, out);
+            JsonCodec.writeWithConstantPool(value, constantPool, out);
+        }
+        out.append('}');
+    }
+
+    private static Appendable writeName(String name, Appendable out)
+            throws IOException {
+        return out.append('"').append(name).append("\":");
+    }
 }
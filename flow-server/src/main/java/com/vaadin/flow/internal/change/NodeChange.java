@@ -16,9 +16,11 @@
 
 package com.vaadin.flow.internal.change;
 
+import java.io.IOException;
 import java.io.Serializable;
 
 import com.vaadin.flow.internal.ConstantPool;
+import com.vaadin.flow.internal.JsonUtils;
 import com.vaadin.flow.internal.StateNode;
 import com.vaadin.flow.shared.JsonConstants;
 
@@ -72,6 +74,26 @@ public abstract class NodeChange implements Serializable {
         return json;
     }
 
+    /**
+     * Writes the JSON representation of this change to the given appendable.
+     * The output is the same as for the object returned by
+     * {@link #toJson(ConstantPool)}. Subclasses may override this method to
+     * write the JSON directly without creating an intermediate JSON object.
+     *
+     * @param out
+     *            the appendable to write to, not <code>null</code>
+     * @param constantPool
+     *            the constant pool to use for serializing constant pool
+     *            references
+     * @throws IOException
+     *             if writing to the appendable fails
+     * @since 1.3
+     */
+    public void writeJson(Appendable out, ConstantPool constantPool)
+            throws IOException {
+        JsonUtils.writeJson(toJson(constantPool), out);
+    }
+
     /**
      * Overridden by subclasses to populate a JSON object when serializing.
      *
@@ -16,10 +16,12 @@
 package com.vaadin.flow.internal.nodefeature;
 
 import java.lang.reflect.Method;
+import java.util.stream.Stream;
 
 import com.vaadin.flow.component.ClientCallable;
 import com.vaadin.flow.component.Component;
 import com.vaadin.flow.dom.DisabledUpdateMode;
+import com.vaadin.flow.internal.ReflectionCache;
 import com.vaadin.flow.internal.StateNode;
 
 /**
@@ -32,6 +34,9 @@ import com.vaadin.flow.internal.StateNode;
  */
 public class ClientCallableHandlers extends AbstractServerHandlers<Component> {
 
+    private static final ReflectionCache<Component, Boolean> hasClientCallableMethods = new ReflectionCache<>(
+            ClientCallableHandlers::findClientCallableMethods);
+
     /**
      * Creates a new meta information list for the given state node.
      *
@@ -57,4 +62,31 @@ public class ClientCallableHandlers extends AbstractServerHandlers<Component> {
     protected DisabledUpdateMode getUpdateMode(Method method) {
         return method.getAnnotation(getHandlerAnnotation()).value();
     }
+
+    /**
+     * Checks whether the given component type has any methods annotated with
+     * {@link ClientCallable}. Used for avoiding creating the feature for
+     * components that have no handlers to publish.
+     *
+     * @param componentType
+     *            the component type to check, not <code>null</code>
+     * @return <code>true</code> if the type declares or inherits client
+     *         callable methods, <code>false</code> otherwise
+     */
+    static boolean hasClientCallableMethods(
+            Class<? extends Component> componentType) {
+        return hasClientCallableMethods.get(componentType).booleanValue();
+    }
+
+    private static Boolean findClientCallableMethods(Class<?> type) {
+        for (Class<?> clazz = type; clazz != null
+                && !Component.class.equals(clazz); clazz = clazz
+                        .getSuperclass()) {
+            if (Stream.of(clazz.getDeclaredMethods()).anyMatch(method -> method
+                    .isAnnotationPresent(ClientCallable.class))) {
+                return Boolean.TRUE;
+            }
+        }
+        return Boolean.FALSE;
+    }
 }
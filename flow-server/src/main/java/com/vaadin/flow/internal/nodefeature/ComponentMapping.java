@@ -58,7 +58,15 @@ public class ComponentMapping extends ServerSideFeature {
                 || component instanceof Composite : "Only a Composite is allowed to remap a component";
         this.component = component;
 
-        if (getNode().hasFeature(ClientCallableHandlers.class)) {
+        /*
+         * Only create the handlers feature when there is something to publish
+         * since most components have no client callable methods.
+         */
+        if (getNode().hasFeature(ClientCallableHandlers.class) && (getNode()
+                .getFeatureIfInitialized(ClientCallableHandlers.class)
+                .isPresent()
+                || ClientCallableHandlers
+                        .hasClientCallableMethods(component.getClass()))) {
             getNode().getFeature(ClientCallableHandlers.class)
                     .componentSet(component);
         }
@@ -16,6 +16,9 @@
 
 package com.vaadin.flow.internal.nodefeature;
 
+import java.util.Collection;
+import java.util.List;
+
 import com.vaadin.flow.internal.StateNode;
 
 /**
@@ -42,6 +45,13 @@ public class ElementChildrenList extends StateNodeNodeList {
         super.add(index, node);
     }
 
+    @Override
+    public void addAll(int index, Collection<? extends StateNode> nodes) {
+        assert !nodes.contains(null);
+
+        super.addAll(index, nodes);
+    }
+
     @Override
     public StateNode get(int index) {
         return super.get(index);
@@ -52,6 +62,11 @@ public class ElementChildrenList extends StateNodeNodeList {
         return super.remove(index);
     }
 
+    @Override
+    public List<StateNode> removeRange(int fromIndex, int toIndex) {
+        return super.removeRange(fromIndex, toIndex);
+    }
+
     @Override
     public void clear() {
         super.clear();
@@ -238,8 +238,12 @@ public class ElementPropertyMap extends AbstractPropertyMap {
             return AllowUpdate.EXPLICITLY_DISALLOW;
         }
         if (getNode().hasFeature(SynchronizedPropertiesList.class)
-                && getNode().getFeature(SynchronizedPropertiesList.class)
-                        .getSynchronizedProperties().contains(key)) {
+                && getNode()
+                        .getFeatureIfInitialized(
+                                SynchronizedPropertiesList.class)
+                        .map(list -> list.getSynchronizedProperties()
+                                .contains(key))
+                        .orElse(false)) {
             return AllowUpdate.EXPLICITLY_ALLOW;
         }
         return AllowUpdate.NO_EXPLICIT_STATUS;
@@ -223,6 +223,29 @@ public abstract class NodeList<T extends Serializable> extends NodeFeature {
                 itemsList));
     }
 
+    /**
+     * Inserts all provided items at the given index of the list.
+     *
+     * @param index
+     *            index to insert at
+     * @param items
+     *            a collection of items to insert, not null
+     * @since 1.3
+     */
+    protected void addAll(int index, Collection<? extends T> items) {
+        assert items != null;
+        if (items.isEmpty()) {
+            return;
+        }
+
+        List<? extends T> itemsList = new ArrayList<>(items);
+
+        ensureValues();
+        values.addAll(index, itemsList);
+
+        addChange(new ListAddChange<>(this, isNodeValues(), index, itemsList));
+    }
+
     /**
      * Inserts an item at the given index of the list.
      *
@@ -261,6 +284,41 @@ public abstract class NodeList<T extends Serializable> extends NodeFeature {
         return removed;
     }
 
+    /**
+     * Removes the items from <code>fromIndex</code>, inclusive, to
+     * <code>toIndex</code>, exclusive.
+     *
+     * @param fromIndex
+     *            index of the first item to remove
+     * @param toIndex
+     *            index after the last item to remove
+     * @return the removed items, not <code>null</code>
+     * @since 1.3
+     */
+    protected List<T> removeRange(int fromIndex, int toIndex) {
+        if (fromIndex == toIndex) {
+            return Collections.emptyList();
+        }
+        if (values == null) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        List<T> range = values.subList(fromIndex, toIndex);
+        List<T> removed = new ArrayList<>(range);
+        range.clear();
+
+        // Tracked one by one to let add and remove pairs cancel out, the
+        // removals are combined again when the changes are collected
+        for (T item : removed) {
+            addChange(new ListRemoveChange<>(this, fromIndex, item));
+        }
+
+        if (values.isEmpty()) {
+            values = null;
+        }
+        return removed;
+    }
+
     /**
      * Gets or creates the list used to track changes that should be sent to the
      * client.
@@ -276,7 +334,7 @@ public abstract class NodeList<T extends Serializable> extends NodeFeature {
     private void addChange(AbstractListChange<T> change) {
         getNode().markAsDirty();
 
-        // XXX combine with previous changes if possible
+        // Changes are combined when collected
         getChangeTracker().add(change);
 
         // TODO Fire some listeners
@@ -339,6 +397,10 @@ public abstract class NodeList<T extends Serializable> extends NodeFeature {
 
         isRemoveAllCalled = false;
 
+        if (changes.size() > 1) {
+            changes = combineSplices(changes);
+        }
+
         if (isPopulated) {
             changes.forEach(collector);
         } else {
@@ -351,6 +413,77 @@ public abstract class NodeList<T extends Serializable> extends NodeFeature {
         }
     }
 
+    /**
+     * Combines consecutive changes that add items into or next to the range
+     * added by the previous change, or that remove items right at or before
+     * the range removed by the previous change. Building or emptying a list
+     * one item at a time thus results in a single splice.
+     */
+    private List<AbstractListChange<T>> combineSplices(
+            List<AbstractListChange<T>> changes) {
+        List<AbstractListChange<T>> combined = new ArrayList<>(
+                changes.size());
+        AbstractListChange<T> previous = null;
+        for (AbstractListChange<T> change : changes) {
+            AbstractListChange<T> merged = null;
+            if (previous instanceof ListAddChange<?>
+                    && change instanceof ListAddChange<?>) {
+                merged = combineAdds((ListAddChange<T>) previous,
+                        (ListAddChange<T>) change);
+            } else if (previous instanceof ListRemoveChange<?>
+                    && change instanceof ListRemoveChange<?>) {
+                merged = combineRemoves((ListRemoveChange<T>) previous,
+                        (ListRemoveChange<T>) change);
+            }
+
+            if (merged == null) {
+                combined.add(change);
+                previous = change;
+            } else {
+                combined.set(combined.size() - 1, merged);
+                previous = merged;
+            }
+        }
+        return combined;
+    }
+
+    private static <T extends Serializable> ListAddChange<T> combineAdds(
+            ListAddChange<T> previous, ListAddChange<T> next) {
+        List<T> previousItems = previous.getNewItems();
+        int offset = next.getIndex() - previous.getIndex();
+        if (offset < 0 || offset > previousItems.size()) {
+            return null;
+        }
+        List<T> items = new ArrayList<>(
+                previousItems.size() + next.getNewItems().size());
+        items.addAll(previousItems.subList(0, offset));
+        items.addAll(next.getNewItems());
+        items.addAll(previousItems.subList(offset, previousItems.size()));
+        return previous.copy(items);
+    }
+
+    private ListRemoveChange<T> combineRemoves(ListRemoveChange<T> previous,
+            ListRemoveChange<T> next) {
+        List<T> items = new ArrayList<>(previous.getRemovedItems().size()
+                + next.getRemovedItems().size());
+        int index;
+        if (next.getIndex() == previous.getIndex()) {
+            // Removed the items following the previous range
+            index = previous.getIndex();
+            items.addAll(previous.getRemovedItems());
+            items.addAll(next.getRemovedItems());
+        } else if (next.getIndex() + next.getRemovedItems().size() == previous
+                .getIndex()) {
+            // Removed the items preceding the previous range
+            index = next.getIndex();
+            items.addAll(next.getRemovedItems());
+            items.addAll(previous.getRemovedItems());
+        } else {
+            return null;
+        }
+        return new ListRemoveChange<>(this, index, items);
+    }
+
     private boolean acceptChange(AbstractListChange<T> change) {
         if (change == null) {
             return false;
@@ -428,6 +561,21 @@ public abstract class NodeList<T extends Serializable> extends NodeFeature {
         return new NodeListIterator();
     }
 
+    /**
+     * Passes all items in this list to the given action in order. Unlike
+     * {@link #get(int)}, this doesn't mark the list as accessed, so it can be
+     * used for inspecting the state without affecting what is sent to the
+     * client.
+     *
+     * @param action
+     *            the action to run for each item, not <code>null</code>
+     */
+    public void forEachValue(Consumer<? super T> action) {
+        if (values != null) {
+            values.forEach(action);
+        }
+    }
+
     private void adjustChanges(int removeChangeIndex,
             ListRemoveChange<T> change, Map<Object, Integer> indices,
             List<AbstractListChange<T>> allChanges) {
@@ -17,17 +17,24 @@
 package com.vaadin.flow.internal.nodefeature;
 
 import java.io.Serializable;
+import java.util.AbstractSet;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.ConcurrentModificationException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 import com.vaadin.flow.internal.StateNode;
+import com.vaadin.flow.internal.StateTree;
 import com.vaadin.flow.internal.change.EmptyChange;
 import com.vaadin.flow.internal.change.MapPutChange;
 import com.vaadin.flow.internal.change.MapRemoveChange;
@@ -44,6 +51,12 @@ public abstract class NodeMap extends NodeFeature {
     private static final Serializable REMOVED_MARKER = new UniqueSerializable() {
     };
 
+    /**
+     * The maximum number of entries stored in inline arrays before switching
+     * to hashed storage.
+     */
+    static final int MAX_ARRAY_SIZE = 8;
+
     private interface Values extends Serializable {
         int size();
 
@@ -112,6 +125,133 @@ public abstract class NodeMap extends NodeFeature {
         }
     }
 
+    /**
+     * Stores a small number of entries in two parallel arrays. Lookups are
+     * linear, which is faster than hashing for this size and avoids allocating
+     * entry objects. The iteration order of the keys is not part of the
+     * contract, it changes when switching to hashed storage.
+     */
+    private static class ArrayValues implements Values {
+
+        private String[] keys;
+
+        private Serializable[] values;
+
+        private int size;
+
+        // Incremented when keys are added or removed, for fail-fast iteration
+        private int modCount;
+
+        public ArrayValues(Values previousValues) {
+            keys = new String[MAX_ARRAY_SIZE];
+            values = new Serializable[MAX_ARRAY_SIZE];
+            previousValues.keySet()
+                    .forEach(key -> set(key, previousValues.get(key)));
+        }
+
+        private int indexOf(String key) {
+            for (int i = 0; i < size; i++) {
+                if (keys[i].equals(key)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Serializable get(String key) {
+            int index = indexOf(key);
+            return index == -1 ? null : values[index];
+        }
+
+        @Override
+        public Set<String> keySet() {
+            return new KeySet();
+        }
+
+        @Override
+        public boolean containsKey(String key) {
+            return indexOf(key) != -1;
+        }
+
+        @Override
+        public Stream<Serializable> streamValues() {
+            return Arrays.stream(values, 0, size);
+        }
+
+        @Override
+        public void set(String key, Serializable value) {
+            int index = indexOf(key);
+            if (index == -1) {
+                assert size < MAX_ARRAY_SIZE;
+                index = size++;
+                keys[index] = key;
+                modCount++;
+            }
+            values[index] = value;
+        }
+
+        public Serializable remove(String key) {
+            int index = indexOf(key);
+            if (index == -1) {
+                return null;
+            }
+            Serializable oldValue = values[index];
+            int moved = size - index - 1;
+            System.arraycopy(keys, index + 1, keys, index, moved);
+            System.arraycopy(values, index + 1, values, index, moved);
+            size--;
+            keys[size] = null;
+            values[size] = null;
+            modCount++;
+            return oldValue;
+        }
+
+        private class KeySet extends AbstractSet<String>
+                implements Serializable {
+            @Override
+            public Iterator<String> iterator() {
+                return new KeyIterator();
+            }
+
+            @Override
+            public boolean contains(Object key) {
+                return key instanceof String && containsKey((String) key);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        }
+
+        private class KeyIterator implements Iterator<String>, Serializable {
+            private int index;
+            private final int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            public String next() {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return keys[index++];
+            }
+        }
+    }
+
     private static class HashMapValues extends HashMap<String, Serializable>
             implements Values {
 
@@ -189,6 +329,11 @@ public abstract class NodeMap extends NodeFeature {
             boolean emitChange) {
         Serializable oldValue = get(key);
         if (contains(key) && Objects.equals(oldValue, value)) {
+            if (!emitChange) {
+                // The client has the current value, so any change recorded
+                // earlier would only bounce the same value back to it
+                setUnChanged(key);
+            }
             return oldValue;
         }
         if (emitChange) {
@@ -197,12 +342,20 @@ public abstract class NodeMap extends NodeFeature {
             setUnChanged(key);
         }
 
-        // Optimize memory use when there's only one key
+        /*
+         * Optimize memory use when there's only one key or a few keys, and
+         * switch to hashed storage only for larger maps
+         */
         if (values == null) {
             values = new SingleValue(key, value);
         } else {
-            if (values instanceof SingleValue && !values.containsKey(key)) {
-                values = new HashMapValues(values);
+            if (!values.containsKey(key)) {
+                if (values instanceof SingleValue) {
+                    values = new ArrayValues(values);
+                } else if (values instanceof ArrayValues
+                        && values.size() == MAX_ARRAY_SIZE) {
+                    values = new HashMapValues(values);
+                }
             }
             values.set(key, value);
         }
@@ -314,6 +467,22 @@ public abstract class NodeMap extends NodeFeature {
         return values.keySet();
     }
 
+    /**
+     * Passes all stored key-value pairs to the given action. Unlike
+     * {@link #get(String)}, this doesn't mark any keys as accessed, so it can
+     * be used for inspecting the state without affecting what is sent to the
+     * client.
+     *
+     * @param action
+     *            the action to run for each key and value, not
+     *            <code>null</code>
+     */
+    public void forEachValue(BiConsumer<String, Serializable> action) {
+        if (values != null) {
+            values.keySet().forEach(key -> action.accept(key, values.get(key)));
+        }
+    }
+
     /**
      * Checks whether a value is stored for the given key.
      *
@@ -338,16 +507,27 @@ public abstract class NodeMap extends NodeFeature {
      * @return the removed value, <code>null</code> if no value was removed
      */
     protected Serializable remove(String key) {
+        assert key != null;
+
+        if (values == null || !values.containsKey(key)) {
+            // Nothing to remove, and thus nothing to tell the client
+            return null;
+        }
         setChanged(key);
         Serializable oldValue;
 
-        if (values == null) {
-            return null;
-        } else if (values instanceof SingleValue) {
+        if (values instanceof SingleValue) {
             oldValue = values.get(key);
             if (values.containsKey(key)) {
                 values = null;
             }
+        } else if (values instanceof ArrayValues) {
+            ArrayValues arrayValues = (ArrayValues) values;
+            oldValue = arrayValues.remove(key);
+
+            if (arrayValues.isEmpty()) {
+                values = null;
+            }
         } else {
             assert values instanceof HashMapValues;
             HashMapValues hashMapValues = (HashMapValues) values;
@@ -385,7 +565,8 @@ public abstract class NodeMap extends NodeFeature {
         Map<String, Serializable> changes = getChangeTracker();
 
         if (!changes.containsKey(key)) {
-            // Record this as changed for the collection logic
+            // Record the value known by the client so that only the net effect
+            // of all changes made before collection needs to be sent
             if (values != null && values.containsKey(key)) {
                 Serializable oldValue = values.get(key);
                 changes.put(key, oldValue);
@@ -410,6 +591,7 @@ public abstract class NodeMap extends NodeFeature {
     @Override
     public void collectChanges(Consumer<NodeChange> collector) {
         boolean hasChanges = false;
+        int suppressedChanges = 0;
         for (Entry<String, Serializable> entry : getChangeTracker()
                 .entrySet()) {
             String key = entry.getKey();
@@ -425,9 +607,20 @@ public abstract class NodeMap extends NodeFeature {
                     // New or changed value
                     collector.accept(new MapPutChange(this, key, currentValue));
                     hasChanges = true;
+                } else {
+                    // Changed back to the value known by the client
+                    suppressedChanges++;
                 }
+            } else {
+                // Added and removed again before collection
+                suppressedChanges++;
             }
         }
+        if (suppressedChanges > 0
+                && getNode().getOwner() instanceof StateTree) {
+            ((StateTree) getNode().getOwner())
+                    .addSuppressedChanges(suppressedChanges);
+        }
         if (!isPopulated) {
             if (!hasChanges) {
                 collector.accept(new EmptyChange(this));
@@ -506,4 +699,9 @@ public abstract class NodeMap extends NodeFeature {
         return values instanceof SingleValue;
     }
 
+    // Exposed for testing purposes
+    boolean usesArrayMap() {
+        return values instanceof ArrayValues;
+    }
+
 }
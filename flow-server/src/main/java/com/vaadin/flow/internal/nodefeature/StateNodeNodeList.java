@@ -59,6 +59,19 @@ public abstract class StateNodeNodeList extends NodeList<StateNode> {
         items.forEach(this::attachPotentialChild);
     }
 
+    @Override
+    protected void addAll(int index, Collection<? extends StateNode> items) {
+        super.addAll(index, items);
+        items.forEach(this::attachPotentialChild);
+    }
+
+    @Override
+    protected List<StateNode> removeRange(int fromIndex, int toIndex) {
+        List<StateNode> removed = super.removeRange(fromIndex, toIndex);
+        removed.forEach(this::detatchPotentialChild);
+        return removed;
+    }
+
     @Override
     protected StateNode remove(int index) {
         StateNode removed = super.remove(index);
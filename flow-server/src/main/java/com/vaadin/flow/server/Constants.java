@@ -40,6 +40,32 @@ public final class Constants implements Serializable {
     public static final String SERVLET_PARAMETER_SYNC_ID_CHECK = "syncIdCheck";
     public static final String SERVLET_PARAMETER_SEND_URLS_AS_PARAMETERS = "sendUrlsAsParameters";
     public static final String SERVLET_PARAMETER_PUSH_SUSPEND_TIMEOUT_LONGPOLLING = "pushLongPollingSuspendTimeout";
+    /**
+     * Configuration name for the maximum number of state nodes in a UI. A
+     * warning is logged for UIs that exceed the limit.
+     */
+    public static final String SERVLET_PARAMETER_STATE_TREE_NODE_LIMIT = "stateTreeNodeLimit";
+    /**
+     * Configuration name for the parameter that determines whether UIs that
+     * exceed {@link #SERVLET_PARAMETER_STATE_TREE_NODE_LIMIT} should be closed.
+     */
+    public static final String SERVLET_PARAMETER_CLOSE_UI_ON_STATE_TREE_NODE_LIMIT = "closeUIOnStateTreeNodeLimit";
+    /**
+     * Configuration name for the parameter that determines whether the session
+     * memory monitor MBean should be registered.
+     */
+    public static final String SERVLET_PARAMETER_SESSION_MEMORY_MONITOR = "sessionMemoryMonitor";
+    /**
+     * Configuration name for the parameter that determines whether inactive
+     * UIs and sessions should be closed by a background timer instead of at
+     * the end of requests.
+     */
+    public static final String SERVLET_PARAMETER_BACKGROUND_EXPIRY = "backgroundExpiry";
+    /**
+     * Configuration name for the number of seconds without UIDL requests after
+     * which a UI is serialized out of the heap until it is used again.
+     */
+    public static final String SERVLET_PARAMETER_UI_PASSIVATION_TIMEOUT = "uiPassivationTimeout";
     /**
      * Configuration name for the parameter that determines whether Brotli
      * compression should be used for static resources in cases when a
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2000-2018 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.internal.CurrentInstance;
+
+/**
+ * A UI that has been serialized out of the heap because it has not been used
+ * for a while. The serialized form is kept in a direct buffer so that it
+ * doesn't count towards the heap of the session.
+ * <p>
+ * The owning session is not included in the serialized form but is replaced
+ * with a placeholder that is resolved to the session again when the UI is
+ * restored.
+ *
+ * @author Vaadin Ltd
+ * @since 1.3
+ */
+final class PassivatedUI implements Serializable {
+
+    /**
+     * Stands in for the owning session in the serialized form of the UI.
+     */
+    private static final class SessionPlaceholder implements Serializable {
+        private static final SessionPlaceholder INSTANCE = new SessionPlaceholder();
+
+        private Object readResolve() throws ObjectStreamException {
+            return INSTANCE;
+        }
+    }
+
+    private final int uiId;
+
+    // The session locale when the UI was passivated
+    private final Locale sessionLocale;
+
+    private volatile long lastHeartbeatTimestamp;
+
+    private transient ByteBuffer data;
+
+    private PassivatedUI(int uiId, Locale sessionLocale,
+            long lastHeartbeatTimestamp, ByteBuffer data) {
+        this.uiId = uiId;
+        this.sessionLocale = sessionLocale;
+        this.lastHeartbeatTimestamp = lastHeartbeatTimestamp;
+        this.data = data;
+    }
+
+    /**
+     * Serializes the given UI into off-heap memory.
+     *
+     * @param ui
+     *            the UI to passivate, not <code>null</code>
+     * @return the passivated UI, not <code>null</code>
+     * @throws IOException
+     *             if the UI can't be serialized
+     */
+    static PassivatedUI passivate(UI ui) throws IOException {
+        VaadinSession session = ui.getSession();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes) {
+            {
+                enableReplaceObject(true);
+            }
+
+            @Override
+            protected Object replaceObject(Object obj) throws IOException {
+                return obj == session ? SessionPlaceholder.INSTANCE : obj;
+            }
+        }) {
+            out.writeObject(ui);
+        }
+
+        ByteBuffer data = ByteBuffer.allocateDirect(bytes.size());
+        data.put(bytes.toByteArray());
+        data.flip();
+
+        return new PassivatedUI(ui.getUIId(), session.getLocale(),
+                ui.getInternals().getLastHeartbeatTimestamp(), data);
+    }
+
+    /**
+     * Deserializes the UI and attaches it to the given session again. If the
+     * locale of the session has been changed while the UI was passivated, the
+     * new locale is set to the UI.
+     *
+     * @param session
+     *            the session that the UI belongs to, not <code>null</code>
+     * @return the restored UI, not <code>null</code>
+     * @throws IOException
+     *             if the UI can't be deserialized
+     * @throws ClassNotFoundException
+     *             if a class of the serialized UI can't be found
+     */
+    UI restore(VaadinSession session)
+            throws IOException, ClassNotFoundException {
+        Map<Class<?>, CurrentInstance> old = CurrentInstance
+                .setCurrent(session);
+        try (ObjectInputStream in = new ObjectInputStream(
+                new BufferInputStream(data.duplicate())) {
+            {
+                enableResolveObject(true);
+            }
+
+            @Override
+            protected Object resolveObject(Object obj) throws IOException {
+                return obj instanceof SessionPlaceholder ? session : obj;
+            }
+        }) {
+            UI ui = (UI) in.readObject();
+            ui.getInternals().setLastHeartbeatTimestamp(lastHeartbeatTimestamp);
+            ui.getInternals()
+                    .setLastActivityTimestamp(System.currentTimeMillis());
+            if (!Objects.equals(sessionLocale, session.getLocale())) {
+                ui.setLocale(session.getLocale());
+            }
+            return ui;
+        } finally {
+            CurrentInstance.restoreInstances(old);
+        }
+    }
+
+    /**
+     * Gets the id of the passivated UI.
+     *
+     * @return the UI id
+     */
+    int getUIId() {
+        return uiId;
+    }
+
+    /**
+     * Gets the size of the serialized UI.
+     *
+     * @return the size in bytes
+     */
+    int getSize() {
+        return data.capacity();
+    }
+
+    /**
+     * Gets the timestamp of the last heartbeat received for the UI.
+     *
+     * @return the time of the last heartbeat, in milliseconds since the epoch
+     */
+    long getLastHeartbeatTimestamp() {
+        return lastHeartbeatTimestamp;
+    }
+
+    /**
+     * Records a heartbeat for the passivated UI without restoring it. Can be
+     * called without holding the session lock.
+     *
+     * @param timestamp
+     *            the time of the heartbeat, in milliseconds since the epoch
+     */
+    void setLastHeartbeatTimestamp(long timestamp) {
+        lastHeartbeatTimestamp = timestamp;
+    }
+
+    private void writeObject(ObjectOutputStream stream) throws IOException {
+        stream.defaultWriteObject();
+        byte[] bytes = new byte[data.capacity()];
+        data.duplicate().get(bytes);
+        stream.writeInt(bytes.length);
+        stream.write(bytes);
+    }
+
+    private void readObject(ObjectInputStream stream)
+            throws IOException, ClassNotFoundException {
+        stream.defaultReadObject();
+        byte[] bytes = new byte[stream.readInt()];
+        stream.readFully(bytes);
+        data = ByteBuffer.allocateDirect(bytes.length);
+        data.put(bytes);
+        data.flip();
+    }
+
+    private static class BufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        private BufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
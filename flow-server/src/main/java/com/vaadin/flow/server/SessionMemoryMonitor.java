@@ -0,0 +1,196 @@
+/*
+ * Copyright 2000-2018 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.ToLongFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.vaadin.flow.internal.StateTreeStatistics;
+
+/**
+ * Keeps track of the state tree size of the UIs in all sessions of a
+ * {@link VaadinService} and exposes the totals as a JMX MBean.
+ * <p>
+ * The statistics of a session are refreshed at the end of each request to the
+ * session, while the session lock is still held. Reading the MBean attributes
+ * never locks any session, which means that the values reflect the state at
+ * the end of the latest request of each session.
+ * <p>
+ * The monitor is registered by {@link VaadinService} when
+ * {@link com.vaadin.flow.function.DeploymentConfiguration#isSessionMemoryMonitorEnabled()}
+ * is enabled.
+ *
+ * @author Vaadin Ltd
+ * @since 1.3
+ */
+public class SessionMemoryMonitor implements SessionMemoryMonitorMBean {
+
+    private final Map<VaadinSession, List<StateTreeStatistics>> sessions = Collections
+            .synchronizedMap(new WeakHashMap<>());
+
+    private final int nodeLimit;
+
+    private ObjectName objectName;
+
+    /**
+     * Creates a new monitor.
+     *
+     * @param nodeLimit
+     *            the maximum number of state nodes per UI, or <code>0</code>
+     *            if there is no limit
+     */
+    public SessionMemoryMonitor(int nodeLimit) {
+        this.nodeLimit = nodeLimit;
+    }
+
+    /**
+     * Updates the statistics of the given session. The caller must hold the
+     * session lock.
+     *
+     * @param session
+     *            the session to update, not <code>null</code>
+     */
+    public void update(VaadinSession session) {
+        assert session.hasLock();
+        sessions.put(session, session.getStateTreeStatistics());
+    }
+
+    /**
+     * Stops monitoring the given session.
+     *
+     * @param session
+     *            the session to remove, not <code>null</code>
+     */
+    public void remove(VaadinSession session) {
+        sessions.remove(session);
+    }
+
+    /**
+     * Registers this monitor with the platform MBean server using a name
+     * derived from the given service name. A failure to register is logged
+     * but not propagated.
+     *
+     * @param serviceName
+     *            the name of the service to monitor, not <code>null</code>
+     */
+    public void register(String serviceName) {
+        try {
+            ObjectName name = new ObjectName(
+                    "com.vaadin.flow:type=SessionMemoryMonitor,service="
+                            + ObjectName.quote(serviceName));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this,
+                    name);
+            objectName = name;
+        } catch (JMException e) {
+            getLogger().warn("Unable to register the session memory monitor",
+                    e);
+        }
+    }
+
+    /**
+     * Unregisters this monitor from the platform MBean server if it has been
+     * registered.
+     */
+    public void unregister() {
+        if (objectName == null) {
+            return;
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+        } catch (JMException e) {
+            getLogger().warn("Unable to unregister the session memory monitor",
+                    e);
+        }
+        objectName = null;
+    }
+
+    @Override
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    @Override
+    public int getUICount() {
+        return getAllStatistics().size();
+    }
+
+    @Override
+    public long getTotalNodeCount() {
+        return sum(StateTreeStatistics::getNodeCount);
+    }
+
+    @Override
+    public long getTotalFeatureCount() {
+        return sum(StateTreeStatistics::getFeatureCount);
+    }
+
+    @Override
+    public long getEstimatedRetainedBytes() {
+        return sum(StateTreeStatistics::getEstimatedRetainedBytes);
+    }
+
+    @Override
+    public int getLargestUINodeCount() {
+        return getAllStatistics().stream()
+                .mapToInt(StateTreeStatistics::getNodeCount).max().orElse(0);
+    }
+
+    @Override
+    public int getUIsExceedingNodeLimit() {
+        if (nodeLimit <= 0) {
+            return 0;
+        }
+        return (int) getAllStatistics().stream()
+                .filter(statistics -> statistics.getNodeCount() > nodeLimit)
+                .count();
+    }
+
+    @Override
+    public int getStateTreeNodeLimit() {
+        return nodeLimit;
+    }
+
+    private long sum(ToLongFunction<StateTreeStatistics> property) {
+        return getAllStatistics().stream().mapToLong(property).sum();
+    }
+
+    private List<StateTreeStatistics> getAllStatistics() {
+        List<StateTreeStatistics> all = new ArrayList<>();
+        synchronized (sessions) {
+            sessions.values().forEach(all::addAll);
+        }
+        return all;
+    }
+
+    private static Logger getLogger() {
+        return LoggerFactory.getLogger(SessionMemoryMonitor.class.getName());
+    }
+}
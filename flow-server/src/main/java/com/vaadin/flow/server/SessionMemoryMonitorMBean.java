@@ -0,0 +1,84 @@
+/*
+ * Copyright 2000-2018 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+/**
+ * Management interface of {@link SessionMemoryMonitor}.
+ *
+ * @author Vaadin Ltd
+ * @since 1.3
+ */
+public interface SessionMemoryMonitorMBean {
+
+    /**
+     * Gets the number of monitored sessions.
+     *
+     * @return the number of sessions
+     */
+    int getSessionCount();
+
+    /**
+     * Gets the number of UIs in all monitored sessions.
+     *
+     * @return the number of UIs
+     */
+    int getUICount();
+
+    /**
+     * Gets the total number of state nodes in all monitored UIs.
+     *
+     * @return the number of state nodes
+     */
+    long getTotalNodeCount();
+
+    /**
+     * Gets the total number of initialized node features in all monitored UIs.
+     *
+     * @return the number of node features
+     */
+    long getTotalFeatureCount();
+
+    /**
+     * Gets an estimate of the number of bytes retained by the state trees of
+     * all monitored UIs.
+     *
+     * @return the estimated number of bytes
+     */
+    long getEstimatedRetainedBytes();
+
+    /**
+     * Gets the number of state nodes in the largest monitored UI.
+     *
+     * @return the number of state nodes in the largest UI
+     */
+    int getLargestUINodeCount();
+
+    /**
+     * Gets the number of monitored UIs that have more state nodes than the
+     * configured limit.
+     *
+     * @return the number of UIs exceeding the limit
+     */
+    int getUIsExceedingNodeLimit();
+
+    /**
+     * Gets the configured state tree node limit.
+     *
+     * @return the maximum number of state nodes per UI, or <code>0</code> if
+     *         there is no limit
+     */
+    int getStateTreeNodeLimit();
+}
@@ -40,7 +40,9 @@ import java.util.ServiceLoader;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -53,17 +55,20 @@ import org.slf4j.LoggerFactory;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.internal.DependencyTreeCache;
 import com.vaadin.flow.component.internal.HtmlImportParser;
+import com.vaadin.flow.component.internal.UIInternals;
 import com.vaadin.flow.di.DefaultInstantiator;
 import com.vaadin.flow.di.Instantiator;
 import com.vaadin.flow.function.DeploymentConfiguration;
 import com.vaadin.flow.i18n.I18NProvider;
 import com.vaadin.flow.internal.CurrentInstance;
+import com.vaadin.flow.internal.HashedTimerWheel;
 import com.vaadin.flow.internal.LocaleUtil;
 import com.vaadin.flow.internal.ReflectionCache;
 import com.vaadin.flow.router.Router;
 import com.vaadin.flow.server.ServletHelper.RequestType;
 import com.vaadin.flow.server.communication.AtmospherePushConnection;
 import com.vaadin.flow.server.communication.HeartbeatHandler;
+import com.vaadin.flow.server.communication.PushConnection;
 import com.vaadin.flow.server.communication.PwaHandler;
 import com.vaadin.flow.server.communication.SessionRequestHandler;
 import com.vaadin.flow.server.communication.StreamRequestHandler;
@@ -193,6 +198,18 @@ public abstract class VaadinService implements Serializable {
 
     private Registration htmlImportDependencyCacheClearRegistration;
 
+    private transient SessionMemoryMonitor sessionMemoryMonitor;
+
+    /**
+     * Resolution of the background expiry of UIs and sessions, in
+     * milliseconds.
+     */
+    private static final long EXPIRY_TICK_MILLIS = 1000;
+
+    // Next expiry check of each session, null if checked during requests
+    private transient HashedTimerWheel<VaadinSession> expiryWheel;
+    private transient ScheduledExecutorService expiryTimer;
+
     /**
      * Creates a new vaadin service based on a deployment configuration.
      *
@@ -299,9 +316,35 @@ public abstract class VaadinService implements Serializable {
         htmlImportDependencyCacheClearRegistration = ReflectionCache
                 .addClearAllAction(htmlImportDependencyCache::clear);
 
+        if (getDeploymentConfiguration().isSessionMemoryMonitorEnabled()) {
+            SessionMemoryMonitor monitor = new SessionMemoryMonitor(
+                    getDeploymentConfiguration().getStateTreeNodeLimit());
+            monitor.register(getServiceName());
+            addSessionDestroyListener(
+                    destroyEvent -> monitor
+                            .remove(destroyEvent.getSession()));
+            sessionMemoryMonitor = monitor;
+        }
+
+        if (getDeploymentConfiguration().isBackgroundExpiryEnabled()) {
+            startBackgroundExpiry();
+        }
+
         initialized = true;
     }
 
+    /**
+     * Gets the session memory monitor of this service.
+     *
+     * @see DeploymentConfiguration#isSessionMemoryMonitorEnabled()
+     *
+     * @return an optional session memory monitor, empty if monitoring is not
+     *         enabled
+     */
+    public Optional<SessionMemoryMonitor> getSessionMemoryMonitor() {
+        return Optional.ofNullable(sessionMemoryMonitor);
+    }
+
     /**
      * Find a route registry to use for this service.
      *
@@ -596,6 +639,9 @@ public abstract class VaadinService implements Serializable {
             if (session.getState() == VaadinSessionState.OPEN) {
                 closeSession(session);
             }
+            // Restore passivated UIs so that they are detached like the others
+            new ArrayList<>(session.getPassivatedUIs()).forEach(
+                    passivatedUI -> session.getUIById(passivatedUI.getUIId()));
             List<UI> uis = new ArrayList<>(session.getUIs());
             for (final UI ui : uis) {
                 ui.accessSynchronously(() -> {
@@ -634,7 +680,8 @@ public abstract class VaadinService implements Serializable {
      * Attempts to find a Vaadin service session associated with this request.
      * <p>
      * Handles locking of the session internally to avoid creation of duplicate
-     * sessions by two threads simultaneously.
+     * sessions by two threads simultaneously. The session of a heartbeat
+     * request is looked up without locking when it is ready for use.
      * </p>
      *
      * @param request
@@ -778,6 +825,13 @@ public abstract class VaadinService implements Serializable {
 
     private VaadinSession findOrCreateVaadinSession(VaadinRequest request)
             throws SessionExpiredException {
+        if (ServletHelper.isRequestType(request, RequestType.HEARTBEAT)) {
+            VaadinSession session = findHeartbeatSession(request);
+            if (session != null) {
+                return session;
+            }
+        }
+
         boolean requestCanCreateSession = requestCanCreateSession(request);
         WrappedSession wrappedSession = getWrappedSession(request,
                 requestCanCreateSession);
@@ -797,6 +851,40 @@ public abstract class VaadinService implements Serializable {
 
     }
 
+    /**
+     * Finds the session of a heartbeat request without locking it, so that
+     * heartbeats never wait for other requests to the same session. A
+     * heartbeat can't create, close or restart a session, so only an existing
+     * session that is ready for use is returned.
+     *
+     * @param request
+     *            the heartbeat request
+     * @return the Vaadin session, or <code>null</code> if the session must be
+     *         looked up with the session locked
+     * @throws SessionExpiredException
+     *             if the session has already expired
+     */
+    private VaadinSession findHeartbeatSession(VaadinRequest request)
+            throws SessionExpiredException {
+        if (hasParameter(request, URL_PARAMETER_RESTART_APPLICATION)
+                || hasParameter(request, URL_PARAMETER_CLOSE_APPLICATION)) {
+            return null;
+        }
+        WrappedSession wrappedSession = getWrappedSession(request, false);
+        VaadinSession session;
+        try {
+            session = readFromHttpSession(wrappedSession);
+        } catch (IllegalStateException e) {
+            throw new SessionExpiredException();
+        }
+        // A deserialized session must have its transients refreshed first
+        if (session == null || session.getService() != this
+                || session.getSession() == null) {
+            return null;
+        }
+        return session;
+    }
+
     /**
      * Finds or creates a Vaadin session. Assumes necessary synchronization has
      * been done by the caller to ensure this is not called simultaneously by
@@ -1224,9 +1312,24 @@ public abstract class VaadinService implements Serializable {
      * @param session
      */
     void cleanupSession(VaadinSession session) {
+        cleanupSession(session, expiryWheel == null);
+    }
+
+    private void cleanupSession(VaadinSession session,
+            boolean checkInactiveUIs) {
         if (isSessionActive(session)) {
-            closeInactiveUIs(session);
+            if (checkInactiveUIs) {
+                closeInactiveUIs(session);
+            }
+            closeOversizedUIs(session);
             removeClosedUIs(session);
+            passivateInactiveUIs(session);
+            if (sessionMemoryMonitor != null) {
+                sessionMemoryMonitor.update(session);
+            }
+            if (expiryWheel != null) {
+                scheduleExpiryCheck(session, checkInactiveUIs);
+            }
         } else {
             if (session.getState() == VaadinSessionState.OPEN) {
                 closeSession(session);
@@ -1252,6 +1355,82 @@ public abstract class VaadinService implements Serializable {
         }
     }
 
+    private void startBackgroundExpiry() {
+        expiryWheel = new HashedTimerWheel<>(EXPIRY_TICK_MILLIS, 512);
+        addSessionDestroyListener(
+                event -> expiryWheel.cancel(event.getSession()));
+        String threadName = "Vaadin expiry timer for " + getServiceName();
+        expiryTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+        expiryTimer.scheduleAtFixedRate(
+                () -> expiryWheel.advance(System.currentTimeMillis(),
+                        this::checkExpiry),
+                EXPIRY_TICK_MILLIS, EXPIRY_TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Checks the UIs and the session itself for inactivity once the earliest
+     * of their timeouts may have passed. The session is locked through the
+     * regular access queue so that the check never blocks the timer.
+     */
+    private void checkExpiry(VaadinSession session) {
+        try {
+            session.access(() -> {
+                if (session.getState() == VaadinSessionState.OPEN) {
+                    cleanupSession(session, true);
+                }
+            });
+        } catch (RuntimeException e) {
+            getLogger().error("Checking the expiry of a session failed", e);
+        }
+    }
+
+    /**
+     * Schedules the next inactivity check of the given session at the time
+     * when the heartbeat timeout of its least recently active UI or the UIDL
+     * request timeout of the session passes, whichever is first.
+     * <p>
+     * After a check, the UIs are scanned for the exact time. At the end of a
+     * request, a new UI may have been added, so the check is only moved
+     * earlier if needed, which doesn't require scanning the UIs.
+     */
+    private void scheduleExpiryCheck(VaadinSession session,
+            boolean afterCheck) {
+        long deadline = Long.MAX_VALUE;
+        int heartbeatTimeout = getHeartbeatTimeout();
+        if (heartbeatTimeout >= 0 && afterCheck) {
+            for (UI ui : session.getUIs()) {
+                deadline = Math.min(deadline,
+                        ui.getInternals().getLastHeartbeatTimestamp()
+                                + 1000L * heartbeatTimeout);
+            }
+            for (PassivatedUI passivatedUI : session.getPassivatedUIs()) {
+                deadline = Math.min(deadline,
+                        passivatedUI.getLastHeartbeatTimestamp()
+                                + 1000L * heartbeatTimeout);
+            }
+        } else if (heartbeatTimeout >= 0 && (!session.getUIs().isEmpty()
+                || !session.getPassivatedUIs().isEmpty())) {
+            // No UI can have been active later than now
+            deadline = System.currentTimeMillis() + 1000L * heartbeatTimeout;
+        }
+        int uidlRequestTimeout = getUidlRequestTimeout(session);
+        if (uidlRequestTimeout >= 0) {
+            deadline = Math.min(deadline, session.getLastRequestTimestamp()
+                    + 1000L * uidlRequestTimeout);
+        }
+        if (!afterCheck) {
+            expiryWheel.scheduleNoLaterThan(session, deadline);
+        } else if (deadline == Long.MAX_VALUE) {
+            expiryWheel.cancel(session);
+        } else {
+            expiryWheel.schedule(session, deadline);
+        }
+    }
+
     /**
      * Removes those UIs from the given session for which {@link UI#isClosing()
      * isClosing} yields true.
@@ -1276,6 +1455,17 @@ public abstract class VaadinService implements Serializable {
      */
     private void closeInactiveUIs(VaadinSession session) {
         final String sessionId = session.getSession().getId();
+        int heartbeatTimeout = getHeartbeatTimeout();
+        if (heartbeatTimeout >= 0) {
+            // Restore expired passivated UIs so that they are closed normally
+            long now = System.currentTimeMillis();
+            new ArrayList<>(session.getPassivatedUIs()).stream()
+                    .filter(passivatedUI -> now - passivatedUI
+                            .getLastHeartbeatTimestamp() >= 1000L
+                                    * heartbeatTimeout)
+                    .forEach(passivatedUI -> session
+                            .getUIById(passivatedUI.getUIId()));
+        }
         for (final UI ui : session.getUIs()) {
             if (!isUIActive(ui) && !ui.isClosing()) {
                 ui.accessSynchronously(() -> {
@@ -1287,6 +1477,64 @@ public abstract class VaadinService implements Serializable {
         }
     }
 
+    /**
+     * Passivates those UIs in the given session that have not received UIDL
+     * requests within {@link DeploymentConfiguration#getUIPassivationTimeout()}.
+     * The UI of the current request and UIs that have pending changes or a
+     * connected push connection are never passivated. Nothing is passivated
+     * while the session has pending access tasks, since they may refer to a UI
+     * instance that passivation would replace.
+     */
+    private void passivateInactiveUIs(VaadinSession session) {
+        int timeout = getDeploymentConfiguration().getUIPassivationTimeout();
+        if (timeout <= 0 || !session.getPendingAccessQueue().isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        UI currentUI = UI.getCurrent();
+        for (final UI ui : new ArrayList<>(session.getUIs())) {
+            UIInternals internals = ui.getInternals();
+            PushConnection pushConnection = internals.getPushConnection();
+            if (ui == currentUI || ui.isClosing() || internals.isDirty()
+                    || (pushConnection != null && pushConnection.isConnected())
+                    || now - internals.getLastActivityTimestamp() < 1000L
+                            * timeout) {
+                continue;
+            }
+            if (!session.passivateUI(ui)) {
+                // Try again after another timeout instead of every request
+                internals.setLastActivityTimestamp(now);
+            }
+        }
+    }
+
+    /**
+     * Checks the state tree size of the UIs in the given session against
+     * {@link DeploymentConfiguration#getStateTreeNodeLimit()} and closes UIs
+     * exceeding the limit if
+     * {@link DeploymentConfiguration#isCloseUIOnStateTreeNodeLimit()} is
+     * enabled.
+     */
+    private void closeOversizedUIs(VaadinSession session) {
+        int nodeLimit = getDeploymentConfiguration().getStateTreeNodeLimit();
+        if (nodeLimit <= 0) {
+            return;
+        }
+        boolean closeUIs = getDeploymentConfiguration()
+                .isCloseUIOnStateTreeNodeLimit();
+        for (final UI ui : session.getUIs()) {
+            if (ui.getInternals().isStateTreeNodeLimitExceeded(nodeLimit)
+                    && closeUIs && !ui.isClosing()) {
+                ui.accessSynchronously(() -> {
+                    getLogger().warn(
+                            "Closing UI #{} since its state tree exceeds the limit of {} nodes",
+                            ui.getUIId(), nodeLimit);
+                    ui.close();
+                });
+            }
+        }
+    }
+
     /**
      * Returns the number of seconds that must pass without a valid heartbeat or
      * UIDL request being received from a UI before that UI is removed from its
@@ -1412,6 +1660,10 @@ public abstract class VaadinService implements Serializable {
     /**
      * Called after the framework has handled a request and the response has
      * been written.
+     * <p>
+     * For a heartbeat request, the session is never waited for. Inactive UIs
+     * are then closed through the access queue of the session, or by the
+     * background expiry timer if it is enabled.
      *
      * @param request
      *         The request object
@@ -1423,6 +1675,23 @@ public abstract class VaadinService implements Serializable {
      */
     public void requestEnd(VaadinRequest request, VaadinResponse response,
             VaadinSession session) {
+        if (session != null
+                && ServletHelper.isRequestType(request, RequestType.HEARTBEAT)) {
+            if (expiryWheel == null) {
+                /*
+                 * Never wait for the lock in a heartbeat. The cleanup runs
+                 * right away if the session is not locked, otherwise when the
+                 * current lock holder unlocks it.
+                 */
+                session.access(() -> {
+                    if (session.getState() == VaadinSessionState.OPEN) {
+                        cleanupSession(session);
+                    }
+                });
+            }
+            CurrentInstance.clearAll();
+            return;
+        }
         if (session != null) {
             assert VaadinSession.getCurrent() == session;
             session.lock();
@@ -1983,6 +2252,12 @@ public abstract class VaadinService implements Serializable {
      */
     public void destroy() {
         htmlImportDependencyCacheClearRegistration.remove();
+        if (sessionMemoryMonitor != null) {
+            sessionMemoryMonitor.unregister();
+        }
+        if (expiryTimer != null) {
+            expiryTimer.shutdownNow();
+        }
 
         ServiceDestroyEvent event = new ServiceDestroyEvent(this);
         serviceDestroyListeners
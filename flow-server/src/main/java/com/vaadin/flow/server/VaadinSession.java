@@ -25,18 +25,20 @@ import java.io.Serializable;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Enumeration;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Future;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -44,6 +46,7 @@ import org.slf4j.LoggerFactory;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.function.DeploymentConfiguration;
 import com.vaadin.flow.internal.CurrentInstance;
+import com.vaadin.flow.internal.StateTreeStatistics;
 import com.vaadin.flow.shared.communication.PushMode;
 
 /**
@@ -92,7 +95,11 @@ public class VaadinSession implements HttpSessionBindingListener, Serializable {
     private LinkedList<RequestHandler> requestHandlers = new LinkedList<>();
 
     private int nextUIId = 0;
-    private Map<Integer, UI> uIs = new HashMap<>();
+    // Concurrent for recording heartbeats without locking
+    private Map<Integer, UI> uIs = new ConcurrentHashMap<>();
+
+    // UIs serialized out of the heap, see VaadinService#passivateInactiveUIs
+    private Map<Integer, PassivatedUI> passivatedUIs = new ConcurrentHashMap<>();
 
     protected WebBrowser browser = new WebBrowser();
 
@@ -346,6 +353,7 @@ public class VaadinSession implements HttpSessionBindingListener, Serializable {
         checkHasLock();
         this.locale = locale;
 
+        // Passivated UIs get the new locale when they are restored
         getUIs().forEach(ui -> ui.setLocale(locale));
     }
 
@@ -456,6 +464,11 @@ public class VaadinSession implements HttpSessionBindingListener, Serializable {
      * Gets all the UIs of this session. This includes UIs that have been
      * requested but not yet initialized. UIs that receive no heartbeat requests
      * from the client are eventually removed from the session.
+     * <p>
+     * UIs that have been passivated are not included. They are restored when
+     * needed through {@link #getUIById(int)}.
+     *
+     * @see com.vaadin.flow.function.DeploymentConfiguration#getUIPassivationTimeout()
      *
      * @return a collection of UIs belonging to this application
      */
@@ -464,6 +477,22 @@ public class VaadinSession implements HttpSessionBindingListener, Serializable {
         return Collections.unmodifiableCollection(uIs.values());
     }
 
+    /**
+     * Gets a snapshot of the state tree size of every UI in this session. The
+     * snapshots are based on counters maintained by each state tree, so this
+     * method doesn't walk the trees.
+     *
+     * @see com.vaadin.flow.component.internal.UIInternals#getStateTreeStatistics()
+     *
+     * @return a list of state tree statistics, one for each UI
+     */
+    public List<StateTreeStatistics> getStateTreeStatistics() {
+        checkHasLock();
+        return uIs.values().stream()
+                .map(ui -> ui.getInternals().getStateTreeStatistics())
+                .collect(Collectors.toList());
+    }
+
     /**
      * Returns a UI with the given id.
      * <p>
@@ -475,7 +504,101 @@ public class VaadinSession implements HttpSessionBindingListener, Serializable {
      */
     public UI getUIById(int uiId) {
         checkHasLock();
-        return uIs.get(uiId);
+        UI ui = uIs.get(uiId);
+        if (ui == null && passivatedUIs.containsKey(uiId)) {
+            ui = activateUI(uiId);
+        }
+        return ui;
+    }
+
+    /**
+     * Serializes the given UI out of the heap. The UI is removed from the UIs
+     * of this session without being detached, and a copy of it is restored by
+     * {@link #getUIById(int)} when it is needed again. The given instance is
+     * separated from the session, so that accessing it fails like for a
+     * detached UI.
+     *
+     * @param ui
+     *            the UI to passivate
+     * @return <code>true</code> if the UI was passivated, <code>false</code>
+     *         if it could not be serialized
+     */
+    boolean passivateUI(UI ui) {
+        checkHasLock();
+        PassivatedUI passivatedUI;
+        try {
+            passivatedUI = PassivatedUI.passivate(ui);
+        } catch (IOException e) {
+            getLogger().debug("Could not passivate UI #{}", ui.getUIId(), e);
+            return false;
+        }
+        passivatedUIs.put(ui.getUIId(), passivatedUI);
+        uIs.remove(ui.getUIId());
+        ui.getInternals().invalidateAfterPassivation();
+        // Don't lose a heartbeat recorded while the UI was being serialized
+        passivatedUI.setLastHeartbeatTimestamp(
+                Math.max(passivatedUI.getLastHeartbeatTimestamp(),
+                        ui.getInternals().getLastHeartbeatTimestamp()));
+        getLogger().debug("Passivated UI #{} into {} bytes", ui.getUIId(),
+                passivatedUI.getSize());
+        return true;
+    }
+
+    private UI activateUI(int uiId) {
+        PassivatedUI passivatedUI = passivatedUIs.get(uiId);
+        UI ui;
+        try {
+            ui = passivatedUI.restore(this);
+        } catch (IOException | ClassNotFoundException e) {
+            getLogger().error("Could not restore passivated UI #{}", uiId, e);
+            passivatedUIs.remove(uiId);
+            return null;
+        }
+        uIs.put(uiId, ui);
+        passivatedUIs.remove(uiId);
+        getLogger().debug("Restored passivated UI #{}", uiId);
+        return ui;
+    }
+
+    /**
+     * Gets the UIs of this session that are currently passivated.
+     *
+     * @return a collection of passivated UIs
+     */
+    Collection<PassivatedUI> getPassivatedUIs() {
+        checkHasLock();
+        return Collections.unmodifiableCollection(passivatedUIs.values());
+    }
+
+    /**
+     * Records a heartbeat for the UI with the given id.
+     * <p>
+     * Unlike most other methods of this class, this method can be called
+     * without holding the session lock, so heartbeats do not have to wait for
+     * other requests to the session.
+     * <p>
+     * This is meant for framework internal use.
+     *
+     * @param uiId
+     *            the UI id
+     * @param timestamp
+     *            the time of the heartbeat, in milliseconds since the epoch
+     * @return <code>true</code> if the heartbeat was recorded,
+     *         <code>false</code> if there is no UI with the given id
+     * @since 1.3
+     */
+    public boolean recordHeartbeat(int uiId, long timestamp) {
+        UI ui = uIs.get(uiId);
+        if (ui != null) {
+            ui.getInternals().setLastHeartbeatTimestamp(timestamp);
+            return true;
+        }
+        PassivatedUI passivatedUI = passivatedUIs.get(uiId);
+        if (passivatedUI != null) {
+            passivatedUI.setLastHeartbeatTimestamp(timestamp);
+            return true;
+        }
+        return false;
     }
 
     /**
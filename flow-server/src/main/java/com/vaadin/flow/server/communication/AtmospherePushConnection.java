@@ -32,6 +32,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.vaadin.flow.component.UI;
+import com.vaadin.flow.internal.JsonUtils;
 import com.vaadin.flow.internal.UsageStatistics;
 import com.vaadin.flow.shared.communication.PushConstants;
 
@@ -52,6 +53,30 @@ public class AtmospherePushConnection implements PushConnection {
     private transient FragmentedMessage incomingMessage;
     private transient Future<Object> outgoingMessage;
 
+    /**
+     * Buffers larger than this many characters are not kept for encoding the
+     * next message, to avoid retaining memory after a single large message
+     * in every connection.
+     */
+    private static final int MAX_RETAINED_BUFFER_LENGTH = 64 * 1024;
+
+    // Reused for encoding messages, grows to the size of typical messages
+    private transient StringBuilder messageBuffer;
+
+    /*
+     * Only written while holding the session lock, but volatile so that the
+     * statistics can be read from any thread, e.g. for monitoring.
+     */
+    private transient volatile long messageCount;
+    private transient volatile long totalMessageLength;
+    private transient volatile int lastMessageLength;
+    private transient volatile long totalEncodingTime;
+
+    @FunctionalInterface
+    interface ResponseWriter {
+        void write(Appendable out) throws IOException;
+    }
+
     /**
      * Represents a message that can arrive as multiple fragments.
      */
@@ -191,15 +216,109 @@ public class AtmospherePushConnection implements PushConnection {
             }
         } else {
             try {
-                JsonObject response = new UidlWriter().createUidl(getUI(),
-                        async);
-                sendMessage("for(;;);[" + response.toJson() + "]");
+                sendMessage(encodeMessage(
+                        out -> new UidlWriter().writeUidl(getUI(), async, out)));
             } catch (Exception e) {
                 throw new RuntimeException("Push failed", e);
             }
         }
     }
 
+    /**
+     * Encodes the given UIDL response as a push message. The message is
+     * written into a buffer that is reused between messages, so that only the
+     * final message string is allocated for each message.
+     *
+     * @param response
+     *            the UIDL response to encode
+     * @return the encoded message
+     * @throws IOException
+     *             if encoding fails
+     */
+    protected String encodeMessage(JsonObject response) throws IOException {
+        return encodeMessage(out -> JsonUtils.writeJson(response, out));
+    }
+
+    /**
+     * Encodes the response written by the given writer as a push message
+     * using the reused buffer.
+     *
+     * @param responseWriter
+     *            the writer that writes the UIDL response
+     * @return the encoded message
+     * @throws IOException
+     *             if writing the response fails
+     */
+    String encodeMessage(ResponseWriter responseWriter) throws IOException {
+        long start = System.nanoTime();
+        if (messageBuffer == null) {
+            messageBuffer = new StringBuilder(Math.max(1024,
+                    Math.min(lastMessageLength, MAX_RETAINED_BUFFER_LENGTH)));
+        }
+        String message;
+        try {
+            // some dirt to prevent cross site scripting
+            messageBuffer.append("for(;;);[");
+            responseWriter.write(messageBuffer);
+            messageBuffer.append(']');
+            message = messageBuffer.toString();
+        } finally {
+            // Also discard anything written by a failed encoding
+            if (messageBuffer.capacity() > MAX_RETAINED_BUFFER_LENGTH) {
+                messageBuffer = null;
+            } else {
+                messageBuffer.setLength(0);
+            }
+        }
+
+        messageCount++;
+        lastMessageLength = message.length();
+        totalMessageLength += message.length();
+        totalEncodingTime += System.nanoTime() - start;
+        return message;
+    }
+
+    /**
+     * Gets the number of messages pushed through this connection. This and
+     * the other statistics methods can be called without holding the session
+     * lock, but the returned values are not guaranteed to be consistent with
+     * each other.
+     *
+     * @return the number of pushed messages
+     */
+    public long getMessageCount() {
+        return messageCount;
+    }
+
+    /**
+     * Gets the length of the last message pushed through this connection.
+     *
+     * @return the length of the last message in characters, or
+     *         <code>0</code> if no message has been pushed
+     */
+    public int getLastMessageLength() {
+        return lastMessageLength;
+    }
+
+    /**
+     * Gets the total length of all messages pushed through this connection.
+     *
+     * @return the total length of pushed messages in characters
+     */
+    public long getTotalMessageLength() {
+        return totalMessageLength;
+    }
+
+    /**
+     * Gets the total time spent encoding the messages pushed through this
+     * connection.
+     *
+     * @return the total encoding time in nanoseconds
+     */
+    public long getTotalEncodingTime() {
+        return totalEncodingTime;
+    }
+
     /**
      * Sends the given message to the current client. Cannot be called if
      * {@link #isConnected()} returns false.
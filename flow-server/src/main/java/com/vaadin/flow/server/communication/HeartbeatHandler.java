@@ -20,11 +20,10 @@ import java.io.IOException;
 
 import javax.servlet.http.HttpServletResponse;
 
-import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.internal.UIInternals;
+import com.vaadin.flow.server.RequestHandler;
 import com.vaadin.flow.server.ServletHelper;
 import com.vaadin.flow.server.SessionExpiredHandler;
-import com.vaadin.flow.server.SynchronizedRequestHandler;
 import com.vaadin.flow.server.VaadinRequest;
 import com.vaadin.flow.server.VaadinResponse;
 import com.vaadin.flow.server.VaadinSession;
@@ -38,14 +37,24 @@ import com.vaadin.flow.shared.ApplicationConstants;
  * no UIDL requests for a prolonged period of time. UIs that do not receive
  * either heartbeat or UIDL requests are eventually removed from the session and
  * garbage collected.
+ * <p>
+ * Heartbeats are recorded without locking the session, so they never wait for
+ * other requests to the same session.
  *
  * @author Vaadin Ltd
  * @since 1.0
  */
-public class HeartbeatHandler extends SynchronizedRequestHandler
-        implements SessionExpiredHandler {
+public class HeartbeatHandler
+        implements RequestHandler, SessionExpiredHandler {
 
-    @Override
+    /**
+     * Checks whether the given request is a heartbeat request.
+     *
+     * @param request
+     *            the request to check
+     * @return <code>true</code> if the request is a heartbeat request,
+     *         <code>false</code> otherwise
+     */
     protected boolean canHandleRequest(VaadinRequest request) {
         return ServletHelper.isRequestType(request, RequestType.HEARTBEAT);
     }
@@ -57,14 +66,20 @@ public class HeartbeatHandler extends SynchronizedRequestHandler
      * {@link UIInternals#getLastHeartbeatTimestamp() heartbeat timestamp} to
      * the current time. Otherwise, writes a HTTP Not Found error to the
      * response.
+     * <p>
+     * The session is not locked, only the heartbeat timestamp is updated.
      */
     @Override
-    public boolean synchronizedHandleRequest(VaadinSession session,
-            VaadinRequest request, VaadinResponse response) throws IOException {
-        UI ui = session.getService().findUI(request);
-        if (ui != null) {
-            ui.getInternals()
-                    .setLastHeartbeatTimestamp(System.currentTimeMillis());
+    public boolean handleRequest(VaadinSession session, VaadinRequest request,
+            VaadinResponse response) throws IOException {
+        if (!canHandleRequest(request)) {
+            return false;
+        }
+
+        String uiId = request
+                .getParameter(ApplicationConstants.UI_ID_PARAMETER);
+        if (uiId != null && session.recordHeartbeat(Integer.parseInt(uiId),
+                System.currentTimeMillis())) {
             // Ensure that the browser does not cache heartbeat responses.
             // iOS 6 Safari requires this (#10370)
             response.setHeader("Cache-Control", "no-cache");
@@ -79,6 +94,29 @@ public class HeartbeatHandler extends SynchronizedRequestHandler
         return true;
     }
 
+    /**
+     * Handles a heartbeat request for the given session.
+     *
+     * @param session
+     *            the session for the request
+     * @param request
+     *            the request to handle
+     * @param response
+     *            the response object to which a response can be written
+     * @return <code>true</code> if a response has been written,
+     *         <code>false</code> otherwise
+     * @throws IOException
+     *             if an IO error occurred
+     * @deprecated heartbeats don't need the session lock, use
+     *             {@link #handleRequest(VaadinSession, VaadinRequest, VaadinResponse)}
+     *             instead
+     */
+    @Deprecated
+    public boolean synchronizedHandleRequest(VaadinSession session,
+            VaadinRequest request, VaadinResponse response) throws IOException {
+        return handleRequest(session, request, response);
+    }
+
     /*
      * (non-Javadoc)
      *
@@ -0,0 +1,355 @@
+/*
+ * Copyright 2000-2018 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.communication;
+
+import java.io.IOException;
+import java.io.Reader;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonException;
+import elemental.json.JsonObject;
+import elemental.json.JsonValue;
+
+/**
+ * Reads JSON incrementally from a {@link Reader}, so that parts of a message
+ * can be inspected before the rest of it has been read.
+ * <p>
+ * The first characters of the input are retained so that a message can be
+ * identified by its beginning without keeping all of it in memory.
+ *
+ * @author Vaadin Ltd
+ * @since 1.3
+ */
+class JsonStreamReader {
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+
+    private final int prefixLength;
+    private final StringBuilder prefix;
+
+    private StringBuilder rawCapture;
+
+    /**
+     * Creates a new reader.
+     *
+     * @param reader
+     *            the reader to read JSON from, not <code>null</code>
+     * @param prefixLength
+     *            the number of characters to retain from the beginning of the
+     *            input
+     */
+    JsonStreamReader(Reader reader, int prefixLength) {
+        this.reader = reader;
+        this.prefixLength = prefixLength;
+        prefix = new StringBuilder(Math.min(prefixLength, BUFFER_SIZE));
+    }
+
+    /**
+     * Checks whether the input contains nothing but whitespace.
+     *
+     * @return <code>true</code> if there is no JSON to read
+     * @throws IOException
+     *             if reading fails
+     */
+    boolean isEmpty() throws IOException {
+        return peekNonWhitespace() == -1;
+    }
+
+    /**
+     * Consumes the start of an object.
+     *
+     * @throws IOException
+     *             if reading fails
+     */
+    void beginObject() throws IOException {
+        expect('{');
+    }
+
+    /**
+     * Reads the name of the next member of the current object, consuming the
+     * separating comma and colon, or consumes the end of the object if there
+     * are no more members.
+     *
+     * @return the name of the next member, or <code>null</code> if the end of
+     *         the object was reached
+     * @throws IOException
+     *             if reading fails
+     */
+    String nextName() throws IOException {
+        int c = peekNonWhitespace();
+        if (c == ',') {
+            read();
+            c = peekNonWhitespace();
+        }
+        if (c == '}') {
+            read();
+            return null;
+        }
+        String name = readString();
+        expect(':');
+        return name;
+    }
+
+    /**
+     * Reads and materializes the next value.
+     *
+     * @return the value, not <code>null</code>
+     * @throws IOException
+     *             if reading fails
+     */
+    JsonValue readValue() throws IOException {
+        int c = peekNonWhitespace();
+        switch (c) {
+        case '{':
+            read();
+            JsonObject object = Json.createObject();
+            String name;
+            while ((name = nextName()) != null) {
+                object.put(name, readValue());
+            }
+            return object;
+        case '[':
+            read();
+            JsonArray array = Json.createArray();
+            while (nextArrayItem()) {
+                array.set(array.length(), readValue());
+            }
+            return array;
+        case '"':
+            return Json.create(readString());
+        case 't':
+            readLiteral("true");
+            return Json.create(true);
+        case 'f':
+            readLiteral("false");
+            return Json.create(false);
+        case 'n':
+            readLiteral("null");
+            return Json.createNull();
+        default:
+            return Json.create(readNumber());
+        }
+    }
+
+    /**
+     * Reads the next value without materializing it, returning its JSON
+     * source.
+     *
+     * @return the JSON source of the value
+     * @throws IOException
+     *             if reading fails
+     */
+    String readRawValue() throws IOException {
+        peekNonWhitespace();
+        rawCapture = new StringBuilder();
+        try {
+            skipValue();
+            return rawCapture.toString();
+        } finally {
+            rawCapture = null;
+        }
+    }
+
+    /**
+     * Reads the rest of the input until the retained beginning is complete.
+     *
+     * @throws IOException
+     *             if reading fails
+     */
+    void fillPrefix() throws IOException {
+        while (prefix.length() < prefixLength
+                && (position < limit || fill())) {
+            // Discard the buffered input, fill() retains what is needed
+            position = limit;
+        }
+    }
+
+    /**
+     * Gets the retained beginning of the input that has been read so far.
+     *
+     * @return the beginning of the input
+     */
+    String getPrefix() {
+        return prefix.toString();
+    }
+
+    private void skipValue() throws IOException {
+        int c = peekNonWhitespace();
+        if (c == '{') {
+            read();
+            while (nextName() != null) {
+                skipValue();
+            }
+        } else if (c == '[') {
+            read();
+            while (nextArrayItem()) {
+                skipValue();
+            }
+        } else if (c == '"') {
+            readString();
+        } else if (c == 't') {
+            readLiteral("true");
+        } else if (c == 'f') {
+            readLiteral("false");
+        } else if (c == 'n') {
+            readLiteral("null");
+        } else {
+            readNumber();
+        }
+    }
+
+    private boolean nextArrayItem() throws IOException {
+        int c = peekNonWhitespace();
+        if (c == ',') {
+            read();
+            c = peekNonWhitespace();
+        }
+        if (c == ']') {
+            read();
+            return false;
+        }
+        return true;
+    }
+
+    private String readString() throws IOException {
+        expect('"');
+        StringBuilder value = new StringBuilder();
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                throw new JsonException("Unterminated string");
+            } else if (c == '"') {
+                return value.toString();
+            } else if (c == '\\') {
+                value.append(readEscape());
+            } else {
+                value.append((char) c);
+            }
+        }
+    }
+
+    private char readEscape() throws IOException {
+        int c = read();
+        switch (c) {
+        case '"':
+        case '\\':
+        case '/':
+            return (char) c;
+        case 'b':
+            return '\b';
+        case 'f':
+            return '\f';
+        case 'n':
+            return '\n';
+        case 'r':
+            return '\r';
+        case 't':
+            return '\t';
+        case 'u':
+            int code = 0;
+            for (int i = 0; i < 4; i++) {
+                int digit = Character.digit(read(), 16);
+                if (digit == -1) {
+                    throw new JsonException("Invalid unicode escape");
+                }
+                code = code * 16 + digit;
+            }
+            return (char) code;
+        default:
+            throw new JsonException("Invalid escape character: " + c);
+        }
+    }
+
+    private double readNumber() throws IOException {
+        StringBuilder number = new StringBuilder();
+        int c = peekNonWhitespace();
+        while (c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E'
+                || (c >= '0' && c <= '9')) {
+            number.append((char) read());
+            c = peek();
+        }
+        try {
+            return Double.parseDouble(number.toString());
+        } catch (NumberFormatException e) {
+            throw new JsonException("Invalid JSON value near '" + number
+                    + (c == -1 ? "" : String.valueOf((char) c)) + "'");
+        }
+    }
+
+    private void readLiteral(String literal) throws IOException {
+        for (int i = 0; i < literal.length(); i++) {
+            if (read() != literal.charAt(i)) {
+                throw new JsonException("Expected " + literal);
+            }
+        }
+    }
+
+    private void expect(char expected) throws IOException {
+        int c = peekNonWhitespace();
+        if (c != expected) {
+            throw new JsonException("Expected '" + expected + "' but got "
+                    + (c == -1 ? "end of input" : "'" + (char) c + "'"));
+        }
+        read();
+    }
+
+    private int peekNonWhitespace() throws IOException {
+        int c = peek();
+        while (c == ' ' || c == '\t' || c == '\n' || c == '\r') {
+            read();
+            c = peek();
+        }
+        return c;
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        char c = buffer[position++];
+        if (rawCapture != null) {
+            rawCapture.append(c);
+        }
+        return c;
+    }
+
+    private boolean fill() throws IOException {
+        int read = reader.read(buffer);
+        if (read <= 0) {
+            return false;
+        }
+        position = 0;
+        limit = read;
+        if (prefix.length() < prefixLength) {
+            prefix.append(buffer, 0,
+                    Math.min(read, prefixLength - prefix.length()));
+        }
+        return true;
+    }
+}
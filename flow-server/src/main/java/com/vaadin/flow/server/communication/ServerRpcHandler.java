@@ -19,6 +19,8 @@ package com.vaadin.flow.server.communication;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.Serializable;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
 import java.security.GeneralSecurityException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -48,6 +50,7 @@ import com.vaadin.flow.server.communication.rpc.RpcInvocationHandler;
 import com.vaadin.flow.shared.ApplicationConstants;
 import com.vaadin.flow.shared.JsonConstants;
 
+import elemental.json.Json;
 import elemental.json.JsonArray;
 import elemental.json.JsonObject;
 import elemental.json.JsonValue;
@@ -79,12 +82,16 @@ public class ServerRpcHandler implements Serializable {
     public static class RpcRequest implements Serializable {
 
         private final String csrfToken;
-        private final JsonArray invocations;
+        private JsonArray invocations;
         private final int syncId;
         private final JsonObject json;
         private final boolean resynchronize;
         private final int clientToServerMessageId;
 
+        // Set while the invocations have not yet been materialized
+        private transient JsonStreamReader invocationsReader;
+        private transient String rawInvocations;
+
         /**
          * Creates an instance based on the given JSON received through the
          * given request.
@@ -95,7 +102,15 @@ public class ServerRpcHandler implements Serializable {
          *            the request through which the JSON was received
          */
         public RpcRequest(String jsonString, VaadinRequest request) {
-            json = JsonUtil.parse(jsonString);
+            this(JsonUtil.parse(jsonString), null, null, request);
+        }
+
+        private RpcRequest(JsonObject json,
+                JsonStreamReader invocationsReader, String rawInvocations,
+                VaadinRequest request) {
+            this.json = json;
+            this.invocationsReader = invocationsReader;
+            this.rawInvocations = rawInvocations;
 
             JsonValue token = json.get(ApplicationConstants.CSRF_TOKEN);
             if (token == null) {
@@ -130,7 +145,49 @@ public class ServerRpcHandler implements Serializable {
                 getLogger().warn("Server message without client id received");
                 clientToServerMessageId = -1;
             }
-            invocations = json.getArray(ApplicationConstants.RPC_INVOCATIONS);
+            if (invocationsReader == null && rawInvocations == null) {
+                invocations = json
+                        .getArray(ApplicationConstants.RPC_INVOCATIONS);
+            }
+        }
+
+        /**
+         * Reads the message envelope from the given reader, leaving the
+         * invocations to be read when {@link #getRpcInvocationsData()} is
+         * called. This way the message can be validated based on the
+         * envelope before any invocation payloads are materialized.
+         * <p>
+         * Envelope members that follow the invocations in the message are
+         * only available through {@link #getRawJson()} once the invocations
+         * have been read. If the invocations precede the client id, they are
+         * retained as unparsed JSON until needed.
+         *
+         * @param reader
+         *            the reader positioned at the start of the message
+         * @param request
+         *            the request through which the JSON was received
+         * @return a new RPC request
+         * @throws IOException
+         *             if reading the message fails
+         */
+        static RpcRequest read(JsonStreamReader reader, VaadinRequest request)
+                throws IOException {
+            JsonObject envelope = Json.createObject();
+            String rawInvocations = null;
+
+            reader.beginObject();
+            String name;
+            while ((name = reader.nextName()) != null) {
+                if (!ApplicationConstants.RPC_INVOCATIONS.equals(name)) {
+                    envelope.put(name, reader.readValue());
+                } else if (envelope
+                        .hasKey(ApplicationConstants.CLIENT_TO_SERVER_ID)) {
+                    return new RpcRequest(envelope, reader, null, request);
+                } else {
+                    rawInvocations = reader.readRawValue();
+                }
+            }
+            return new RpcRequest(envelope, null, rawInvocations, request);
         }
 
         /**
@@ -149,6 +206,24 @@ public class ServerRpcHandler implements Serializable {
          *         data
          */
         public JsonArray getRpcInvocationsData() {
+            if (invocationsReader != null) {
+                JsonStreamReader reader = invocationsReader;
+                invocationsReader = null;
+                try {
+                    invocations = (JsonArray) reader.readValue();
+                    String name;
+                    while ((name = reader.nextName()) != null) {
+                        json.put(name, reader.readValue());
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                json.put(ApplicationConstants.RPC_INVOCATIONS, invocations);
+            } else if (rawInvocations != null) {
+                invocations = JsonUtil.parse(rawInvocations);
+                rawInvocations = null;
+                json.put(ApplicationConstants.RPC_INVOCATIONS, invocations);
+            }
             return invocations;
         }
 
@@ -191,6 +266,7 @@ public class ServerRpcHandler implements Serializable {
          *
          */
         public JsonObject getRawJson() {
+            getRpcInvocationsData();
             return json;
         }
 
@@ -198,6 +274,15 @@ public class ServerRpcHandler implements Serializable {
 
     private static final int MAX_BUFFER_SIZE = 64 * 1024;
 
+    /**
+     * The number of characters from the beginning of a message that are used
+     * for identifying duplicate messages.
+     */
+    private static final int MAX_HASHED_MESSAGE_LENGTH = 64 * 1024;
+
+    private final boolean getMessageOverridden = isGetMessageOverridden(
+            getClass());
+
     /**
      * Exception thrown then the security key sent by the client does not match
      * the expected one.
@@ -234,16 +319,26 @@ public class ServerRpcHandler implements Serializable {
      */
     public void handleRpc(UI ui, Reader reader, VaadinRequest request)
             throws IOException, InvalidUIDLSecurityKeyException {
-        ui.getSession().setLastRequestTimestamp(System.currentTimeMillis());
-
-        String changeMessage = getMessage(reader);
-
-        if (changeMessage == null || changeMessage.equals("")) {
+        long now = System.currentTimeMillis();
+        ui.getSession().setLastRequestTimestamp(now);
+        // Any message from the client also tells that the UI is alive
+        ui.getInternals().setLastHeartbeatTimestamp(now);
+        ui.getInternals().setLastActivityTimestamp(now);
+
+        // Let subclasses that customize reading the message still do so
+        JsonStreamReader jsonReader = new JsonStreamReader(
+                getMessageOverridden ? new StringReader(getMessage(reader))
+                        : reader,
+                MAX_HASHED_MESSAGE_LENGTH);
+
+        if (jsonReader.isEmpty()) {
             // The client sometimes sends empty messages, this is probably a bug
             return;
         }
 
-        RpcRequest rpcRequest = new RpcRequest(changeMessage, request);
+        // Only the envelope is read here, the invocations are read once the
+        // message has been validated
+        RpcRequest rpcRequest = RpcRequest.read(jsonReader, request);
 
         // Security: double cookie submission pattern unless disabled by
         // property
@@ -252,12 +347,6 @@ public class ServerRpcHandler implements Serializable {
             throw new InvalidUIDLSecurityKeyException();
         }
 
-        String hashMessage = changeMessage;
-        if (hashMessage.length() > 64 * 1024) {
-            hashMessage = changeMessage.substring(0, 64 * 1024);
-        }
-        byte[] messageHash = MessageDigestUtil.sha256(hashMessage);
-
         int expectedId = ui.getInternals().getLastProcessedClientToServerId()
                 + 1;
         int requestId = rpcRequest.getClientToServerId();
@@ -273,6 +362,10 @@ public class ServerRpcHandler implements Serializable {
             // it would only get an empty response (because the dirty flags have
             // been cleared on the server) and would be out of sync
 
+            jsonReader.fillPrefix();
+            byte[] messageHash = MessageDigestUtil
+                    .sha256(jsonReader.getPrefix());
+
             String message;
             if (requestId == expectedId - 1 && Arrays.equals(messageHash,
                     ui.getInternals().getLastProcessedMessageHash())) {
@@ -296,7 +389,7 @@ public class ServerRpcHandler implements Serializable {
              * to uncover anything such before actually implementing the resync
              * that would thus hide most symptoms of the actual root cause bugs.
              */
-            String messageStart = changeMessage;
+            String messageStart = jsonReader.getPrefix();
             if (messageStart.length() > 1000) {
                 messageStart = messageStart.substring(0, 1000);
             }
@@ -305,9 +398,13 @@ public class ServerRpcHandler implements Serializable {
                             + requestId + ". Message start: " + messageStart);
         } else {
             // Message id ok, process RPCs
+            JsonArray invocations = rpcRequest.getRpcInvocationsData();
+            jsonReader.fillPrefix();
+            byte[] messageHash = MessageDigestUtil
+                    .sha256(jsonReader.getPrefix());
             ui.getInternals().setLastProcessedClientToServerId(expectedId,
                     messageHash);
-            handleInvocations(ui, rpcRequest.getRpcInvocationsData());
+            handleInvocations(ui, invocations);
         }
 
         if (rpcRequest.isResynchronize()) {
@@ -385,6 +482,23 @@ public class ServerRpcHandler implements Serializable {
         }
     }
 
+    /**
+     * Reads the whole message from the given reader.
+     * <p>
+     * {@link #handleRpc(UI, Reader, VaadinRequest)} reads the message
+     * incrementally and only calls this method if it is overridden by a
+     * subclass, in which case the whole message is read using this method
+     * before it is parsed.
+     *
+     * @param reader
+     *            the reader to read from
+     * @return the message
+     * @throws IOException
+     *             if reading fails
+     * @deprecated overriding this method prevents reading the message
+     *             incrementally, and it will be removed in a future version
+     */
+    @Deprecated
     protected String getMessage(Reader reader) throws IOException {
 
         StringBuilder sb = new StringBuilder(MAX_BUFFER_SIZE);
@@ -401,6 +515,19 @@ public class ServerRpcHandler implements Serializable {
         return sb.toString();
     }
 
+    static boolean isGetMessageOverridden(Class<?> type) {
+        for (Class<?> current = type; current != ServerRpcHandler.class;
+                current = current.getSuperclass()) {
+            try {
+                current.getDeclaredMethod("getMessage", Reader.class);
+                return true;
+            } catch (NoSuchMethodException e) {
+                // Check the superclass
+            }
+        }
+        return false;
+    }
+
     private static Logger getLogger() {
         return LoggerFactory.getLogger(ServerRpcHandler.class.getName());
     }
@@ -39,7 +39,6 @@ import com.vaadin.flow.server.communication.ServerRpcHandler.InvalidUIDLSecurity
 import com.vaadin.flow.shared.JsonConstants;
 
 import elemental.json.JsonException;
-import elemental.json.JsonObject;
 
 /**
  * Processes a UIDL request from the client.
@@ -116,11 +115,10 @@ public class UidlRequestHandler extends SynchronizedRequestHandler
     }
 
     private static void writeUidl(UI ui, Writer writer) throws IOException {
-        JsonObject uidl = new UidlWriter().createUidl(ui, false);
-
         // some dirt to prevent cross site scripting
-        String responseString = "for(;;);[" + uidl.toJson() + "]";
-        writer.write(responseString);
+        writer.write("for(;;);[");
+        new UidlWriter().writeUidl(ui, false, writer);
+        writer.write(']');
     }
 
     private static final Logger getLogger() {
@@ -19,6 +19,7 @@ package com.vaadin.flow.server.communication;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Serializable;
+import java.io.UncheckedIOException;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
@@ -141,6 +142,65 @@ public class UidlWriter implements Serializable {
      * @return JSON object containing the UIDL response
      */
     public JsonObject createUidl(UI ui, boolean async) {
+        try {
+            return createUidl(ui, async, null);
+        } catch (IOException e) {
+            // Never thrown when nothing is written
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes the JSON for all pending changes to the given UI. The output is
+     * equivalent to the JSON of the object returned by
+     * {@link #createUidl(UI, boolean)}, but state tree changes are written
+     * directly to the appendable without first creating JSON objects or an
+     * intermediate string for them.
+     *
+     * @param ui
+     *            The {@link UI} whose changes to write
+     * @param async
+     *            True if this message is sent by the server asynchronously,
+     *            false if it is a response to a client message.
+     * @param out
+     *            the appendable to write the UIDL response to
+     * @throws IOException
+     *             if writing to the appendable fails
+     * @since 1.3
+     */
+    public void writeUidl(UI ui, boolean async, Appendable out)
+            throws IOException {
+        out.append('{');
+        JsonObject remaining = createUidl(ui, async, out);
+        writeKeys(remaining, true, out);
+        out.append('}');
+    }
+
+    /**
+     * Writes all keys of the given object to the given appendable, separated
+     * by commas and optionally preceded by a comma.
+     */
+    private static void writeKeys(JsonObject object, boolean leadingComma,
+            Appendable out) throws IOException {
+        boolean comma = leadingComma;
+        for (String key : object.keys()) {
+            if (comma) {
+                out.append(',');
+            }
+            out.append('"').append(key).append("\":");
+            JsonUtils.writeJson(object.get(key), out);
+            comma = true;
+        }
+    }
+
+    /**
+     * Creates the UIDL response. If <code>out</code> is not <code>null</code>,
+     * the keys that are known before encoding the state tree changes and the
+     * changes themselves are written to it, and the returned object only
+     * contains the remaining keys.
+     */
+    private JsonObject createUidl(UI ui, boolean async, Appendable out)
+            throws IOException {
         JsonObject response = Json.createObject();
 
         UIInternals uiInternals = ui.getInternals();
@@ -176,7 +236,13 @@ public class UidlWriter implements Serializable {
 
         JsonArray stateChanges = Json.createArray();
 
-        encodeChanges(ui, stateChanges);
+        if (out != null) {
+            // Stream the changes right after the keys known at this point
+            writeKeys(response, false, out);
+            response = Json.createObject();
+        }
+
+        encodeChanges(ui, stateChanges, out);
 
         populateDependencies(response, uiInternals.getDependencyList(),
                 new ResolveContext(service, session.getBrowser(), null));
@@ -325,26 +391,51 @@ public class UidlWriter implements Serializable {
      *            the UI
      * @param stateChanges
      *            a JSON array to put state changes into
+     * @param out
+     *            an appendable to write state changes to as a
+     *            <code>changes</code> key, preceded by a comma, instead of the
+     *            JSON array, or <code>null</code> to use the JSON array
+     * @throws IOException
+     *             if writing to the appendable fails
      * @see StateTree#runExecutionsBeforeClientResponse()
      */
-    private void encodeChanges(UI ui, JsonArray stateChanges) {
+    private void encodeChanges(UI ui, JsonArray stateChanges, Appendable out)
+            throws IOException {
         UIInternals uiInternals = ui.getInternals();
         StateTree stateTree = uiInternals.getStateTree();
 
         stateTree.runExecutionsBeforeClientResponse();
 
         Set<Class<? extends Component>> componentsWithDependencies = new LinkedHashSet<>();
-        stateTree.collectChanges(change -> {
-            if (attachesComponent(change)) {
-                ComponentMapping.getComponent(change.getNode())
-                        .ifPresent(component -> addComponentHierarchy(ui,
-                                componentsWithDependencies, component));
-            }
-
-            // Encode the actual change
-            stateChanges.set(stateChanges.length(),
-                    change.toJson(uiInternals.getConstantPool()));
-        });
+        boolean[] changesWritten = new boolean[1];
+        try {
+            stateTree.collectChanges(change -> {
+                if (attachesComponent(change)) {
+                    ComponentMapping.getComponent(change.getNode())
+                            .ifPresent(component -> addComponentHierarchy(ui,
+                                    componentsWithDependencies, component));
+                }
+
+                // Encode the actual change
+                if (out == null) {
+                    stateChanges.set(stateChanges.length(),
+                            change.toJson(uiInternals.getConstantPool()));
+                } else {
+                    try {
+                        out.append(changesWritten[0] ? "," : ",\"changes\":[");
+                        change.writeJson(out, uiInternals.getConstantPool());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    changesWritten[0] = true;
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (changesWritten[0]) {
+            out.append(']');
+        }
 
         componentsWithDependencies
                 .forEach(uiInternals::addComponentDependencies);
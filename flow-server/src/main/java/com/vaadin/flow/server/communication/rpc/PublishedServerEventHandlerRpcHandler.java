@@ -15,13 +15,18 @@
  */
 package com.vaadin.flow.server.communication.rpc;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Array;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -35,6 +40,7 @@ import com.vaadin.flow.component.polymertemplate.EventHandler;
 import com.vaadin.flow.component.polymertemplate.PolymerTemplate;
 import com.vaadin.flow.dom.DisabledUpdateMode;
 import com.vaadin.flow.internal.ReflectTools;
+import com.vaadin.flow.internal.ReflectionCache;
 import com.vaadin.flow.internal.StateNode;
 import com.vaadin.flow.internal.nodefeature.ClientCallableHandlers;
 import com.vaadin.flow.internal.nodefeature.ComponentMapping;
@@ -63,6 +69,55 @@ public class PublishedServerEventHandlerRpcHandler
 
     private static final Collection<RpcDecoder> DECODERS = loadDecoders();
 
+    private static final MethodType INVOKER_TYPE = MethodType
+            .methodType(Object.class, Object.class, Object[].class);
+
+    /**
+     * Event handler methods by name for each class. A name which is mapped to
+     * several methods in the same class is stored with a <code>null</code>
+     * method so that the error is reported only if the handler is invoked.
+     */
+    private static final ReflectionCache<Object, Map<String, HandlerMethod>> handlerMethods = new ReflectionCache<>(
+            PublishedServerEventHandlerRpcHandler::collectHandlerMethods);
+
+    /**
+     * An event handler method together with a pre-bound method handle and the
+     * parameter type information needed for decoding arguments.
+     */
+    private static class HandlerMethod {
+        private final Method method;
+        private final MethodHandle invoker;
+        private final Class<?>[] parameterTypes;
+        private final Class<?>[] convertedParameterTypes;
+
+        private HandlerMethod(Method method) {
+            this.method = method;
+            if (method == null) {
+                invoker = null;
+                parameterTypes = null;
+                convertedParameterTypes = null;
+                return;
+            }
+            parameterTypes = method.getParameterTypes();
+            convertedParameterTypes = Stream.of(parameterTypes)
+                    .map(ReflectTools::convertPrimitiveType)
+                    .toArray(Class<?>[]::new);
+            try {
+                method.setAccessible(true);
+                invoker = MethodHandles.lookup().unreflect(method)
+                        .asFixedArity()
+                        .asSpreader(Object[].class, parameterTypes.length)
+                        .asType(INVOKER_TYPE);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private boolean isAmbiguous() {
+            return method == null;
+        }
+    }
+
     @Override
     public String getRpcType() {
         return JsonConstants.RPC_PUBLISHED_SERVER_EVENT_HANDLER;
@@ -99,17 +154,19 @@ public class PublishedServerEventHandlerRpcHandler
         boolean execute = node.isEnabled();
 
         if (!execute) {
-            ClientCallableHandlers clientDelegate = node
-                    .getFeature(ClientCallableHandlers.class);
-            PolymerServerEventHandlers eventHandlers = node
-                    .getFeature(PolymerServerEventHandlers.class);
-            if (clientDelegate.hasHandler(methodName)) {
-                execute = DisabledUpdateMode.ALWAYS.equals(
-                        clientDelegate.getDisabledUpdateMode(methodName));
+            Optional<ClientCallableHandlers> clientDelegate = node
+                    .getFeatureIfInitialized(ClientCallableHandlers.class);
+            Optional<PolymerServerEventHandlers> eventHandlers = node
+                    .getFeatureIfInitialized(PolymerServerEventHandlers.class);
+            if (clientDelegate.isPresent()
+                    && clientDelegate.get().hasHandler(methodName)) {
+                execute = DisabledUpdateMode.ALWAYS.equals(clientDelegate.get()
+                        .getDisabledUpdateMode(methodName));
             }
-            if (eventHandlers.hasHandler(methodName)) {
+            if (eventHandlers.isPresent()
+                    && eventHandlers.get().hasHandler(methodName)) {
                 execute = execute || DisabledUpdateMode.ALWAYS.equals(
-                        eventHandlers.getDisabledUpdateMode(methodName));
+                        eventHandlers.get().getDisabledUpdateMode(methodName));
             }
         }
 
@@ -124,7 +181,8 @@ public class PublishedServerEventHandlerRpcHandler
     static void invokeMethod(Component instance, Class<?> clazz,
             String methodName, JsonArray args) {
         assert instance != null;
-        Optional<Method> method = findMethod(instance, clazz, methodName);
+        Optional<HandlerMethod> method = findMethod(instance, clazz,
+                methodName);
         if (method.isPresent()) {
             invokeMethod(instance, method.get(), args);
         } else if (instance instanceof Composite) {
@@ -139,44 +197,87 @@ public class PublishedServerEventHandlerRpcHandler
         }
     }
 
-    private static Optional<Method> findMethod(Component instance,
+    private static Optional<HandlerMethod> findMethod(Component instance,
             Class<?> clazz, String methodName) {
-        List<Method> methods = Stream.of(clazz.getDeclaredMethods())
-                .filter(method -> methodName.equals(method.getName()))
-                .filter(method -> method.isAnnotationPresent(EventHandler.class)
-                        || method.isAnnotationPresent(ClientCallable.class))
-                .collect(Collectors.toList());
-        if (methods.size() > 1) {
+        HandlerMethod method = handlerMethods.get(clazz).get(methodName);
+        if (method != null && method.isAmbiguous()) {
             String msg = String.format("Class '%s' contains "
                     + "several event handler method with the same name '%s'",
                     instance.getClass().getName(), methodName);
             throw new IllegalStateException(msg);
-        } else if (methods.size() == 1) {
-            return Optional.of(methods.get(0));
-        } else if (!Component.class.equals(clazz)) {
-            return findMethod(instance, clazz.getSuperclass(), methodName);
-        } else {
-            return Optional.empty();
         }
+        return Optional.ofNullable(method);
+    }
+
+    private static Map<String, HandlerMethod> collectHandlerMethods(
+            Class<?> type) {
+        Map<String, HandlerMethod> methods = new HashMap<>();
+        for (Class<?> clazz = type; clazz != null; clazz = clazz
+                .getSuperclass()) {
+            Map<String, List<Method>> declared = Stream
+                    .of(clazz.getDeclaredMethods())
+                    .filter(method -> method
+                            .isAnnotationPresent(EventHandler.class)
+                            || method.isAnnotationPresent(
+                                    ClientCallable.class))
+                    .collect(Collectors.groupingBy(Method::getName));
+            // Methods in sub classes take precedence
+            declared.forEach((name, candidates) -> methods.computeIfAbsent(
+                    name, key -> new HandlerMethod(candidates.size() == 1
+                            ? candidates.get(0) : null)));
+            if (Component.class.equals(clazz)) {
+                break;
+            }
+        }
+        return Collections.unmodifiableMap(methods);
     }
 
-    private static void invokeMethod(Component instance, Method method,
-            JsonArray args) {
+    private static void invokeMethod(Component instance,
+            HandlerMethod handlerMethod, JsonArray args) {
+        Object[] decodedArgs = decodeArgs(instance, handlerMethod, args);
+        checkArgumentTypes(handlerMethod, decodedArgs);
         try {
-            method.setAccessible(true);
-            method.invoke(instance, decodeArgs(instance, method, args));
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException(e);
-        } catch (InvocationTargetException e) {
+            // The call site type must exactly match INVOKER_TYPE
+            Object ignore = handlerMethod.invoker
+                    .invokeExact((Object) instance, decodedArgs);
+        } catch (Throwable e) {
+            // The arguments have been checked, so the handler threw this
             LoggerFactory.getLogger(
                     PublishedServerEventHandlerRpcHandler.class.getName())
                     .debug(null, e);
-            throw new RuntimeException(e.getCause());
+            throw new RuntimeException(e);
         }
     }
 
-    private static Object[] decodeArgs(Component instance, Method method,
-            JsonArray argsFromClient) {
+    /**
+     * Checks that the arguments can be passed to the method, so that invalid
+     * arguments are reported as an {@link IllegalArgumentException} like
+     * {@link Method#invoke(Object, Object...)} does instead of failing in the
+     * adaptation of the method handle.
+     */
+    private static void checkArgumentTypes(HandlerMethod handlerMethod,
+            Object[] args) {
+        for (int i = 0; i < args.length; i++) {
+            boolean valid = args[i] == null
+                    ? !handlerMethod.parameterTypes[i].isPrimitive()
+                    : handlerMethod.convertedParameterTypes[i]
+                            .isInstance(args[i]);
+            if (!valid) {
+                Method method = handlerMethod.method;
+                String msg = String.format(
+                        "Argument type mismatch for parameter %d of type '%s' "
+                                + "in the method '%s' declared in '%s'",
+                        i, handlerMethod.parameterTypes[i].getName(),
+                        method.getName(),
+                        method.getDeclaringClass().getName());
+                throw new IllegalArgumentException(msg);
+            }
+        }
+    }
+
+    private static Object[] decodeArgs(Component instance,
+            HandlerMethod handlerMethod, JsonArray argsFromClient) {
+        Method method = handlerMethod.method;
         int methodArgs = method.getParameterCount();
         int clientValuesCount = argsFromClient.length();
         JsonArray argValues;
@@ -206,13 +307,14 @@ public class PublishedServerEventHandlerRpcHandler
                 throw new IllegalArgumentException(msg);
             }
         }
-        List<Object> decoded = new ArrayList<>(method.getParameterCount());
-        Class<?>[] methodParameterTypes = method.getParameterTypes();
+        Object[] decoded = new Object[methodArgs];
         for (int i = 0; i < argValues.length(); i++) {
-            Class<?> type = methodParameterTypes[i];
-            decoded.add(decodeArg(instance, method, type, i, argValues.get(i)));
+            decoded[i] = decodeArg(instance, method,
+                    handlerMethod.parameterTypes[i],
+                    handlerMethod.convertedParameterTypes[i], i,
+                    argValues.get(i));
         }
-        return decoded.toArray(new Object[method.getParameterCount()]);
+        return decoded;
     }
 
     private static JsonArray unwrapVarArgs(JsonArray argsFromClient,
@@ -241,7 +343,8 @@ public class PublishedServerEventHandlerRpcHandler
     }
 
     private static Object decodeArg(Component instance, Method method,
-            Class<?> type, int index, JsonValue argValue) {
+            Class<?> type, Class<?> convertedType, int index,
+            JsonValue argValue) {
         // come up with method to know that it's an id and should be gotten from
         // the model
         assert argValue != null;
@@ -257,8 +360,6 @@ public class PublishedServerEventHandlerRpcHandler
         } else if (type.isArray()) {
             return decodeArray(method, type, index, argValue);
         } else {
-            Class<?> convertedType = ReflectTools.convertPrimitiveType(type);
-
             if (isTemplateModelValue(instance, argValue, convertedType)) {
                 return getTemplateItem((PolymerTemplate<?>) instance,
                         (JsonObject) argValue,
@@ -318,11 +419,13 @@ public class PublishedServerEventHandlerRpcHandler
             throw new IllegalArgumentException(msg);
         }
         Class<?> componentType = type.getComponentType();
+        Class<?> convertedComponentType = ReflectTools
+                .convertPrimitiveType(componentType);
         JsonArray array = (JsonArray) argValue;
         Object result = Array.newInstance(componentType, array.length());
         for (int i = 0; i < array.length(); i++) {
-            Array.set(result, i, decodeArg(null, method, componentType, index,
-                    array.get(i)));
+            Array.set(result, i, decodeArg(null, method, componentType,
+                    convertedComponentType, index, array.get(i)));
         }
         return result;
     }
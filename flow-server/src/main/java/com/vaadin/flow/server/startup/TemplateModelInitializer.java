@@ -0,0 +1,157 @@
+/*
+ * Copyright 2000-2018 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.startup;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import javax.servlet.ServletContainerInitializer;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import javax.servlet.ServletException;
+import javax.servlet.annotation.HandlesTypes;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.googlecode.gentyref.GenericTypeReflector;
+import com.vaadin.flow.component.polymertemplate.AbstractTemplate;
+import com.vaadin.flow.component.polymertemplate.PolymerTemplate;
+import com.vaadin.flow.templatemodel.ModelDescriptor;
+import com.vaadin.flow.templatemodel.TemplateModel;
+import com.vaadin.flow.templatemodel.TemplateModelProxyHandler;
+
+/**
+ * Servlet initializer that generates the template model proxy classes for all
+ * {@link PolymerTemplate} subclasses on startup. The classes are generated in
+ * a background thread, so that the first request that uses a template doesn't
+ * have to wait for its model proxy classes to be generated. The generation is
+ * stopped if the servlet context is destroyed before it has completed.
+ *
+ * @author Vaadin Ltd
+ * @since 1.3
+ */
+@HandlesTypes(PolymerTemplate.class)
+public class TemplateModelInitializer implements ServletContainerInitializer {
+
+    @Override
+    public void onStartup(Set<Class<?>> classSet, ServletContext servletContext)
+            throws ServletException {
+        if (classSet == null || classSet.isEmpty()) {
+            return;
+        }
+
+        List<Class<? extends TemplateModel>> modelTypes = getModelTypes(
+                classSet);
+        if (modelTypes.isEmpty()) {
+            return;
+        }
+
+        ExecutorService executor = Executors
+                .newSingleThreadExecutor(runnable -> {
+                    Thread thread = new Thread(runnable,
+                            TemplateModelInitializer.class.getSimpleName());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        servletContext.addListener(new GenerationStopper(executor));
+        modelTypes.forEach(modelType -> executor
+                .execute(() -> generateProxyTypes(modelType)));
+        executor.shutdown();
+    }
+
+    /**
+     * Stops generating proxy classes when the servlet context is destroyed,
+     * so that the thread doesn't keep the undeployed application loaded.
+     */
+    private static class GenerationStopper implements ServletContextListener {
+        private final ExecutorService executor;
+
+        private GenerationStopper(ExecutorService executor) {
+            this.executor = executor;
+        }
+
+        @Override
+        public void contextInitialized(ServletContextEvent sce) {
+            // Generation is started by the initializer
+        }
+
+        @Override
+        public void contextDestroyed(ServletContextEvent sce) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Gets the distinct model types of the given template classes. Template
+     * classes that don't define a concrete model type are ignored.
+     *
+     * @param templateClasses
+     *            the template classes, not <code>null</code>
+     * @return the model types, not <code>null</code>
+     */
+    static List<Class<? extends TemplateModel>> getModelTypes(
+            Collection<Class<?>> templateClasses) {
+        return templateClasses.stream()
+                .map(TemplateModelInitializer::getModelType)
+                .filter(Objects::nonNull).distinct()
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Generates the proxy classes for the given model type and the beans that
+     * it contains.
+     *
+     * @param modelType
+     *            the model type, not <code>null</code>
+     */
+    static void generateProxyTypes(Class<? extends TemplateModel> modelType) {
+        try {
+            TemplateModelProxyHandler
+                    .generateProxyTypes(ModelDescriptor.get(modelType));
+        } catch (RuntimeException e) {
+            // The same error is reported when the template is used
+            getLogger().debug("Could not generate proxy classes for {}",
+                    modelType.getName(), e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Class<? extends TemplateModel> getModelType(
+            Class<?> templateClass) {
+        Type type = GenericTypeReflector.getTypeParameter(templateClass,
+                AbstractTemplate.class.getTypeParameters()[0]);
+        if (type instanceof Class || type instanceof ParameterizedType) {
+            Class<?> modelType = GenericTypeReflector.erase(type);
+            if (TemplateModel.class.isAssignableFrom(modelType)) {
+                return (Class<? extends TemplateModel>) modelType;
+            }
+        }
+        return null;
+    }
+
+    private static Logger getLogger() {
+        return LoggerFactory.getLogger(TemplateModelInitializer.class.getName());
+    }
+}
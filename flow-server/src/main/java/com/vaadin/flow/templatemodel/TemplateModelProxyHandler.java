@@ -17,7 +17,9 @@ package com.vaadin.flow.templatemodel;
 
 import java.io.Serializable;
 import java.lang.reflect.Method;
+import java.util.HashSet;
 import java.util.Objects;
+import java.util.Set;
 import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -196,6 +198,53 @@ public class TemplateModelProxyHandler implements Serializable {
         return proxyType.cast(proxy);
     }
 
+    /**
+     * Generates the proxy classes for the given model type and for all bean
+     * types used by its properties, unless they have already been generated.
+     * Generating a proxy class is slow, so this can be used for doing it in
+     * advance instead of when a model is used for the first time.
+     *
+     * @param modelType
+     *            the model type to generate proxy classes for, not
+     *            <code>null</code>
+     * @since 1.3
+     */
+    public static void generateProxyTypes(BeanModelType<?> modelType) {
+        assert modelType != null;
+
+        generateProxyTypes(modelType, new HashSet<>());
+    }
+
+    /**
+     * Checks whether the proxy class for the given type has been generated.
+     *
+     * @param proxyType
+     *            the type to check
+     * @return <code>true</code> if the proxy class has been generated,
+     *         <code>false</code> otherwise
+     */
+    static boolean isProxyTypeGenerated(Class<?> proxyType) {
+        return proxyConstructors.contains(proxyType);
+    }
+
+    private static void generateProxyTypes(ModelType modelType,
+            Set<Class<?>> visited) {
+        if (modelType instanceof ConvertedModelType) {
+            generateProxyTypes(((ConvertedModelType<?, ?>) modelType)
+                    .getWrappedModelType(), visited);
+        } else if (modelType instanceof ListModelType) {
+            generateProxyTypes(((ListModelType<?>) modelType).getItemType(),
+                    visited);
+        } else if (modelType instanceof BeanModelType) {
+            BeanModelType<?> beanType = (BeanModelType<?>) modelType;
+            if (visited.add(beanType.getProxyType())) {
+                proxyConstructors.get(beanType.getProxyType());
+                beanType.getPropertyNames().map(beanType::getPropertyType)
+                        .forEach(type -> generateProxyTypes(type, visited));
+            }
+        }
+    }
+
     private static BiFunction<StateNode, BeanModelType<?>, Object> createProxyConstructor(
             Class<?> type) {
         if (type.isInterface()) {
@@ -43,7 +43,12 @@ import com.vaadin.flow.dom.DisabledUpdateMode;
 import com.vaadin.flow.dom.DomEvent;
 import com.vaadin.flow.dom.Element;
 import com.vaadin.flow.dom.ElementFactory;
+import com.vaadin.flow.internal.StateNode;
+import com.vaadin.flow.internal.nodefeature.ClientCallableHandlers;
+import com.vaadin.flow.internal.nodefeature.ComponentMapping;
+import com.vaadin.flow.internal.nodefeature.ElementData;
 import com.vaadin.flow.internal.nodefeature.ElementListenerMap;
+import com.vaadin.flow.internal.nodefeature.ElementPropertyMap;
 import com.vaadin.flow.internal.nodefeature.SynchronizedPropertiesList;
 import com.vaadin.flow.server.MockServletServiceSessionSetup;
 import com.vaadin.flow.server.MockVaadinServletService;
@@ -301,6 +306,28 @@ public class ComponentTest {
         mocks.cleanup();
     }
 
+    @Test
+    public void plainComponent_onlyRequiredFeaturesInitialized() {
+        TestDiv div = new TestDiv();
+        UI ui = new UI();
+        ui.add(div);
+        ui.getInternals().getStateTree().collectChanges(change -> {
+        });
+
+        StateNode node = div.getElement().getNode();
+        Assert.assertTrue(
+                node.getFeatureIfInitialized(ElementData.class).isPresent());
+        Assert.assertTrue(node.getFeatureIfInitialized(ComponentMapping.class)
+                .isPresent());
+        Assert.assertFalse(node
+                .getFeatureIfInitialized(ClientCallableHandlers.class)
+                .isPresent());
+        Assert.assertFalse(node
+                .getFeatureIfInitialized(ElementListenerMap.class).isPresent());
+        Assert.assertFalse(node
+                .getFeatureIfInitialized(ElementPropertyMap.class).isPresent());
+    }
+
     @Test
     public void getElement() {
         Assert.assertEquals(Tag.DIV,
@@ -18,16 +18,21 @@ package com.vaadin.flow.dom;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import com.googlecode.gentyref.GenericTypeReflector;
 import org.junit.Assert;
 import org.junit.Test;
 
+import com.vaadin.flow.internal.change.ListAddChange;
+import com.vaadin.flow.internal.change.ListRemoveChange;
+import com.vaadin.flow.internal.change.NodeChange;
 import com.vaadin.flow.internal.nodefeature.ElementChildrenList;
 
 public abstract class AbstractNodeTest {
@@ -241,6 +246,120 @@ public abstract class AbstractNodeTest {
         assertChildren(parent);
     }
 
+    @Test
+    public void appendChildrenCollection() {
+        Node<?> parent = createParentNode();
+        Element child1 = new Element("child1");
+        Element child2 = new Element("child2");
+        Element child3 = new Element("child3");
+        parent.appendChild(child1);
+        parent.appendChildren(Arrays.asList(child2, child3));
+
+        assertChildren(parent, child1, child2, child3);
+        Assert.assertEquals(parent, child3.getParentNode());
+    }
+
+    @Test
+    public void appendChildrenCollection_existingChild_moved() {
+        Node<?> parent = createParentNode();
+        Element child1 = new Element("child1");
+        Element child2 = new Element("child2");
+        Element child3 = new Element("child3");
+        parent.appendChild(child1, child2);
+        parent.appendChildren(Arrays.asList(child1, child3));
+
+        assertChildren(parent, child2, child1, child3);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void appendChildrenCollection_duplicate_throws() {
+        Node<?> parent = createParentNode();
+        Element child = new Element("child");
+        parent.appendChildren(Arrays.asList(child, child));
+    }
+
+    @Test
+    public void removeChildrenRange() {
+        Node<?> parent = createParentNode();
+        Element child1 = new Element("child1");
+        Element child2 = new Element("child2");
+        Element child3 = new Element("child3");
+        Element child4 = new Element("child4");
+        parent.appendChild(child1, child2, child3, child4);
+        parent.removeChildren(1, 3);
+
+        assertChildren(parent, child1, child4);
+        Assert.assertNull(child2.getParentNode());
+        Assert.assertNull(child3.getParentNode());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void removeChildrenRange_afterLast_throws() {
+        Node<?> parent = createParentNode();
+        parent.appendChild(new Element("child1"));
+        parent.removeChildren(0, 2);
+    }
+
+    @Test
+    public void replaceChildren() {
+        Node<?> parent = createParentNode();
+        Element child1 = new Element("child1");
+        Element child2 = new Element("child2");
+        Element child3 = new Element("child3");
+        parent.appendChild(child1, child2);
+        parent.replaceChildren(Arrays.asList(child3, child1));
+
+        assertChildren(parent, child3, child1);
+        Assert.assertNull(child2.getParentNode());
+    }
+
+    @Test
+    public void replaceChildren_largeList_oneRemoveAndOneAdd() {
+        Node<?> parent = createParentNode();
+        List<Element> children = IntStream.range(0, 1000)
+                .mapToObj(i -> new Element("child"))
+                .collect(Collectors.toList());
+        parent.appendChildren(children);
+        parent.getNode().clearChanges();
+
+        List<Element> newChildren = IntStream.range(0, 1000)
+                .mapToObj(i -> new Element("child"))
+                .collect(Collectors.toList());
+        parent.replaceChildren(newChildren);
+
+        List<NodeChange> changes = new ArrayList<>();
+        parent.getNode().getFeature(ElementChildrenList.class)
+                .collectChanges(changes::add);
+        Assert.assertEquals(2, changes.size());
+        Assert.assertEquals(1000, ((ListRemoveChange<?>) changes.get(0))
+                .getRemovedItems().size());
+        Assert.assertEquals(1000,
+                ((ListAddChange<?>) changes.get(1)).getNewItems().size());
+    }
+
+    @Test
+    public void rebuildChildrenOneByOne_changesCombined() {
+        Node<?> parent = createParentNode();
+        for (int i = 0; i < 1000; i++) {
+            parent.appendChild(new Element("child"));
+        }
+        parent.getNode().clearChanges();
+
+        while (parent.getChildCount() > 0) {
+            parent.removeChild(0);
+        }
+        for (int i = 0; i < 1000; i++) {
+            parent.appendChild(new Element("child"));
+        }
+
+        List<NodeChange> changes = new ArrayList<>();
+        parent.getNode().getFeature(ElementChildrenList.class)
+                .collectChanges(changes::add);
+        Assert.assertEquals(2, changes.size());
+        Assert.assertTrue(changes.get(0) instanceof ListRemoveChange<?>);
+        Assert.assertTrue(changes.get(1) instanceof ListAddChange<?>);
+    }
+
     @Test
     public void testGetChildren() {
         Node<?> parent = createParentNode();
@@ -0,0 +1,287 @@
+/*
+ * Copyright 2000-2018 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.dom;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.vaadin.flow.internal.nodefeature.ElementListenerMap;
+import com.vaadin.tests.util.MockUI;
+
+import elemental.json.Json;
+import elemental.json.JsonObject;
+
+public class ChildElementWindowTest {
+
+    private static final int SIZE = 50000;
+
+    private MockUI ui;
+    private Element parent;
+    private AtomicInteger createdCount;
+    private ChildElementWindow window;
+
+    @Before
+    public void setUp() {
+        ui = new MockUI();
+        parent = ElementFactory.createDiv();
+        ui.getElement().appendChild(parent);
+        createdCount = new AtomicInteger();
+        window = parent.createChildWindow(SIZE, index -> {
+            createdCount.incrementAndGet();
+            return ElementFactory.createSpan(String.valueOf(index));
+        });
+    }
+
+    @Test
+    public void noViewport_noChildrenAttached() {
+        flush();
+
+        Assert.assertEquals(0, parent.getChildCount());
+        Assert.assertEquals(0, createdCount.get());
+        Assert.assertEquals(SIZE, parent.getProperty(
+                ChildElementWindow.SIZE_PROPERTY, 0));
+    }
+
+    @Test
+    public void setViewport_onlyViewportAttached() {
+        window.setViewport(100, 120);
+        flush();
+
+        assertChildren(100, 120);
+        Assert.assertEquals(20, createdCount.get());
+        Assert.assertEquals(100, parent.getProperty(
+                ChildElementWindow.START_PROPERTY, -1));
+    }
+
+    @Test
+    public void setViewportSeveralTimes_onlyLastViewportAttached() {
+        window.setViewport(0, 20);
+        window.setViewport(1000, 1020);
+        window.setViewport(100, 120);
+        flush();
+
+        assertChildren(100, 120);
+        Assert.assertEquals(20, createdCount.get());
+    }
+
+    @Test
+    public void scroll_overlappingChildrenKept() {
+        window.setViewport(100, 120);
+        flush();
+        Element kept = parent.getChild(10);
+
+        window.setViewport(105, 125);
+        flush();
+
+        assertChildren(105, 125);
+        Assert.assertEquals(kept, parent.getChild(5));
+        Assert.assertEquals(25, createdCount.get());
+
+        window.setViewport(95, 115);
+        flush();
+
+        assertChildren(95, 115);
+        Assert.assertEquals(kept, parent.getChild(15));
+    }
+
+    @Test
+    public void scrollBack_detachedChildrenReused() {
+        window.setViewport(100, 120);
+        flush();
+        Element first = parent.getChild(0);
+
+        window.setViewport(10000, 10020);
+        flush();
+        Assert.assertNull(first.getParent());
+
+        window.setViewport(100, 120);
+        flush();
+
+        assertChildren(100, 120);
+        Assert.assertEquals(first, parent.getChild(0));
+        Assert.assertEquals(40, createdCount.get());
+    }
+
+    @Test
+    public void cacheSizeZero_detachedChildrenCreatedAgain() {
+        window.setCacheSize(0);
+        window.setViewport(100, 120);
+        flush();
+
+        window.setViewport(10000, 10020);
+        flush();
+        window.setViewport(100, 120);
+        flush();
+
+        Assert.assertEquals(60, createdCount.get());
+    }
+
+    @Test
+    public void overscan_additionalChildrenAttached() {
+        window.setOverscan(5);
+        window.setViewport(2, 10);
+        flush();
+
+        assertChildren(0, 15);
+    }
+
+    @Test
+    public void viewportBeyondSize_restrictedToSize() {
+        window.setViewport(SIZE - 10, SIZE + 10);
+        flush();
+
+        assertChildren(SIZE - 10, SIZE);
+
+        window.setSize(SIZE - 5);
+        flush();
+
+        assertChildren(SIZE - 10, SIZE - 5);
+    }
+
+    @Test
+    public void viewportEvent_viewportAttached() {
+        fireViewportEvent(30, 40);
+        flush();
+
+        assertChildren(30, 40);
+    }
+
+    @Test
+    public void viewportEventOutOfBounds_viewportClamped() {
+        fireViewportEvent(-10, SIZE + 10);
+        flush();
+
+        Assert.assertEquals(0, parent.getProperty(
+                ChildElementWindow.START_PROPERTY, -1));
+        Assert.assertEquals(window.getMaxViewportLength(),
+                parent.getChildCount());
+    }
+
+    @Test
+    public void invalidViewportEvent_ignored() {
+        window.setViewport(30, 40);
+        fireViewportEvent(40, 30);
+        fireViewportEvent(Double.NaN, 10);
+        flush();
+
+        assertChildren(30, 40);
+    }
+
+    @Test
+    public void maxViewportLength_viewportShortened() {
+        window.setMaxViewportLength(10);
+        window.setViewport(100, 200);
+        flush();
+
+        assertChildren(100, 110);
+
+        window.setMaxViewportLength(5);
+        flush();
+
+        assertChildren(100, 105);
+    }
+
+    @Test
+    public void refresh_attachedChildReplaced() {
+        window.setViewport(100, 120);
+        flush();
+        Element old = parent.getChild(3);
+
+        window.refresh(103);
+
+        Assert.assertNotEquals(old, parent.getChild(3));
+        assertChildren(100, 120);
+        Assert.assertEquals(21, createdCount.get());
+    }
+
+    @Test
+    public void refreshAll_allChildrenCreatedAgain() {
+        window.setViewport(100, 120);
+        flush();
+
+        window.refreshAll();
+
+        assertChildren(100, 120);
+        Assert.assertEquals(40, createdCount.get());
+    }
+
+    @Test
+    public void remove_childrenRemovedAndViewportIgnored() {
+        window.setViewport(100, 120);
+        flush();
+
+        window.remove();
+        window.setViewport(200, 220);
+        flush();
+
+        Assert.assertEquals(0, parent.getChildCount());
+    }
+
+    @Test
+    public void windowCreatedBeforeAttach_childrenAttachedWhenParentAttached() {
+        Element detached = ElementFactory.createDiv();
+        ChildElementWindow detachedWindow = detached.createChildWindow(100,
+                index -> ElementFactory.createSpan(String.valueOf(index)));
+        detachedWindow.setViewport(0, 10);
+        flush();
+        Assert.assertEquals(0, detached.getChildCount());
+
+        ui.getElement().appendChild(detached);
+        flush();
+
+        Assert.assertEquals(10, detached.getChildCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setViewport_invalidRange_throws() {
+        window.setViewport(10, 5);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void factoryReturnsNull_throws() {
+        Element element = ElementFactory.createDiv();
+        ui.getElement().appendChild(element);
+        element.createChildWindow(10, index -> null).setViewport(0, 1);
+        flush();
+    }
+
+    private void flush() {
+        ui.getInternals().getStateTree().runExecutionsBeforeClientResponse();
+    }
+
+    private void fireViewportEvent(double start, double end) {
+        JsonObject eventData = Json.createObject();
+        eventData.put("event.detail.start", start);
+        eventData.put("event.detail.end", end);
+        parent.getNode().getFeature(ElementListenerMap.class)
+                .fireEvent(new DomEvent(parent,
+                        ChildElementWindow.VIEWPORT_EVENT, eventData));
+    }
+
+    private void assertChildren(int start, int end) {
+        List<String> texts = parent.getChildren().map(Element::getText)
+                .collect(Collectors.toList());
+        Assert.assertEquals(end - start, texts.size());
+        for (int i = 0; i < texts.size(); i++) {
+            Assert.assertEquals(String.valueOf(start + i), texts.get(i));
+        }
+    }
+}
@@ -123,6 +123,9 @@ public class ElementTest extends AbstractNodeTest {
         ignore.add("attachShadow");
         ignore.add("getShadowRoot");
 
+        // Returns the created child window
+        ignore.add("createChildWindow");
+
         assertMethodsReturnType(Element.class, ignore);
     }
 
@@ -2115,7 +2118,7 @@ public class ElementTest extends AbstractNodeTest {
         div.setAttribute("pin", "");
 
         Assert.assertEquals(
-                "<div pin foo=\"bar\" style=\"width:20px\" class=\"cls\"></div>",
+                "<div foo=\"bar\" pin style=\"width:20px\" class=\"cls\"></div>",
                 div.getOuterHTML());
     }
 
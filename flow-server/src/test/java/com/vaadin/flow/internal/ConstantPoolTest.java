@@ -15,6 +15,12 @@
  */
 package com.vaadin.flow.internal;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -74,4 +80,88 @@ public class ConstantPoolTest {
         Assert.assertNotEquals(constantId, otherId);
         Assert.assertTrue(constantPool.hasNewConstants());
     }
+
+    @Test
+    public void sameValueInDifferentPools_sharedConstant() {
+        JsonObject json = Json.createObject();
+        json.put("foo", "bar");
+        ConstantPoolKey reference = new ConstantPoolKey(json);
+
+        JsonObject otherJson = Json.createObject();
+        otherJson.put("foo", "bar");
+        ConstantPoolKey otherReference = new ConstantPoolKey(otherJson);
+
+        Assert.assertEquals(reference.getId(), otherReference.getId());
+
+        ConstantPool otherPool = new ConstantPool();
+        constantPool.getConstantId(reference);
+        otherPool.getConstantId(otherReference);
+
+        Assert.assertSame(
+                constantPool.dumpConstants().get(reference.getId()),
+                otherPool.dumpConstants().get(reference.getId()));
+    }
+
+    @Test
+    public void serializeAndDeserialize_knownValuesPreserved()
+            throws IOException, ClassNotFoundException {
+        JsonObject known = Json.createObject();
+        known.put("known", true);
+        JsonObject pending = Json.createObject();
+        pending.put("pending", true);
+
+        String knownId = constantPool
+                .getConstantId(new ConstantPoolKey(known));
+        constantPool.dumpConstants();
+        String pendingId = constantPool
+                .getConstantId(new ConstantPoolKey(pending));
+
+        ConstantPool deserialized = serializeAndDeserialize(constantPool);
+
+        Assert.assertTrue(deserialized.hasNewConstants());
+        JsonObject dump = deserialized.dumpConstants();
+        Assert.assertEquals(1, dump.keys().length);
+        Assert.assertTrue(dump.hasKey(pendingId));
+
+        deserialized.getConstantId(new ConstantPoolKey(known));
+        Assert.assertFalse("Constant sent before serialization is not resent",
+                deserialized.hasNewConstants());
+        Assert.assertEquals(knownId,
+                deserialized.getConstantId(new ConstantPoolKey(known)));
+    }
+
+    @Test
+    public void manyDistinctValues_sharedConstantsBounded() {
+        JsonObject first = Json.createObject();
+        first.put("value", -1);
+        ConstantPoolKey firstKey = new ConstantPoolKey(first);
+        String firstId = constantPool.getConstantId(firstKey);
+
+        for (int i = 0; i < ConstantPoolRegistry.MAX_ENTRIES * 2; i++) {
+            JsonObject json = Json.createObject();
+            json.put("value", i);
+            constantPool.getConstantId(new ConstantPoolKey(json));
+        }
+
+        Assert.assertTrue(ConstantPoolRegistry
+                .size() <= ConstantPoolRegistry.MAX_ENTRIES);
+        Assert.assertEquals(
+                "Key keeps its constant after it is no longer shared",
+                firstId, firstKey.getId());
+        Assert.assertEquals(firstId,
+                new ConstantPoolKey(first).getId());
+        Assert.assertTrue(constantPool.dumpConstants().hasKey(firstId));
+    }
+
+    private static ConstantPool serializeAndDeserialize(ConstantPool pool)
+            throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(pool);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(
+                new ByteArrayInputStream(bytes.toByteArray()))) {
+            return (ConstantPool) in.readObject();
+        }
+    }
 }
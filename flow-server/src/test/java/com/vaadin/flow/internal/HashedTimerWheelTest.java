@@ -0,0 +1,133 @@
+/*
+ * Copyright 2000-2018 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.internal;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HashedTimerWheelTest {
+
+    private final HashedTimerWheel<String> wheel = new HashedTimerWheel<>(10,
+            8);
+    private final List<String> expired = new ArrayList<>();
+
+    @Test
+    public void advance_onlyPassedDeadlinesExpire() {
+        wheel.schedule("a", 1005);
+        wheel.schedule("b", 1025);
+
+        wheel.advance(1004, expired::add);
+        Assert.assertEquals(Arrays.asList(), expired);
+
+        wheel.advance(1010, expired::add);
+        Assert.assertEquals(Arrays.asList("a"), expired);
+        Assert.assertFalse(wheel.isScheduled("a"));
+        Assert.assertTrue(wheel.isScheduled("b"));
+
+        wheel.advance(1030, expired::add);
+        Assert.assertEquals(Arrays.asList("a", "b"), expired);
+        Assert.assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void advance_deadlineSeveralRoundsAhead_expiresOnTime() {
+        wheel.advance(1000, expired::add);
+        // 8 slots of 10 cover 80, so this wraps around the wheel twice
+        wheel.schedule("a", 1170);
+
+        for (long now = 1000; now < 1170; now += 10) {
+            wheel.advance(now, expired::add);
+        }
+        Assert.assertEquals(Arrays.asList(), expired);
+
+        wheel.advance(1170, expired::add);
+        Assert.assertEquals(Arrays.asList("a"), expired);
+    }
+
+    @Test
+    public void advance_longTimeSinceLastAdvance_allPassedDeadlinesExpire() {
+        wheel.advance(1000, expired::add);
+        wheel.schedule("a", 1010);
+        wheel.schedule("b", 1150);
+        wheel.schedule("c", 5000);
+
+        wheel.advance(2000, expired::add);
+        expired.sort(null);
+        Assert.assertEquals(Arrays.asList("a", "b"), expired);
+        Assert.assertTrue(wheel.isScheduled("c"));
+    }
+
+    @Test
+    public void schedule_pastDeadline_expiresOnNextAdvance() {
+        wheel.advance(1000, expired::add);
+        wheel.schedule("a", 500);
+
+        wheel.advance(1000, expired::add);
+        Assert.assertEquals(Arrays.asList("a"), expired);
+    }
+
+    @Test
+    public void schedule_replacesPreviousDeadline() {
+        wheel.schedule("a", 1010);
+        wheel.schedule("a", 1050);
+
+        wheel.advance(1020, expired::add);
+        Assert.assertEquals(Arrays.asList(), expired);
+        Assert.assertEquals(1, wheel.size());
+
+        wheel.advance(1050, expired::add);
+        Assert.assertEquals(Arrays.asList("a"), expired);
+    }
+
+    @Test
+    public void scheduleNoLaterThan_onlyMovesDeadlineEarlier() {
+        wheel.scheduleNoLaterThan("a", 1050);
+        wheel.scheduleNoLaterThan("a", 1080);
+        wheel.scheduleNoLaterThan("a", Long.MAX_VALUE);
+
+        wheel.advance(1050, expired::add);
+        Assert.assertEquals(Arrays.asList("a"), expired);
+
+        wheel.scheduleNoLaterThan("b", 1100);
+        wheel.scheduleNoLaterThan("b", 1070);
+        wheel.advance(1070, expired::add);
+        Assert.assertEquals(Arrays.asList("a", "b"), expired);
+    }
+
+    @Test
+    public void cancel_keyDoesNotExpire() {
+        wheel.schedule("a", 1010);
+        Assert.assertTrue(wheel.cancel("a"));
+        Assert.assertFalse(wheel.cancel("a"));
+
+        wheel.advance(2000, expired::add);
+        Assert.assertEquals(Arrays.asList(), expired);
+    }
+
+    @Test
+    public void advance_expiredKeyRescheduledByConsumer() {
+        wheel.schedule("a", 1010);
+        wheel.advance(1010, key -> wheel.schedule(key, 1040));
+
+        Assert.assertTrue(wheel.isScheduled("a"));
+        wheel.advance(1040, expired::add);
+        Assert.assertEquals(Arrays.asList("a"), expired);
+    }
+}
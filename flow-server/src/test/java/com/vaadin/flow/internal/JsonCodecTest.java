@@ -15,6 +15,7 @@
  */
 package com.vaadin.flow.internal;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
@@ -83,6 +84,38 @@ public class JsonCodecTest {
         }
     }
 
+    @Test
+    public void writeWithoutTypeInfo_sameAsEncoded() throws IOException {
+        JsonObject json = Json.createObject();
+        json.put("foo", "bar");
+
+        for (Object value : Arrays.asList(Boolean.TRUE, Boolean.FALSE,
+                "string", "", "with \"quotes\" and \\", "</script>",
+                "\u00e5\u00e4\u00f6\t\u2028", Integer.valueOf(0),
+                Integer.valueOf(-42), Integer.valueOf(9_999_999),
+                Integer.valueOf(10_000_000), Integer.valueOf(Integer.MIN_VALUE),
+                Double.valueOf(3.14), Double.valueOf(-0.0),
+                Double.valueOf(1e21), Double.valueOf(5), null, json)) {
+            StringBuilder out = new StringBuilder();
+            JsonCodec.writeWithoutTypeInfo(value, out);
+
+            Assert.assertEquals(
+                    JsonCodec.encodeWithoutTypeInfo(value).toJson(),
+                    out.toString());
+        }
+    }
+
+    @Test
+    public void writeWithoutTypeInfo_unsupportedTypes() throws IOException {
+        for (Object value : withTypeInfoUnsupportedValues) {
+            try {
+                JsonCodec.writeWithoutTypeInfo(value, new StringBuilder());
+                Assert.fail("Should throw for " + value.getClass());
+            } catch (IllegalArgumentException expected) {
+            }
+        }
+    }
+
     @Test
     public void encodeWithTypeInfo_basicTypes() {
         assertJsonEquals(Json.create(true),
@@ -15,6 +15,7 @@
  */
 package com.vaadin.flow.internal;
 
+import java.io.IOException;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -75,6 +76,23 @@ public class JsonUtilsTest {
                 JsonUtils.jsonEquals(createTestArray1(), createTestObject1()));
     }
 
+    @Test
+    public void writeJson_sameAsToJson() throws IOException {
+        JsonObject object = createTestObject1();
+        JsonArray array = createTestArray1();
+        array.set(array.length(), Json.create("quote \" and \n newline"));
+        array.set(array.length(), Json.create(3.5));
+        array.set(array.length(), Json.createNull());
+        object.put("array", array);
+        object.put("empty", Json.createObject());
+        object.put("key with \"", false);
+
+        StringBuilder builder = new StringBuilder();
+        JsonUtils.writeJson(object, builder);
+
+        Assert.assertEquals(object.toJson(), builder.toString());
+    }
+
     @Test(expected = AssertionError.class)
     public void testEquals_firstNull_throws() {
         JsonUtils.jsonEquals(null, Json.createNull());
@@ -124,6 +124,41 @@ public class StateNodeTest {
                 node.hasFeature(ElementPropertyMap.class));
     }
 
+    @Test
+    public void getFeature_initializedInAnyOrder_featuresStoredCompactly() {
+        StateNode node = new StateNode(ElementData.class,
+                ElementChildrenList.class, ElementPropertyMap.class,
+                ElementAttributeMap.class, ElementClassList.class);
+
+        Assert.assertEquals(0, node.getInitializedFeatureCount());
+        Assert.assertFalse(
+                node.getFeatureIfInitialized(ElementClassList.class)
+                        .isPresent());
+
+        ElementClassList classList = node.getFeature(ElementClassList.class);
+        ElementData data = node.getFeature(ElementData.class);
+        ElementAttributeMap attributes = node
+                .getFeature(ElementAttributeMap.class);
+        ElementChildrenList children = node
+                .getFeature(ElementChildrenList.class);
+
+        Assert.assertEquals(4, node.getInitializedFeatureCount());
+        Assert.assertSame(classList, node.getFeature(ElementClassList.class));
+        Assert.assertSame(data, node.getFeature(ElementData.class));
+        Assert.assertSame(attributes,
+                node.getFeatureIfInitialized(ElementAttributeMap.class).get());
+        Assert.assertSame(children, node.getFeature(ElementChildrenList.class));
+        Assert.assertFalse(
+                node.getFeatureIfInitialized(ElementPropertyMap.class)
+                        .isPresent());
+
+        ElementPropertyMap properties = node
+                .getFeature(ElementPropertyMap.class);
+        Assert.assertSame(properties, node.getFeature(ElementPropertyMap.class));
+        Assert.assertSame(classList, node.getFeature(ElementClassList.class));
+        Assert.assertEquals(5, node.getInitializedFeatureCount());
+    }
+
     @Test(expected = IllegalStateException.class)
     public void getMissingFeatureThrows() {
         StateNode node = new StateNode(ElementData.class);
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2000-2018 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.List;
+
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.internal.StateTreeReplication.NodeData;
+import com.vaadin.flow.internal.StateTreeReplication.NodeReference;
+import com.vaadin.flow.internal.StateTreeReplication.Replica;
+import com.vaadin.flow.internal.nodefeature.ElementAttributeMap;
+import com.vaadin.flow.internal.nodefeature.ElementChildrenList;
+import com.vaadin.flow.internal.nodefeature.ElementPropertyMap;
+
+import elemental.json.Json;
+import elemental.json.JsonObject;
+
+public class StateTreeReplicationTest {
+
+    private static final int ROW_COUNT = 500;
+
+    private UI ui;
+    private StateTree tree;
+    private Replica replica;
+
+    @Before
+    public void setUp() {
+        ui = new UI();
+        tree = ui.getInternals().getStateTree();
+        replica = new Replica();
+
+        for (int i = 0; i < ROW_COUNT; i++) {
+            Element row = new Element("div");
+            row.setAttribute("title", "Row " + i);
+            row.setProperty("index", i);
+            row.setText("Content of row " + i);
+            ui.getElement().appendChild(row);
+        }
+    }
+
+    @Test
+    public void writeFull_replicaContainsAllNodes() throws Exception {
+        replicate(true);
+
+        Assert.assertEquals(tree.getNodeCount(), replica.getNodeCount());
+
+        Element row = ui.getElement().getChild(3);
+        NodeData rowData = replica.getNode(row.getNode().getId());
+        Assert.assertEquals(ui.getElement().getNode().getId(),
+                rowData.getParentId());
+        Assert.assertEquals("Row 3",
+                rowData.getMap(ElementAttributeMap.class).get("title"));
+        Assert.assertEquals(3.0, ((Number) rowData
+                .getMap(ElementPropertyMap.class).get("index")).doubleValue(),
+                0);
+
+        List<Object> children = replica
+                .getNode(ui.getElement().getNode().getId())
+                .getList(ElementChildrenList.class);
+        Assert.assertEquals(ROW_COUNT, children.size());
+        Assert.assertEquals(new NodeReference(row.getNode().getId()),
+                children.get(3));
+    }
+
+    @Test
+    public void writeDelta_changedNode_onlyChangedNodeWritten()
+            throws Exception {
+        int fullSize = replicate(true);
+
+        Element row = ui.getElement().getChild(7);
+        row.setAttribute("title", "Changed");
+        JsonObject json = Json.createObject();
+        json.put("foo", "bar");
+        row.setPropertyJson("json", json);
+
+        int deltaSize = replicate(false);
+
+        Assert.assertTrue(
+                "Delta should be much smaller than the full state, but was "
+                        + deltaSize + " vs " + fullSize,
+                deltaSize * 50 < fullSize);
+
+        NodeData rowData = replica.getNode(row.getNode().getId());
+        Assert.assertEquals("Changed",
+                rowData.getMap(ElementAttributeMap.class).get("title"));
+        Assert.assertEquals("{\"foo\":\"bar\"}",
+                ((JsonObject) rowData.getMap(ElementPropertyMap.class)
+                        .get("json")).toJson());
+        Assert.assertEquals(tree.getNodeCount(), replica.getNodeCount());
+    }
+
+    @Test
+    public void writeDelta_noChanges_noNodesWritten() throws Exception {
+        replicate(true);
+
+        Replica emptyReplica = new Replica();
+        read(emptyReplica, write(false));
+
+        Assert.assertEquals(0, emptyReplica.getNodeCount());
+    }
+
+    @Test
+    public void writeDelta_removedNodes_removedFromReplica() throws Exception {
+        replicate(true);
+
+        Element row = ui.getElement().getChild(5);
+        int rowId = row.getNode().getId();
+        int textId = row.getChild(0).getNode().getId();
+        ui.getElement().removeChild(row);
+
+        replicate(false);
+
+        Assert.assertNull(replica.getNode(rowId));
+        Assert.assertNull(replica.getNode(textId));
+        Assert.assertEquals(tree.getNodeCount(), replica.getNodeCount());
+        Assert.assertEquals(ROW_COUNT - 1,
+                replica.getNode(ui.getElement().getNode().getId())
+                        .getList(ElementChildrenList.class).size());
+    }
+
+    @Test
+    public void writeDelta_addedNodes_addedToReplica() throws Exception {
+        replicate(true);
+
+        Element row = new Element("span");
+        row.setText("Added");
+        ui.getElement().appendChild(row);
+
+        replicate(false);
+
+        Assert.assertEquals(tree.getNodeCount(), replica.getNodeCount());
+        Assert.assertEquals(row.getNode().getId(),
+                replica.getNode(row.getChild(0).getNode().getId())
+                        .getParentId());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void writeDelta_noFullStateWritten_throws() throws IOException {
+        write(false);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void writeDelta_treeDeserialized_trackingNotRestored()
+            throws IOException {
+        write(true);
+
+        tree = (StateTree) SerializationUtils
+                .deserialize(SerializationUtils.serialize(tree));
+        write(false);
+    }
+
+    @Test
+    public void replicationFormat_smallerThanJavaSerialization()
+            throws Exception {
+        int javaSerializedSize = SerializationUtils.serialize(tree).length;
+        int fullSize = replicate(true);
+
+        ui.getElement().getChild(42).setAttribute("title", "Changed");
+        int deltaSize = replicate(false);
+
+        Assert.assertTrue(
+                "Full state should be smaller than Java serialization, but was "
+                        + fullSize + " vs " + javaSerializedSize,
+                fullSize < javaSerializedSize);
+        Assert.assertTrue(
+                "Delta should be much smaller than Java serialization, but was "
+                        + deltaSize + " vs " + javaSerializedSize,
+                deltaSize * 100 < javaSerializedSize);
+    }
+
+    private int replicate(boolean full)
+            throws IOException, ClassNotFoundException {
+        byte[] data = write(full);
+        read(replica, data);
+        return data.length;
+    }
+
+    private byte[] write(boolean full) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            if (full) {
+                StateTreeReplication.writeFull(tree, out);
+            } else {
+                StateTreeReplication.writeDelta(tree, out);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void read(Replica replica, byte[] data)
+            throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(
+                new ByteArrayInputStream(data))) {
+            replica.read(in);
+        }
+    }
+}
@@ -553,4 +553,37 @@ public class StateTreeTest {
         Assert.assertTrue(collectedNodes.contains(node3));
     }
 
+    @Test
+    public void statistics_attachAndDetachNodes_countsUpdated() {
+        StateNode root = tree.getRootNode();
+        ElementChildrenList rootChildren = root
+                .getFeature(ElementChildrenList.class);
+        StateTreeStatistics initial = tree.getStatistics();
+        Assert.assertEquals(1, initial.getNodeCount());
+        Assert.assertEquals(root.getInitializedFeatureCount(),
+                initial.getFeatureCount());
+
+        StateNode child = new StateNode(ElementChildrenList.class,
+                ElementPropertyMap.class);
+        child.getFeature(ElementPropertyMap.class);
+        rootChildren.add(0, child);
+
+        Assert.assertEquals(2, tree.getNodeCount());
+        Assert.assertEquals(initial.getFeatureCount() + 1,
+                tree.getFeatureCount());
+
+        // Feature initialized while attached
+        child.getFeature(ElementChildrenList.class);
+        Assert.assertEquals(initial.getFeatureCount() + 2,
+                tree.getFeatureCount());
+        Assert.assertTrue(tree.getStatistics()
+                .getEstimatedRetainedBytes() > initial
+                        .getEstimatedRetainedBytes());
+
+        rootChildren.remove(0);
+
+        Assert.assertEquals(1, tree.getNodeCount());
+        Assert.assertEquals(initial.getFeatureCount(), tree.getFeatureCount());
+    }
+
 }
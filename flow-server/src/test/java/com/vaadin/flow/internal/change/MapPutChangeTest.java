@@ -16,9 +16,14 @@
 
 package com.vaadin.flow.internal.change;
 
+import java.io.IOException;
+import java.util.Arrays;
+
 import org.junit.Assert;
 import org.junit.Test;
 
+import com.vaadin.flow.internal.ConstantPool;
+import com.vaadin.flow.internal.ConstantPoolKey;
 import com.vaadin.flow.internal.StateNode;
 import com.vaadin.flow.internal.StateNodeTest;
 import com.vaadin.flow.internal.change.MapPutChange;
@@ -88,6 +93,28 @@ public class MapPutChangeTest {
         Assert.assertEquals(value.getId(), (int) nodeValue.asNumber());
     }
 
+    @Test
+    public void writeJson_sameAsToJson() throws IOException {
+        JsonObject json = Json.createObject();
+        json.put("foo", "bar");
+        ConstantPool constantPool = new ConstantPool();
+
+        for (Object value : Arrays.asList("string", "with \"quotes\"",
+                "\u00e5\u00e4\u00f6\n", Integer.valueOf(42),
+                Integer.valueOf(Integer.MAX_VALUE), Double.valueOf(-0.0),
+                Double.valueOf(3.14), Boolean.FALSE, null, json,
+                StateNodeTest.createEmptyNode("value"),
+                new ConstantPoolKey(Json.create("constant")))) {
+            MapPutChange change = new MapPutChange(feature, "key", value);
+
+            StringBuilder out = new StringBuilder();
+            change.writeJson(out, constantPool);
+
+            Assert.assertEquals(change.toJson(constantPool).toJson(),
+                    out.toString());
+        }
+    }
+
     private JsonValue getValue(Object input) {
         MapPutChange change = new MapPutChange(feature, "myKey", input);
         JsonObject json = change.toJson(null);
@@ -15,6 +15,7 @@ import com.vaadin.flow.internal.change.ListClearChange;
 import com.vaadin.flow.internal.change.ListRemoveChange;
 import com.vaadin.flow.internal.change.NodeAttachChange;
 import com.vaadin.flow.internal.change.NodeChange;
+import com.vaadin.flow.shared.JsonConstants;
 
 public class NodeListAddRemoveTest
         extends AbstractNodeFeatureTest<ElementClassList> {
@@ -119,8 +120,13 @@ public class NodeListAddRemoveTest
         List<NodeChange> changes = collectChanges(nodeList);
 
         // remove is discarded, the fist add is discarded, others are adjusted
-        Assert.assertEquals(2, changes.size());
-        verifyAdded(changes, Arrays.asList("bar", "bar1"), index, index + 1);
+        // and combined
+        Assert.assertEquals(1, changes.size());
+        Assert.assertTrue(changes.get(0) instanceof ListAddChange<?>);
+
+        ListAddChange<?> add = (ListAddChange<?>) changes.get(0);
+        Assert.assertEquals(index, add.getIndex());
+        Assert.assertEquals(Arrays.asList("bar", "bar1"), add.getNewItems());
     }
 
     @Test
@@ -157,22 +163,100 @@ public class NodeListAddRemoveTest
         nodeList.remove(index - 2);
 
         // As a result: "remove" change is discarded and the "add" are adjusted
+        // and combined
         List<NodeChange> changes = collectChanges(nodeList);
-        Assert.assertEquals(2, changes.size());
+        Assert.assertEquals(1, changes.size());
 
         Assert.assertTrue(changes.get(0) instanceof ListAddChange<?>);
-        Assert.assertTrue(changes.get(1) instanceof ListAddChange<?>);
 
         ListAddChange<?> add = (ListAddChange<?>) changes.get(0);
         Assert.assertEquals(index - 2, add.getIndex());
-        Assert.assertEquals(2, add.getNewItems().size());
-        items.remove(0);
-        Assert.assertEquals(items, add.getNewItems());
+        Assert.assertEquals(
+                Arrays.asList(items.get(1), "bar", items.get(2)),
+                add.getNewItems());
+    }
 
-        add = (ListAddChange<?>) changes.get(1);
-        Assert.assertEquals(index - 1, add.getIndex());
-        Assert.assertEquals(1, add.getNewItems().size());
-        Assert.assertEquals("bar", add.getNewItems().get(0));
+    @Test
+    public void addOneByOne_changesCombined() {
+        List<String> items = resetToRemoveAfterAddCase();
+
+        for (int i = 0; i < 100; i++) {
+            nodeList.add("item-" + i);
+        }
+        // Insert in the middle of the added range
+        nodeList.add(items.size() + 50, "middle");
+
+        List<NodeChange> changes = collectChanges(nodeList);
+        Assert.assertEquals(1, changes.size());
+
+        ListAddChange<?> add = (ListAddChange<?>) changes.get(0);
+        Assert.assertEquals(items.size(), add.getIndex());
+        Assert.assertEquals(101, add.getNewItems().size());
+        Assert.assertEquals("item-49", add.getNewItems().get(49));
+        Assert.assertEquals("middle", add.getNewItems().get(50));
+        Assert.assertEquals("item-50", add.getNewItems().get(51));
+    }
+
+    @Test
+    public void removeOneByOne_changesCombined() {
+        List<String> items = resetToRemoveAfterAddCase();
+
+        // Remove from the front of a range and then before it
+        nodeList.remove(1);
+        nodeList.remove(1);
+        nodeList.remove(0);
+
+        List<NodeChange> changes = collectChanges(nodeList);
+        Assert.assertEquals(1, changes.size());
+
+        ListRemoveChange<?> remove = (ListRemoveChange<?>) changes.get(0);
+        Assert.assertEquals(0, remove.getIndex());
+        Assert.assertEquals(items.subList(0, 3), remove.getRemovedItems());
+        Assert.assertEquals(3, remove.toJson(null)
+                .getNumber(JsonConstants.CHANGE_SPLICE_REMOVE), 0);
+    }
+
+    @Test
+    public void removeNonAdjacent_changesNotCombined() {
+        List<String> items = resetToRemoveAfterAddCase();
+
+        nodeList.remove(3);
+        nodeList.remove(0);
+
+        List<NodeChange> changes = collectChanges(nodeList);
+        verifyRemoved(changes, Arrays.asList(items.get(3), items.get(0)), 3,
+                0);
+    }
+
+    @Test
+    public void removeRange_singleChange() {
+        List<String> items = resetToRemoveAfterAddCase();
+
+        List<String> removed = nodeList.removeRange(1, 3);
+        Assert.assertEquals(items.subList(1, 3), removed);
+        verifyNodeListContent(items.get(0), items.get(3));
+
+        List<NodeChange> changes = collectChanges(nodeList);
+        Assert.assertEquals(1, changes.size());
+
+        ListRemoveChange<?> remove = (ListRemoveChange<?>) changes.get(0);
+        Assert.assertEquals(1, remove.getIndex());
+        Assert.assertEquals(items.subList(1, 3), remove.getRemovedItems());
+    }
+
+    @Test
+    public void addAllAtIndex_removeRange_changesDiscarded() {
+        List<String> items = resetToRemoveAfterAddCase();
+
+        nodeList.addAll(2, Arrays.asList("foo", "bar"));
+        verifyNodeListContent(items.get(0), items.get(1), "foo", "bar",
+                items.get(2), items.get(3));
+
+        nodeList.removeRange(2, 4);
+
+        List<NodeChange> changes = collectChanges(nodeList);
+        Assert.assertEquals(0, changes.size());
+        verifyNodeListContent(items.toArray());
     }
 
     @Test
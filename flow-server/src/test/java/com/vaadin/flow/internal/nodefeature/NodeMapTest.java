@@ -16,6 +16,7 @@
 
 package com.vaadin.flow.internal.nodefeature;
 
+import java.util.ConcurrentModificationException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -157,6 +158,49 @@ public class NodeMapTest
         Assert.assertEquals(0, changes.size());
     }
 
+    @Test
+    public void testClientUpdateToPendingValue_noChange() {
+        nodeMap.put(KEY, "value");
+        collectChanges(nodeMap);
+
+        nodeMap.put(KEY, "pending");
+        // The client sends the same value that is pending to be sent
+        nodeMap.put(KEY, "pending", false);
+
+        List<NodeChange> changes = collectChanges(nodeMap);
+        Assert.assertEquals(0, changes.size());
+    }
+
+    @Test
+    public void testRemoveMissingKey_noChange() {
+        collectChanges(nodeMap);
+
+        Assert.assertNull(nodeMap.remove(KEY));
+
+        List<NodeChange> changes = collectChanges(nodeMap);
+        Assert.assertEquals(0, changes.size());
+    }
+
+    @Test
+    public void testSuppressedChangesCounted() {
+        StateTree tree = new StateTree(new UI().getInternals(),
+                ElementChildrenList.class);
+        tree.getRootNode().getFeature(ElementChildrenList.class)
+                .add(nodeMap.getNode());
+        nodeMap.put(KEY, "value");
+        collectChanges(nodeMap);
+        Assert.assertEquals(0, tree.getSuppressedChangeCount());
+
+        nodeMap.put(KEY, "otherValue");
+        nodeMap.put(KEY, "value");
+        nodeMap.put("other", "value");
+        nodeMap.remove("other");
+
+        List<NodeChange> changes = collectChanges(nodeMap);
+        Assert.assertEquals(0, changes.size());
+        Assert.assertEquals(2, tree.getSuppressedChangeCount());
+    }
+
     @Test
     public void testResetChanges() {
         nodeMap.put(KEY, "value");
@@ -372,4 +416,85 @@ public class NodeMapTest
                     "Should not happen, but forEachChild shouldn't explode either");
         });
     }
+
+    @Test
+    public void put_fewValues_usesArrayThenHashedStorage() {
+        for (int i = 0; i < NodeMap.MAX_ARRAY_SIZE; i++) {
+            nodeMap.put("key" + i, "value" + i);
+            Assert.assertEquals(i == 0, nodeMap.usesSingleMap());
+            Assert.assertEquals(i > 0, nodeMap.usesArrayMap());
+        }
+
+        nodeMap.put("key0", "changed");
+        Assert.assertTrue(nodeMap.usesArrayMap());
+
+        nodeMap.put("another", "value");
+        Assert.assertFalse(nodeMap.usesArrayMap());
+        Assert.assertFalse(nodeMap.usesSingleMap());
+
+        Assert.assertEquals("changed", nodeMap.get("key0"));
+        for (int i = 1; i < NodeMap.MAX_ARRAY_SIZE; i++) {
+            Assert.assertEquals("value" + i, nodeMap.get("key" + i));
+        }
+        Assert.assertEquals("value", nodeMap.get("another"));
+    }
+
+    @Test
+    public void remove_arrayStorage_remainingValuesKept() {
+        nodeMap.put("a", "1");
+        nodeMap.put("b", "2");
+        nodeMap.put("c", "3");
+
+        Assert.assertEquals("2", nodeMap.remove("b"));
+        Assert.assertNull(nodeMap.remove("b"));
+
+        Assert.assertTrue(nodeMap.usesArrayMap());
+        Assert.assertFalse(nodeMap.contains("b"));
+        Assert.assertEquals("1", nodeMap.get("a"));
+        Assert.assertEquals("3", nodeMap.get("c"));
+        Assert.assertArrayEquals(new Object[] { "a", "c" },
+                nodeMap.keySet().toArray());
+
+        nodeMap.remove("a");
+        nodeMap.remove("c");
+
+        Assert.assertTrue(nodeMap.keySet().isEmpty());
+        Assert.assertFalse(nodeMap.usesArrayMap());
+    }
+
+    @Test
+    public void put_arrayStorage_equalKeyFound() {
+        String key = new String(new char[] { 'f', 'o', 'o' });
+        nodeMap.put("bar", "baz");
+        nodeMap.put(key, "value");
+        nodeMap.put("foo", "changed");
+
+        Assert.assertTrue(nodeMap.usesArrayMap());
+        Assert.assertEquals(2, nodeMap.keySet().size());
+        Assert.assertEquals("changed",
+                nodeMap.get(new String(new char[] { 'f', 'o', 'o' })));
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void keySet_arrayStorage_modifiedDuringIteration_throws() {
+        nodeMap.put("a", "1");
+        nodeMap.put("b", "2");
+        nodeMap.put("c", "3");
+
+        for (String key : nodeMap.keySet()) {
+            nodeMap.remove(key);
+        }
+    }
+
+    @Test
+    public void serialize_arrayStorage_valuesRestored() {
+        nodeMap.put("a", "1");
+        nodeMap.put("b", "2");
+
+        ElementStylePropertyMap copy = SerializationUtils.roundtrip(nodeMap);
+
+        Assert.assertTrue(copy.usesArrayMap());
+        Assert.assertEquals("1", copy.get("a"));
+        Assert.assertEquals("2", copy.get("b"));
+    }
 }
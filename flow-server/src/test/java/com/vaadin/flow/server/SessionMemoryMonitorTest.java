@@ -0,0 +1,88 @@
+/*
+ * Copyright 2000-2018 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.vaadin.flow.internal.StateTreeStatistics;
+
+public class SessionMemoryMonitorTest {
+
+    private SessionMemoryMonitor monitor = new SessionMemoryMonitor(100);
+
+    @Test
+    public void updateSessions_totalsAggregated() {
+        VaadinSession session1 = mockSession(
+                new StateTreeStatistics(1, 50, 120),
+                new StateTreeStatistics(2, 150, 300));
+        VaadinSession session2 = mockSession(
+                new StateTreeStatistics(1, 10, 20));
+
+        monitor.update(session1);
+        monitor.update(session2);
+
+        Assert.assertEquals(2, monitor.getSessionCount());
+        Assert.assertEquals(3, monitor.getUICount());
+        Assert.assertEquals(210, monitor.getTotalNodeCount());
+        Assert.assertEquals(440, monitor.getTotalFeatureCount());
+        Assert.assertEquals(150, monitor.getLargestUINodeCount());
+        Assert.assertEquals(1, monitor.getUIsExceedingNodeLimit());
+        Assert.assertTrue(monitor.getEstimatedRetainedBytes() > 0);
+
+        monitor.remove(session1);
+
+        Assert.assertEquals(1, monitor.getSessionCount());
+        Assert.assertEquals(10, monitor.getTotalNodeCount());
+        Assert.assertEquals(0, monitor.getUIsExceedingNodeLimit());
+    }
+
+    @Test
+    public void registerAndUnregister_availableInPlatformMBeanServer()
+            throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(
+                "com.vaadin.flow:type=SessionMemoryMonitor,service="
+                        + ObjectName.quote("test-service"));
+
+        monitor.register("test-service");
+        try {
+            Assert.assertTrue(server.isRegistered(name));
+            Assert.assertEquals(100,
+                    server.getAttribute(name, "StateTreeNodeLimit"));
+        } finally {
+            monitor.unregister();
+        }
+
+        Assert.assertFalse(server.isRegistered(name));
+    }
+
+    private static VaadinSession mockSession(
+            StateTreeStatistics... statistics) {
+        VaadinSession session = Mockito.mock(VaadinSession.class);
+        Mockito.when(session.hasLock()).thenReturn(true);
+        Mockito.when(session.getStateTreeStatistics())
+                .thenReturn(Arrays.asList(statistics));
+        return session;
+    }
+}
@@ -21,7 +21,9 @@ import static org.junit.Assert.assertEquals;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -32,6 +34,7 @@ import javax.servlet.http.HttpSessionBindingEvent;
 import org.easymock.EasyMock;
 import org.junit.Assert;
 import org.junit.Test;
+import org.mockito.Mockito;
 
 import com.vaadin.flow.internal.CurrentInstance;
 import com.vaadin.flow.server.BootstrapListener;
@@ -42,6 +45,7 @@ import com.vaadin.flow.server.VaadinService;
 import com.vaadin.flow.server.VaadinServiceInitListener;
 import com.vaadin.flow.server.VaadinServlet;
 import com.vaadin.flow.server.communication.StreamRequestHandler;
+import com.vaadin.flow.shared.ApplicationConstants;
 
 import net.jcip.annotations.NotThreadSafe;
 
@@ -227,6 +231,53 @@ public class VaadinServiceTest {
         Assert.assertTrue(listener2Run.get());
     }
 
+    @Test(timeout = 5000)
+    public void heartbeat_sessionLockedByOtherThread_doesNotWaitForLock()
+            throws Exception {
+        VaadinService service = createService();
+        ReentrantLock lock = new ReentrantLock();
+        MockVaadinSession session = new MockVaadinSession(service);
+
+        WrappedSession wrappedSession = Mockito.mock(WrappedSession.class);
+        Mockito.when(wrappedSession.getAttribute(Mockito.anyString()))
+                .thenAnswer(invocation -> invocation.getArguments()[0]
+                        .toString().endsWith(".lock") ? lock : session);
+        session.refreshTransients(wrappedSession, service);
+
+        VaadinRequest request = Mockito.mock(VaadinRequest.class);
+        Mockito.when(request
+                .getParameter(ApplicationConstants.REQUEST_TYPE_PARAMETER))
+                .thenReturn(ServletHelper.RequestType.HEARTBEAT
+                        .getIdentifier());
+        Mockito.when(request.getWrappedSession(Mockito.anyBoolean()))
+                .thenReturn(wrappedSession);
+
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        Thread lockHolder = new Thread(() -> {
+            lock.lock();
+            try {
+                locked.countDown();
+                done.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                lock.unlock();
+            }
+        });
+        lockHolder.start();
+        locked.await();
+
+        try {
+            Assert.assertSame(session, service.findVaadinSession(request));
+            service.requestEnd(request, null, session);
+        } finally {
+            done.countDown();
+            lockHolder.join();
+            CurrentInstance.clearAll();
+        }
+    }
+
     private static VaadinService createService() {
         ServletConfig servletConfig = new MockServletConfig();
         VaadinServlet servlet = new VaadinServlet();
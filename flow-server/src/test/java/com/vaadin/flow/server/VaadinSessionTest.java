@@ -47,6 +47,7 @@ import org.junit.experimental.categories.Category;
 import org.mockito.Mockito;
 
 import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
 import com.vaadin.flow.internal.CurrentInstance;
 import com.vaadin.flow.router.Router;
 import com.vaadin.flow.server.communication.AtmospherePushConnection;
@@ -337,6 +338,111 @@ public class VaadinSessionTest {
         deserializedSession.unlock();
     }
 
+    @Test
+    public void passivateUI_getUIById_uiRestored() {
+        session.lock();
+        try {
+            ui.getElement().setAttribute("title", "passivated");
+            int uiId = ui.getUIId();
+
+            Assert.assertTrue(session.passivateUI(ui));
+            Assert.assertTrue(session.getUIs().isEmpty());
+            Assert.assertEquals(1, session.getPassivatedUIs().size());
+
+            UI restoredUI = session.getUIById(uiId);
+            Assert.assertNotSame(ui, restoredUI);
+            Assert.assertSame(session, restoredUI.getSession());
+            Assert.assertEquals(uiId, restoredUI.getUIId());
+            Assert.assertEquals("passivated",
+                    restoredUI.getElement().getAttribute("title"));
+            Assert.assertTrue(session.getPassivatedUIs().isEmpty());
+            Assert.assertSame(restoredUI, session.getUIById(uiId));
+        } finally {
+            session.unlock();
+        }
+    }
+
+    @Test(expected = UIDetachedException.class)
+    public void passivateUI_accessOriginalInstance_throws() {
+        session.lock();
+        try {
+            Assert.assertTrue(session.passivateUI(ui));
+            Assert.assertNull(ui.getSession());
+        } finally {
+            session.unlock();
+        }
+
+        ui.access(() -> Assert.fail("Should not run for a passivated UI"));
+    }
+
+    @Test
+    public void passivateUI_setSessionLocale_restoredWithNewLocale() {
+        session.lock();
+        try {
+            session.setLocale(Locale.ENGLISH);
+            int uiId = ui.getUIId();
+            Assert.assertTrue(session.passivateUI(ui));
+
+            session.setLocale(Locale.GERMAN);
+
+            Assert.assertEquals(Locale.GERMAN,
+                    session.getUIById(uiId).getLocale());
+        } finally {
+            session.unlock();
+        }
+    }
+
+    @Test
+    public void passivateUI_recordHeartbeat_uiNotRestored() {
+        session.lock();
+        try {
+            int uiId = ui.getUIId();
+            Assert.assertTrue(session.passivateUI(ui));
+
+            Assert.assertTrue(session.recordHeartbeat(uiId, 1234L));
+            Assert.assertTrue(session.getUIs().isEmpty());
+            Assert.assertEquals(1234L, session.getPassivatedUIs().iterator()
+                    .next().getLastHeartbeatTimestamp());
+
+            UI restoredUI = session.getUIById(uiId);
+            Assert.assertEquals(1234L,
+                    restoredUI.getInternals().getLastHeartbeatTimestamp());
+        } finally {
+            session.unlock();
+        }
+    }
+
+    @Test
+    public void passivateUI_serializeSession_uiRestoredInDeserializedSession()
+            throws Exception {
+        session.lock();
+        int uiId = ui.getUIId();
+        ui.getElement().setAttribute("title", "passivated");
+        Assert.assertTrue(session.passivateUI(ui));
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bos)) {
+            out.writeObject(session);
+        }
+        session.unlock();
+
+        VaadinSession deserializedSession;
+        try (ObjectInputStream in = new ObjectInputStream(
+                new ByteArrayInputStream(bos.toByteArray()))) {
+            deserializedSession = (VaadinSession) in.readObject();
+        }
+        deserializedSession.refreshTransients(mockWrappedSession, mockService);
+        deserializedSession.lock();
+        try {
+            UI restoredUI = deserializedSession.getUIById(uiId);
+            Assert.assertSame(deserializedSession, restoredUI.getSession());
+            Assert.assertEquals("passivated",
+                    restoredUI.getElement().getAttribute("title"));
+        } finally {
+            deserializedSession.unlock();
+        }
+    }
+
     @Test
     public void setLocale_setLocaleForAllUIs() {
         UI anotherUI = new UI();
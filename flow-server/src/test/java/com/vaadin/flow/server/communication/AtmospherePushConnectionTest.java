@@ -17,6 +17,7 @@ package com.vaadin.flow.server.communication;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 
@@ -29,6 +30,8 @@ import com.vaadin.flow.component.UI;
 import com.vaadin.flow.server.communication.AtmospherePushConnection;
 import com.vaadin.flow.server.communication.AtmospherePushConnection.State;
 
+import elemental.json.Json;
+
 /**
  * @author Vaadin Ltd
  * @since 1.0
@@ -55,4 +58,24 @@ public class AtmospherePushConnectionTest {
 
         Assert.assertEquals(State.DISCONNECTED, connection.getState());
     }
+
+    @Test
+    public void encodeMessage_previousEncodingFailed_partialMessageDiscarded()
+            throws Exception {
+        UI ui = EasyMock.createNiceMock(UI.class);
+        AtmospherePushConnection connection = new AtmospherePushConnection(ui);
+
+        try {
+            connection.encodeMessage(out -> {
+                out.append("{\"partial\":");
+                throw new IOException("Expected");
+            });
+            Assert.fail();
+        } catch (IOException expected) {
+            // Expected
+        }
+
+        Assert.assertEquals("for(;;);[{}]",
+                connection.encodeMessage(Json.createObject()));
+    }
 }
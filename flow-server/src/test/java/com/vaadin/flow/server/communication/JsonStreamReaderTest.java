@@ -0,0 +1,101 @@
+/*
+ * Copyright 2000-2018 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.communication;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import elemental.json.JsonException;
+import elemental.json.JsonValue;
+import elemental.json.impl.JsonUtil;
+
+public class JsonStreamReaderTest {
+
+    private static final String JSON = " {\"string\":\"a\\\"b\\\\c\\n\\u00e4\","
+            + "\"numbers\":[1, -2.5, 3e2],\"literals\":[true,false,null],"
+            + "\"nested\":{\"empty\":{},\"array\":[[]]}} ";
+
+    @Test
+    public void readValue_sameAsParsedJson() throws IOException {
+        JsonValue value = new JsonStreamReader(new StringReader(JSON), 0)
+                .readValue();
+
+        Assert.assertEquals(JsonUtil.parse(JSON).toJson(), value.toJson());
+    }
+
+    @Test
+    public void nextName_readsMembersIncrementally() throws IOException {
+        JsonStreamReader reader = new JsonStreamReader(new StringReader(JSON),
+                0);
+
+        reader.beginObject();
+        Assert.assertEquals("string", reader.nextName());
+        Assert.assertEquals("a\"b\\c\nä", reader.readValue().asString());
+        Assert.assertEquals("numbers", reader.nextName());
+        Assert.assertEquals("[1, -2.5, 3e2]", reader.readRawValue());
+        Assert.assertEquals("literals", reader.nextName());
+        reader.readValue();
+        Assert.assertEquals("nested", reader.nextName());
+        reader.readValue();
+        Assert.assertNull(reader.nextName());
+    }
+
+    @Test
+    public void isEmpty_whitespaceOnly() throws IOException {
+        Assert.assertTrue(new JsonStreamReader(new StringReader(""), 0)
+                .isEmpty());
+        Assert.assertTrue(new JsonStreamReader(new StringReader(" \n"), 0)
+                .isEmpty());
+        Assert.assertFalse(new JsonStreamReader(new StringReader(JSON), 0)
+                .isEmpty());
+    }
+
+    @Test(expected = JsonException.class)
+    public void beginObject_array_throws() throws IOException {
+        new JsonStreamReader(new StringReader("[]"), 0).beginObject();
+    }
+
+    @Test
+    public void fillPrefix_readsUntilPrefixLength() throws IOException {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 10000; i++) {
+            json.append('"').append(i).append("\",");
+        }
+        json.append("0]");
+
+        JsonStreamReader reader = new JsonStreamReader(
+                new StringReader(json.toString()), 20000);
+        Assert.assertTrue(reader.getPrefix().isEmpty());
+
+        reader.fillPrefix();
+        Assert.assertEquals(json.substring(0, 20000), reader.getPrefix());
+
+        reader = new JsonStreamReader(new StringReader(json.toString()),
+                json.length() * 2);
+        reader.readValue();
+        reader.fillPrefix();
+        Assert.assertEquals(json.toString(), reader.getPrefix());
+    }
+
+    @Test(expected = JsonException.class)
+    public void readValue_unterminatedString_throws() throws IOException {
+        new JsonStreamReader(new StringReader("{\"foo\":\"bar"), 0)
+                .readValue();
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2000-2018 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.communication;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.vaadin.flow.function.DeploymentConfiguration;
+import com.vaadin.flow.server.VaadinRequest;
+import com.vaadin.flow.server.VaadinService;
+import com.vaadin.flow.server.communication.ServerRpcHandler.RpcRequest;
+
+import elemental.json.JsonArray;
+
+public class ServerRpcHandlerTest {
+
+    private VaadinRequest request;
+
+    @Before
+    public void setUp() {
+        DeploymentConfiguration configuration = Mockito
+                .mock(DeploymentConfiguration.class);
+        Mockito.when(configuration.isSyncIdCheckEnabled()).thenReturn(true);
+        VaadinService service = Mockito.mock(VaadinService.class);
+        Mockito.when(service.getDeploymentConfiguration())
+                .thenReturn(configuration);
+        request = Mockito.mock(VaadinRequest.class);
+        Mockito.when(request.getService()).thenReturn(service);
+    }
+
+    @Test
+    public void readRpcRequest_invocationsLast_readOnDemand()
+            throws IOException {
+        String json = "{\"csrfToken\":\"token\",\"syncId\":3,\"clientId\":4,"
+                + "\"rpc\":[{\"type\":\"event\"}]}";
+        StringReader reader = new StringReader(json);
+
+        RpcRequest rpcRequest = RpcRequest
+                .read(new JsonStreamReader(reader, 0), request);
+
+        Assert.assertEquals("token", rpcRequest.getCsrfToken());
+        Assert.assertEquals(3, rpcRequest.getSyncId());
+        Assert.assertEquals(4, rpcRequest.getClientToServerId());
+        Assert.assertFalse(rpcRequest.isResynchronize());
+
+        JsonArray invocations = rpcRequest.getRpcInvocationsData();
+        Assert.assertEquals(1, invocations.length());
+        Assert.assertEquals("event",
+                invocations.getObject(0).getString("type"));
+        Assert.assertSame(invocations, rpcRequest.getRawJson().get("rpc"));
+    }
+
+    @Test
+    public void readRpcRequest_invocationsFirst_sameAsParsedRequest()
+            throws IOException {
+        String json = "{\"rpc\":[{\"type\":\"event\"}],\"syncId\":3,"
+                + "\"clientId\":4,\"resynchronize\":true}";
+
+        RpcRequest rpcRequest = RpcRequest.read(
+                new JsonStreamReader(new StringReader(json), 0), request);
+        RpcRequest parsedRequest = new RpcRequest(json, request);
+
+        Assert.assertEquals(parsedRequest.getCsrfToken(),
+                rpcRequest.getCsrfToken());
+        Assert.assertEquals(3, rpcRequest.getSyncId());
+        Assert.assertEquals(4, rpcRequest.getClientToServerId());
+        Assert.assertTrue(rpcRequest.isResynchronize());
+        Assert.assertEquals(parsedRequest.getRpcInvocationsData().toJson(),
+                rpcRequest.getRpcInvocationsData().toJson());
+    }
+
+    @Test
+    public void isGetMessageOverridden() {
+        Assert.assertFalse(ServerRpcHandler
+                .isGetMessageOverridden(ServerRpcHandler.class));
+        Assert.assertFalse(ServerRpcHandler.isGetMessageOverridden(
+                new ServerRpcHandler() {
+                }.getClass()));
+        Assert.assertTrue(ServerRpcHandler.isGetMessageOverridden(
+                new ServerRpcHandler() {
+                    @Override
+                    protected String getMessage(Reader reader)
+                            throws IOException {
+                        return super.getMessage(reader);
+                    }
+                }.getClass()));
+    }
+}
@@ -49,6 +49,7 @@ import com.vaadin.flow.server.MockServletServiceSessionSetup;
 import com.vaadin.flow.server.VaadinServletRequest;
 import com.vaadin.flow.server.VaadinSession;
 import com.vaadin.flow.shared.ApplicationConstants;
+import com.vaadin.flow.shared.JsonConstants;
 import com.vaadin.flow.shared.ui.Dependency;
 import com.vaadin.flow.shared.ui.LoadMode;
 
@@ -421,6 +422,50 @@ public class UidlWriterTest {
                 containsInAnyOrder(Dependency.Type.values()));
     }
 
+    @Test
+    public void writeUidl_propertyChanges_writtenAsChanges() throws Exception {
+        UI ui = initializeUIForDependenciesTest(new TestUI());
+        UidlWriter uidlWriter = new UidlWriter();
+        addInitialComponentDependencies(ui, uidlWriter);
+
+        List<Element> elements = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Element element = ElementFactory.createDiv();
+            element.setProperty("index", i);
+            element.setProperty("label", "Item \"" + i + "\"");
+            element.setProperty("selected", i % 2 == 0);
+            element.setProperty("ratio", i / 4.0);
+            ui.getElement().appendChild(element);
+            elements.add(element);
+        }
+
+        StringBuilder out = new StringBuilder();
+        uidlWriter.writeUidl(ui, false, out);
+        JsonObject response = Json.parse(out.toString());
+
+        assertTrue(response.hasKey(ApplicationConstants.SERVER_SYNC_ID));
+        JsonArray changes = response.getArray("changes");
+        assertNotNull(changes);
+
+        Element element = elements.get(42);
+        Map<String, JsonValue> values = JsonUtils
+                .objectStream(changes)
+                .filter(change -> (int) change.getNumber(
+                        JsonConstants.CHANGE_NODE) == element.getNode()
+                                .getId())
+                .filter(change -> change.hasKey(JsonConstants.CHANGE_PUT_VALUE))
+                .collect(Collectors.toMap(
+                        change -> change
+                                .getString(JsonConstants.CHANGE_MAP_KEY),
+                        change -> change
+                                .get(JsonConstants.CHANGE_PUT_VALUE)));
+
+        assertEquals(42, values.get("index").asNumber(), 0);
+        assertEquals("Item \"42\"", values.get("label").asString());
+        assertTrue(values.get("selected").asBoolean());
+        assertEquals(10.5, values.get("ratio").asNumber(), 0);
+    }
+
     private UI initializeUIForDependenciesTest(UI ui) throws Exception {
         mocks = new MockServletServiceSessionSetup();
 
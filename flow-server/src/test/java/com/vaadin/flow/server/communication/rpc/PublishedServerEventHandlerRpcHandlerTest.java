@@ -286,6 +286,19 @@ public class PublishedServerEventHandlerRpcHandlerTest {
                 component.getClass(), "intMethod", Json.createArray());
     }
 
+    @Test
+    public void twoEventHandlerMethodsWithTheSameName_superClassMethodInvokedRepeatedly() {
+        ComponentWithTwoEventHandlerMethodSameName component = new ComponentWithTwoEventHandlerMethodSameName();
+        PublishedServerEventHandlerRpcHandler.invokeMethod(component,
+                component.getClass(), "method", Json.createArray());
+        Assert.assertTrue(component.isInvoked);
+
+        component.isInvoked = false;
+        PublishedServerEventHandlerRpcHandler.invokeMethod(component,
+                component.getClass(), "method", Json.createArray());
+        Assert.assertTrue(component.isInvoked);
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void methodWithParametersInvokedWithoutParameters() {
         MethodWithParameters component = new MethodWithParameters();
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2000-2018 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server.startup;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import javax.servlet.ServletContext;
+import javax.servlet.ServletContextListener;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import com.vaadin.flow.component.polymertemplate.PolymerTemplate;
+import com.vaadin.flow.templatemodel.TemplateModel;
+
+public class TemplateModelInitializerTest {
+
+    public interface TestModel extends TemplateModel {
+        void setName(String name);
+    }
+
+    public interface OtherModel extends TemplateModel {
+        void setValue(int value);
+    }
+
+    public interface InvalidModel extends TemplateModel {
+        void setBean(Object bean);
+    }
+
+    public static class TestTemplate extends PolymerTemplate<TestModel> {
+    }
+
+    public static class TestTemplateSubclass extends TestTemplate {
+    }
+
+    public static class OtherTemplate extends PolymerTemplate<OtherModel> {
+    }
+
+    public static class GenericTemplate<M extends TemplateModel>
+            extends PolymerTemplate<M> {
+    }
+
+    @Test
+    public void getModelTypes_distinctModelTypes() {
+        List<Class<? extends TemplateModel>> modelTypes = TemplateModelInitializer
+                .getModelTypes(Arrays.asList(TestTemplate.class,
+                        TestTemplateSubclass.class, OtherTemplate.class));
+
+        Assert.assertEquals(Arrays.asList(TestModel.class, OtherModel.class),
+                modelTypes);
+    }
+
+    @Test
+    public void getModelTypes_genericTemplate_ignored() {
+        Assert.assertEquals(Collections.emptyList(),
+                TemplateModelInitializer.getModelTypes(
+                        Collections.singletonList(GenericTemplate.class)));
+    }
+
+    @Test
+    public void generateProxyTypes_invalidModel_noException() {
+        TemplateModelInitializer.generateProxyTypes(InvalidModel.class);
+    }
+
+    @Test
+    public void onStartup_noClasses_noException() throws Exception {
+        new TemplateModelInitializer().onStartup(null, null);
+        new TemplateModelInitializer().onStartup(Collections.emptySet(), null);
+    }
+
+    @Test
+    public void onStartup_templates_generationStoppedWhenContextDestroyed()
+            throws Exception {
+        ServletContext context = Mockito.mock(ServletContext.class);
+        new TemplateModelInitializer().onStartup(
+                new HashSet<>(Arrays.asList(TestTemplate.class,
+                        OtherTemplate.class)),
+                context);
+
+        ArgumentCaptor<ServletContextListener> listener = ArgumentCaptor
+                .forClass(ServletContextListener.class);
+        Mockito.verify(context).addListener(listener.capture());
+        listener.getValue().contextDestroyed(null);
+    }
+}
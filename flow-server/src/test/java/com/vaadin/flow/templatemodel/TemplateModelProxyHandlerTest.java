@@ -1,5 +1,7 @@
 package com.vaadin.flow.templatemodel;
 
+import java.util.List;
+
 import org.junit.Assert;
 import org.junit.Test;
 import org.mockito.Mockito;
@@ -162,4 +164,50 @@ public class TemplateModelProxyHandlerTest extends HasCurrentService {
     public void beanHasNoProperties_throwsException() {
         new BeanModelType<>(Model.class, PropertyFilter.ACCEPT_ALL, false);
     }
+
+    public static class NestedBean {
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    public static class ListedBean {
+        private NestedBean nested;
+
+        public NestedBean getNested() {
+            return nested;
+        }
+
+        public void setNested(NestedBean nested) {
+            this.nested = nested;
+        }
+    }
+
+    public interface PregeneratedModel extends TemplateModel {
+        void setBean(NestedBean bean);
+
+        void setBeans(List<ListedBean> beans);
+    }
+
+    @Test
+    public void generateProxyTypes_proxiesGeneratedForModelAndBeans() {
+        Assert.assertFalse(TemplateModelProxyHandler
+                .isProxyTypeGenerated(PregeneratedModel.class));
+
+        TemplateModelProxyHandler.generateProxyTypes(
+                ModelDescriptor.get(PregeneratedModel.class));
+
+        Assert.assertTrue(TemplateModelProxyHandler
+                .isProxyTypeGenerated(PregeneratedModel.class));
+        Assert.assertTrue(TemplateModelProxyHandler
+                .isProxyTypeGenerated(NestedBean.class));
+        Assert.assertTrue(TemplateModelProxyHandler
+                .isProxyTypeGenerated(ListedBean.class));
+    }
 }
@@ -74,6 +74,7 @@ public abstract class ClassesSerializableTest {
                 "com\\.vaadin\\..*Util(s)?(\\$\\w+)?$", //Various utils with inner classes
 
                 "com\\.vaadin\\.flow\\.data\\.provider\\.InMemoryDataProviderHelpers",
+                "com\\.vaadin\\.flow\\.data\\.binder\\.BeanPropertyAccessors",
                 "com\\.vaadin\\.flow\\.dom\\.ElementConstants",
                 "com\\.vaadin\\.flow\\.component\\.board\\.internal\\.FunctionCaller",
                 "com\\.vaadin\\.flow\\.component\\.grid\\.ColumnGroupHelpers",
@@ -116,6 +117,8 @@ public abstract class ClassesSerializableTest {
                 "com\\.vaadin\\.flow\\.server\\.startup\\.ErrorNavigationTargetInitializer",
                 "com\\.vaadin\\.flow\\.server\\.startup\\.ServletVerifier",
                 "com\\.vaadin\\.flow\\.server\\.startup\\.RouteRegistryInitializer",
+                "com\\.vaadin\\.flow\\.server\\.startup\\.TemplateModelInitializer",
+                "com\\.vaadin\\.flow\\.server\\.startup\\.TemplateModelInitializer\\$GenerationStopper",
                 "com\\.vaadin\\.flow\\.server\\.VaadinResponse",
                 "com\\.vaadin\\.flow\\.component\\.Key",
                 "com\\.vaadin\\.flow\\.server\\.VaadinRequest",
@@ -128,6 +131,11 @@ public abstract class ClassesSerializableTest {
                 "com\\.vaadin\\.flow\\.dom\\.impl\\.ThemeListImpl\\$ThemeListIterator",
                 "com\\.vaadin\\.flow\\.templatemodel\\.PropertyMapBuilder(\\$.*)?",
                 "com\\.vaadin\\.flow\\.internal\\.ReflectionCache",
+                "com\\.vaadin\\.flow\\.internal\\.ConstantPoolRegistry(\\$.*)?",
+                "com\\.vaadin\\.flow\\.server\\.SessionMemoryMonitor(MBean)?",
+                "com\\.vaadin\\.flow\\.server\\.PassivatedUI\\$(BufferInputStream|\\d+)",
+                "com\\.vaadin\\.flow\\.server\\.communication\\.JsonStreamReader",
+                "com\\.vaadin\\.flow\\.server\\.communication\\.rpc\\.PublishedServerEventHandlerRpcHandler\\$HandlerMethod",
                 "com\\.vaadin\\.flow\\.component\\.internal\\.ComponentMetaData(\\$.*)?",
                 "com\\.vaadin\\.flow\\.component\\.polymertemplate\\.TemplateDataAnalyzer",
                 "com\\.vaadin\\.flow\\.dom\\.ElementFactory",